@@ -0,0 +1,46 @@
+package com.project.SaasCRM.archive;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes archived rows as gzip-compressed JSON. Unknown properties are ignored on read so rows
+ * archived under an older DTO shape stay readable.
+ */
+final class ArchiveCodec {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private ArchiveCodec() {
+    }
+
+    static byte[] encode(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            OBJECT_MAPPER.writeValue(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode archived record", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static <T> T decode(byte[] payload, Class<T> type) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return OBJECT_MAPPER.readValue(in, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode archived record", e);
+        }
+    }
+}
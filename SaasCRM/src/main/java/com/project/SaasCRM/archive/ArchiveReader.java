@@ -0,0 +1,111 @@
+package com.project.SaasCRM.archive;
+
+import com.project.SaasCRM.domain.ArchiveSource;
+import com.project.SaasCRM.domain.dto.EmailCommunicationDTO;
+import com.project.SaasCRM.domain.dto.InteractionDTO;
+import com.project.SaasCRM.domain.entity.ArchivedRecord;
+import com.project.SaasCRM.repository.ArchivedDailyCountRepository;
+import com.project.SaasCRM.repository.ArchivedRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read tier over {@code archived_records} and {@code archived_daily_counts}.
+ *
+ * <p>Archived rows are located through the archive table's own indexes and decompressed one by one,
+ * so reads are slower than on the hot tables but never touch them. Counts of archived rows are kept
+ * per day, so statistics over archived history are day-granular.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ArchiveReader {
+
+    private final ArchivedRecordRepository archivedRecordRepository;
+    private final ArchivedDailyCountRepository archivedDailyCountRepository;
+
+    public Optional<InteractionDTO> findInteraction(Long interactionId) {
+        return archivedRecordRepository.findBySourceAndRecordId(ArchiveSource.INTERACTION, interactionId)
+                .map(record -> ArchiveCodec.decode(record.getPayload(), InteractionDTO.class));
+    }
+
+    public Page<InteractionDTO> findInteractionsByCustomer(Long customerId, Pageable pageable) {
+        return archivedRecordRepository.findByCustomer(ArchiveSource.INTERACTION, customerId, pageable)
+                .map(record -> ArchiveCodec.decode(record.getPayload(), InteractionDTO.class));
+    }
+
+    public Optional<EmailCommunicationDTO> findEmail(Long emailId) {
+        return archivedRecordRepository.findBySourceAndRecordId(ArchiveSource.EMAIL_COMMUNICATION, emailId)
+                .map(record -> ArchiveCodec.decode(record.getPayload(), EmailCommunicationDTO.class));
+    }
+
+    public List<EmailCommunicationDTO> findEmailsByCustomer(Long customerId) {
+        return decodeAll(archivedRecordRepository.findByCustomer(ArchiveSource.EMAIL_COMMUNICATION, customerId,
+                Pageable.unpaged()).getContent(), EmailCommunicationDTO.class);
+    }
+
+    /**
+     * Returns up to {@code limit} archived interactions of a customer created before the given
+     * position, newest first.
+     */
+    public List<InteractionDTO> findInteractionTimeline(Long customerId, LocalDateTime before, long beforeId,
+                                                        int limit) {
+        return decodeAll(archivedRecordRepository.findTimelineRecords(ArchiveSource.INTERACTION, customerId,
+                before, beforeId, PageRequest.of(0, limit)), InteractionDTO.class);
+    }
+
+    /**
+     * Returns up to {@code limit} archived emails of a customer created before the given position,
+     * newest first.
+     */
+    public List<EmailCommunicationDTO> findEmailTimeline(Long customerId, LocalDateTime before, long beforeId,
+                                                         int limit) {
+        return decodeAll(archivedRecordRepository.findTimelineRecords(ArchiveSource.EMAIL_COMMUNICATION, customerId,
+                before, beforeId, PageRequest.of(0, limit)), EmailCommunicationDTO.class);
+    }
+
+    /**
+     * Sums the archived counts of {@code source} per metric over {@code [fromDay, toDay]}, or over
+     * all days when either bound is {@code null}.
+     */
+    public Map<String, Long> countsByMetric(ArchiveSource source, LocalDate fromDay, LocalDate toDay) {
+        List<Object[]> rows = fromDay == null || toDay == null
+                ? archivedDailyCountRepository.sumAllByMetric(source)
+                : archivedDailyCountRepository.sumByMetric(source, fromDay, toDay);
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the archived counts of {@code source} over {@code [fromDay, toDay]} per day and metric.
+     */
+    public Map<LocalDate, Map<String, Long>> countsByDay(ArchiveSource source, LocalDate fromDay, LocalDate toDay) {
+        Map<LocalDate, Map<String, Long>> counts = new HashMap<>();
+        for (Object[] row : archivedDailyCountRepository.findByDay(source, fromDay, toDay)) {
+            counts.computeIfAbsent((LocalDate) row[0], day -> new HashMap<>())
+                    .put((String) row[1], (Long) row[2]);
+        }
+        return counts;
+    }
+
+    private static <T> List<T> decodeAll(List<ArchivedRecord> records, Class<T> type) {
+        List<T> decoded = new ArrayList<>(records.size());
+        for (ArchivedRecord record : records) {
+            decoded.add(ArchiveCodec.decode(record.getPayload(), type));
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,271 @@
+package com.project.SaasCRM.archive;
+
+import com.project.SaasCRM.domain.ArchiveSource;
+import com.project.SaasCRM.domain.SendStatus;
+import com.project.SaasCRM.domain.dto.EmailCommunicationDTO;
+import com.project.SaasCRM.domain.dto.InteractionDTO;
+import com.project.SaasCRM.domain.entity.EmailEvent;
+import com.project.SaasCRM.email.EmailStatsRollupBackfill;
+import com.project.SaasCRM.interaction.InteractionRollupBackfill;
+import com.project.SaasCRM.mapper.EmailCommunicationMapper;
+import com.project.SaasCRM.mapper.InteractionMapper;
+import com.project.SaasCRM.repository.EmailCommunicationRepository;
+import com.project.SaasCRM.repository.EmailEventRepository;
+import com.project.SaasCRM.repository.InteractionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves interactions, email communications and email events older than their retention into
+ * {@code archived_records}, so the hot tables and their indexes only hold the working set.
+ *
+ * <p>Rows are moved oldest first in batches; each batch inserts the gzip-compressed JSON of its rows,
+ * adds their per-day counts to {@code archived_daily_counts} and deletes them from the hot table in
+ * one transaction, so an interrupted run simply continues on the next one. The interaction daily
+ * rollup is left untouched. Only emails that were sent or failed are archived.</p>
+ */
+@Component
+@Slf4j
+public class ColdStorageArchiver {
+
+    public static final String METRIC_SENT = "SENT";
+    public static final String METRIC_OPENED = "OPENED";
+    public static final String METRIC_CLICKED = "CLICKED";
+    public static final String STATUS_METRIC_PREFIX = "STATUS:";
+
+    private static final String INSERT_RECORD_SQL = "INSERT INTO archived_records "
+            + "(source, record_id, customer_id, created_at, archived_at, payload) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String ADD_COUNT_SQL = "INSERT INTO archived_daily_counts (source, day, metric, record_count) "
+            + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE record_count = record_count + VALUES(record_count)";
+    private static final Set<SendStatus> ARCHIVABLE_EMAIL_STATUSES = EnumSet.of(SendStatus.SENT, SendStatus.FAILED);
+
+    private final InteractionRepository interactionRepository;
+    private final EmailCommunicationRepository emailCommunicationRepository;
+    private final EmailEventRepository emailEventRepository;
+    private final InteractionMapper interactionMapper;
+    private final EmailCommunicationMapper emailCommunicationMapper;
+    private final InteractionRollupBackfill interactionRollupBackfill;
+    private final EmailStatsRollupBackfill emailStatsRollupBackfill;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor backgroundJobs;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.archive.interactions.retention-days:730}")
+    private int interactionRetentionDays;
+
+    @Value("${app.archive.email-communications.retention-days:730}")
+    private int emailRetentionDays;
+
+    @Value("${app.archive.email-events.retention-days:180}")
+    private int emailEventRetentionDays;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    public ColdStorageArchiver(InteractionRepository interactionRepository,
+                               EmailCommunicationRepository emailCommunicationRepository,
+                               EmailEventRepository emailEventRepository,
+                               InteractionMapper interactionMapper,
+                               EmailCommunicationMapper emailCommunicationMapper,
+                               InteractionRollupBackfill interactionRollupBackfill,
+                               EmailStatsRollupBackfill emailStatsRollupBackfill,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Qualifier("backgroundJobExecutor") TaskExecutor backgroundJobs) {
+        this.interactionRepository = interactionRepository;
+        this.emailCommunicationRepository = emailCommunicationRepository;
+        this.emailEventRepository = emailEventRepository;
+        this.interactionMapper = interactionMapper;
+        this.emailCommunicationMapper = emailCommunicationMapper;
+        this.interactionRollupBackfill = interactionRollupBackfill;
+        this.emailStatsRollupBackfill = emailStatsRollupBackfill;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backgroundJobs = backgroundJobs;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Starts an archival run on a background thread unless one is already in progress.
+     *
+     * @return {@code true} if a new run was started
+     */
+    public boolean triggerAsync() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            backgroundJobs.execute(this::runClaimed);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            log.warn("No background thread free for the archival run");
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 0 4 * * *}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Archival already running, skipping");
+            return;
+        }
+        runClaimed();
+    }
+
+    /**
+     * Runs archival for which {@code running} is already set, and clears it.
+     */
+    private void runClaimed() {
+        try {
+            long started = System.currentTimeMillis();
+            // The rollup rebuilds only recompute days after the newest archived record, so they must not
+            // overlap with archival.
+            long interactions = interactionRollupBackfill.isPending() ? 0
+                    : archive(ArchiveSource.INTERACTION, interactionRetentionDays);
+            long emails = archive(ArchiveSource.EMAIL_COMMUNICATION, emailRetentionDays);
+            long events = emailStatsRollupBackfill.isPending() ? 0
+                    : archive(ArchiveSource.EMAIL_EVENT, emailEventRetentionDays);
+            log.info("Archived {} interactions, {} emails and {} email events in {} ms",
+                    interactions, emails, events, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Archival failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long archive(ArchiveSource source, int retentionDays) {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+        long total = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(source, cutoff));
+            total += moved != null ? moved : 0;
+            if (moved == null || moved < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int archiveBatch(ArchiveSource source, LocalDateTime cutoff) {
+        PageRequest page = PageRequest.of(0, batchSize);
+        Batch batch = new Batch(source);
+        switch (source) {
+            case INTERACTION -> {
+                List<Long> ids = interactionRepository.findIdsCreatedBefore(cutoff, page);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                for (InteractionDTO interaction : interactionMapper.toDtoList(interactionRepository.findAllById(ids))) {
+                    batch.add(interaction.getId(), interaction.getCustomerId(), interaction.getCreatedAt(), interaction);
+                    batch.count(interaction.getCreatedAt().toLocalDate(), interaction.getType().name());
+                }
+                batch.write();
+                interactionRepository.deleteAllByIdIn(ids);
+                return ids.size();
+            }
+            case EMAIL_COMMUNICATION -> {
+                List<Long> ids = emailCommunicationRepository.findIdsCreatedBefore(cutoff,
+                        ARCHIVABLE_EMAIL_STATUSES, page);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                for (EmailCommunicationDTO email
+                        : emailCommunicationMapper.toDtoList(emailCommunicationRepository.findAllById(ids))) {
+                    batch.add(email.getId(), email.getCustomerId(), email.getCreatedAt(), email);
+                    // Email statistics are bucketed by send time, so the counts follow it.
+                    LocalDate day = (email.getSentAt() != null ? email.getSentAt() : email.getCreatedAt()).toLocalDate();
+                    batch.count(day, STATUS_METRIC_PREFIX + email.getSendStatus().name());
+                    if (email.getSentAt() != null) {
+                        batch.count(day, METRIC_SENT);
+                        if (Boolean.TRUE.equals(email.getIsOpened())) {
+                            batch.count(day, METRIC_OPENED);
+                        }
+                        if (email.getClickCount() != null && email.getClickCount() > 0) {
+                            batch.count(day, METRIC_CLICKED);
+                        }
+                    }
+                }
+                batch.write();
+                emailCommunicationRepository.deleteAllByIdIn(ids);
+                return ids.size();
+            }
+            case EMAIL_EVENT -> {
+                List<Long> ids = emailEventRepository.findIdsCreatedBefore(cutoff, page);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                for (EmailEvent event : emailEventRepository.findAllById(ids)) {
+                    batch.add(event.getId(), null, event.getCreatedAt(), event);
+                    batch.count(event.getCreatedAt().toLocalDate(), event.getEventType().name());
+                }
+                batch.write();
+                emailEventRepository.deleteAllByIdIn(ids);
+                return ids.size();
+            }
+            default -> throw new IllegalStateException("Unknown archive source: " + source);
+        }
+    }
+
+    /**
+     * Collects the archive rows and daily counts of one batch.
+     */
+    private final class Batch {
+        private final ArchiveSource source;
+        private final Timestamp archivedAt = Timestamp.valueOf(LocalDateTime.now());
+        private final List<Object[]> records = new ArrayList<>();
+        private final Map<DailyMetric, Long> counts = new HashMap<>();
+
+        private Batch(ArchiveSource source) {
+            this.source = source;
+        }
+
+        void add(Long recordId, Long customerId, LocalDateTime createdAt, Object row) {
+            records.add(new Object[]{source.name(), recordId, customerId, Timestamp.valueOf(createdAt), archivedAt,
+                    ArchiveCodec.encode(row)});
+        }
+
+        void count(LocalDate day, String metric) {
+            counts.merge(new DailyMetric(day, metric), 1L, Long::sum);
+        }
+
+        void write() {
+            jdbcTemplate.batchUpdate(INSERT_RECORD_SQL, records);
+            List<Object[]> rows = new ArrayList<>(counts.size());
+            counts.forEach((key, count) -> rows.add(new Object[]{source.name(), Date.valueOf(key.day()), key.metric(), count}));
+            jdbcTemplate.batchUpdate(ADD_COUNT_SQL, rows);
+        }
+    }
+
+    private record DailyMetric(LocalDate day, String metric) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.project.SaasCRM.assignment;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary min-heap of user ids ordered by load, with a position index so that a user's load can be
+ * changed or removed in O(log n). Equal loads are ordered by user id, which makes picks
+ * deterministic.
+ *
+ * <p>Not thread-safe; callers guard concurrent access.</p>
+ */
+public final class IndexedLoadHeap {
+
+    private long[] userIds = new long[16];
+    private double[] loads = new double[16];
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private int size;
+
+    /**
+     * Inserts {@code userId} or moves it to its place for the new {@code load}.
+     */
+    public void update(long userId, double load) {
+        Integer position = positions.get(userId);
+        if (position == null) {
+            ensureCapacity(size + 1);
+            userIds[size] = userId;
+            loads[size] = load;
+            positions.put(userId, size);
+            siftUp(size++);
+            return;
+        }
+        double previous = loads[position];
+        loads[position] = load;
+        if (load < previous) {
+            siftUp(position);
+        } else {
+            siftDown(position);
+        }
+    }
+
+    public void remove(long userId) {
+        Integer position = positions.remove(userId);
+        if (position == null) {
+            return;
+        }
+        int last = --size;
+        if (position == last) {
+            return;
+        }
+        long moved = userIds[last];
+        move(last, position);
+        siftUp(position);
+        siftDown(positions.get(moved));
+    }
+
+    /**
+     * Returns the least-loaded user id, or {@code null} when the heap is empty.
+     */
+    public Long peek() {
+        return size == 0 ? null : userIds[0];
+    }
+
+    public boolean contains(long userId) {
+        return positions.containsKey(userId);
+    }
+
+    public double loadOf(long userId) {
+        Integer position = positions.get(userId);
+        return position != null ? loads[position] : Double.NaN;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(index, parent)) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && less(left + 1, left) ? left + 1 : left;
+            if (!less(smallest, index)) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private boolean less(int a, int b) {
+        int byLoad = Double.compare(loads[a], loads[b]);
+        return byLoad != 0 ? byLoad < 0 : userIds[a] < userIds[b];
+    }
+
+    private void swap(int a, int b) {
+        long userId = userIds[a];
+        double load = loads[a];
+        userIds[a] = userIds[b];
+        loads[a] = loads[b];
+        userIds[b] = userId;
+        loads[b] = load;
+        positions.put(userIds[a], a);
+        positions.put(userIds[b], b);
+    }
+
+    private void move(int from, int to) {
+        userIds[to] = userIds[from];
+        loads[to] = loads[from];
+        positions.put(userIds[to], to);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > userIds.length) {
+            int length = Math.max(capacity, userIds.length * 2);
+            userIds = Arrays.copyOf(userIds, length);
+            loads = Arrays.copyOf(loads, length);
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.project.SaasCRM.assignment;
+
+import com.project.SaasCRM.domain.CustomerStatus;
+import com.project.SaasCRM.domain.DealStage;
+import com.project.SaasCRM.domain.event.CustomerChangedEvent;
+import com.project.SaasCRM.domain.event.DealChangedEvent;
+import com.project.SaasCRM.domain.event.TaskChangedEvent;
+import com.project.SaasCRM.domain.event.TaskSnapshot;
+import com.project.SaasCRM.repository.CustomerRepository;
+import com.project.SaasCRM.repository.DealRepository;
+import com.project.SaasCRM.repository.TaskRepository;
+import com.project.SaasCRM.repository.UserRepository;
+import com.project.SaasCRM.task.TaskStatisticsCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Picks the least-loaded active user for new work without touching the database.
+ *
+ * <p>Each active user's load is a weighted sum of their open tasks, active assigned customers and
+ * open assigned deal value. Users sit in an {@link IndexedLoadHeap} over everyone plus one heap per
+ * role, so a pick is a heap peek and a counter change re-sorts one user in O(log n). Task counters
+ * move with the before/after snapshots on {@link TaskChangedEvent}; customer and deal events mark the
+ * row dirty and a short refresh re-reads only those rows, replacing their previous contribution. A
+ * periodic reconcile rebuilds everything, which also picks up new users and role changes.</p>
+ *
+ * <p>A pick reserves the weight of the work it hands out on the chosen user straight away, so
+ * concurrent picks spread out instead of all landing on the same user before the first assignment
+ * commits. The reservation is released by the event or refresh that counts the committed assignment,
+ * and a reconcile drops reservations whose transaction never committed. Task events arriving while a
+ * reconcile rebuilds are replayed onto the new state before it is swapped in.</p>
+ */
+@Component
+@Slf4j
+public class WorkloadAssignmentEngine {
+
+    private static final int IN_CHUNK_SIZE = 1000;
+    private static final Set<CustomerStatus> INACTIVE_CUSTOMER_STATUSES =
+            EnumSet.of(CustomerStatus.INACTIVE, CustomerStatus.CHURNED);
+    private static final Set<DealStage> CLOSED_DEAL_STAGES = EnumSet.of(DealStage.CLOSED_WON, DealStage.CLOSED_LOST);
+
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final CustomerRepository customerRepository;
+    private final DealRepository dealRepository;
+    private final double openTaskWeight;
+    private final double activeCustomerWeight;
+    private final double openDealValueWeight;
+
+    private final Object refreshLock = new Object();
+    private final Set<Long> dirtyCustomerIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyDealIds = ConcurrentHashMap.newKeySet();
+    // Task events seen during a reconcile, guarded by its own monitor; null when not rebuilding
+    private final Object taskEventLock = new Object();
+    private List<TaskChangedEvent> rebuildTaskEvents;
+    private volatile State state;
+
+    @Value("${app.assignment.auto-assign-new-tasks:false}")
+    private boolean autoAssignNewTasks;
+
+    @Value("${app.assignment.auto-assign-new-customers:false}")
+    private boolean autoAssignNewCustomers;
+
+    public WorkloadAssignmentEngine(UserRepository userRepository,
+                                    TaskRepository taskRepository,
+                                    CustomerRepository customerRepository,
+                                    DealRepository dealRepository,
+                                    @Value("${app.assignment.weights.open-task:1.0}") double openTaskWeight,
+                                    @Value("${app.assignment.weights.active-customer:2.0}") double activeCustomerWeight,
+                                    @Value("${app.assignment.weights.open-deal-value:0.0001}") double openDealValueWeight) {
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.customerRepository = customerRepository;
+        this.dealRepository = dealRepository;
+        this.openTaskWeight = openTaskWeight;
+        this.activeCustomerWeight = activeCustomerWeight;
+        this.openDealValueWeight = openDealValueWeight;
+    }
+
+    public boolean isAutoAssignNewTasks() {
+        return autoAssignNewTasks;
+    }
+
+    public boolean isAutoAssignNewCustomers() {
+        return autoAssignNewCustomers;
+    }
+
+    /**
+     * Returns the least-loaded active user for a new task, restricted to holders of {@code role} when
+     * it is given (with or without the {@code ROLE_} prefix), and reserves one open task on them until
+     * the assignment is counted. Ties go to the lowest user id.
+     */
+    public Optional<Long> pickUserForTask(String role) {
+        return pickUser(role, true);
+    }
+
+    /**
+     * Like {@link #pickUserForTask(String)}, reserving one active customer on the chosen user.
+     */
+    public Optional<Long> pickUserForCustomer(String role) {
+        return pickUser(role, false);
+    }
+
+    private Optional<Long> pickUser(String role, boolean task) {
+        State current = currentState();
+        synchronized (current) {
+            IndexedLoadHeap heap = role == null || role.isBlank() ? current.everyone : current.byRole.get(normalize(role));
+            Long userId = heap == null ? null : heap.peek();
+            if (userId != null) {
+                UserLoad load = current.users.get(userId);
+                if (task) {
+                    load.reservedTasks++;
+                } else {
+                    load.reservedCustomers++;
+                }
+                current.reposition(userId);
+            }
+            return Optional.ofNullable(userId);
+        }
+    }
+
+    /**
+     * Returns the current weighted load of {@code userId}, or {@code NaN} if they are not eligible.
+     */
+    public double getLoad(Long userId) {
+        State current = currentState();
+        synchronized (current) {
+            return current.everyone.loadOf(userId);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.assignment.initial-load-delay-ms:5000}",
+            fixedDelayString = "${app.assignment.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        synchronized (refreshLock) {
+            long started = System.currentTimeMillis();
+            State fresh = new State();
+            for (Object[] row : userRepository.findActiveUserRoleRows()) {
+                UserLoad load = fresh.users.computeIfAbsent((Long) row[0], id -> new UserLoad());
+                if (row[1] != null) {
+                    load.roles.add(normalize((String) row[1]));
+                }
+            }
+            synchronized (taskEventLock) {
+                rebuildTaskEvents = new ArrayList<>();
+            }
+            for (Object[] row : taskRepository.countOpenByAssignee(TaskStatisticsCache.OPEN_STATUSES)) {
+                UserLoad load = fresh.users.get((Long) row[0]);
+                if (load != null) {
+                    load.openTasks = ((Number) row[1]).longValue();
+                }
+            }
+            forEachChunk(customerRepository::findIdsAfter,
+                    chunk -> fresh.applyCustomers(chunk, customerRepository.findWorkloadRowsByIdIn(chunk)));
+            forEachChunk(dealRepository::findIdsAfter,
+                    chunk -> fresh.applyDeals(chunk, dealRepository.findWorkloadRowsByIdIn(chunk)));
+            fresh.users.keySet().forEach(fresh::reposition);
+            int replayed;
+            synchronized (taskEventLock) {
+                // A task committed between the start of buffering and the count query is counted twice
+                // until the next reconcile; losing it would be worse
+                replayed = rebuildTaskEvents.size();
+                for (TaskChangedEvent event : rebuildTaskEvents) {
+                    fresh.applyTask(event);
+                }
+                rebuildTaskEvents = null;
+                state = fresh;
+            }
+            log.info("Workload assignment state rebuilt: {} users, {} active customers, {} open deals, "
+                            + "{} task changes replayed in {} ms",
+                    fresh.users.size(), fresh.customerAssignees.size(), fresh.dealLoads.size(), replayed,
+                    System.currentTimeMillis() - started);
+        }
+    }
+
+    /**
+     * Re-reads the customers and deals changed since the previous refresh and replaces their
+     * contribution to their assignees' load.
+     */
+    @Scheduled(fixedDelayString = "${app.assignment.refresh-interval-ms:2000}")
+    public void refresh() {
+        if (state == null || (dirtyCustomerIds.isEmpty() && dirtyDealIds.isEmpty())) {
+            return;
+        }
+        synchronized (refreshLock) {
+            State current = state;
+            List<Long> customers = drain(dirtyCustomerIds);
+            for (int from = 0; from < customers.size(); from += IN_CHUNK_SIZE) {
+                List<Long> chunk = customers.subList(from, Math.min(customers.size(), from + IN_CHUNK_SIZE));
+                List<Object[]> rows = customerRepository.findWorkloadRowsByIdIn(chunk);
+                synchronized (current) {
+                    current.applyCustomers(chunk, rows).forEach(current::reposition);
+                }
+            }
+            List<Long> deals = drain(dirtyDealIds);
+            for (int from = 0; from < deals.size(); from += IN_CHUNK_SIZE) {
+                List<Long> chunk = deals.subList(from, Math.min(deals.size(), from + IN_CHUNK_SIZE));
+                List<Object[]> rows = dealRepository.findWorkloadRowsByIdIn(chunk);
+                synchronized (current) {
+                    current.applyDeals(chunk, rows).forEach(current::reposition);
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        synchronized (taskEventLock) {
+            if (rebuildTaskEvents != null) {
+                rebuildTaskEvents.add(event);
+            }
+            State current = state;
+            if (current != null) {
+                current.applyTask(event);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.getCustomerId() != null) {
+            dirtyCustomerIds.add(event.getCustomerId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDealChanged(DealChangedEvent event) {
+        if (event.getDealId() != null) {
+            dirtyDealIds.add(event.getDealId());
+        }
+    }
+
+    private State currentState() {
+        State current = state;
+        if (current == null) {
+            reconcile();
+            current = state;
+        }
+        return current;
+    }
+
+    private static void forEachChunk(IdPager pager, Consumer<List<Long>> consumer) {
+        long afterId = 0L;
+        while (true) {
+            List<Long> ids = pager.findIdsAfter(afterId, PageRequest.of(0, IN_CHUNK_SIZE));
+            if (!ids.isEmpty()) {
+                consumer.accept(ids);
+            }
+            if (ids.size() < IN_CHUNK_SIZE) {
+                return;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private static List<Long> drain(Set<Long> dirty) {
+        List<Long> pending = new ArrayList<>(dirty);
+        dirty.removeAll(pending);
+        return pending;
+    }
+
+    private static String normalize(String role) {
+        String name = role.trim().toUpperCase(Locale.ROOT);
+        return name.startsWith("ROLE_") ? name.substring(5) : name;
+    }
+
+    private static boolean contains(long[] userIds, long userId) {
+        for (long id : userIds) {
+            if (id == userId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface IdPager {
+        List<Long> findIdsAfter(Long afterId, Pageable pageable);
+    }
+
+    private static final class UserLoad {
+        private final Set<String> roles = new HashSet<>();
+        private long openTasks;
+        private long activeCustomers;
+        private BigDecimal openDealValue = BigDecimal.ZERO;
+        // Picked but not yet counted
+        private long reservedTasks;
+        private long reservedCustomers;
+    }
+
+    private record DealLoad(long[] userIds, BigDecimal value) {
+    }
+
+    /**
+     * The counters and heaps, guarded by the instance's monitor. A reconcile builds a new one and
+     * swaps it in.
+     */
+    private final class State {
+        private final Map<Long, UserLoad> users = new HashMap<>();
+        private final IndexedLoadHeap everyone = new IndexedLoadHeap();
+        private final Map<String, IndexedLoadHeap> byRole = new HashMap<>();
+        private final Map<Long, long[]> customerAssignees = new HashMap<>();
+        private final Map<Long, DealLoad> dealLoads = new HashMap<>();
+
+        private synchronized void applyTask(TaskChangedEvent event) {
+            applyTask(event.getBefore(), -1);
+            applyTask(event.getAfter(), 1);
+            TaskSnapshot after = event.getAfter();
+            if (after != null && after.getAssigneeId() != null
+                    && (event.getBefore() == null || !after.getAssigneeId().equals(event.getBefore().getAssigneeId()))) {
+                UserLoad load = users.get(after.getAssigneeId());
+                if (load != null && load.reservedTasks > 0) {
+                    load.reservedTasks--;
+                    reposition(after.getAssigneeId());
+                }
+            }
+        }
+
+        private void applyTask(TaskSnapshot snapshot, int delta) {
+            if (snapshot == null || snapshot.getAssigneeId() == null
+                    || !TaskStatisticsCache.OPEN_STATUSES.contains(snapshot.getStatus())) {
+                return;
+            }
+            UserLoad load = users.get(snapshot.getAssigneeId());
+            if (load != null) {
+                load.openTasks = Math.max(0, load.openTasks + delta);
+                reposition(snapshot.getAssigneeId());
+            }
+        }
+
+        /**
+         * Replaces the contribution of the customers in {@code ids} with the one described by
+         * {@code rows} of (customer id, status, assigned user id).
+         *
+         * @return the users whose counters changed
+         */
+        private Set<Long> applyCustomers(List<Long> ids, List<Object[]> rows) {
+            Set<Long> touched = new HashSet<>();
+            Map<Long, long[]> previous = new HashMap<>();
+            for (Long id : ids) {
+                long[] assigned = customerAssignees.remove(id);
+                if (assigned != null) {
+                    previous.put(id, assigned);
+                    for (long userId : assigned) {
+                        UserLoad load = users.get(userId);
+                        if (load != null) {
+                            load.activeCustomers = Math.max(0, load.activeCustomers - 1);
+                            touched.add(userId);
+                        }
+                    }
+                }
+            }
+            Map<Long, List<Long>> assignees = new HashMap<>();
+            for (Object[] row : rows) {
+                CustomerStatus status = (CustomerStatus) row[1];
+                if (status == null || !INACTIVE_CUSTOMER_STATUSES.contains(status)) {
+                    assignees.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[2]);
+                }
+            }
+            assignees.forEach((customerId, userIds) -> {
+                long[] current = userIds.stream().mapToLong(Long::longValue).toArray();
+                long[] before = previous.get(customerId);
+                customerAssignees.put(customerId, current);
+                for (Long userId : userIds) {
+                    UserLoad load = users.get(userId);
+                    if (load != null) {
+                        load.activeCustomers++;
+                        if (load.reservedCustomers > 0 && (before == null || !contains(before, userId))) {
+                            load.reservedCustomers--;
+                        }
+                        touched.add(userId);
+                    }
+                }
+            });
+            return touched;
+        }
+
+        /**
+         * Replaces the contribution of the deals in {@code ids} with the one described by
+         * {@code rows} of (deal id, stage, value, assigned user id).
+         *
+         * @return the users whose counters changed
+         */
+        private Set<Long> applyDeals(List<Long> ids, List<Object[]> rows) {
+            Set<Long> touched = new HashSet<>();
+            for (Long id : ids) {
+                DealLoad previous = dealLoads.remove(id);
+                if (previous != null) {
+                    for (long userId : previous.userIds()) {
+                        UserLoad load = users.get(userId);
+                        if (load != null) {
+                            load.openDealValue = load.openDealValue.subtract(previous.value()).max(BigDecimal.ZERO);
+                            touched.add(userId);
+                        }
+                    }
+                }
+            }
+            Map<Long, List<Long>> assignees = new HashMap<>();
+            Map<Long, BigDecimal> values = new HashMap<>();
+            for (Object[] row : rows) {
+                DealStage stage = (DealStage) row[1];
+                if (stage == null || !CLOSED_DEAL_STAGES.contains(stage)) {
+                    assignees.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[3]);
+                    values.put((Long) row[0], row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO);
+                }
+            }
+            assignees.forEach((dealId, userIds) -> {
+                BigDecimal value = values.get(dealId);
+                dealLoads.put(dealId, new DealLoad(userIds.stream().mapToLong(Long::longValue).toArray(), value));
+                for (Long userId : userIds) {
+                    UserLoad load = users.get(userId);
+                    if (load != null) {
+                        load.openDealValue = load.openDealValue.add(value);
+                        touched.add(userId);
+                    }
+                }
+            });
+            return touched;
+        }
+
+        private void reposition(Long userId) {
+            UserLoad load = users.get(userId);
+            if (load == null) {
+                return;
+            }
+            double weighted = openTaskWeight * (load.openTasks + load.reservedTasks)
+                    + activeCustomerWeight * (load.activeCustomers + load.reservedCustomers)
+                    + openDealValueWeight * load.openDealValue.doubleValue();
+            everyone.update(userId, weighted);
+            for (String role : load.roles) {
+                byRole.computeIfAbsent(role, r -> new IndexedLoadHeap()).update(userId, weighted);
+            }
+        }
+    }
+}
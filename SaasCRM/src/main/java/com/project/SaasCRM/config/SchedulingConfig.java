@@ -0,0 +1,27 @@
+package com.project.SaasCRM.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Runs the on-demand triggers of the maintenance jobs. Each job runs at most once at a time, so
+     * the pool needs a thread per job and no queue; a trigger the pool cannot take is rejected.
+     */
+    @Bean(name = "backgroundJobExecutor")
+    public ThreadPoolTaskExecutor backgroundJobExecutor(@Value("${app.jobs.background-threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("background-job-");
+        executor.setDaemon(true);
+        return executor;
+    }
+}
@@ -1,11 +1,13 @@
 package com.project.SaasCRM.controller;
 
 import com.project.SaasCRM.domain.CustomerStatus;
+import com.project.SaasCRM.domain.dto.CursorPageDTO;
 import com.project.SaasCRM.domain.dto.CustomerDTO;
 import com.project.SaasCRM.domain.dto.DealDTO;
 import com.project.SaasCRM.domain.dto.EmailCommunicationDTO;
 import com.project.SaasCRM.domain.dto.InteractionDTO;
 import com.project.SaasCRM.domain.dto.TaskDTO;
+import com.project.SaasCRM.domain.dto.TimelineEntryDTO;
 import com.project.SaasCRM.domain.dto.UserDTO;
 import com.project.SaasCRM.exception.UnauthorizedException;
 import com.project.SaasCRM.security.SecurityService;
@@ -192,6 +194,25 @@ public class CustomerController {
         
         return ResponseEntity.ok(customerService.assignUserToCustomer(id, userId));
     }
+
+    @Operation(summary = "Auto-assign customer", description = "Assigns a customer to the least-loaded active user, optionally limited to a role")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Customer successfully assigned",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomerDTO.class))),
+        @ApiResponse(responseCode = "400", description = "No eligible user"),
+        @ApiResponse(responseCode = "404", description = "Customer not found")
+    })
+    @PutMapping("/{id}/auto-assign")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<CustomerDTO> autoAssignCustomer(
+            @Parameter(description = "ID of the customer") @PathVariable Long id,
+            @Parameter(description = "Only consider users with this role") @RequestParam(required = false) String role) {
+        if (!customerService.findById(id).isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(customerService.autoAssignCustomer(id, role));
+    }
     
     @Operation(summary = "Update customer status", description = "Updates a customer's status")
     @ApiResponses(value = {
@@ -329,6 +350,51 @@ public class CustomerController {
     public ResponseEntity<Map<CustomerStatus, Long>> getCustomerStatistics() {
         return ResponseEntity.ok(customerService.getCustomerStatusCounts());
     }
+
+    @Operation(summary = "Get at-risk customers", description = "Returns customers at or below a health score, lowest score first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved at-risk customers",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class)))
+    })
+    @GetMapping("/at-risk")
+    public ResponseEntity<Page<CustomerDTO>> getAtRiskCustomers(
+            @Parameter(description = "Maximum health score (0-100)") @RequestParam(defaultValue = "40") int maxScore,
+            @Parameter(description = "Pagination information") @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(customerService.findAtRiskCustomers(maxScore, pageable));
+    }
+
+    @Operation(summary = "Get customer activity timeline", description = "Returns the customer's interactions, emails, tasks, deals and audit entries newest first, one cursor page at a time")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved timeline page",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
+        @ApiResponse(responseCode = "403", description = "Not authorized to access this customer"),
+        @ApiResponse(responseCode = "404", description = "Customer not found")
+    })
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<CursorPageDTO<TimelineEntryDTO>> getCustomerTimeline(
+            @Parameter(description = "ID of the customer") @PathVariable Long id,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String before,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int limit) {
+        if (!securityService.isAdmin() && !securityService.canAccessCustomer(id)) {
+            throw new UnauthorizedException("You are not authorized to access this customer");
+        }
+
+        return ResponseEntity.ok(customerService.getTimeline(id, before, limit));
+    }
+
+    @Operation(summary = "Recompute health scores", description = "Starts a background recomputation of all customer health scores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Recomputation started"),
+        @ApiResponse(responseCode = "409", description = "A recomputation is already running")
+    })
+    @PostMapping("/health-scores/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> recomputeHealthScores() {
+        return customerService.recomputeHealthScores()
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
     
     @Operation(summary = "Get assigned users for a customer", description = "Returns users assigned to a specific customer")
     @ApiResponses(value = {
@@ -1,11 +1,15 @@
 package com.project.SaasCRM.controller;
 
 import com.project.SaasCRM.domain.SendStatus;
+import com.project.SaasCRM.domain.dto.BulkEmailJobDTO;
+import com.project.SaasCRM.domain.dto.BulkEmailRequestDTO;
+import com.project.SaasCRM.domain.dto.MailMergeRequestDTO;
 import com.project.SaasCRM.domain.dto.EmailCommunicationDTO;
 import com.project.SaasCRM.exception.ResourceNotFoundException;
 import com.project.SaasCRM.exception.UnauthorizedException;
 import com.project.SaasCRM.security.SecurityService;
 import com.project.SaasCRM.service.EmailCommunicationService;
+import com.project.SaasCRM.service.EmailService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -21,6 +25,7 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -33,6 +38,7 @@ import java.util.Map;
 @Tag(name = "Email Communication Management", description = "APIs for managing email communications")
 public class EmailCommunicationController {
     private final EmailCommunicationService emailCommunicationService;
+    private final EmailService emailService;
     private final SecurityService securityService;
 
     @Operation(summary = "Get all emails with pagination", description = "Returns a paginated list of all emails")
@@ -100,7 +106,8 @@ public class EmailCommunicationController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Get emails by customer", description = "Returns emails for a specific customer")
+    @Operation(summary = "Get emails by customer",
+            description = "Returns emails for a specific customer, or its archived emails when archived is set")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved emails",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = List.class))),
@@ -108,13 +115,17 @@ public class EmailCommunicationController {
     })
     @GetMapping("/customer/{id}")
     public ResponseEntity<List<EmailCommunicationDTO>> getEmailsByCustomer(
-            @Parameter(description = "ID of the customer") @PathVariable Long id) {
+            @Parameter(description = "ID of the customer") @PathVariable Long id,
+            @Parameter(description = "Read from the archive instead of current emails")
+            @RequestParam(defaultValue = "false") boolean archived) {
         // Check if user has access to this customer
         if (!securityService.isAdmin() && !securityService.canAccessCustomer(id)) {
             throw new UnauthorizedException("You are not authorized to access this customer's emails");
         }
         
-        return ResponseEntity.ok(emailCommunicationService.findEmailsByCustomer(id));
+        return ResponseEntity.ok(archived
+                ? emailCommunicationService.findArchivedEmailsByCustomer(id)
+                : emailCommunicationService.findEmailsByCustomer(id));
     }
 
     @Operation(summary = "Get emails by sender", description = "Returns emails sent by a specific user")
@@ -178,6 +189,61 @@ public class EmailCommunicationController {
         return ResponseEntity.ok(emailCommunicationService.sendEmail(id));
     }
 
+    @Operation(summary = "Start a bulk email job",
+            description = "Queues an email, or a rendered template, to many recipients in the background and returns the job for tracking")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Bulk email job started",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkEmailJobDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request data")
+    })
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<BulkEmailJobDTO> startBulkEmail(@Valid @RequestBody BulkEmailRequestDTO request) {
+        return ResponseEntity.accepted().body(emailService.startBulkEmailJob(request));
+    }
+
+    @Operation(summary = "Start a mail merge job",
+            description = "Renders a stored template for each customer with their own variables and queues the emails in the background")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Mail merge job started",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkEmailJobDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "404", description = "Template not found")
+    })
+    @PostMapping("/bulk/merge")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<BulkEmailJobDTO> startMailMerge(@Valid @RequestBody MailMergeRequestDTO request) {
+        return ResponseEntity.accepted().body(emailService.startMailMergeJob(request));
+    }
+
+    @Operation(summary = "Get bulk email job progress", description = "Returns how many messages of a bulk email job were queued, sent, failed or cancelled")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved job progress",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkEmailJobDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @GetMapping("/bulk/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<BulkEmailJobDTO> getBulkEmailJob(@Parameter(description = "ID of the bulk email job") @PathVariable String jobId) {
+        return emailService.findBulkEmailJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Cancel a bulk email job", description = "Stops a bulk email job; messages already being sent still go out")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job cancelled",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkEmailJobDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @PostMapping("/bulk/{jobId}/cancel")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<BulkEmailJobDTO> cancelBulkEmailJob(@Parameter(description = "ID of the bulk email job") @PathVariable String jobId) {
+        return emailService.cancelBulkEmailJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @Operation(summary = "Schedule email", description = "Schedules an email to be sent at a later time")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Email successfully scheduled",
@@ -278,4 +344,17 @@ public class EmailCommunicationController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         return ResponseEntity.ok(emailCommunicationService.calculateEmailClickRate(startDate, endDate));
     }
-} 
\ No newline at end of file
+
+    @Operation(summary = "Rebuild email statistics", description = "Starts a background rebuild of the daily email statistics")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Rebuild started"),
+        @ApiResponse(responseCode = "409", description = "A rebuild is already running")
+    })
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildEmailStats() {
+        return emailCommunicationService.rebuildEmailStats()
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
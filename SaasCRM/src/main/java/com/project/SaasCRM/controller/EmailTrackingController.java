@@ -0,0 +1,65 @@
+package com.project.SaasCRM.controller;
+
+import com.project.SaasCRM.service.EmailService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Base64;
+
+@RestController
+@RequestMapping("/api/track/emails")
+@RequiredArgsConstructor
+@Tag(name = "Email Tracking", description = "Public endpoints hit by tracking pixels and tracked links")
+public class EmailTrackingController {
+    private static final byte[] PIXEL = Base64.getDecoder()
+            .decode("R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7");
+
+    private final EmailService emailService;
+
+    @Operation(summary = "Record an email open", description = "Records an open and returns a transparent 1x1 GIF")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Open recorded"),
+        @ApiResponse(responseCode = "400", description = "Invalid tracking token")
+    })
+    @GetMapping(value = "/{token}/open", produces = MediaType.IMAGE_GIF_VALUE)
+    public ResponseEntity<byte[]> trackOpen(
+            @Parameter(description = "Signed email tracking token") @PathVariable String token) {
+        emailService.trackEmailOpen(token);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .contentType(MediaType.IMAGE_GIF)
+                .body(PIXEL);
+    }
+
+    @Operation(summary = "Record a link click",
+            description = "Records a click on a tracked link and redirects to it when the link is signed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "302", description = "Click recorded, redirecting to the link"),
+        @ApiResponse(responseCode = "204", description = "Click recorded"),
+        @ApiResponse(responseCode = "400", description = "Invalid tracking token")
+    })
+    @GetMapping("/{token}/click")
+    public ResponseEntity<Void> trackClick(
+            @Parameter(description = "Signed email tracking token") @PathVariable String token,
+            @Parameter(description = "Link ID") @RequestParam String linkId,
+            @Parameter(description = "Signature of the link ID") @RequestParam(required = false) String sig) {
+        String target = emailService.trackEmailClick(token, linkId, sig);
+        if (target == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .cacheControl(CacheControl.noStore())
+                .location(URI.create(target))
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.project.SaasCRM.controller;
 
 import com.project.SaasCRM.domain.InteractionType;
 import com.project.SaasCRM.domain.dto.InteractionDTO;
+import com.project.SaasCRM.domain.dto.InteractionIngestResultDTO;
 import com.project.SaasCRM.exception.ResourceNotFoundException;
 import com.project.SaasCRM.exception.UnauthorizedException;
 import com.project.SaasCRM.security.SecurityService;
@@ -24,6 +25,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -58,6 +60,32 @@ public class InteractionController {
         return new ResponseEntity<>(interactionService.saveInteraction(interactionDTO), HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Ingest an interaction",
+            description = "Durably queues an interaction for asynchronous writing; it becomes visible once the writer has flushed it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Interaction accepted",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = InteractionIngestResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "503", description = "Ingestion queue is full")
+    })
+    @PostMapping("/ingest")
+    public ResponseEntity<InteractionIngestResultDTO> ingestInteraction(@Valid @RequestBody InteractionDTO interactionDTO) {
+        return toIngestResponse(interactionService.ingestInteractions(List.of(interactionDTO)));
+    }
+
+    @Operation(summary = "Ingest a batch of interactions",
+            description = "Durably queues a batch of interactions for asynchronous writing; the whole batch is accepted or rejected")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Interactions accepted",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = InteractionIngestResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "503", description = "Ingestion queue is full")
+    })
+    @PostMapping("/ingest/batch")
+    public ResponseEntity<InteractionIngestResultDTO> ingestInteractions(@RequestBody List<@Valid InteractionDTO> interactions) {
+        return toIngestResponse(interactionService.ingestInteractions(interactions));
+    }
+
     @Operation(summary = "Get interaction by ID", description = "Returns an interaction by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved interaction",
@@ -101,7 +129,8 @@ public class InteractionController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Get interactions by customer", description = "Returns interactions for a specific customer")
+    @Operation(summary = "Get interactions by customer",
+            description = "Returns interactions for a specific customer, or its archived interactions when archived is set")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved interactions",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
@@ -111,13 +140,17 @@ public class InteractionController {
     @GetMapping("/customer/{id}")
     public ResponseEntity<Page<InteractionDTO>> getInteractionsByCustomer(
             @Parameter(description = "ID of the customer") @PathVariable Long id,
+            @Parameter(description = "Read from the archive instead of current interactions")
+            @RequestParam(defaultValue = "false") boolean archived,
             @Parameter(description = "Pagination information") @PageableDefault(size = 20) Pageable pageable) {
         // Check if user has access to this customer (implement this logic based on your security requirements)
         if (!securityService.isAdmin() && !securityService.canAccessCustomer(id)) {
             throw new UnauthorizedException("You are not authorized to access this customer's interactions");
         }
         
-        return ResponseEntity.ok(interactionService.findInteractionsByCustomerPaginated(id, pageable));
+        return ResponseEntity.ok(archived
+                ? interactionService.findArchivedInteractionsByCustomer(id, pageable)
+                : interactionService.findInteractionsByCustomerPaginated(id, pageable));
     }
 
     @Operation(summary = "Get interactions by user", description = "Returns interactions created by a specific user")
@@ -191,6 +224,51 @@ public class InteractionController {
         return ResponseEntity.ok(interactionService.getInteractionCountsByDate(startDate, endDate));
     }
 
+    @Operation(summary = "Get interaction duration by type", description = "Returns the total interaction minutes per type for a customer")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved interaction statistics",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Map.class))),
+        @ApiResponse(responseCode = "403", description = "Not authorized to access this customer")
+    })
+    @GetMapping("/stats/duration-by-type")
+    public ResponseEntity<Map<InteractionType, Long>> getInteractionDurationByType(
+            @Parameter(description = "ID of the customer") @RequestParam Long customerId) {
+        if (!securityService.isAdmin() && !securityService.canAccessCustomer(customerId)) {
+            throw new UnauthorizedException("You are not authorized to access this customer's interaction statistics");
+        }
+
+        return ResponseEntity.ok(interactionService.getInteractionDurationByType(customerId));
+    }
+
+    @Operation(summary = "Get interaction statistics by user", description = "Returns the number of interactions per user between two days, inclusive")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved interaction statistics",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Map.class))),
+        @ApiResponse(responseCode = "400", description = "Start date is after end date")
+    })
+    @GetMapping("/stats/by-user")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<Map<Long, Long>> getInteractionStatsByUser(
+            @Parameter(description = "First day")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Last day")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(interactionService.getInteractionCountsByUser(startDate, endDate));
+    }
+
+    @Operation(summary = "Rebuild interaction statistics", description = "Starts a background rebuild of the daily interaction rollup")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Rebuild started"),
+        @ApiResponse(responseCode = "409", description = "A rebuild is already running")
+    })
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildInteractionStats() {
+        return interactionService.rebuildInteractionRollup()
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
     @Operation(summary = "Get interactions by date range", description = "Returns interactions created within the specified date range")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved interactions",
@@ -204,4 +282,10 @@ public class InteractionController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         return ResponseEntity.ok(interactionService.findInteractionsByDateRange(startDate, endDate));
     }
-} 
\ No newline at end of file
+
+    private ResponseEntity<InteractionIngestResultDTO> toIngestResponse(InteractionIngestResultDTO result) {
+        return result.isAccepted()
+                ? ResponseEntity.accepted().body(result)
+                : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.SaasCRM.controller;
+
+import com.project.SaasCRM.domain.MembershipDimension;
+import com.project.SaasCRM.domain.dto.MembershipFilterDTO;
+import com.project.SaasCRM.domain.dto.MembershipResultDTO;
+import com.project.SaasCRM.service.MembershipService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/membership")
+@RequiredArgsConstructor
+@Tag(name = "Membership Index", description = "APIs for bitmap-indexed membership filters over customers, deals and tasks")
+public class MembershipController {
+    private final MembershipService membershipService;
+
+    @Operation(summary = "Query by membership", description = "Returns ids matching all include predicates and none of the exclude predicates")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully evaluated membership filter",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = MembershipResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid membership filter")
+    })
+    @PostMapping("/query")
+    public ResponseEntity<MembershipResultDTO> query(
+            @RequestBody MembershipFilterDTO filter,
+            @Parameter(description = "Number of matching ids to skip") @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Maximum number of ids to return") @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(membershipService.query(filter, offset, limit));
+    }
+
+    @Operation(summary = "Count by membership", description = "Returns the number of entities matching a membership filter")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully counted matching entities"),
+        @ApiResponse(responseCode = "400", description = "Invalid membership filter")
+    })
+    @PostMapping("/count")
+    public ResponseEntity<Long> count(@RequestBody MembershipFilterDTO filter) {
+        return ResponseEntity.ok(membershipService.count(filter));
+    }
+
+    @Operation(summary = "Count by dimension value", description = "Returns the number of entities for each value of a dimension")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved counts",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Map.class)))
+    })
+    @GetMapping("/dimensions/{dimension}/counts")
+    public ResponseEntity<Map<String, Long>> countByValue(
+            @Parameter(description = "Indexed dimension") @PathVariable MembershipDimension dimension) {
+        return ResponseEntity.ok(membershipService.countByValue(dimension));
+    }
+}
@@ -0,0 +1,161 @@
+package com.project.SaasCRM.controller;
+
+import com.project.SaasCRM.domain.dto.CustomerDTO;
+import com.project.SaasCRM.domain.dto.CustomerSegmentDTO;
+import com.project.SaasCRM.domain.dto.SegmentFilterDTO;
+import com.project.SaasCRM.domain.dto.SegmentResultDTO;
+import com.project.SaasCRM.security.SecurityService;
+import com.project.SaasCRM.service.SegmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/segments")
+@RequiredArgsConstructor
+@Tag(name = "Customer Segments", description = "APIs for defining and evaluating customer segments")
+public class SegmentController {
+    private final SegmentService segmentService;
+    private final SecurityService securityService;
+
+    @Operation(summary = "Get all segments", description = "Returns all saved customer segments")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved segment list",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = List.class)))
+    })
+    @GetMapping
+    public ResponseEntity<List<CustomerSegmentDTO>> getAllSegments() {
+        return ResponseEntity.ok(segmentService.findAllSegments());
+    }
+
+    @Operation(summary = "Create a segment", description = "Saves a named customer segment definition")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Segment successfully created",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomerSegmentDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid segment definition")
+    })
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<CustomerSegmentDTO> createSegment(@RequestBody CustomerSegmentDTO segmentDTO) {
+        segmentDTO.setCreatedByUserId(securityService.getCurrentUserId());
+        return new ResponseEntity<>(segmentService.createSegment(segmentDTO), HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Get segment by ID", description = "Returns a saved segment definition")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved segment",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomerSegmentDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Segment not found")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<CustomerSegmentDTO> getSegmentById(@Parameter(description = "ID of the segment") @PathVariable Long id) {
+        return segmentService.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Update a segment", description = "Updates a saved segment definition")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Segment successfully updated",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomerSegmentDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid segment definition"),
+        @ApiResponse(responseCode = "404", description = "Segment not found")
+    })
+    @PutMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<CustomerSegmentDTO> updateSegment(
+            @Parameter(description = "ID of the segment") @PathVariable Long id,
+            @RequestBody CustomerSegmentDTO segmentDTO) {
+        if (!id.equals(segmentDTO.getId())) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(segmentService.updateSegment(segmentDTO));
+    }
+
+    @Operation(summary = "Delete a segment", description = "Deletes a saved segment definition")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Segment successfully deleted"),
+        @ApiResponse(responseCode = "404", description = "Segment not found")
+    })
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<Void> deleteSegment(@Parameter(description = "ID of the segment") @PathVariable Long id) {
+        segmentService.deleteSegment(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Evaluate an ad-hoc filter", description = "Evaluates a filter expression against the customer snapshot without saving it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully evaluated filter",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = SegmentResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid filter expression")
+    })
+    @PostMapping("/evaluate")
+    public ResponseEntity<SegmentResultDTO> evaluateFilter(
+            @RequestBody SegmentFilterDTO filter,
+            @Parameter(description = "Maximum number of customer ids to return") @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(segmentService.evaluate(filter, limit));
+    }
+
+    @Operation(summary = "Evaluate a saved segment", description = "Returns the match count and the first matching customer ids")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully evaluated segment",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = SegmentResultDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Segment not found")
+    })
+    @GetMapping("/{id}/results")
+    public ResponseEntity<SegmentResultDTO> evaluateSegment(
+            @Parameter(description = "ID of the segment") @PathVariable Long id,
+            @Parameter(description = "Maximum number of customer ids to return") @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(segmentService.evaluateSegment(id, limit));
+    }
+
+    @Operation(summary = "Count segment members", description = "Returns the number of customers matching a saved segment")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully counted segment members"),
+        @ApiResponse(responseCode = "404", description = "Segment not found")
+    })
+    @GetMapping("/{id}/count")
+    public ResponseEntity<Long> countSegment(@Parameter(description = "ID of the segment") @PathVariable Long id) {
+        return ResponseEntity.ok(segmentService.countSegment(id));
+    }
+
+    @Operation(summary = "Export segment customers", description = "Returns a page of customers matching a saved segment")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved segment customers",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+        @ApiResponse(responseCode = "404", description = "Segment not found")
+    })
+    @GetMapping("/{id}/customers")
+    public ResponseEntity<Page<CustomerDTO>> getSegmentCustomers(
+            @Parameter(description = "ID of the segment") @PathVariable Long id,
+            @Parameter(description = "Pagination information") @PageableDefault(size = 100) Pageable pageable) {
+        return ResponseEntity.ok(segmentService.findSegmentCustomers(id, pageable));
+    }
+
+    @Operation(summary = "Get campaign recipients", description = "Returns the email addresses of all customers in a saved segment")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved recipients",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = List.class))),
+        @ApiResponse(responseCode = "404", description = "Segment not found")
+    })
+    @GetMapping("/{id}/recipients")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<List<String>> getSegmentRecipients(@Parameter(description = "ID of the segment") @PathVariable Long id) {
+        return ResponseEntity.ok(segmentService.findRecipientEmails(id));
+    }
+}
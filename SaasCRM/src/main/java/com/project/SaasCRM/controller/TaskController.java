@@ -3,7 +3,11 @@ package com.project.SaasCRM.controller;
 import com.project.SaasCRM.domain.TaskPriority;
 import com.project.SaasCRM.domain.TaskStatus;
 import com.project.SaasCRM.domain.TaskType;
+import com.project.SaasCRM.domain.dto.CursorPageDTO;
+import com.project.SaasCRM.domain.dto.TaskBatchRequestDTO;
+import com.project.SaasCRM.domain.dto.TaskBatchResultDTO;
 import com.project.SaasCRM.domain.dto.TaskDTO;
+import com.project.SaasCRM.domain.dto.TaskStatisticsDTO;
 import com.project.SaasCRM.exception.TaskNotFoundException;
 import com.project.SaasCRM.exception.UnauthorizedException;
 import com.project.SaasCRM.security.SecurityService;
@@ -29,6 +33,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -137,6 +142,47 @@ public class TaskController {
         return ResponseEntity.ok(taskService.findPendingTasksByUser(id));
     }
 
+    @Operation(summary = "Get my task inbox", description = "Returns the current user's tasks ordered by due date, one cursor page at a time")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved inbox page",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
+    @GetMapping("/inbox")
+    public ResponseEntity<CursorPageDTO<TaskDTO>> getMyInbox(
+            @Parameter(description = "Statuses to include, defaults to open statuses") @RequestParam(required = false) Set<TaskStatus> status,
+            @Parameter(description = "Priorities to include, defaults to all") @RequestParam(required = false) Set<TaskPriority> priority,
+            @Parameter(description = "Earliest due date (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @Parameter(description = "Latest due date (exclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(taskService.findInbox(securityService.getCurrentUserId(),
+                status, priority, dueFrom, dueTo, cursor, limit));
+    }
+
+    @Operation(summary = "Get task inbox by user", description = "Returns a user's tasks ordered by due date, one cursor page at a time")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved inbox page",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
+        @ApiResponse(responseCode = "403", description = "Not authorized to access these tasks")
+    })
+    @GetMapping("/user/{id}/inbox")
+    public ResponseEntity<CursorPageDTO<TaskDTO>> getInboxByUser(
+            @Parameter(description = "ID of the user") @PathVariable Long id,
+            @Parameter(description = "Statuses to include, defaults to open statuses") @RequestParam(required = false) Set<TaskStatus> status,
+            @Parameter(description = "Priorities to include, defaults to all") @RequestParam(required = false) Set<TaskPriority> priority,
+            @Parameter(description = "Earliest due date (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @Parameter(description = "Latest due date (exclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int limit) {
+        if (!securityService.isAdmin() && !securityService.isCurrentUser(id)) {
+            throw new UnauthorizedException("You are not authorized to access these tasks");
+        }
+
+        return ResponseEntity.ok(taskService.findInbox(id, status, priority, dueFrom, dueTo, cursor, limit));
+    }
+
     @Operation(summary = "Get tasks by customer", description = "Returns tasks related to a specific customer")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks",
@@ -195,6 +241,21 @@ public class TaskController {
         return ResponseEntity.ok(taskService.assignTaskToUser(id, userId));
     }
 
+    @Operation(summary = "Auto-assign task", description = "Assigns a task to the least-loaded active user, optionally limited to a role")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Task successfully assigned",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDTO.class))),
+        @ApiResponse(responseCode = "400", description = "No eligible user"),
+        @ApiResponse(responseCode = "404", description = "Task not found")
+    })
+    @PutMapping("/{id}/auto-assign")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<TaskDTO> autoAssignTask(
+            @Parameter(description = "ID of the task") @PathVariable Long id,
+            @Parameter(description = "Only consider users with this role") @RequestParam(required = false) String role) {
+        return ResponseEntity.ok(taskService.autoAssignTask(id, role));
+    }
+
     @Operation(summary = "Update task status", description = "Updates the status of a task")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Task status successfully updated",
@@ -263,6 +324,36 @@ public class TaskController {
         return ResponseEntity.ok(taskService.findOverdueTasks());
     }
 
+    @Operation(summary = "Sweep overdue tasks", description = "Starts a background escalation of overdue tasks")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Sweep started"),
+        @ApiResponse(responseCode = "409", description = "A sweep is already running")
+    })
+    @PostMapping("/overdue/sweep")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> sweepOverdueTasks() {
+        return taskService.sweepOverdueTasks()
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @Operation(summary = "Run a batch operation on tasks",
+            description = "Assigns, changes the status or priority of, or deletes the tasks given by ID or matched by a filter. "
+                    + "Retrying with the same Idempotency-Key returns the original result")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch applied",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskBatchResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid batch or idempotency key reused for a different batch")
+    })
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<TaskBatchResultDTO> executeBatch(
+            @Valid @RequestBody TaskBatchRequestDTO request,
+            @Parameter(description = "Key that makes retries of this batch safe")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.ok(taskService.executeBatch(request, idempotencyKey));
+    }
+
     @Operation(summary = "Get upcoming tasks", description = "Returns tasks that are due in the specified number of days")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks",
@@ -284,6 +375,32 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getTaskCountsByStatus());
     }
 
+    @Operation(summary = "Get task summary", description = "Returns task counts by status, priority and type plus overdue and due-today counts")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved task summary",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskStatisticsDTO.class)))
+    })
+    @GetMapping("/stats/summary")
+    public ResponseEntity<TaskStatisticsDTO> getTaskSummary() {
+        return ResponseEntity.ok(taskService.getTaskStatistics());
+    }
+
+    @Operation(summary = "Get task summary for a user", description = "Returns task counts for tasks assigned to a specific user")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved task summary",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskStatisticsDTO.class))),
+        @ApiResponse(responseCode = "403", description = "Not authorized to access these statistics")
+    })
+    @GetMapping("/stats/user/{userId}")
+    public ResponseEntity<TaskStatisticsDTO> getTaskSummaryForUser(
+            @Parameter(description = "ID of the user") @PathVariable Long userId) {
+        if (!securityService.isAdmin() && !securityService.isCurrentUser(userId)) {
+            throw new UnauthorizedException("You are not authorized to access these statistics");
+        }
+
+        return ResponseEntity.ok(taskService.getTaskStatistics(userId));
+    }
+
     @Operation(summary = "Get tasks by due date range", description = "Returns tasks with due dates in the specified range")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks",
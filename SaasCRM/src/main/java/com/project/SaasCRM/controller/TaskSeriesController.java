@@ -0,0 +1,114 @@
+package com.project.SaasCRM.controller;
+
+import com.project.SaasCRM.domain.dto.TaskSeriesDTO;
+import com.project.SaasCRM.exception.UnauthorizedException;
+import com.project.SaasCRM.security.SecurityService;
+import com.project.SaasCRM.service.TaskSeriesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/task-series")
+@RequiredArgsConstructor
+@Tag(name = "Recurring Tasks", description = "APIs for managing recurring task series")
+public class TaskSeriesController {
+    private final TaskSeriesService taskSeriesService;
+    private final SecurityService securityService;
+
+    @Operation(summary = "Get all task series", description = "Returns a paginated list of recurring task series")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved series list",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class)))
+    })
+    @GetMapping
+    public ResponseEntity<Page<TaskSeriesDTO>> getAllSeries(
+            @Parameter(description = "Pagination information") @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(taskSeriesService.findAllSeries(pageable));
+    }
+
+    @Operation(summary = "Create a task series", description = "Creates a recurring task series and generates its upcoming occurrences")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Series successfully created",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskSeriesDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid recurrence rule")
+    })
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<TaskSeriesDTO> createSeries(@Valid @RequestBody TaskSeriesDTO seriesDTO) {
+        seriesDTO.setCreatedByUserId(securityService.getCurrentUserId());
+        return new ResponseEntity<>(taskSeriesService.createSeries(seriesDTO), HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Get task series by ID", description = "Returns a recurring task series")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved series",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskSeriesDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Series not found")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<TaskSeriesDTO> getSeriesById(@Parameter(description = "ID of the series") @PathVariable Long id) {
+        return taskSeriesService.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Get task series by user", description = "Returns recurring task series assigned to a specific user")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved series list",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+        @ApiResponse(responseCode = "403", description = "Not authorized to access these series")
+    })
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<Page<TaskSeriesDTO>> getSeriesByUser(
+            @Parameter(description = "ID of the user") @PathVariable Long userId,
+            @Parameter(description = "Pagination information") @PageableDefault(size = 20) Pageable pageable) {
+        if (!securityService.isAdmin() && !securityService.isCurrentUser(userId)) {
+            throw new UnauthorizedException("You are not authorized to access these series");
+        }
+        return ResponseEntity.ok(taskSeriesService.findSeriesByAssignee(userId, pageable));
+    }
+
+    @Operation(summary = "Update a task series", description = "Updates a series and applies the change to its pending future occurrences")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Series successfully updated",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskSeriesDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid recurrence rule"),
+        @ApiResponse(responseCode = "404", description = "Series not found")
+    })
+    @PutMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<TaskSeriesDTO> updateSeries(
+            @Parameter(description = "ID of the series") @PathVariable Long id,
+            @Valid @RequestBody TaskSeriesDTO seriesDTO) {
+        if (!id.equals(seriesDTO.getId())) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(taskSeriesService.updateSeries(seriesDTO));
+    }
+
+    @Operation(summary = "Delete a task series", description = "Deletes a series and its pending future occurrences")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Series successfully deleted"),
+        @ApiResponse(responseCode = "404", description = "Series not found")
+    })
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<Void> deleteSeries(@Parameter(description = "ID of the series") @PathVariable Long id) {
+        taskSeriesService.deleteSeries(id);
+        return ResponseEntity.noContent().build();
+    }
+}
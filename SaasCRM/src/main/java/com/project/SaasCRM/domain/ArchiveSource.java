@@ -0,0 +1,5 @@
+package com.project.SaasCRM.domain;
+
+public enum ArchiveSource {
+    INTERACTION, EMAIL_COMMUNICATION, EMAIL_EVENT
+}
@@ -0,0 +1,5 @@
+package com.project.SaasCRM.domain;
+
+public enum BulkEmailJobStatus {
+    RUNNING, COMPLETED, CANCELLED, FAILED
+}
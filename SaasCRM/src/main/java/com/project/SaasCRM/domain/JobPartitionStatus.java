@@ -0,0 +1,5 @@
+package com.project.SaasCRM.domain;
+
+public enum JobPartitionStatus {
+    PENDING, RUNNING, COMPLETED, FAILED
+}
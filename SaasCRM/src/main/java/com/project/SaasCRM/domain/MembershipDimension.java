@@ -0,0 +1,21 @@
+package com.project.SaasCRM.domain;
+
+public enum MembershipDimension {
+    CUSTOMER_STATUS(MembershipEntity.CUSTOMER),
+    CUSTOMER_ASSIGNED_USER(MembershipEntity.CUSTOMER),
+    DEAL_STAGE(MembershipEntity.DEAL),
+    DEAL_STATUS(MembershipEntity.DEAL),
+    DEAL_ASSIGNED_USER(MembershipEntity.DEAL),
+    TASK_STATUS(MembershipEntity.TASK),
+    TASK_ASSIGNEE(MembershipEntity.TASK);
+
+    private final MembershipEntity entity;
+
+    MembershipDimension(MembershipEntity entity) {
+        this.entity = entity;
+    }
+
+    public MembershipEntity getEntity() {
+        return entity;
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.SaasCRM.domain;
+
+public enum MembershipEntity {
+    CUSTOMER,
+    DEAL,
+    TASK
+}
@@ -0,0 +1,5 @@
+package com.project.SaasCRM.domain;
+
+public enum RecurrenceFrequency {
+    DAILY, WEEKLY, MONTHLY
+}
@@ -0,0 +1,12 @@
+package com.project.SaasCRM.domain;
+
+public enum SegmentField {
+    STATUS,
+    ASSIGNED_USER,
+    CREATED_AT,
+    LAST_CONTACT,
+    OPEN_DEAL_COUNT,
+    OPEN_DEAL_VALUE,
+    INTERACTION_COUNT,
+    LAST_INTERACTION
+}
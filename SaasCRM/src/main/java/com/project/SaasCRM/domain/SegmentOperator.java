@@ -0,0 +1,14 @@
+package com.project.SaasCRM.domain;
+
+public enum SegmentOperator {
+    AND,
+    OR,
+    NOT,
+    IN,
+    NOT_IN,
+    GTE,
+    LTE,
+    WITHIN_DAYS,
+    OLDER_THAN_DAYS,
+    IS_EMPTY
+}
@@ -0,0 +1,5 @@
+package com.project.SaasCRM.domain;
+
+public enum TaskBatchOperation {
+    ASSIGN, STATUS, PRIORITY, DELETE
+}
@@ -0,0 +1,27 @@
+package com.project.SaasCRM.domain.dto;
+
+import com.project.SaasCRM.domain.BulkEmailJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEmailJobDTO {
+    private String jobId;
+    private BulkEmailJobStatus status;
+    private int total;
+    private int rejected;
+    private int queued;
+    private int sent;
+    private int failed;
+    private int cancelled;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String errorMessage;
+}
@@ -0,0 +1,23 @@
+package com.project.SaasCRM.domain.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEmailRequestDTO {
+    @NotEmpty
+    private List<String> recipients;
+    private String subject;
+    private String content;
+    private String templateName;
+    private Map<String, Object> templateVariables;
+}
@@ -16,6 +16,8 @@ public class CustomerDTO {
     private String address;
     private String notes;
     private LocalDateTime lastContact;
+    private Integer healthScore;
+    private LocalDateTime healthScoreUpdatedAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Set<Long> assignedUserIds;
@@ -0,0 +1,16 @@
+package com.project.SaasCRM.domain.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class CustomerSegmentDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private SegmentFilterDTO filter;
+    private Long createdByUserId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.project.SaasCRM.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionIngestResultDTO {
+    private boolean accepted;
+    private int count;
+    private long firstSequence;
+    private long lastSequence;
+    private int queued;
+}
@@ -0,0 +1,24 @@
+package com.project.SaasCRM.domain.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailMergeRequestDTO {
+    @NotNull
+    private Long templateId;
+    @NotEmpty
+    private List<Long> customerIds;
+    private String subject;
+    private Map<String, Object> templateVariables;
+}
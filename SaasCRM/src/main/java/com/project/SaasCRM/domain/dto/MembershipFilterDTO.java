@@ -0,0 +1,23 @@
+package com.project.SaasCRM.domain.dto;
+
+import com.project.SaasCRM.domain.MembershipEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Entities matching every {@code include} predicate and none of the {@code exclude} predicates.
+ * With no include predicates the filter starts from all entities of the given type.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipFilterDTO {
+    private MembershipEntity entity;
+    private List<MembershipPredicateDTO> include;
+    private List<MembershipPredicateDTO> exclude;
+}
@@ -0,0 +1,21 @@
+package com.project.SaasCRM.domain.dto;
+
+import com.project.SaasCRM.domain.MembershipDimension;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Matches entities whose {@code dimension} equals any of {@code values} (enum names or user ids).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipPredicateDTO {
+    private MembershipDimension dimension;
+    private List<String> values;
+}
@@ -0,0 +1,19 @@
+package com.project.SaasCRM.domain.dto;
+
+import com.project.SaasCRM.domain.MembershipEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipResultDTO {
+    private MembershipEntity entity;
+    private long count;
+    private List<Long> ids;
+}
@@ -0,0 +1,25 @@
+package com.project.SaasCRM.domain.dto;
+
+import com.project.SaasCRM.domain.SegmentField;
+import com.project.SaasCRM.domain.SegmentOperator;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A node of a segment filter expression. Group nodes use AND, OR or NOT with {@code children};
+ * leaf nodes compare {@code field} against {@code values} with one of the remaining operators.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentFilterDTO {
+    private SegmentOperator operator;
+    private List<SegmentFilterDTO> children;
+    private SegmentField field;
+    private List<String> values;
+}
@@ -0,0 +1,21 @@
+package com.project.SaasCRM.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentResultDTO {
+    private long count;
+    private List<Long> customerIds;
+    private boolean truncated;
+    private LocalDateTime snapshotTime;
+    private long evaluationMillis;
+}
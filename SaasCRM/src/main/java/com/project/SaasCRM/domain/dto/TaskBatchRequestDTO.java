@@ -0,0 +1,37 @@
+package com.project.SaasCRM.domain.dto;
+
+import com.project.SaasCRM.domain.TaskBatchOperation;
+import com.project.SaasCRM.domain.TaskPriority;
+import com.project.SaasCRM.domain.TaskStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+@Data
+public class TaskBatchRequestDTO {
+    @NotNull
+    private TaskBatchOperation operation;
+
+    private List<Long> taskIds;
+
+    @Valid
+    private Filter filter;
+
+    private Long assigneeId;
+    private TaskStatus status;
+    private TaskPriority priority;
+
+    @Data
+    public static class Filter {
+        private Long assigneeId;
+        private Long customerId;
+        private Set<TaskStatus> statuses;
+        private Set<TaskPriority> priorities;
+        private LocalDateTime dueAfter;
+        private LocalDateTime dueBefore;
+    }
+}
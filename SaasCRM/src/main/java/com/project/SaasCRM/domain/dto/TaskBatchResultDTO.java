@@ -0,0 +1,22 @@
+package com.project.SaasCRM.domain.dto;
+
+import com.project.SaasCRM.domain.TaskBatchOperation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchResultDTO {
+    private TaskBatchOperation operation;
+    private int matched;
+    private int updated;
+    private int unchanged;
+    private int notFound;
+    private String idempotencyKey;
+    private boolean replayed;
+    private long durationMillis;
+}
@@ -16,6 +16,8 @@ public class TaskDTO {
     private Long dealId;
     private LocalDateTime dueDate;
     private LocalDateTime completedAt;
+    private LocalDateTime escalatedAt;
+    private Long seriesId;
     private String notes;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -0,0 +1,49 @@
+package com.project.SaasCRM.domain.dto;
+
+import com.project.SaasCRM.domain.RecurrenceFrequency;
+import com.project.SaasCRM.domain.TaskPriority;
+import com.project.SaasCRM.domain.TaskType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+public class TaskSeriesDTO {
+    private Long id;
+
+    @NotBlank
+    @Size(max = 100)
+    private String title;
+
+    @Size(max = 500)
+    private String description;
+
+    private TaskType type;
+    private TaskPriority priority;
+    private Long assigneeId;
+    private Long customerId;
+
+    @NotNull
+    private RecurrenceFrequency frequency;
+
+    private int interval = 1;
+    private Set<DayOfWeek> weekdays;
+
+    @NotNull
+    private LocalDateTime startAt;
+
+    private LocalDateTime untilAt;
+    private Integer maxOccurrences;
+    private Integer reminderMinutesBefore;
+    private boolean active;
+    private LocalDateTime materializedThrough;
+    private int occurrenceCount;
+    private Long createdByUserId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,28 @@
+package com.project.SaasCRM.domain.dto;
+
+import com.project.SaasCRM.domain.TaskPriority;
+import com.project.SaasCRM.domain.TaskStatus;
+import com.project.SaasCRM.domain.TaskType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatisticsDTO {
+    private Long assigneeId;
+    private long total;
+    private long open;
+    private long overdue;
+    private long dueToday;
+    private Map<TaskStatus, Long> byStatus;
+    private Map<TaskPriority, Long> byPriority;
+    private Map<TaskType, Long> byType;
+    private LocalDateTime dueCountsAsOf;
+}
@@ -0,0 +1,22 @@
+package com.project.SaasCRM.domain.dto;
+
+import com.project.SaasCRM.domain.TimelineSource;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineEntryDTO {
+    private TimelineSource source;
+    private Long id;
+    private LocalDateTime occurredAt;
+    private String title;
+    private String detail;
+    private Long userId;
+}
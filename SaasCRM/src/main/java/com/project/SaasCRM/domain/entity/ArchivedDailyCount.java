@@ -0,0 +1,34 @@
+package com.project.SaasCRM.domain.entity;
+
+import com.project.SaasCRM.domain.ArchiveSource;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "archived_daily_counts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_archived_daily_counts_key", columnNames = {"source", "day", "metric"})
+})
+@Data
+@NoArgsConstructor
+public class ArchivedDailyCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private ArchiveSource source;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false, length = 50)
+    private String metric;
+
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+}
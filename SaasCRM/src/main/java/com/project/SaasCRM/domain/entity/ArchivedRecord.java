@@ -0,0 +1,43 @@
+package com.project.SaasCRM.domain.entity;
+
+import com.project.SaasCRM.domain.ArchiveSource;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "archived_records", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_archived_records_source_record", columnNames = {"source", "record_id"})
+}, indexes = {
+        @Index(name = "idx_archived_records_source_customer_created",
+                columnList = "source, customer_id, created_at, record_id")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private ArchiveSource source;
+
+    @Column(name = "record_id", nullable = false)
+    private Long recordId;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] payload;
+}
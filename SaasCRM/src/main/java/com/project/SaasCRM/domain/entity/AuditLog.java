@@ -9,7 +9,9 @@ import lombok.Builder;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_logs_entity_timestamp", columnList = "entity_type, entity_id, timestamp, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
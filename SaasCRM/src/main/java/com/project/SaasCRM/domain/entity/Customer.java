@@ -17,7 +17,10 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "customers")
+@Table(name = "customers",
+    indexes = {
+        @Index(name = "idx_customers_health_score", columnList = "health_score")
+    })
 public class Customer {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -56,6 +59,12 @@ public class Customer {
     @Column(name = "last_contact")
     private LocalDateTime lastContact;
 
+    @Column(name = "health_score")
+    private Integer healthScore;
+
+    @Column(name = "health_score_updated_at")
+    private LocalDateTime healthScoreUpdatedAt;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
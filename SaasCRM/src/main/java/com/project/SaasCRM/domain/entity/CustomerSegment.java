@@ -0,0 +1,45 @@
+package com.project.SaasCRM.domain.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "customer_segments")
+@Data
+@NoArgsConstructor
+public class CustomerSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Size(max = 100)
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    @Size(max = 500)
+    private String description;
+
+    @NotBlank
+    @Column(name = "filter_definition", columnDefinition = "TEXT", nullable = false)
+    private String filterDefinition;
+
+    @Column(name = "created_by_user_id")
+    private Long createdByUserId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
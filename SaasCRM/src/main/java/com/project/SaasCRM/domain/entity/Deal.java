@@ -16,7 +16,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "deals")
+@Table(name = "deals", indexes = {
+        @Index(name = "idx_deals_customer_updated", columnList = "customer_id, updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
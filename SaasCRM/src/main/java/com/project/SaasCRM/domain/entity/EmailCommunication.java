@@ -10,7 +10,12 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "email_communications")
+@Table(name = "email_communications", indexes = {
+        @Index(name = "idx_email_communications_customer_created", columnList = "customer_id, created_at, id"),
+        @Index(name = "idx_email_communications_created_at", columnList = "created_at"),
+        @Index(name = "idx_email_communications_status_scheduled", columnList = "send_status, scheduled_for"),
+        @Index(name = "idx_email_communications_bulk_job", columnList = "bulk_job_id, send_status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -72,6 +77,9 @@ public class EmailCommunication {
     @Enumerated(EnumType.STRING)
     private SendStatus sendStatus;
 
+    @Column(name = "bulk_job_id", length = 36)
+    private String bulkJobId;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -0,0 +1,43 @@
+package com.project.SaasCRM.domain.entity;
+
+import com.project.SaasCRM.domain.EmailEventType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "email_daily_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_email_daily_stats_key",
+                columnNames = {"day", "template_id", "sender_email", "event_type"})
+})
+@Data
+@NoArgsConstructor
+public class EmailDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    /** The email's template, or 0 for emails not created from a template. */
+    @Column(name = "template_id", nullable = false)
+    private Long templateId;
+
+    @Column(name = "sender_email", nullable = false)
+    private String senderEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private EmailEventType eventType;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+
+    /** Emails whose first event of this type fell into this row; each email has one recipient. */
+    @Column(name = "unique_recipients", nullable = false)
+    private long uniqueRecipients;
+}
@@ -9,7 +9,10 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "email_events")
+@Table(name = "email_events", indexes = {
+        @Index(name = "idx_email_events_created_at", columnList = "created_at"),
+        @Index(name = "idx_email_events_email_type", columnList = "email_id, event_type")
+})
 @Data
 @NoArgsConstructor
 public class EmailEvent {
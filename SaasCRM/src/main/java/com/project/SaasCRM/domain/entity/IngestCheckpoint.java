@@ -0,0 +1,24 @@
+package com.project.SaasCRM.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ingest_checkpoints")
+@Data
+@NoArgsConstructor
+public class IngestCheckpoint {
+
+    @Id
+    @Column(length = 50)
+    private String stream;
+
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -12,7 +12,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "interactions")
+@Table(name = "interactions", indexes = {
+        @Index(name = "idx_interactions_customer_created", columnList = "customer_id, created_at, id"),
+        @Index(name = "idx_interactions_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 public class Interaction {
@@ -0,0 +1,43 @@
+package com.project.SaasCRM.domain.entity;
+
+import com.project.SaasCRM.domain.InteractionType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "interaction_daily_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_interaction_daily_rollup_key",
+                columnNames = {"day", "customer_id", "user_id", "type"})
+}, indexes = {
+        @Index(name = "idx_interaction_daily_rollup_customer_day", columnList = "customer_id, day")
+})
+@Data
+@NoArgsConstructor
+public class InteractionDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InteractionType type;
+
+    @Column(name = "interaction_count", nullable = false)
+    private long interactionCount;
+
+    @Column(name = "total_duration_minutes", nullable = false)
+    private long totalDurationMinutes;
+}
@@ -0,0 +1,57 @@
+package com.project.SaasCRM.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbound_emails", indexes = {
+        @Index(name = "idx_outbound_emails_due", columnList = "next_attempt_at, lease_until"),
+        @Index(name = "idx_outbound_emails_lease_owner", columnList = "lease_owner"),
+        @Index(name = "idx_outbound_emails_bulk_job", columnList = "bulk_job_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_outbound_emails_email", columnNames = {"email_id"})
+})
+@Data
+@NoArgsConstructor
+public class OutboundEmail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "email_id", nullable = false)
+    private Long emailId;
+
+    @Column(name = "attachment_path", length = 500)
+    private String attachmentPath;
+
+    @Column(name = "bulk_job_id", length = 36)
+    private String bulkJobId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "lease_owner", length = 36)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    // Set when the bulk job was cancelled while the message was leased; it is dropped instead of retried
+    @Column(nullable = false, columnDefinition = "BOOLEAN NOT NULL DEFAULT FALSE")
+    private boolean cancelled;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
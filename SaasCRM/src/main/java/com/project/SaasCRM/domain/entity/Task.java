@@ -14,7 +14,14 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_status_due_date", columnList = "status, due_date"),
+        @Index(name = "idx_tasks_assignee_status_due_id", columnList = "assignee_id, status, due_date, id"),
+        @Index(name = "idx_tasks_reminder_date", columnList = "reminder_date"),
+        @Index(name = "idx_tasks_customer_created", columnList = "customer_id, created_at, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tasks_series_due_date", columnNames = {"series_id", "due_date"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -72,6 +79,15 @@ public class Task {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    @Column(name = "escalated_at")
+    private LocalDateTime escalatedAt;
+
+    @Column(name = "reminder_sent_at")
+    private LocalDateTime reminderSentAt;
+
+    @Column(name = "series_id")
+    private Long seriesId;
+
     @PrePersist
     protected void onCreate() {
         if (status == null) {
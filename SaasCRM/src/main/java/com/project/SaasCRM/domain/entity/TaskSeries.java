@@ -0,0 +1,96 @@
+package com.project.SaasCRM.domain.entity;
+
+import com.project.SaasCRM.domain.RecurrenceFrequency;
+import com.project.SaasCRM.domain.TaskPriority;
+import com.project.SaasCRM.domain.TaskType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "task_series", indexes = {
+        @Index(name = "idx_task_series_active_materialized", columnList = "active, materialized_through")
+})
+@Data
+@NoArgsConstructor
+public class TaskSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Size(max = 100)
+    @Column(nullable = false)
+    private String title;
+
+    @Size(max = 500)
+    private String description;
+
+    @Column(name = "task_type")
+    @Enumerated(EnumType.STRING)
+    private TaskType type;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskPriority priority;
+
+    @Column(name = "assignee_id")
+    private Long assigneeId;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "recurrence_interval", nullable = false)
+    private int interval = 1;
+
+    /** Comma separated {@link java.time.DayOfWeek} names, only used by weekly series. */
+    @Column(name = "by_weekdays", length = 80)
+    private String byWeekdays;
+
+    @NotNull
+    @Column(name = "start_at", nullable = false)
+    private LocalDateTime startAt;
+
+    @Column(name = "until_at")
+    private LocalDateTime untilAt;
+
+    @Column(name = "max_occurrences")
+    private Integer maxOccurrences;
+
+    @Column(name = "reminder_minutes_before")
+    private Integer reminderMinutesBefore;
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    @Column(name = "materialized_through")
+    private LocalDateTime materializedThrough;
+
+    @Column(name = "occurrence_count", nullable = false)
+    private int occurrenceCount;
+
+    @Column(name = "created_by_user_id")
+    private Long createdByUserId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
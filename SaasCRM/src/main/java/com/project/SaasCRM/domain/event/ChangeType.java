@@ -0,0 +1,7 @@
+package com.project.SaasCRM.domain.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
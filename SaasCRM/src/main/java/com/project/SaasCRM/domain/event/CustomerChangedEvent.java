@@ -0,0 +1,14 @@
+package com.project.SaasCRM.domain.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by the customer write paths once a customer row or its assignments change.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CustomerChangedEvent {
+    private final Long customerId;
+    private final ChangeType changeType;
+}
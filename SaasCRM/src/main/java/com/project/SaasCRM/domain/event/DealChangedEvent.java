@@ -0,0 +1,15 @@
+package com.project.SaasCRM.domain.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by the deal write paths. {@code customerId} is the owning customer at the time of the change.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DealChangedEvent {
+    private final Long dealId;
+    private final Long customerId;
+    private final ChangeType changeType;
+}
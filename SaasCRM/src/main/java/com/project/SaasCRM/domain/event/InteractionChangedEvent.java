@@ -0,0 +1,15 @@
+package com.project.SaasCRM.domain.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by the interaction write paths. {@code customerId} is the customer the interaction belongs to.
+ */
+@Getter
+@RequiredArgsConstructor
+public class InteractionChangedEvent {
+    private final Long interactionId;
+    private final Long customerId;
+    private final ChangeType changeType;
+}
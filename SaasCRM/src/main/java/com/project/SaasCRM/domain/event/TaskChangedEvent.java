@@ -0,0 +1,18 @@
+package com.project.SaasCRM.domain.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by the task write paths once a task is created, changed or deleted.
+ *
+ * <p>{@code before} is {@code null} for creations and {@code after} is {@code null} for deletions.</p>
+ */
+@Getter
+@RequiredArgsConstructor
+public class TaskChangedEvent {
+    private final Long taskId;
+    private final ChangeType changeType;
+    private final TaskSnapshot before;
+    private final TaskSnapshot after;
+}
@@ -0,0 +1,30 @@
+package com.project.SaasCRM.domain.event;
+
+import com.project.SaasCRM.domain.TaskPriority;
+import com.project.SaasCRM.domain.TaskStatus;
+import com.project.SaasCRM.domain.TaskType;
+import com.project.SaasCRM.domain.entity.Task;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The counted attributes of a task at one point of a write, carried on {@link TaskChangedEvent}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class TaskSnapshot {
+    private final TaskStatus status;
+    private final TaskPriority priority;
+    private final TaskType type;
+    private final Long assigneeId;
+    private final LocalDateTime dueDate;
+    private final LocalDateTime reminderDate;
+
+    public static TaskSnapshot of(Task task) {
+        return new TaskSnapshot(task.getStatus(), task.getPriority(), task.getType(),
+                task.getAssignee() != null ? task.getAssignee().getId() : null,
+                task.getDueDate(), task.getReminderDate());
+    }
+}
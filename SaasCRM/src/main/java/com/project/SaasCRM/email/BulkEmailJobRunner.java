@@ -0,0 +1,444 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.domain.BulkEmailJobStatus;
+import com.project.SaasCRM.domain.SendStatus;
+import com.project.SaasCRM.domain.dto.BulkEmailJobDTO;
+import com.project.SaasCRM.domain.entity.Customer;
+import com.project.SaasCRM.domain.entity.EmailCommunication;
+import com.project.SaasCRM.domain.entity.EmailTemplate;
+import com.project.SaasCRM.repository.CustomerRepository;
+import com.project.SaasCRM.repository.EmailCommunicationRepository;
+import com.project.SaasCRM.repository.EmailTemplateRepository;
+import com.project.SaasCRM.service.AuditLogService;
+import com.project.SaasCRM.service.EmailValidationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bulk sends as background jobs with a job id for progress and cancellation.
+ *
+ * <p>A job validates its recipients and hands them to {@link OutboundEmailQueue} in batches, with
+ * the emails tagged with the job id, so the request that starts it returns at once. The sending
+ * itself is done by the {@link OutboundEmailDispatcher} of any node, which applies the per-domain and
+ * per-sender limits. The sent, failed, cancelled and waiting counts are therefore read from the
+ * emails' send status by job id, on every progress request and every
+ * {@code app.email.bulk.progress-refresh-ms} for running jobs. Cancelling stops further batches and
+ * cancels the job's messages in the queue, including those being sent and then put back. The job
+ * itself, its rejected count and its end state are kept in memory on the node that started it for
+ * {@code app.email.bulk.retention-ms} after it ends; other nodes, and the same node after a restart,
+ * answer from the emails alone.</p>
+ *
+ * <p>A mail merge job renders a stored template for each customer with their own variables through
+ * a {@link MailMergePipeline}: customers load in batches, rendering runs on
+ * {@code app.email.merge.render-threads} workers per job and the job thread queues the results. The
+ * render pool has room for that many workers for each of the {@code app.email.bulk.concurrent-jobs}
+ * jobs, since a merge's workers hold their threads until it ends. The job waits while
+ * more than {@code app.email.merge.max-backlog} of its messages are queued but not yet sent, so it
+ * moves at the pace of the SMTP senders instead of filling the queue.</p>
+ */
+@Component
+@Slf4j
+public class BulkEmailJobRunner {
+
+    private final OutboundEmailQueue queue;
+    private final EmailCommunicationRepository emailCommunicationRepository;
+    private final CustomerRepository customerRepository;
+    private final EmailTemplateRepository emailTemplateRepository;
+    private final EmailValidationService emailValidationService;
+    private final AuditLogService auditLogService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService runner;
+    private final ExecutorService renderPool;
+    private final int renderThreads;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${app.email.bulk.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.email.bulk.retention-ms:86400000}")
+    private long retentionMillis;
+
+    @Value("${app.email.merge.queue-capacity:4}")
+    private int mergeQueueCapacity;
+
+    @Value("${app.email.merge.max-backlog:5000}")
+    private int mergeMaxBacklog;
+
+    @Value("${app.email.merge.backlog-poll-ms:200}")
+    private long backlogPollMillis;
+
+    public BulkEmailJobRunner(OutboundEmailQueue queue,
+                              EmailCommunicationRepository emailCommunicationRepository,
+                              CustomerRepository customerRepository,
+                              EmailTemplateRepository emailTemplateRepository,
+                              EmailValidationService emailValidationService,
+                              AuditLogService auditLogService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.email.bulk.concurrent-jobs:2}") int concurrentJobs,
+                              @Value("${app.email.merge.render-threads:0}") int renderThreads) {
+        this.queue = queue;
+        this.emailCommunicationRepository = emailCommunicationRepository;
+        this.customerRepository = customerRepository;
+        this.emailTemplateRepository = emailTemplateRepository;
+        this.emailValidationService = emailValidationService;
+        this.auditLogService = auditLogService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threads = new AtomicInteger();
+        this.runner = Executors.newFixedThreadPool(Math.max(1, concurrentJobs), runnable -> {
+            Thread thread = new Thread(runnable, "bulk-email-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.renderThreads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger renderers = new AtomicInteger();
+        this.renderPool = Executors.newFixedThreadPool(this.renderThreads * Math.max(1, concurrentJobs), runnable -> {
+            Thread thread = new Thread(runnable, "mail-merge-render-" + renderers.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        renderPool.shutdownNow();
+    }
+
+    /**
+     * Starts queueing {@code content} to every distinct recipient.
+     *
+     * @return the initial progress, including the job id
+     */
+    public BulkEmailJobDTO start(Collection<String> recipients, String subject, String content) {
+        evictFinished();
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String recipient : recipients) {
+            if (recipient != null && !recipient.isBlank()) {
+                distinct.add(recipient.trim());
+            }
+        }
+        Job job = new Job(UUID.randomUUID().toString(), distinct.size());
+        jobs.put(job.id, job);
+        runner.execute(() -> run(job, new ArrayList<>(distinct), subject, content));
+        auditLogService.logSystemActivity("BULK_EMAIL_STARTED", "EMAIL", null);
+        return job.toDto();
+    }
+
+    /**
+     * Starts a mail merge of {@code template} to every distinct customer. Each customer's email gets
+     * the shared {@code variables} plus {@code customerId}, {@code customerName} and
+     * {@code customerEmail}; a {@code null} subject renders the template's subject.
+     *
+     * @return the initial progress, including the job id
+     */
+    public BulkEmailJobDTO startMerge(CompiledEmailTemplate template, Collection<Long> customerIds,
+                                      String subject, Map<String, Object> variables) {
+        evictFinished();
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (Long customerId : customerIds) {
+            if (customerId != null) {
+                distinct.add(customerId);
+            }
+        }
+        Job job = new Job(UUID.randomUUID().toString(), distinct.size());
+        jobs.put(job.id, job);
+        Map<String, Object> shared = variables != null ? new HashMap<>(variables) : Map.of();
+        runner.execute(() -> runMerge(job, new ArrayList<>(distinct), template, subject, shared));
+        auditLogService.logSystemActivity("MAIL_MERGE_STARTED", "EMAIL_TEMPLATE", template.getId());
+        return job.toDto();
+    }
+
+    public Optional<BulkEmailJobDTO> find(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job != null) {
+            refresh(job);
+            return Optional.of(job.toDto());
+        }
+        return fromEmails(jobId);
+    }
+
+    /**
+     * Cancels a job. Messages already being sent still go out. A job started on another node has its
+     * queued messages cancelled, but that node keeps queueing any batches it has not queued yet.
+     *
+     * @return the job's progress, or empty if it is unknown
+     */
+    public Optional<BulkEmailJobDTO> cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            Optional<BulkEmailJobDTO> progress = fromEmails(jobId);
+            if (progress.isPresent() && progress.get().getStatus() == BulkEmailJobStatus.RUNNING) {
+                queue.cancelBulkJob(jobId);
+                auditLogService.logSystemActivity("BULK_EMAIL_CANCELLED", "EMAIL", null);
+                return fromEmails(jobId);
+            }
+            return progress;
+        }
+        if (job.status == BulkEmailJobStatus.RUNNING) {
+            job.cancelRequested = true;
+            queue.cancelBulkJob(jobId);
+            auditLogService.logSystemActivity("BULK_EMAIL_CANCELLED", "EMAIL", null);
+        }
+        refresh(job);
+        return Optional.of(job.toDto());
+    }
+
+    /**
+     * Re-reads the progress of the running jobs that have queued everything, so they finish and can be
+     * evicted even when nobody asks for them.
+     */
+    @Scheduled(fixedDelayString = "${app.email.bulk.progress-refresh-ms:5000}")
+    public void refreshRunning() {
+        for (Job job : jobs.values()) {
+            if (job.enqueueDone && job.status == BulkEmailJobStatus.RUNNING) {
+                refresh(job);
+            }
+        }
+    }
+
+    private void refresh(Job job) {
+        job.update(countByStatus(job.id));
+    }
+
+    /**
+     * The progress of a job this node does not know, from its emails: running while any is waiting.
+     */
+    private Optional<BulkEmailJobDTO> fromEmails(String jobId) {
+        Map<SendStatus, Integer> counts = countByStatus(jobId);
+        if (counts.isEmpty()) {
+            return Optional.empty();
+        }
+        Job job = new Job(jobId, 0);
+        job.update(counts);
+        return Optional.of(BulkEmailJobDTO.builder()
+                .jobId(jobId)
+                .status(job.waiting.get() > 0 ? BulkEmailJobStatus.RUNNING : BulkEmailJobStatus.COMPLETED)
+                .total(job.queued.get())
+                .queued(job.queued.get())
+                .sent(job.sent.get())
+                .failed(job.failed.get())
+                .cancelled(job.cancelled.get())
+                .build());
+    }
+
+    private Map<SendStatus, Integer> countByStatus(String jobId) {
+        Map<SendStatus, Integer> counts = new EnumMap<>(SendStatus.class);
+        for (Object[] row : emailCommunicationRepository.countByBulkJobIdGroupedBySendStatus(jobId)) {
+            if (row[0] != null) {
+                counts.put((SendStatus) row[0], ((Number) row[1]).intValue());
+            }
+        }
+        return counts;
+    }
+
+    private void run(Job job, List<String> recipients, String subject, String content) {
+        try {
+            for (int from = 0; from < recipients.size() && !job.cancelRequested; from += batchSize) {
+                List<EmailCommunication> emails = new ArrayList<>(batchSize);
+                for (String recipient : recipients.subList(from, Math.min(from + batchSize, recipients.size()))) {
+                    if (isAcceptable(recipient)) {
+                        emails.add(newPendingEmail(recipient, subject, content, job.id));
+                    } else {
+                        job.rejected.incrementAndGet();
+                    }
+                }
+                if (emails.isEmpty()) {
+                    continue;
+                }
+                transactionTemplate.executeWithoutResult(status ->
+                        queue.enqueueAll(emailCommunicationRepository.saveAll(emails), job.id));
+                job.queued.addAndGet(emails.size());
+            }
+        } catch (RuntimeException e) {
+            log.error("Bulk email job {} failed after queueing {} messages", job.id, job.queued.get(), e);
+            job.error = e.getMessage();
+        } finally {
+            job.enqueueDone = true;
+            refresh(job);
+        }
+    }
+
+    private void runMerge(Job job, List<Long> customerIds, CompiledEmailTemplate template, String subject,
+                          Map<String, Object> shared) {
+        EmailTemplate templateRef = emailTemplateRepository.getReferenceById(template.getId());
+        MailMergePipeline pipeline = new MailMergePipeline(renderPool, renderThreads, mergeQueueCapacity,
+                "mail-merge-" + job.id);
+        try {
+            pipeline.run(customerIds, batchSize, new MailMergePipeline.Stages() {
+                @Override
+                public List<Customer> load(List<Long> ids) {
+                    List<Customer> customers = customerRepository.findAllById(ids);
+                    job.rejected.addAndGet(ids.size() - customers.size());
+                    return customers;
+                }
+
+                @Override
+                public EmailCommunication render(Customer customer, StringBuilder buffer) {
+                    String recipient = customer.getEmail() != null ? customer.getEmail().trim() : null;
+                    if (recipient == null || !isAcceptable(recipient)) {
+                        job.rejected.incrementAndGet();
+                        return null;
+                    }
+                    Map<String, Object> values = new HashMap<>(shared);
+                    values.put("customerId", customer.getId());
+                    values.put("customerName", customer.getName());
+                    values.put("customerEmail", recipient);
+                    template.renderContent(values, buffer);
+                    EmailCommunication email = newPendingEmail(recipient,
+                            subject != null ? subject : template.renderSubject(values), buffer.toString(), job.id);
+                    email.setCustomer(customer);
+                    email.setEmailTemplate(templateRef);
+                    return email;
+                }
+
+                @Override
+                public void write(List<EmailCommunication> emails) throws InterruptedException {
+                    // Read from the emails, since other nodes may be the ones sending them
+                    refresh(job);
+                    while (job.waiting.get() > mergeMaxBacklog && !job.cancelRequested) {
+                        Thread.sleep(backlogPollMillis);
+                        refresh(job);
+                    }
+                    if (job.cancelRequested) {
+                        return;
+                    }
+                    transactionTemplate.executeWithoutResult(status ->
+                            queue.enqueueAll(emailCommunicationRepository.saveAll(emails), job.id));
+                    job.queued.addAndGet(emails.size());
+                }
+
+                @Override
+                public boolean isStopped() {
+                    return job.cancelRequested;
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.error = "Interrupted";
+        } catch (RuntimeException e) {
+            log.error("Mail merge job {} failed after queueing {} messages", job.id, job.queued.get(), e);
+            job.error = e.getMessage();
+        } finally {
+            job.enqueueDone = true;
+            refresh(job);
+        }
+    }
+
+    private boolean isAcceptable(String recipient) {
+        return emailValidationService.isValidEmail(recipient)
+                && emailValidationService.isValidDomain(DomainThrottle.domainOf(recipient))
+                && !emailValidationService.isDisposableEmail(recipient);
+    }
+
+    private EmailCommunication newPendingEmail(String to, String subject, String content, String bulkJobId) {
+        return EmailCommunication.builder()
+                .subject(subject)
+                .content(content)
+                .senderEmail(fromEmail)
+                .recipientEmail(to)
+                .isOpened(false)
+                .clickCount(0)
+                .createdAt(LocalDateTime.now())
+                .sendStatus(SendStatus.PENDING)
+                .bulkJobId(bulkJobId)
+                .build();
+    }
+
+    private void evictFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(retentionMillis));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static final class Job {
+        private final String id;
+        private final int total;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        // Read from the emails by refresh
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger cancelled = new AtomicInteger();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private volatile boolean enqueueDone;
+        private volatile boolean cancelRequested;
+        private volatile BulkEmailJobStatus status = BulkEmailJobStatus.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(String id, int total) {
+            this.id = id;
+            this.total = total;
+        }
+
+        /**
+         * Takes the counts of the job's emails by send status; cancelled ones are back to drafts and
+         * anything else has not reached its outcome yet.
+         */
+        void update(Map<SendStatus, Integer> counts) {
+            int total = 0;
+            for (int count : counts.values()) {
+                total += count;
+            }
+            int done = counts.getOrDefault(SendStatus.SENT, 0) + counts.getOrDefault(SendStatus.FAILED, 0)
+                    + counts.getOrDefault(SendStatus.DRAFT, 0);
+            sent.set(counts.getOrDefault(SendStatus.SENT, 0));
+            failed.set(counts.getOrDefault(SendStatus.FAILED, 0));
+            cancelled.set(counts.getOrDefault(SendStatus.DRAFT, 0));
+            waiting.set(total - done);
+            queued.set(Math.max(queued.get(), total));
+            updateStatus();
+        }
+
+        synchronized void updateStatus() {
+            if (status != BulkEmailJobStatus.RUNNING || !enqueueDone || waiting.get() > 0) {
+                return;
+            }
+            status = error != null ? BulkEmailJobStatus.FAILED
+                    : cancelRequested ? BulkEmailJobStatus.CANCELLED
+                    : BulkEmailJobStatus.COMPLETED;
+            finishedAt = LocalDateTime.now();
+        }
+
+        BulkEmailJobDTO toDto() {
+            return BulkEmailJobDTO.builder()
+                    .jobId(id)
+                    .status(status)
+                    .total(total)
+                    .rejected(rejected.get())
+                    .queued(queued.get())
+                    .sent(sent.get())
+                    .failed(failed.get())
+                    .cancelled(cancelled.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .errorMessage(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.domain.entity.EmailTemplate;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable render plan of an {@link EmailTemplate} version.
+ *
+ * <p>The subject and content are split once into literal text and {@code ${variable}} slots, so
+ * rendering is a single pass of string appends. Values are HTML-escaped in the content but not in
+ * the subject; a variable without a value renders as an empty string.</p>
+ */
+public final class CompiledEmailTemplate {
+
+    private final Long id;
+    private final Long version;
+    private final String name;
+    private final Text subject;
+    private final Text content;
+    private final Set<String> variables;
+
+    private CompiledEmailTemplate(EmailTemplate template) {
+        this.id = template.getId();
+        this.version = template.getVersion();
+        this.name = template.getName();
+        this.subject = Text.parse(template.getSubjectTemplate());
+        this.content = Text.parse(template.getContentTemplate());
+        Set<String> all = new LinkedHashSet<>(subject.variables);
+        all.addAll(content.variables);
+        this.variables = Collections.unmodifiableSet(all);
+    }
+
+    public static CompiledEmailTemplate compile(EmailTemplate template) {
+        return new CompiledEmailTemplate(template);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The variables used by the subject or the content, in order of first use.
+     */
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * The variables used by the content, in order of first use.
+     */
+    public Set<String> getContentVariables() {
+        return content.variables;
+    }
+
+    public String renderSubject(Map<String, ?> values) {
+        return subject.render(values, false);
+    }
+
+    public String renderContent(Map<String, ?> values) {
+        return content.render(values, true);
+    }
+
+    /**
+     * Appends the rendered content to {@code out}, so a caller rendering many recipients can reuse
+     * one buffer.
+     */
+    public void renderContent(Map<String, ?> values, StringBuilder out) {
+        content.render(values, true, out);
+    }
+
+    /**
+     * One template string as alternating literals and variable names:
+     * {@code literals[0] var[0] literals[1] ... var[n-1] literals[n]}.
+     */
+    private static final class Text {
+        private final String[] literals;
+        private final String[] slots;
+        private final Set<String> variables;
+        private final int literalLength;
+
+        private Text(String[] literals, String[] slots) {
+            this.literals = literals;
+            this.slots = slots;
+            Set<String> names = new LinkedHashSet<>();
+            Collections.addAll(names, slots);
+            this.variables = Collections.unmodifiableSet(names);
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        static Text parse(String source) {
+            List<String> literals = new ArrayList<>();
+            List<String> slots = new ArrayList<>();
+            String text = source != null ? source : "";
+            int position = 0;
+            while (true) {
+                int start = text.indexOf("${", position);
+                int end = start < 0 ? -1 : text.indexOf('}', start + 2);
+                if (end < 0) {
+                    literals.add(text.substring(position));
+                    break;
+                }
+                literals.add(text.substring(position, start));
+                slots.add(text.substring(start + 2, end));
+                position = end + 1;
+            }
+            return new Text(literals.toArray(new String[0]), slots.toArray(new String[0]));
+        }
+
+        String render(Map<String, ?> values, boolean escape) {
+            if (slots.length == 0) {
+                return literals[0];
+            }
+            StringBuilder out = new StringBuilder(literalLength + slots.length * 16);
+            render(values, escape, out);
+            return out.toString();
+        }
+
+        void render(Map<String, ?> values, boolean escape, StringBuilder out) {
+            for (int i = 0; i < slots.length; i++) {
+                out.append(literals[i]);
+                Object value = values.get(slots[i]);
+                if (value != null) {
+                    out.append(escape ? HtmlUtils.htmlEscape(value.toString()) : value.toString());
+                }
+            }
+            out.append(literals[slots.length]);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.project.SaasCRM.email;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Blocklist of disposable email domains, matched by suffix: an entry blocks the domain itself and
+ * all of its subdomains.
+ *
+ * <p>The list is held as a trie over reversed domain labels, flattened into arrays: the children of
+ * a node are consecutive and sorted by label, so a lookup walks the address's labels from the right
+ * with one binary search per label and allocates nothing. Reads go through a single volatile
+ * reference to an immutable {@link Trie}.</p>
+ *
+ * <p>The list comes from {@code app.email.disposable-domains.file}, one domain per line with
+ * {@code #} comments, or from the bundled {@code disposable-domains.txt} when no file is set. The file
+ * is checked for changes every {@code reload-interval-ms}; a new trie is built on the side and swapped
+ * in, so lookups never wait for a reload. A file that fails to load leaves the previous list in
+ * place.</p>
+ */
+@Component
+@Slf4j
+public class DisposableDomainIndex {
+
+    private static final String BUNDLED_LIST = "disposable-domains.txt";
+    private static final int MAX_DOMAIN_LENGTH = 253;
+    private static final int MAX_LABEL_LENGTH = 63;
+
+    private final Path file;
+    private volatile Trie trie;
+    private FileTime loadedAt;
+
+    public DisposableDomainIndex(@Value("${app.email.disposable-domains.file:}") String file) {
+        this.file = StringUtils.hasText(file) ? Path.of(file.trim()) : null;
+        if (this.file == null || !reload()) {
+            this.trie = loadBundled();
+        }
+    }
+
+    /**
+     * Whether the domain of {@code email}, everything after its last {@code @} without a trailing dot,
+     * or one of its parent domains is on the list.
+     */
+    public boolean isDisposable(String email) {
+        int from = email.lastIndexOf('@') + 1;
+        int to = email.length();
+        if (to > from && email.charAt(to - 1) == '.') {
+            // Fully qualified form of the same domain
+            to--;
+        }
+        return trie.matches(email, from, to);
+    }
+
+    public int size() {
+        return trie.domains;
+    }
+
+    /**
+     * Reloads the list file if it changed since the last load.
+     */
+    @Scheduled(fixedDelayString = "${app.email.disposable-domains.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        if (file == null) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (!modified.equals(loadedAt)) {
+                reload();
+            }
+        } catch (IOException e) {
+            log.warn("Cannot read disposable domain list {}, keeping {} domains", file, size());
+        }
+    }
+
+    private synchronized boolean reload() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            Trie loaded;
+            try (InputStream in = Files.newInputStream(file)) {
+                loaded = read(in);
+            }
+            trie = loaded;
+            loadedAt = modified;
+            log.info("Loaded {} disposable email domains from {}", loaded.domains, file);
+            return true;
+        } catch (IOException e) {
+            log.warn("Cannot load disposable domain list {}", file, e);
+            return false;
+        }
+    }
+
+    private static Trie loadBundled() {
+        try (InputStream in = new ClassPathResource(BUNDLED_LIST).getInputStream()) {
+            return read(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load bundled " + BUNDLED_LIST, e);
+        }
+    }
+
+    private static Trie read(InputStream in) throws IOException {
+        Trie.Builder builder = new Trie.Builder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comment = line.indexOf('#');
+                String domain = (comment >= 0 ? line.substring(0, comment) : line).trim().toLowerCase(Locale.ROOT);
+                if (domain.startsWith("*.")) {
+                    domain = domain.substring(2);
+                } else if (domain.startsWith(".")) {
+                    domain = domain.substring(1);
+                }
+                if (isValidDomain(domain, 0, domain.length())) {
+                    builder.add(domain);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Whether {@code s[from, to)} is a host name of dot-separated labels of letters, digits and inner
+     * hyphens, with an alphabetic top-level label of at least two letters.
+     */
+    public static boolean isValidDomain(CharSequence s, int from, int to) {
+        if (to - from > MAX_DOMAIN_LENGTH || to <= from) {
+            return false;
+        }
+        int labels = 0;
+        int labelStart = from;
+        boolean alphabetic = true;
+        for (int i = from; i <= to; i++) {
+            char c = i < to ? s.charAt(i) : '.';
+            if (c == '.') {
+                int length = i - labelStart;
+                if (length == 0 || length > MAX_LABEL_LENGTH
+                        || s.charAt(labelStart) == '-' || s.charAt(i - 1) == '-') {
+                    return false;
+                }
+                labels++;
+                if (i == to) {
+                    return labels >= 2 && alphabetic && length >= 2;
+                }
+                labelStart = i + 1;
+                alphabetic = true;
+            } else if (!isLetter(c)) {
+                if ((c < '0' || c > '9') && c != '-') {
+                    return false;
+                }
+                alphabetic = false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * Immutable flattened trie. Node 0 is the root; node {@code n} has the children
+     * {@code [firstChild[n], firstChild[n + 1])}, and {@code labels[c]} is the label leading to
+     * node {@code c}.
+     */
+    private static final class Trie {
+        private final int[] firstChild;
+        private final String[] labels;
+        private final BitSet terminal;
+        private final int domains;
+
+        private Trie(int[] firstChild, String[] labels, BitSet terminal, int domains) {
+            this.firstChild = firstChild;
+            this.labels = labels;
+            this.terminal = terminal;
+            this.domains = domains;
+        }
+
+        boolean matches(String s, int from, int to) {
+            int node = 0;
+            int end = to;
+            while (end > from) {
+                int dot = s.lastIndexOf('.', end - 1);
+                int start = Math.max(dot + 1, from);
+                node = child(node, s, start, end);
+                if (node < 0) {
+                    return false;
+                }
+                if (terminal.get(node)) {
+                    return true;
+                }
+                end = start - 1;
+            }
+            return false;
+        }
+
+        private int child(int node, String s, int start, int end) {
+            int low = firstChild[node];
+            int high = firstChild[node + 1] - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(labels[mid], s, start, end);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Compares a lower-case label with {@code s[start, end)}, ignoring the case of ASCII letters.
+         */
+        private static int compare(String label, String s, int start, int end) {
+            int length = Math.min(label.length(), end - start);
+            for (int i = 0; i < length; i++) {
+                char c = s.charAt(start + i);
+                if (c >= 'A' && c <= 'Z') {
+                    c = (char) (c + ('a' - 'A'));
+                }
+                int diff = label.charAt(i) - c;
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return label.length() - (end - start);
+        }
+
+        private static final class Builder {
+            private final Node root = new Node();
+            private int domains;
+
+            void add(String domain) {
+                Node node = root;
+                int end = domain.length();
+                while (end > 0) {
+                    int start = domain.lastIndexOf('.', end - 1) + 1;
+                    node = node.children.computeIfAbsent(domain.substring(start, end), label -> new Node());
+                    end = start - 1;
+                }
+                if (!node.terminal) {
+                    node.terminal = true;
+                    domains++;
+                }
+            }
+
+            /**
+             * Numbers the nodes breadth first, which keeps every node's children consecutive.
+             */
+            Trie build() {
+                List<Node> order = new ArrayList<>();
+                List<String> labels = new ArrayList<>();
+                ArrayDeque<Node> queue = new ArrayDeque<>();
+                order.add(root);
+                labels.add("");
+                queue.add(root);
+                List<Integer> firstChild = new ArrayList<>();
+                while (!queue.isEmpty()) {
+                    Node node = queue.poll();
+                    firstChild.add(order.size());
+                    for (Map.Entry<String, Node> child : node.children.entrySet()) {
+                        order.add(child.getValue());
+                        labels.add(child.getKey());
+                        queue.add(child.getValue());
+                    }
+                }
+                int[] first = new int[order.size() + 1];
+                for (int i = 0; i < firstChild.size(); i++) {
+                    first[i] = firstChild.get(i);
+                }
+                first[order.size()] = order.size();
+                BitSet terminal = new BitSet(order.size());
+                for (int i = 0; i < order.size(); i++) {
+                    if (order.get(i).terminal) {
+                        terminal.set(i);
+                    }
+                }
+                return new Trie(first, labels.toArray(new String[0]), terminal, domains);
+            }
+        }
+
+        private static final class Node {
+            // Sorted, so the flattened children can be binary searched
+            private final Map<String, Node> children = new TreeMap<>();
+            private boolean terminal;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.project.SaasCRM.email;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caps concurrent sends and the send rate per recipient domain, so that a large mailing to one
+ * mailbox provider does not get the sender throttled or blocked.
+ *
+ * <p>Every domain gets {@code app.email.domain-limits.concurrency} parallel sends and a token bucket
+ * of {@code per-minute} messages; {@code overrides} takes {@code domain:concurrency:perMinute} entries
+ * separated by commas for the large providers.</p>
+ */
+@Component
+public class DomainThrottle {
+
+    private final int defaultConcurrency;
+    private final int defaultPerMinute;
+    private final long busyRetryMillis;
+    private final Map<String, int[]> overrides = new HashMap<>();
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public DomainThrottle(@Value("${app.email.domain-limits.concurrency:2}") int defaultConcurrency,
+                          @Value("${app.email.domain-limits.per-minute:120}") int defaultPerMinute,
+                          @Value("${app.email.domain-limits.busy-retry-ms:1000}") long busyRetryMillis,
+                          @Value("${app.email.domain-limits.overrides:}") String overrides) {
+        this.defaultConcurrency = Math.max(1, defaultConcurrency);
+        this.defaultPerMinute = Math.max(1, defaultPerMinute);
+        this.busyRetryMillis = busyRetryMillis;
+        for (String entry : StringUtils.commaDelimitedListToStringArray(overrides)) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid domain limit, expected domain:concurrency:perMinute: " + entry);
+            }
+            this.overrides.put(parts[0].toLowerCase(Locale.ROOT),
+                    new int[]{Math.max(1, Integer.parseInt(parts[1])), Math.max(1, Integer.parseInt(parts[2]))});
+        }
+    }
+
+    /**
+     * Takes a send slot for the domain of {@code recipient}.
+     *
+     * @return {@code 0} if a slot was taken and must be given back with {@link #release}, otherwise
+     * roughly how many milliseconds to wait before trying again
+     */
+    public long tryAcquire(String recipient) {
+        return buckets.computeIfAbsent(domainOf(recipient), this::newBucket).tryAcquire(System.currentTimeMillis());
+    }
+
+    public void release(String recipient) {
+        Bucket bucket = buckets.get(domainOf(recipient));
+        if (bucket != null) {
+            bucket.release();
+        }
+    }
+
+    static String domainOf(String recipient) {
+        return recipient.substring(recipient.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private Bucket newBucket(String domain) {
+        int[] limits = overrides.get(domain);
+        return limits != null ? new Bucket(limits[0], limits[1]) : new Bucket(defaultConcurrency, defaultPerMinute);
+    }
+
+    private final class Bucket {
+        private final int maxConcurrent;
+        private final double tokensPerMilli;
+        private final double capacity;
+        private int active;
+        private double tokens;
+        private long refilledAt = System.currentTimeMillis();
+
+        private Bucket(int maxConcurrent, int perMinute) {
+            this.maxConcurrent = maxConcurrent;
+            this.tokensPerMilli = perMinute / 60_000.0;
+            // Allows a burst of one concurrency's worth of messages
+            this.capacity = Math.max(1, maxConcurrent);
+            this.tokens = capacity;
+        }
+
+        synchronized long tryAcquire(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerMilli);
+            refilledAt = now;
+            if (active >= maxConcurrent) {
+                return busyRetryMillis;
+            }
+            if (tokens < 1) {
+                return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerMilli));
+            }
+            tokens -= 1;
+            active++;
+            return 0;
+        }
+
+        synchronized void release() {
+            active = Math.max(0, active - 1);
+        }
+    }
+}
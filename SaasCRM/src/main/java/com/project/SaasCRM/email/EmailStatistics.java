@@ -0,0 +1,123 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.domain.EmailEventType;
+import com.project.SaasCRM.repository.EmailDailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Email engagement statistics backed by {@code email_daily_stats}, which keeps one row per day,
+ * template, sender and event type with the number of events and of emails reaching that event for
+ * the first time.
+ *
+ * <p>The send and tracking paths collect their changes in a {@link Delta} and apply it with one upsert
+ * per distinct row, in the same transaction as the events themselves. Reads aggregate rollup rows
+ * only, so they work on whole days.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailStatistics {
+
+    private static final String UPSERT_SQL = "INSERT INTO email_daily_stats "
+            + "(day, template_id, sender_email, event_type, event_count, unique_recipients) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE event_count = event_count + VALUES(event_count), "
+            + "unique_recipients = unique_recipients + VALUES(unique_recipients)";
+
+    private final EmailDailyStatsRepository statsRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Summed counts of one event type.
+     */
+    public record Counts(long events, long uniqueRecipients) {
+        public static final Counts NONE = new Counts(0, 0);
+    }
+
+    private record Key(LocalDate day, long templateId, String sender, EmailEventType type) {
+    }
+
+    /**
+     * Changes to the rollup collected while writing a batch of events.
+     */
+    public static final class Delta {
+        private final Map<Key, long[]> rows = new HashMap<>();
+
+        /**
+         * Counts one event; {@code first} marks the email's first event of this type.
+         */
+        public void add(LocalDateTime at, Long templateId, String sender, EmailEventType type, boolean first) {
+            long[] row = rows.computeIfAbsent(new Key(at.toLocalDate(), templateId != null ? templateId : 0L,
+                    sender != null ? sender : "", type), key -> new long[2]);
+            row[0]++;
+            if (first) {
+                row[1]++;
+            }
+        }
+
+        public boolean isEmpty() {
+            return rows.isEmpty();
+        }
+    }
+
+    /**
+     * Applies {@code delta} in the caller's transaction.
+     */
+    public void apply(Delta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(delta.rows.size());
+        delta.rows.forEach((key, counts) -> rows.add(new Object[]{Date.valueOf(key.day()), key.templateId(),
+                key.sender(), key.type().name(), counts[0], counts[1]}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    /**
+     * Sums the rollup over the days {@code [fromDay, toDay]} per event type.
+     */
+    public Map<EmailEventType, Counts> totals(LocalDate fromDay, LocalDate toDay) {
+        Map<EmailEventType, Counts> totals = new EnumMap<>(EmailEventType.class);
+        for (Object[] row : statsRepository.sumByEventType(fromDay, toDay)) {
+            totals.put((EmailEventType) row[0], new Counts(((Number) row[1]).longValue(), ((Number) row[2]).longValue()));
+        }
+        return totals;
+    }
+
+    /**
+     * Sums the rollup over the days {@code [fromDay, toDay]} per day and event type. Days without
+     * events are left out.
+     */
+    public Map<LocalDate, Map<EmailEventType, Counts>> byDay(LocalDate fromDay, LocalDate toDay) {
+        Map<LocalDate, Map<EmailEventType, Counts>> days = new TreeMap<>();
+        for (Object[] row : statsRepository.sumByDayAndEventType(fromDay, toDay)) {
+            days.computeIfAbsent((LocalDate) row[0], day -> new EnumMap<>(EmailEventType.class))
+                    .put((EmailEventType) row[1], new Counts(((Number) row[2]).longValue(),
+                            ((Number) row[3]).longValue()));
+        }
+        return days;
+    }
+
+    /**
+     * Emails reaching {@code type} for the first time in {@code [fromDay, toDay]} per email sent on
+     * those days, in percent.
+     */
+    public double rate(LocalDate fromDay, LocalDate toDay, EmailEventType type) {
+        Map<EmailEventType, Counts> totals = totals(fromDay, toDay);
+        long sent = totals.getOrDefault(EmailEventType.SENT, Counts.NONE).uniqueRecipients();
+        if (sent == 0) {
+            return 0.0;
+        }
+        return (double) totals.getOrDefault(type, Counts.NONE).uniqueRecipients() / sent * 100;
+    }
+}
@@ -0,0 +1,196 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.domain.ArchiveSource;
+import com.project.SaasCRM.domain.JobPartitionStatus;
+import com.project.SaasCRM.job.PartitionedJobRunner;
+import com.project.SaasCRM.job.PartitionedJobRunner.BatchResult;
+import com.project.SaasCRM.repository.ArchivedRecordRepository;
+import com.project.SaasCRM.repository.EmailDailyStatsRepository;
+import com.project.SaasCRM.repository.EmailEventRepository;
+import com.project.SaasCRM.repository.JobCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds {@code email_daily_stats} from {@code email_events}.
+ *
+ * <p>Works like the interaction rollup rebuild: a fresh run clears the rollup, then aggregates the
+ * event id space range by range with {@code INSERT ... SELECT ... GROUP BY} through
+ * {@link PartitionedJobRunner}, so an interrupted rebuild resumes from its checkpoints. An event
+ * counts towards {@code unique_recipients} when no earlier event of the same type exists for its
+ * email. Runs on startup when the rollup is empty but events exist, and on demand.</p>
+ *
+ * <p>Live upserts keep running during a rebuild. The id space is bounded before the rollup is
+ * cleared and the run only aggregates up to that bound, which the checkpoints keep across a resume;
+ * events above it are counted by the live upserts alone, so nothing is counted twice. Only events
+ * committed in the short window between taking the bound and the clear can be miscounted.</p>
+ *
+ * <p>Days up to the newest archived event keep their rollup rows. Archived days that have none yet
+ * are filled from the totals in {@code archived_daily_counts}; those have no template or sender, and
+ * their unique counts are the event counts.</p>
+ */
+@Component
+@Slf4j
+public class EmailStatsRollupBackfill {
+
+    static final String JOB_NAME = "email-stats-rollup-backfill";
+
+    private static final LocalDate EPOCH_DAY = LocalDate.of(1970, 1, 1);
+    private static final String CLEAR_SQL = "DELETE FROM email_daily_stats WHERE day >= ?";
+    private static final String ARCHIVED_SQL = "INSERT INTO email_daily_stats "
+            + "(day, template_id, sender_email, event_type, event_count, unique_recipients) "
+            + "SELECT a.day, 0, '', a.metric, a.record_count, a.record_count FROM archived_daily_counts a "
+            + "WHERE a.source = ? AND a.day < ? AND NOT EXISTS (SELECT 1 FROM email_daily_stats s "
+            + "WHERE s.day = a.day AND (s.template_id <> 0 OR s.sender_email <> '')) "
+            + "ON DUPLICATE KEY UPDATE event_count = VALUES(event_count), "
+            + "unique_recipients = VALUES(unique_recipients)";
+    private static final String BATCH_BOUNDS_SQL = "SELECT COUNT(*), MAX(id) FROM "
+            + "(SELECT id FROM email_events WHERE id > ? AND id <= ? ORDER BY id LIMIT ?) batch";
+    private static final String AGGREGATE_SQL = "INSERT INTO email_daily_stats "
+            + "(day, template_id, sender_email, event_type, event_count, unique_recipients) "
+            + "SELECT DATE(ev.created_at), COALESCE(e.email_template_id, 0), COALESCE(e.sender_email, ''), "
+            + "ev.event_type, COUNT(*), SUM(CASE WHEN EXISTS (SELECT 1 FROM email_events p "
+            + "WHERE p.email_id = ev.email_id AND p.event_type = ev.event_type AND p.id < ev.id) THEN 0 ELSE 1 END) "
+            + "FROM email_events ev LEFT JOIN email_communications e ON e.id = CAST(ev.email_id AS UNSIGNED) "
+            + "WHERE ev.id > ? AND ev.id <= ? AND ev.created_at >= ? "
+            + "GROUP BY DATE(ev.created_at), COALESCE(e.email_template_id, 0), COALESCE(e.sender_email, ''), "
+            + "ev.event_type "
+            + "ON DUPLICATE KEY UPDATE event_count = event_count + VALUES(event_count), "
+            + "unique_recipients = unique_recipients + VALUES(unique_recipients)";
+
+    private final EmailEventRepository emailEventRepository;
+    private final EmailDailyStatsRepository statsRepository;
+    private final ArchivedRecordRepository archivedRecordRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final PartitionedJobRunner jobRunner;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskExecutor backgroundJobs;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.email-stats.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${app.email-stats.partitions:8}")
+    private int partitions;
+
+    @Value("${app.email-stats.concurrency:2}")
+    private int concurrency;
+
+    @Value("${app.email-stats.batch-size:5000}")
+    private int batchSize;
+
+    public EmailStatsRollupBackfill(EmailEventRepository emailEventRepository,
+                                    EmailDailyStatsRepository statsRepository,
+                                    ArchivedRecordRepository archivedRecordRepository,
+                                    JobCheckpointRepository checkpointRepository,
+                                    PartitionedJobRunner jobRunner,
+                                    JdbcTemplate jdbcTemplate,
+                                    @Qualifier("backgroundJobExecutor") TaskExecutor backgroundJobs) {
+        this.emailEventRepository = emailEventRepository;
+        this.statsRepository = statsRepository;
+        this.archivedRecordRepository = archivedRecordRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.jobRunner = jobRunner;
+        this.jdbcTemplate = jdbcTemplate;
+        this.backgroundJobs = backgroundJobs;
+    }
+
+    /**
+     * Starts a rebuild on a background thread unless one is already in progress.
+     *
+     * @return {@code true} if a new rebuild was started
+     */
+    public boolean triggerAsync() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            backgroundJobs.execute(this::runClaimed);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            log.warn("No background thread free for the email stats rollup backfill");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whether a rebuild is running or a previous one stopped part way and still has to be resumed.
+     */
+    public boolean isPending() {
+        return running.get() || hasUnfinishedRun();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (backfillOnStartup
+                && (hasUnfinishedRun() || (statsRepository.count() == 0 && emailEventRepository.count() > 0))) {
+            triggerAsync();
+        }
+    }
+
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Email stats rollup backfill already running, skipping");
+            return;
+        }
+        runClaimed();
+    }
+
+    /**
+     * Runs a rebuild for which {@code running} is already set, and clears it.
+     */
+    private void runClaimed() {
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime latestArchived = archivedRecordRepository.findLatestCreatedAt(ArchiveSource.EMAIL_EVENT);
+            LocalDate firstDay = latestArchived != null ? latestArchived.toLocalDate().plusDays(1) : EPOCH_DAY;
+            // Bound the id space before clearing, so events upserted live after the clear are not
+            // aggregated a second time
+            List<Object[]> bounds = emailEventRepository.findIdBounds();
+            Object[] row = bounds.isEmpty() ? new Object[2] : bounds.get(0);
+            if (!hasUnfinishedRun()) {
+                jdbcTemplate.update(CLEAR_SQL, Date.valueOf(firstDay));
+                jdbcTemplate.update(ARCHIVED_SQL, ArchiveSource.EMAIL_EVENT.name(), Date.valueOf(firstDay));
+            }
+            Timestamp from = Timestamp.valueOf(firstDay.atStartOfDay());
+            long aggregated = jobRunner.run(JOB_NAME, (Long) row[0], (Long) row[1], partitions, concurrency,
+                    batchSize, (afterId, toId, limit) -> aggregateBatch(afterId, toId, limit, from));
+            log.info("Email stats rollup backfill aggregated {} email events in {} ms",
+                    aggregated, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Email stats rollup backfill failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private boolean hasUnfinishedRun() {
+        return !checkpointRepository
+                .findByJobNameAndStatusNotOrderByPartitionIndex(JOB_NAME, JobPartitionStatus.COMPLETED).isEmpty();
+    }
+
+    private BatchResult aggregateBatch(long afterId, long toId, int limit, Timestamp from) {
+        long[] batch = jdbcTemplate.queryForObject(BATCH_BOUNDS_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}, afterId, toId, limit);
+        if (batch == null || batch[0] == 0) {
+            return BatchResult.empty();
+        }
+        jdbcTemplate.update(AGGREGATE_SQL, afterId, batch[1], from);
+        return new BatchResult(batch[1], (int) batch[0]);
+    }
+}
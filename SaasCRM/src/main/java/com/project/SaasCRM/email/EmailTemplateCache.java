@@ -0,0 +1,47 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.domain.entity.EmailTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches {@link CompiledEmailTemplate}s by template id and {@code @Version}, so a template is parsed
+ * once per edit rather than once per send. Holds at most one version per template; the cache is
+ * cleared when it outgrows {@code app.email.template-cache.max-size}.
+ */
+@Component
+public class EmailTemplateCache {
+
+    private final ConcurrentHashMap<Long, CompiledEmailTemplate> compiled = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public EmailTemplateCache(@Value("${app.email.template-cache.max-size:1000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the render plan of {@code template}'s current version, compiling it on first use.
+     */
+    public CompiledEmailTemplate get(EmailTemplate template) {
+        CompiledEmailTemplate cached = compiled.get(template.getId());
+        if (cached != null && cached.getVersion() != null && cached.getVersion().equals(template.getVersion())) {
+            return cached;
+        }
+        CompiledEmailTemplate plan = CompiledEmailTemplate.compile(template);
+        if (template.getId() != null && template.getVersion() != null) {
+            if (compiled.size() >= maxSize) {
+                compiled.clear();
+            }
+            // Never replace a newer version compiled by a concurrent caller
+            compiled.merge(template.getId(), plan,
+                    (current, candidate) -> current.getVersion() > candidate.getVersion() ? current : candidate);
+        }
+        return plan;
+    }
+
+    public void evict(Long templateId) {
+        compiled.remove(templateId);
+    }
+}
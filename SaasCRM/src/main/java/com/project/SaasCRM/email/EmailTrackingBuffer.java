@@ -0,0 +1,184 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.domain.EmailEventType;
+import com.project.SaasCRM.service.AuditLogService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Buffers email open and click events and writes them in batches.
+ *
+ * <p>Recording an event only appends it to a lock-free {@link RingBuffer}, so the tracking request
+ * can be answered at once. The buffer is flushed every {@code app.email.tracking.flush-interval-ms}
+ * in batches of {@code app.email.tracking.batch-size}, each in one transaction: opens are collapsed
+ * to one event and one update per email, clicks keep one event each but are added to
+ * {@code click_count} with one update per email, and {@link EmailStatistics} is updated alongside.
+ * Events of unknown emails are dropped. When the buffer is full the event is written on the caller's
+ * thread instead. Events still buffered when the process dies are lost.</p>
+ */
+@Component
+@Slf4j
+public class EmailTrackingBuffer {
+
+    private static final String EMAILS_SQL = "SELECT id, recipient_email, subject, sender_email, email_template_id, "
+            + "is_opened, click_count FROM email_communications WHERE id IN (%s)";
+    private static final String OPENED_SQL = "UPDATE email_communications SET is_opened = TRUE, "
+            + "opened_at = COALESCE(opened_at, ?) WHERE id = ?";
+    private static final String CLICKED_SQL = "UPDATE email_communications "
+            + "SET click_count = COALESCE(click_count, 0) + ? WHERE id = ?";
+    private static final String EVENT_SQL = "INSERT INTO email_events "
+            + "(email_id, recipient, subject, event_type, link_id, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * An open or click of a tracked email.
+     */
+    record TrackingEvent(long emailId, EmailEventType type, String linkId, LocalDateTime at) {
+    }
+
+    private record Email(String recipient, String subject, String sender, Long templateId, boolean opened,
+                         boolean clicked) {
+    }
+
+    private final AuditLogService auditLogService;
+    private final EmailStatistics emailStatistics;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RingBuffer<TrackingEvent> buffer;
+    private final int batchSize;
+    private List<TrackingEvent> failed = List.of();
+
+    public EmailTrackingBuffer(AuditLogService auditLogService,
+                               EmailStatistics emailStatistics,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.email.tracking.buffer-size:65536}") int bufferSize,
+                               @Value("${app.email.tracking.batch-size:1000}") int batchSize) {
+        this.auditLogService = auditLogService;
+        this.emailStatistics = emailStatistics;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = new RingBuffer<>(bufferSize);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public void recordOpen(long emailId) {
+        record(new TrackingEvent(emailId, EmailEventType.OPENED, null, LocalDateTime.now()));
+    }
+
+    public void recordClick(long emailId, String linkId) {
+        record(new TrackingEvent(emailId, EmailEventType.CLICKED, linkId, LocalDateTime.now()));
+    }
+
+    private void record(TrackingEvent event) {
+        if (!buffer.offer(event)) {
+            write(List.of(event));
+        }
+    }
+
+    /**
+     * Writes everything buffered so far. A batch that fails is retried once on the next flush and
+     * then dropped.
+     */
+    @Scheduled(fixedDelayString = "${app.email.tracking.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (!failed.isEmpty()) {
+            List<TrackingEvent> retry = failed;
+            failed = List.of();
+            try {
+                write(retry);
+            } catch (RuntimeException e) {
+                log.error("Dropping {} email tracking events after a second failed write", retry.size(), e);
+            }
+        }
+        List<TrackingEvent> batch = new ArrayList<>(Math.min(batchSize, buffer.capacity()));
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} email tracking events, retrying on the next flush", batch.size(), e);
+                failed = batch;
+                return;
+            }
+            batch = new ArrayList<>(batch.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(List<TrackingEvent> events) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (TrackingEvent event : events) {
+            ids.add(event.emailId());
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Map<Long, Email> emails = new HashMap<>();
+        jdbcTemplate.query(String.format(EMAILS_SQL, placeholders), rs -> {
+            emails.put(rs.getLong("id"), new Email(rs.getString("recipient_email"), rs.getString("subject"),
+                    rs.getString("sender_email"), rs.getObject("email_template_id", Long.class),
+                    rs.getBoolean("is_opened"), rs.getInt("click_count") > 0));
+        }, ids.toArray());
+
+        Map<Long, LocalDateTime> firstOpen = new LinkedHashMap<>();
+        Map<Long, Integer> clicks = new LinkedHashMap<>();
+        List<Object[]> eventRows = new ArrayList<>();
+        EmailStatistics.Delta delta = new EmailStatistics.Delta();
+        for (TrackingEvent event : events) {
+            Email email = emails.get(event.emailId());
+            if (email == null) {
+                continue;
+            }
+            boolean first;
+            if (event.type() == EmailEventType.OPENED) {
+                if (firstOpen.putIfAbsent(event.emailId(), event.at()) != null) {
+                    continue;
+                }
+                first = !email.opened();
+            } else {
+                first = clicks.merge(event.emailId(), 1, Integer::sum) == 1 && !email.clicked();
+            }
+            eventRows.add(new Object[]{String.valueOf(event.emailId()), email.recipient(), email.subject(),
+                    event.type().name(), event.linkId(), Timestamp.valueOf(event.at())});
+            delta.add(event.at(), email.templateId(), email.sender(), event.type(), first);
+        }
+        if (eventRows.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> opened = new ArrayList<>(firstOpen.size());
+        firstOpen.forEach((id, at) -> opened.add(new Object[]{Timestamp.valueOf(at), id}));
+        List<Object[]> clicked = new ArrayList<>(clicks.size());
+        clicks.forEach((id, count) -> clicked.add(new Object[]{count, id}));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(EVENT_SQL, eventRows);
+            jdbcTemplate.batchUpdate(OPENED_SQL, opened);
+            jdbcTemplate.batchUpdate(CLICKED_SQL, clicked);
+            emailStatistics.apply(delta);
+            if (!firstOpen.isEmpty()) {
+                auditLogService.logSystemActivities("EMAIL_OPENED", "EMAIL", firstOpen.keySet());
+            }
+            if (!clicks.isEmpty()) {
+                auditLogService.logSystemActivities("EMAIL_LINK_CLICKED", "EMAIL", clicks.keySet());
+            }
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.project.SaasCRM.email;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Adds open and click tracking to the HTML of an email as it is sent.
+ *
+ * <p>Absolute http(s) links are pointed at the click endpoint, which records the click and redirects
+ * to the original URL, and a 1x1 pixel loading the open endpoint is added at the end of the body.
+ * The URL is the link id, so links longer than the {@code link_id} column are left untracked. The
+ * stored email content is not changed; only the message on the wire carries the tokens.</p>
+ */
+@Component
+public class EmailTrackingRenderer {
+
+    private static final Pattern LINK = Pattern.compile(
+            "(<a\\b[^>]*?\\bhref\\s*=\\s*)([\"'])(https?://[^\"'\\s]+)\\2", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BODY_END = Pattern.compile("</body\\s*>", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_LINK_ID = 255;
+
+    private final EmailTrackingTokens tokens;
+    private final String baseUrl;
+
+    public EmailTrackingRenderer(EmailTrackingTokens tokens,
+                                 @Value("${app.email.tracking.base-url}") String baseUrl) {
+        this.tokens = tokens;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /**
+     * Returns {@code html} with its links tracked and the open pixel of {@code emailId} added.
+     */
+    public String render(long emailId, String html) {
+        if (html == null) {
+            return null;
+        }
+        Matcher links = LINK.matcher(html);
+        StringBuilder out = new StringBuilder(html.length() + 256);
+        while (links.find()) {
+            String url = links.group(3).replace("&amp;", "&");
+            String replacement = url.length() > MAX_LINK_ID ? links.group()
+                    : links.group(1) + links.group(2) + attribute(tokens.clickPath(emailId, url)) + links.group(2);
+            links.appendReplacement(out, Matcher.quoteReplacement(replacement));
+        }
+        links.appendTail(out);
+
+        String pixel = "<img src=\"" + attribute(tokens.openPath(emailId))
+                + "\" width=\"1\" height=\"1\" alt=\"\" style=\"border:0\">";
+        Matcher bodyEnd = BODY_END.matcher(out);
+        int at = -1;
+        while (bodyEnd.find()) {
+            at = bodyEnd.start();
+        }
+        out.insert(at >= 0 ? at : out.length(), pixel);
+        return out.toString();
+    }
+
+    private String attribute(String path) {
+        return (baseUrl + path).replace("&", "&amp;");
+    }
+}
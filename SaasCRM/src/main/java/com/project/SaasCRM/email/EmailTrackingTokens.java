@@ -0,0 +1,123 @@
+package com.project.SaasCRM.email;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Signs the email ids put in tracking pixel and link URLs, so the public tracking endpoints only
+ * accept ids that were handed out in an email.
+ *
+ * <p>A token is {@code <email id>.<signature>}, the signature being the first 16 bytes of an
+ * HMAC-SHA256 of the id under {@code app.email.tracking.secret}, base64url encoded. Changing the
+ * secret invalidates the tokens of emails already sent.</p>
+ */
+@Component
+public class EmailTrackingTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    // Mac is not thread-safe
+    private final ThreadLocal<Mac> macs;
+
+    public EmailTrackingTokens(@Value("${app.email.tracking.secret}") String secret) {
+        if (!StringUtils.hasText(secret)) {
+            throw new IllegalStateException("app.email.tracking.secret must be set");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String tokenFor(long emailId) {
+        return emailId + "." + ENCODER.encodeToString(sign(emailId));
+    }
+
+    /**
+     * Path of the open tracking pixel of {@code emailId}.
+     */
+    public String openPath(long emailId) {
+        return "/api/track/emails/" + tokenFor(emailId) + "/open";
+    }
+
+    /**
+     * Path of the tracked link {@code linkId} of {@code emailId}. The link id is signed along with the
+     * email id, so the click endpoint can redirect to it without becoming an open redirect.
+     */
+    public String clickPath(long emailId, String linkId) {
+        return "/api/track/emails/" + tokenFor(emailId) + "/click?linkId="
+                + UriUtils.encodeQueryParam(linkId, StandardCharsets.UTF_8)
+                + "&sig=" + ENCODER.encodeToString(sign(emailId + "\n" + linkId));
+    }
+
+    /**
+     * Returns the email id of {@code token}.
+     *
+     * @throws IllegalArgumentException if the token is malformed, unsigned or its signature does not
+     *                                  match
+     */
+    public long verify(String token) {
+        int dot = token == null ? -1 : token.indexOf('.');
+        if (dot <= 0) {
+            throw new IllegalArgumentException("Invalid tracking token");
+        }
+        long emailId;
+        byte[] signature;
+        try {
+            emailId = Long.parseLong(token, 0, dot, 10);
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid tracking token");
+        }
+        if (!MessageDigest.isEqual(sign(emailId), signature)) {
+            throw new IllegalArgumentException("Invalid tracking token");
+        }
+        return emailId;
+    }
+
+    /**
+     * Whether {@code signature} is the signature {@link #clickPath} gave {@code linkId} of
+     * {@code emailId}.
+     */
+    public boolean verifyLink(long emailId, String linkId, String signature) {
+        if (linkId == null || signature == null) {
+            return false;
+        }
+        try {
+            return MessageDigest.isEqual(sign(emailId + "\n" + linkId), DECODER.decode(signature));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private byte[] sign(long emailId) {
+        return sign(Long.toString(emailId));
+    }
+
+    private byte[] sign(String value) {
+        byte[] digest = macs.get().doFinal(value.getBytes(StandardCharsets.UTF_8));
+        return Arrays.copyOf(digest, SIGNATURE_BYTES);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.domain.entity.Customer;
+import com.project.SaasCRM.domain.entity.EmailCommunication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs one mail merge as three stages connected by bounded queues.
+ *
+ * <p>A loader thread reads the recipients in batches, a fixed number of render tasks on a shared
+ * CPU pool turn each batch into personalised emails, each task reusing one buffer, and the calling
+ * thread writes the rendered batches. The render tasks occupy their pool threads for the whole run,
+ * so the pool needs {@code renderers} free threads for every run in progress. A full queue blocks
+ * the stage before it, so at most {@code capacity} batches wait between two stages whatever the list
+ * size. Sending is not a stage here: the writer hands the emails to {@link OutboundEmailQueue}, and
+ * {@link Stages#write} is expected to hold back while too many of them are still unsent.</p>
+ *
+ * <p>After a failure or once {@link Stages#isStopped()} the loader stops, the renderers drain what is
+ * queued without rendering it and the writer discards the rest; the first failure is rethrown.</p>
+ */
+final class MailMergePipeline {
+
+    private static final List<Customer> NO_MORE_CUSTOMERS = new ArrayList<>(0);
+    private static final List<EmailCommunication> NO_MORE_EMAILS = new ArrayList<>(0);
+    private static final int MAX_POOLED_BUFFER = 1 << 20;
+
+    /**
+     * The work of each stage.
+     */
+    interface Stages {
+        List<Customer> load(List<Long> customerIds);
+
+        /**
+         * @return the email for {@code customer}, or {@code null} if it is skipped
+         */
+        EmailCommunication render(Customer customer, StringBuilder buffer);
+
+        void write(List<EmailCommunication> emails) throws InterruptedException;
+
+        boolean isStopped();
+    }
+
+    private final ExecutorService renderPool;
+    private final int renderers;
+    private final int capacity;
+    private final String name;
+
+    MailMergePipeline(ExecutorService renderPool, int renderers, int capacity, String name) {
+        this.renderPool = renderPool;
+        this.renderers = Math.max(1, renderers);
+        this.capacity = Math.max(1, capacity);
+        this.name = name;
+    }
+
+    void run(List<Long> customerIds, int batchSize, Stages stages) throws InterruptedException {
+        BlockingQueue<List<Customer>> loaded = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<List<EmailCommunication>> rendered = new ArrayBlockingQueue<>(capacity);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        Thread loader = new Thread(() -> load(customerIds, batchSize, stages, loaded, failure), name + "-loader");
+        loader.setDaemon(true);
+        loader.start();
+        List<Future<?>> renderTasks = new ArrayList<>(renderers);
+        for (int i = 0; i < renderers; i++) {
+            renderTasks.add(renderPool.submit(() -> render(stages, loaded, rendered, failure)));
+        }
+
+        boolean finished = false;
+        try {
+            int done = 0;
+            while (done < renderers) {
+                List<EmailCommunication> batch = rendered.take();
+                if (batch == NO_MORE_EMAILS) {
+                    done++;
+                } else if (failure.get() == null && !stages.isStopped()) {
+                    try {
+                        stages.write(batch);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+            finished = true;
+        } finally {
+            if (!finished) {
+                // Interrupted: nobody is left to drain the queues
+                loader.interrupt();
+                renderTasks.forEach(task -> task.cancel(true));
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private void load(List<Long> customerIds, int batchSize, Stages stages,
+                      BlockingQueue<List<Customer>> loaded, AtomicReference<RuntimeException> failure) {
+        try {
+            for (int from = 0; from < customerIds.size(); from += batchSize) {
+                if (failure.get() != null || stages.isStopped()) {
+                    break;
+                }
+                List<Customer> batch = stages.load(customerIds.subList(from, Math.min(from + batchSize, customerIds.size())));
+                if (!batch.isEmpty()) {
+                    loaded.put(batch);
+                }
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            for (int i = 0; i < renderers; i++) {
+                loaded.put(NO_MORE_CUSTOMERS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void render(Stages stages, BlockingQueue<List<Customer>> loaded,
+                        BlockingQueue<List<EmailCommunication>> rendered, AtomicReference<RuntimeException> failure) {
+        StringBuilder buffer = new StringBuilder(4096);
+        try {
+            while (true) {
+                List<Customer> batch = loaded.take();
+                if (batch == NO_MORE_CUSTOMERS) {
+                    rendered.put(NO_MORE_EMAILS);
+                    return;
+                }
+                if (failure.get() != null || stages.isStopped()) {
+                    continue;
+                }
+                List<EmailCommunication> emails = new ArrayList<>(batch.size());
+                try {
+                    for (Customer customer : batch) {
+                        buffer.setLength(0);
+                        EmailCommunication email = stages.render(customer, buffer);
+                        if (email != null) {
+                            emails.add(email);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    continue;
+                }
+                if (buffer.capacity() > MAX_POOLED_BUFFER) {
+                    buffer = new StringBuilder(4096);
+                }
+                if (!emails.isEmpty()) {
+                    rendered.put(emails);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.service.EmailValidationService;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains {@link OutboundEmailQueue} with a fixed pool of sender threads, which share the connections
+ * of {@link SmtpTransportPool}.
+ *
+ * <p>Each poll claims at most as many messages as there are free senders, so a slow SMTP server
+ * backs messages up in the table rather than in memory, and no database connection is held while a
+ * message is on the wire. Failed attempts are retried with exponential backoff and jitter until
+ * {@code app.email.outbound.max-attempts}; messages that cannot be built at all fail immediately.
+ * A claimed message whose recipient domain is at its {@link DomainThrottle} limit, or whose sender
+ * has used up its quota, is put back for later without using up an attempt. The quota is taken for
+ * all senders of a poll at once, before sending, so a send that then fails still counts. Outcomes
+ * are collected in memory and written back in batches. Tracking is added to the HTML as each
+ * message is built, once the email has an id to sign.</p>
+ */
+@Component
+@Slf4j
+public class OutboundEmailDispatcher {
+
+    private final OutboundEmailQueue queue;
+    private final SmtpTransportPool transportPool;
+    private final EmailValidationService emailValidationService;
+    private final DomainThrottle domainThrottle;
+    private final EmailTrackingRenderer trackingRenderer;
+    private final ExecutorService senders;
+    private final int workers;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConcurrentLinkedQueue<OutboundEmailQueue.Outcome> outcomes = new ConcurrentLinkedQueue<>();
+
+    @Value("${app.email.outbound.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbound.initial-backoff-ms:30000}")
+    private long initialBackoffMillis;
+
+    @Value("${app.email.outbound.max-backoff-ms:3600000}")
+    private long maxBackoffMillis;
+
+    @Value("${app.email.outbound.lease-ms:300000}")
+    private long leaseMillis;
+
+    @Value("${app.email.outbound.quota-retry-ms:60000}")
+    private long quotaRetryMillis;
+
+    @Value("${app.email.outbound.status-batch-size:500}")
+    private int statusBatchSize;
+
+    public OutboundEmailDispatcher(OutboundEmailQueue queue,
+                                   SmtpTransportPool transportPool,
+                                   EmailValidationService emailValidationService,
+                                   DomainThrottle domainThrottle,
+                                   EmailTrackingRenderer trackingRenderer,
+                                   @Value("${app.email.outbound.workers:4}") int workers) {
+        this.queue = queue;
+        this.transportPool = transportPool;
+        this.emailValidationService = emailValidationService;
+        this.domainThrottle = domainThrottle;
+        this.trackingRenderer = trackingRenderer;
+        this.workers = Math.max(1, workers);
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(this.workers, runnable -> {
+            Thread thread = new Thread(runnable, "email-sender-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        senders.shutdown();
+        senders.awaitTermination(10, TimeUnit.SECONDS);
+        flushOutcomes();
+    }
+
+    /**
+     * Claims due messages for the idle senders.
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbound.poll-interval-ms:1000}")
+    public void dispatch() {
+        int free = workers - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+        List<OutboundEmailQueue.Claimed> claimed;
+        try {
+            claimed = queue.claim(free, LocalDateTime.now().plus(Duration.ofMillis(leaseMillis)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to claim outbound emails", e);
+            return;
+        }
+        List<OutboundEmailQueue.Claimed> ready = new ArrayList<>(claimed.size());
+        for (OutboundEmailQueue.Claimed message : claimed) {
+            long wait = domainThrottle.tryAcquire(message.recipient());
+            if (wait > 0) {
+                defer(message, wait);
+            } else {
+                ready.add(message);
+            }
+        }
+        Map<String, Integer> quota = acquireQuota(ready);
+        for (OutboundEmailQueue.Claimed message : ready) {
+            int left = quota.getOrDefault(message.sender(), 0);
+            if (left <= 0) {
+                domainThrottle.release(message.recipient());
+                defer(message, quotaRetryMillis);
+                continue;
+            }
+            quota.put(message.sender(), left - 1);
+            inFlight.incrementAndGet();
+            senders.execute(() -> {
+                try {
+                    outcomes.add(deliver(message));
+                } finally {
+                    domainThrottle.release(message.recipient());
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes the collected outcomes back to the database.
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbound.status-flush-interval-ms:500}")
+    public void flushOutcomes() {
+        while (!outcomes.isEmpty()) {
+            List<OutboundEmailQueue.Outcome> batch = new ArrayList<>(Math.min(statusBatchSize, outcomes.size()));
+            OutboundEmailQueue.Outcome outcome;
+            while (batch.size() < statusBatchSize && (outcome = outcomes.poll()) != null) {
+                batch.add(outcome);
+            }
+            try {
+                queue.complete(batch);
+            } catch (RuntimeException e) {
+                // Keep them for the next flush; until then the leases stop the messages being sent again
+                outcomes.addAll(batch);
+                log.warn("Failed to record {} email delivery outcomes, will retry", batch.size(), e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes one send from each message's sender quota, for all senders in one call.
+     */
+    private Map<String, Integer> acquireQuota(List<OutboundEmailQueue.Claimed> messages) {
+        Map<String, Integer> wanted = new HashMap<>();
+        for (OutboundEmailQueue.Claimed message : messages) {
+            wanted.merge(message.sender(), 1, Integer::sum);
+        }
+        if (wanted.isEmpty()) {
+            return wanted;
+        }
+        try {
+            return new HashMap<>(emailValidationService.acquireSendQuota(wanted));
+        } catch (RuntimeException e) {
+            log.warn("Failed to take sending quota for {} senders", wanted.size(), e);
+            return wanted;
+        }
+    }
+
+    private void defer(OutboundEmailQueue.Claimed message, long millis) {
+        LocalDateTime now = LocalDateTime.now();
+        outcomes.add(new OutboundEmailQueue.Outcome(message, false, null, now.plus(Duration.ofMillis(millis)), now));
+    }
+
+    private OutboundEmailQueue.Outcome deliver(OutboundEmailQueue.Claimed message) {
+        MimeMessage mime;
+        try {
+            mime = build(message);
+        } catch (MessagingException | MailException e) {
+            log.warn("Cannot build email {}: {}", message.emailId(), e.getMessage());
+            return new OutboundEmailQueue.Outcome(message, false, e.getMessage(), null, LocalDateTime.now());
+        }
+        try {
+            transportPool.send(mime);
+        } catch (SendFailedException e) {
+            if (e.getInvalidAddresses() != null && e.getInvalidAddresses().length > 0) {
+                log.warn("Email {} was rejected by the server: {}", message.emailId(), e.getMessage());
+                return new OutboundEmailQueue.Outcome(message, false, e.getMessage(), null, LocalDateTime.now());
+            }
+            return retryOrFail(message, e);
+        } catch (MessagingException e) {
+            return retryOrFail(message, e);
+        }
+        return new OutboundEmailQueue.Outcome(message, true, null, null, LocalDateTime.now());
+    }
+
+    private OutboundEmailQueue.Outcome retryOrFail(OutboundEmailQueue.Claimed message, MessagingException e) {
+        int attempt = message.attempts() + 1;
+        if (attempt >= maxAttempts) {
+            log.warn("Giving up on email {} after {} attempts: {}", message.emailId(), attempt, e.getMessage());
+            return new OutboundEmailQueue.Outcome(message, false, e.getMessage(), null, LocalDateTime.now());
+        }
+        return new OutboundEmailQueue.Outcome(message, false, e.getMessage(),
+                LocalDateTime.now().plus(Duration.ofMillis(backoffMillis(attempt))), LocalDateTime.now());
+    }
+
+    private MimeMessage build(OutboundEmailQueue.Claimed message) throws MessagingException {
+        MimeMessage mime = transportPool.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mime, true, "UTF-8");
+        helper.setFrom(message.sender());
+        helper.setTo(message.recipient());
+        helper.setSubject(message.subject());
+        helper.setText(trackingRenderer.render(message.emailId(), message.content()), true);
+        if (message.attachmentPath() != null) {
+            FileSystemResource file = new FileSystemResource(new File(message.attachmentPath()));
+            helper.addAttachment(file.getFilename(), file);
+        }
+        return mime;
+    }
+
+    /**
+     * Returns the delay before attempt {@code attempt + 1}: the initial backoff doubled per failed
+     * attempt, capped, with up to 20% jitter so that a burst of failures does not retry in lockstep.
+     */
+    private long backoffMillis(int attempt) {
+        long delay = initialBackoffMillis << Math.min(attempt - 1, 30);
+        if (delay <= 0 || delay > maxBackoffMillis) {
+            delay = maxBackoffMillis;
+        }
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+}
@@ -0,0 +1,255 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.domain.EmailEventType;
+import com.project.SaasCRM.domain.SendStatus;
+import com.project.SaasCRM.domain.entity.EmailCommunication;
+import com.project.SaasCRM.domain.entity.OutboundEmail;
+import com.project.SaasCRM.repository.OutboundEmailRepository;
+import com.project.SaasCRM.service.AuditLogService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistent queue of emails waiting to be handed to the SMTP server.
+ *
+ * <p>Callers enqueue an {@link EmailCommunication} in their own transaction and return; the row in
+ * {@code outbound_emails} is only visible to {@link OutboundEmailDispatcher} once that transaction
+ * commits. The dispatcher claims due rows by stamping them with a lease, so a message whose sender
+ * died is picked up again when the lease runs out, and reports the outcomes back in batches.</p>
+ *
+ * <p>Cancelling a bulk job removes its messages that are not leased and flags the leased ones, so a
+ * flagged message that comes back for a retry or a deferral is dropped instead of rescheduled, and
+ * one whose lease runs out is dropped rather than claimed again.</p>
+ */
+@Component
+public class OutboundEmailQueue {
+
+    private static final String ENQUEUE_SQL = "INSERT INTO outbound_emails "
+            + "(email_id, attempts, next_attempt_at, created_at) VALUES (?, 0, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE email_id = email_id";
+    private static final String CLAIM_SQL = "UPDATE outbound_emails SET lease_owner = ?, lease_until = ? "
+            + "WHERE next_attempt_at <= ? AND (lease_until IS NULL OR lease_until < ?) AND cancelled = FALSE "
+            + "ORDER BY next_attempt_at, id LIMIT ?";
+    private static final String CLAIMED_SQL = "SELECT o.id, o.email_id, o.bulk_job_id, o.attachment_path, o.attempts, "
+            + "e.sender_email, e.recipient_email, e.subject, e.content, e.email_template_id "
+            + "FROM outbound_emails o JOIN email_communications e ON e.id = o.email_id "
+            + "WHERE o.lease_owner = ? ORDER BY o.next_attempt_at, o.id";
+    private static final String EMAIL_STATUS_SQL = "UPDATE email_communications SET send_status = ?, sent_at = ? "
+            + "WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM outbound_emails WHERE id = ?";
+    private static final String RETRY_SQL = "UPDATE outbound_emails SET attempts = ?, next_attempt_at = ?, "
+            + "last_error = COALESCE(?, last_error), lease_owner = NULL, lease_until = NULL WHERE id = ?";
+    private static final String CANCEL_EMAILS_SQL = "UPDATE email_communications e JOIN outbound_emails o "
+            + "ON o.email_id = e.id SET e.send_status = ? "
+            + "WHERE o.bulk_job_id = ? AND (o.lease_until IS NULL OR o.lease_until < ?)";
+    private static final String CANCEL_SQL = "DELETE FROM outbound_emails "
+            + "WHERE bulk_job_id = ? AND (lease_until IS NULL OR lease_until < ?)";
+    private static final String CANCEL_LEASED_SQL = "UPDATE outbound_emails SET cancelled = TRUE WHERE bulk_job_id = ?";
+    private static final String DROP_CANCELLED_EMAIL_SQL = "UPDATE email_communications e JOIN outbound_emails o "
+            + "ON o.email_id = e.id SET e.send_status = ? WHERE o.id = ? AND o.cancelled = TRUE";
+    private static final String DROP_CANCELLED_SQL = "DELETE FROM outbound_emails WHERE id = ? AND cancelled = TRUE";
+    private static final String ABANDONED_CANCELLED_EMAILS_SQL = "UPDATE email_communications e JOIN outbound_emails o "
+            + "ON o.email_id = e.id SET e.send_status = ? WHERE o.cancelled = TRUE AND o.lease_until < ?";
+    private static final String ABANDONED_CANCELLED_SQL = "DELETE FROM outbound_emails "
+            + "WHERE cancelled = TRUE AND lease_until < ?";
+    private static final String EVENT_SQL = "INSERT INTO email_events "
+            + "(email_id, recipient, subject, event_type, metadata, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    /**
+     * A message claimed for delivery.
+     */
+    record Claimed(long id, long emailId, String bulkJobId, String attachmentPath, int attempts, String sender,
+                   String recipient, String subject, String content, Long templateId) {
+    }
+
+    /**
+     * The result of one delivery attempt. {@code retryAt} is set when the message stays queued; a
+     * message put back without an {@code error} was deferred and does not use up an attempt.
+     */
+    record Outcome(Claimed message, boolean sent, String error, LocalDateTime retryAt, LocalDateTime at) {
+    }
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final AuditLogService auditLogService;
+    private final EmailStatistics emailStatistics;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboundEmailQueue(OutboundEmailRepository outboundEmailRepository,
+                              AuditLogService auditLogService,
+                              EmailStatistics emailStatistics,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.auditLogService = auditLogService;
+        this.emailStatistics = emailStatistics;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Queues a saved email for delivery. Joins the caller's transaction.
+     */
+    public void enqueue(EmailCommunication email, String attachmentPath) {
+        outboundEmailRepository.save(toOutbound(email, attachmentPath));
+    }
+
+    /**
+     * Queues saved emails without attachments for delivery. Joins the caller's transaction.
+     */
+    public void enqueueAll(Collection<EmailCommunication> emails) {
+        enqueueAll(emails, null);
+    }
+
+    /**
+     * Queues saved emails without attachments as part of a bulk job. Joins the caller's transaction.
+     */
+    public void enqueueAll(Collection<EmailCommunication> emails, String bulkJobId) {
+        List<OutboundEmail> outbound = new ArrayList<>(emails.size());
+        for (EmailCommunication email : emails) {
+            OutboundEmail message = toOutbound(email, null);
+            message.setBulkJobId(bulkJobId);
+            outbound.add(message);
+        }
+        outboundEmailRepository.saveAll(outbound);
+    }
+
+    /**
+     * Queues saved emails without attachments by id; an email that is already queued stays as it is.
+     * Joins the caller's transaction.
+     */
+    public void enqueueIds(Collection<Long> emailIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(emailIds.size());
+        for (Long emailId : emailIds) {
+            rows.add(new Object[]{emailId, now, now});
+        }
+        jdbcTemplate.batchUpdate(ENQUEUE_SQL, rows);
+    }
+
+    /**
+     * Leases up to {@code limit} due messages until {@code leaseUntil}, oldest first.
+     */
+    List<Claimed> claim(int limit, LocalDateTime leaseUntil) {
+        String owner = UUID.randomUUID().toString();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int claimed = jdbcTemplate.update(CLAIM_SQL, owner, Timestamp.valueOf(leaseUntil), now, now, limit);
+        if (claimed == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query(CLAIMED_SQL, (rs, rowNum) -> new Claimed(rs.getLong("id"), rs.getLong("email_id"),
+                rs.getString("bulk_job_id"), rs.getString("attachment_path"), rs.getInt("attempts"),
+                rs.getString("sender_email"), rs.getString("recipient_email"), rs.getString("subject"),
+                rs.getString("content"), rs.getObject("email_template_id", Long.class)), owner);
+    }
+
+    /**
+     * Applies delivery outcomes in one transaction: delivered and finally failed messages leave the
+     * queue and update their email, its events and the daily statistics, the others are rescheduled.
+     */
+    void complete(List<Outcome> outcomes) {
+        List<Object[]> statuses = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> retries = new ArrayList<>();
+        List<Object[]> retriedBulk = new ArrayList<>();
+        List<Object[]> events = new ArrayList<>();
+        List<Long> sentIds = new ArrayList<>();
+        List<Long> failedIds = new ArrayList<>();
+        EmailStatistics.Delta delta = new EmailStatistics.Delta();
+        for (Outcome outcome : outcomes) {
+            Claimed message = outcome.message();
+            String error = truncate(outcome.error());
+            Timestamp at = Timestamp.valueOf(outcome.at());
+            if (outcome.retryAt() != null) {
+                int attempts = message.attempts() + (outcome.error() != null ? 1 : 0);
+                retries.add(new Object[]{attempts, Timestamp.valueOf(outcome.retryAt()), error, message.id()});
+                if (message.bulkJobId() != null) {
+                    retriedBulk.add(new Object[]{message.id()});
+                }
+                continue;
+            }
+            deletes.add(new Object[]{message.id()});
+            statuses.add(new Object[]{(outcome.sent() ? SendStatus.SENT : SendStatus.FAILED).name(),
+                    outcome.sent() ? at : null, message.emailId()});
+            events.add(new Object[]{String.valueOf(message.emailId()), message.recipient(), message.subject(),
+                    (outcome.sent() ? EmailEventType.SENT : EmailEventType.FAILED).name(), error, at});
+            (outcome.sent() ? sentIds : failedIds).add(message.emailId());
+            delta.add(outcome.at(), message.templateId(), message.sender(),
+                    outcome.sent() ? EmailEventType.SENT : EmailEventType.FAILED, true);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(EMAIL_STATUS_SQL, statuses);
+            jdbcTemplate.batchUpdate(EVENT_SQL, events);
+            jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+            jdbcTemplate.batchUpdate(RETRY_SQL, retries);
+            if (!retriedBulk.isEmpty()) {
+                List<Object[]> drafts = new ArrayList<>(retriedBulk.size());
+                for (Object[] id : retriedBulk) {
+                    drafts.add(new Object[]{SendStatus.DRAFT.name(), id[0]});
+                }
+                jdbcTemplate.batchUpdate(DROP_CANCELLED_EMAIL_SQL, drafts);
+                jdbcTemplate.batchUpdate(DROP_CANCELLED_SQL, retriedBulk);
+            }
+            emailStatistics.apply(delta);
+            if (!sentIds.isEmpty()) {
+                auditLogService.logSystemActivities("EMAIL_SENT", "EMAIL", sentIds);
+            }
+            if (!failedIds.isEmpty()) {
+                auditLogService.logSystemActivities("EMAIL_SEND_FAILED", "EMAIL", failedIds);
+            }
+        });
+    }
+
+    /**
+     * Removes the messages of a bulk job that are not being sent right now and marks their emails as
+     * drafts. The ones being sent are flagged, so they are dropped the same way if they come back for
+     * a retry.
+     *
+     * @return the number of messages removed
+     */
+    public int cancelBulkJob(String bulkJobId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Integer cancelled = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(CANCEL_EMAILS_SQL, SendStatus.DRAFT.name(), bulkJobId, now);
+            int removed = jdbcTemplate.update(CANCEL_SQL, bulkJobId, now);
+            jdbcTemplate.update(CANCEL_LEASED_SQL, bulkJobId);
+            return removed;
+        });
+        return cancelled != null ? cancelled : 0;
+    }
+
+    /**
+     * Drops cancelled messages whose sender died while holding them, once their lease ran out.
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbound.lease-ms:300000}")
+    public void dropAbandonedCancelled() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(ABANDONED_CANCELLED_EMAILS_SQL, SendStatus.DRAFT.name(), now);
+            jdbcTemplate.update(ABANDONED_CANCELLED_SQL, now);
+        });
+    }
+
+    private static OutboundEmail toOutbound(EmailCommunication email, String attachmentPath) {
+        OutboundEmail outbound = new OutboundEmail();
+        outbound.setEmailId(email.getId());
+        outbound.setAttachmentPath(attachmentPath);
+        outbound.setNextAttemptAt(LocalDateTime.now());
+        return outbound;
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,79 @@
+package com.project.SaasCRM.email;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and one consumer.
+ *
+ * <p>Every slot carries a sequence number: a producer may fill the slot at position {@code p} when
+ * its sequence is {@code p}, and publishes it by setting the sequence to {@code p + 1}; the consumer
+ * frees it again by setting it to {@code p + capacity}. Producers only contend on one CAS of the head
+ * position, and an offer to a full buffer fails instead of blocking.</p>
+ */
+final class RingBuffer<E> {
+
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private long tail;
+
+    RingBuffer(int minimumCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, minimumCapacity) - 1) << 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds {@code element} unless the buffer is full. Safe to call from any thread.
+     */
+    boolean offer(E element) {
+        while (true) {
+            long position = head.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference < 0) {
+                return false;
+            }
+            if (difference == 0 && head.compareAndSet(position, position + 1)) {
+                elements.lazySet(index, element);
+                sequences.set(index, position + 1);
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Moves up to {@code max} published elements into {@code into}, oldest first. Must only be called
+     * from one thread at a time.
+     *
+     * @return the number of elements moved
+     */
+    int drainTo(List<E> into, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) tail & mask;
+            if (sequences.get(index) != tail + 1) {
+                break;
+            }
+            into.add(elements.get(index));
+            elements.lazySet(index, null);
+            sequences.set(index, tail + mask + 1);
+            tail++;
+            drained++;
+        }
+        return drained;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,100 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.domain.SendStatus;
+import com.project.SaasCRM.service.AuditLogService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands due scheduled emails to {@link OutboundEmailQueue}.
+ *
+ * <p>Every node polls {@code email_communications} for {@code SCHEDULED} rows whose time has come and
+ * claims a batch with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so concurrent nodes take disjoint
+ * batches instead of waiting on each other. In the same transaction the claimed emails are set to
+ * {@code PENDING} and queued; from then on the queue's leases keep a message with a single sender, and
+ * the dispatcher records whether each one was sent or failed. A node that dies mid-claim rolls back
+ * and leaves its rows to the others.</p>
+ */
+@Component
+@Slf4j
+public class ScheduledEmailClaimer {
+
+    private static final String CLAIM_SQL = "SELECT id FROM email_communications "
+            + "WHERE send_status = ? AND scheduled_for <= ? ORDER BY scheduled_for, id LIMIT ? "
+            + "FOR UPDATE SKIP LOCKED";
+    private static final String PENDING_SQL = "UPDATE email_communications SET send_status = ? WHERE id = ?";
+
+    private final OutboundEmailQueue queue;
+    private final AuditLogService auditLogService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.email.scheduled.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.email.scheduled.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    public ScheduledEmailClaimer(OutboundEmailQueue queue,
+                                 AuditLogService auditLogService,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager) {
+        this.queue = queue;
+        this.auditLogService = auditLogService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Queues due scheduled emails, one batch per transaction, until none are left or
+     * {@code app.email.scheduled.max-batches-per-poll} batches were claimed.
+     *
+     * @return the number of emails queued
+     */
+    @Scheduled(fixedDelayString = "${app.email.scheduled.poll-interval-ms:5000}")
+    public int claimDue() {
+        int total = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerPoll; batch++) {
+                Integer claimed = transactionTemplate.execute(status -> claimBatch());
+                int count = claimed != null ? claimed : 0;
+                total += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Claiming scheduled emails failed after queueing {}", total, e);
+        }
+        if (total > 0) {
+            log.info("Queued {} scheduled emails", total);
+        }
+        return total;
+    }
+
+    private int claimBatch() {
+        List<Long> ids = jdbcTemplate.queryForList(CLAIM_SQL, Long.class, SendStatus.SCHEDULED.name(),
+                Timestamp.valueOf(LocalDateTime.now()), batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> pending = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            pending.add(new Object[]{SendStatus.PENDING.name(), id});
+        }
+        jdbcTemplate.batchUpdate(PENDING_SQL, pending);
+        queue.enqueueIds(ids);
+        auditLogService.logSystemActivities("EMAIL_SCHEDULED_QUEUED", "EMAIL", ids);
+        return ids.size();
+    }
+}
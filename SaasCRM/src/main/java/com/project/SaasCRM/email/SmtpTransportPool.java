@@ -0,0 +1,194 @@
+package com.project.SaasCRM.email;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPTransport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps up to {@code app.email.smtp-pool.size} connected and authenticated SMTP transports, so that
+ * the connect, STARTTLS and AUTH round trips are paid once per connection instead of once per message.
+ *
+ * <p>A transport is reset with {@code RSET} after every message and handed to the next sender. It is
+ * closed after {@code max-messages-per-connection} messages, after any failure other than a rejected
+ * recipient, and when an idle check finds it dead; a replacement is opened on the next borrow.</p>
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool {
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final int maxMessagesPerConnection;
+    private final long idleCheckMillis;
+    private final long borrowTimeoutMillis;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+
+    @Autowired
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${app.email.smtp-pool.size:4}") int size,
+                             @Value("${app.email.smtp-pool.max-messages-per-connection:500}") int maxMessagesPerConnection,
+                             @Value("${app.email.smtp-pool.idle-check-ms:30000}") long idleCheckMillis,
+                             @Value("${app.email.smtp-pool.borrow-timeout-ms:30000}") long borrowTimeoutMillis) {
+        this(mailSender.getSession(), mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+                mailSender.getPassword(), size, maxMessagesPerConnection, idleCheckMillis, borrowTimeoutMillis);
+    }
+
+    SmtpTransportPool(Session session, String host, int port, String username, String password, int size,
+                      int maxMessagesPerConnection, long idleCheckMillis, long borrowTimeoutMillis) {
+        this.session = session;
+        this.host = host;
+        this.port = port;
+        this.username = StringUtils.hasLength(username) ? username : null;
+        this.password = StringUtils.hasLength(password) ? password : null;
+        this.maxMessagesPerConnection = Math.max(1, maxMessagesPerConnection);
+        this.idleCheckMillis = idleCheckMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(Math.max(1, size));
+    }
+
+    public MimeMessage createMimeMessage() {
+        return new MimeMessage(session);
+    }
+
+    /**
+     * Sends {@code message} over a pooled connection, waiting for one if all are in use.
+     *
+     * @throws SendFailedException if the server rejected recipients; the connection is kept
+     * @throws MessagingException  if the message could not be sent; the connection is discarded
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+        try {
+            PooledTransport pooled = borrow();
+            try {
+                message.saveChanges();
+                pooled.transport.sendMessage(message, message.getAllRecipients());
+                pooled.sent++;
+            } catch (SendFailedException e) {
+                release(pooled);
+                throw e;
+            } catch (MessagingException | RuntimeException e) {
+                close(pooled);
+                throw e;
+            }
+            release(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Number of connections currently open and not in use.
+     */
+    public int idleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Closes idle connections that no longer answer a {@code NOOP}.
+     */
+    @Scheduled(fixedDelayString = "${app.email.smtp-pool.idle-check-ms:30000}")
+    public void checkIdle() {
+        List<PooledTransport> checked = new ArrayList<>();
+        PooledTransport pooled;
+        while ((pooled = idle.pollLast()) != null) {
+            if (System.currentTimeMillis() - pooled.lastUsed < idleCheckMillis || pooled.transport.isConnected()) {
+                pooled.lastUsed = System.currentTimeMillis();
+                checked.add(pooled);
+            } else {
+                close(pooled);
+            }
+        }
+        idle.addAll(checked);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            close(pooled);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            // isConnected() costs a NOOP round trip, so only connections idle for a while are checked
+            if (System.currentTimeMillis() - pooled.lastUsed < idleCheckMillis || pooled.transport.isConnected()) {
+                return pooled;
+            }
+            close(pooled);
+        }
+        Transport transport = session.getTransport("smtp");
+        transport.connect(host, port, username, password);
+        return new PooledTransport(transport);
+    }
+
+    private void release(PooledTransport pooled) {
+        if (pooled.sent >= maxMessagesPerConnection || !reset(pooled)) {
+            close(pooled);
+            return;
+        }
+        pooled.lastUsed = System.currentTimeMillis();
+        // Most recently used first, so that surplus connections go idle and get checked out
+        idle.offerFirst(pooled);
+    }
+
+    private boolean reset(PooledTransport pooled) {
+        try {
+            if (pooled.transport instanceof SMTPTransport smtp) {
+                smtp.issueCommand("RSET", 250);
+            }
+            return true;
+        } catch (MessagingException e) {
+            log.debug("SMTP connection failed RSET, discarding it", e);
+            return false;
+        }
+    }
+
+    private void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection", e);
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private int sent;
+        private long lastUsed = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
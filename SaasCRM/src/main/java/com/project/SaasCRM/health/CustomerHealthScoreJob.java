@@ -0,0 +1,271 @@
+package com.project.SaasCRM.health;
+
+import com.project.SaasCRM.repository.CustomerRepository;
+import com.project.SaasCRM.repository.DealRepository;
+import com.project.SaasCRM.repository.EmailCommunicationRepository;
+import com.project.SaasCRM.repository.InteractionRepository;
+import com.project.SaasCRM.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes {@code customers.health_score} for every customer.
+ *
+ * <p>Customers are walked in id order in chunks. For each chunk the interaction, deal, task and
+ * email tables are read as grouped aggregates over the chunk's id range, joined in memory by
+ * customer id into column arrays, scored in parallel on a dedicated {@link ForkJoinPool}, and
+ * written back with one JDBC batch update. Loading the next chunk overlaps with scoring the
+ * current one.</p>
+ */
+@Component
+@Slf4j
+public class CustomerHealthScoreJob {
+
+    private static final String UPDATE_SQL =
+            "UPDATE customers SET health_score = ?, health_score_updated_at = ? WHERE id = ?";
+    private static final int SCORE_THRESHOLD = 256;
+
+    private final CustomerRepository customerRepository;
+    private final InteractionRepository interactionRepository;
+    private final DealRepository dealRepository;
+    private final TaskRepository taskRepository;
+    private final EmailCommunicationRepository emailCommunicationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+    private final TaskExecutor backgroundJobs;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.health-score.chunk-size:2000}")
+    private int chunkSize;
+
+    @Value("${app.health-score.window-days:90}")
+    private int windowDays;
+
+    public CustomerHealthScoreJob(CustomerRepository customerRepository,
+                                  InteractionRepository interactionRepository,
+                                  DealRepository dealRepository,
+                                  TaskRepository taskRepository,
+                                  EmailCommunicationRepository emailCommunicationRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  @Value("${app.health-score.parallelism:0}") int parallelism,
+                                  @Qualifier("backgroundJobExecutor") TaskExecutor backgroundJobs) {
+        this.customerRepository = customerRepository;
+        this.interactionRepository = interactionRepository;
+        this.dealRepository = dealRepository;
+        this.taskRepository = taskRepository;
+        this.emailCommunicationRepository = emailCommunicationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.backgroundJobs = backgroundJobs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Starts a run on a background thread unless one is already in progress.
+     *
+     * @return {@code true} if a new run was started
+     */
+    public boolean triggerAsync() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            backgroundJobs.execute(this::runClaimed);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            log.warn("No background thread free for the health score job");
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(cron = "${app.health-score.cron:0 0 2 * * *}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Health score job already running, skipping");
+            return;
+        }
+        runClaimed();
+    }
+
+    /**
+     * Runs a recompute for which {@code running} is already set, and clears it.
+     */
+    private void runClaimed() {
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime now = LocalDateTime.now();
+            long scored = 0;
+            ScoreChunk pending = null;
+            ForkJoinTask<?> scoring = null;
+            long afterId = 0L;
+            while (true) {
+                List<Long> ids = customerRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                ScoreChunk next = ids.isEmpty() ? null : load(ids, now);
+                if (pending != null) {
+                    scoring.join();
+                    write(pending, now);
+                    scored += pending.size();
+                }
+                if (next == null) {
+                    break;
+                }
+                pending = next;
+                scoring = pool.submit(new ScoreTask(next, toMillis(now), 0, next.size()));
+                afterId = ids.get(ids.size() - 1);
+                if (ids.size() < chunkSize) {
+                    scoring.join();
+                    write(pending, now);
+                    scored += pending.size();
+                    break;
+                }
+            }
+            log.info("Health scores recomputed for {} customers in {} ms", scored, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Health score job failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ScoreChunk load(List<Long> ids, LocalDateTime now) {
+        ScoreChunk chunk = new ScoreChunk(ids.stream().mapToLong(Long::longValue).toArray());
+        Long fromId = ids.get(0);
+        Long toId = ids.get(ids.size() - 1);
+        LocalDateTime since = now.minusDays(windowDays);
+
+        for (Object[] row : interactionRepository.aggregateActivityByCustomerIdBetween(fromId, toId, since)) {
+            int index = chunk.indexOf((Long) row[0]);
+            if (index >= 0) {
+                chunk.recentInteractions[index] = row[1] != null ? ((Number) row[1]).intValue() : 0;
+                chunk.lastInteraction[index] = row[2] != null ? toMillis((LocalDateTime) row[2]) : Long.MIN_VALUE;
+            }
+        }
+        for (Object[] row : dealRepository.sumOpenDealValueByCustomerIdBetween(fromId, toId)) {
+            int index = chunk.indexOf((Long) row[0]);
+            if (index >= 0 && row[1] != null) {
+                chunk.openDealValue[index] = ((Number) row[1]).doubleValue();
+            }
+        }
+        for (Object[] row : taskRepository.countOverdueByCustomerIdBetween(fromId, toId, now)) {
+            int index = chunk.indexOf((Long) row[0]);
+            if (index >= 0) {
+                chunk.overdueTasks[index] = ((Number) row[1]).intValue();
+            }
+        }
+        for (Object[] row : emailCommunicationRepository.aggregateEngagementByCustomerIdBetween(fromId, toId, since)) {
+            int index = chunk.indexOf((Long) row[0]);
+            if (index >= 0) {
+                chunk.emailsSent[index] = ((Number) row[1]).intValue();
+                chunk.emailsOpened[index] = row[2] != null ? ((Number) row[2]).intValue() : 0;
+                chunk.emailsClicked[index] = row[3] != null ? ((Number) row[3]).intValue() : 0;
+            }
+        }
+        return chunk;
+    }
+
+    private void write(ScoreChunk chunk, LocalDateTime now) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        List<Object[]> batch = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            batch.add(new Object[]{chunk.scores[i], updatedAt, chunk.customerIds[i]});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Scoring inputs and outputs for one id-ordered chunk, one array slot per customer.
+     */
+    static final class ScoreChunk {
+        final long[] customerIds;
+        final int[] recentInteractions;
+        final long[] lastInteraction;
+        final double[] openDealValue;
+        final int[] overdueTasks;
+        final int[] emailsSent;
+        final int[] emailsOpened;
+        final int[] emailsClicked;
+        final int[] scores;
+
+        ScoreChunk(long[] customerIds) {
+            int size = customerIds.length;
+            this.customerIds = customerIds;
+            this.recentInteractions = new int[size];
+            this.lastInteraction = new long[size];
+            this.openDealValue = new double[size];
+            this.overdueTasks = new int[size];
+            this.emailsSent = new int[size];
+            this.emailsOpened = new int[size];
+            this.emailsClicked = new int[size];
+            this.scores = new int[size];
+            Arrays.fill(lastInteraction, Long.MIN_VALUE);
+        }
+
+        int size() {
+            return customerIds.length;
+        }
+
+        int indexOf(Long customerId) {
+            return customerId == null ? -1 : Arrays.binarySearch(customerIds, customerId);
+        }
+    }
+
+    private static final class ScoreTask extends RecursiveAction {
+        private final ScoreChunk chunk;
+        private final long nowMillis;
+        private final int from;
+        private final int to;
+
+        ScoreTask(ScoreChunk chunk, long nowMillis, int from, int to) {
+            this.chunk = chunk;
+            this.nowMillis = nowMillis;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SCORE_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    chunk.scores[i] = HealthScoreCalculator.score(nowMillis, chunk.lastInteraction[i],
+                            chunk.recentInteractions[i], chunk.openDealValue[i], chunk.overdueTasks[i],
+                            chunk.emailsSent[i], chunk.emailsOpened[i], chunk.emailsClicked[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoreTask(chunk, nowMillis, from, mid), new ScoreTask(chunk, nowMillis, mid, to));
+        }
+    }
+}
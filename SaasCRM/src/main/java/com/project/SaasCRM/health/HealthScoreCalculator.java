@@ -0,0 +1,58 @@
+package com.project.SaasCRM.health;
+
+/**
+ * Pure scoring function for customer health on a 0-100 scale; higher is healthier.
+ *
+ * <ul>
+ *   <li>Recency (30): decays with days since the last interaction, half-life of about three weeks.</li>
+ *   <li>Frequency (20): interactions in the scoring window, saturating at twelve.</li>
+ *   <li>Pipeline (20): open deal value on a log scale, saturating at 100k.</li>
+ *   <li>Overdue work (15): full marks with no overdue tasks, zero at five or more.</li>
+ *   <li>Email engagement (15): open and click rates of emails sent in the window; neutral when none were sent.</li>
+ * </ul>
+ */
+public final class HealthScoreCalculator {
+
+    static final double RECENCY_WEIGHT = 30;
+    static final double FREQUENCY_WEIGHT = 20;
+    static final double PIPELINE_WEIGHT = 20;
+    static final double OVERDUE_WEIGHT = 15;
+    static final double ENGAGEMENT_WEIGHT = 15;
+
+    private static final double RECENCY_DECAY_DAYS = 30;
+    private static final double FREQUENCY_SATURATION = 12;
+    private static final double PIPELINE_SATURATION = 100_000;
+    private static final double OVERDUE_LIMIT = 5;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private HealthScoreCalculator() {
+    }
+
+    public static int score(long nowMillis, long lastInteractionMillis, int recentInteractions, double openDealValue,
+                            int overdueTasks, int emailsSent, int emailsOpened, int emailsClicked) {
+        double score = 0;
+
+        if (lastInteractionMillis != Long.MIN_VALUE) {
+            double days = Math.max(0, (nowMillis - lastInteractionMillis) / (double) DAY_MILLIS);
+            score += RECENCY_WEIGHT * Math.exp(-days / RECENCY_DECAY_DAYS);
+        }
+
+        score += FREQUENCY_WEIGHT * Math.min(1.0, recentInteractions / FREQUENCY_SATURATION);
+
+        if (openDealValue > 0) {
+            score += PIPELINE_WEIGHT * Math.min(1.0, Math.log1p(openDealValue) / Math.log1p(PIPELINE_SATURATION));
+        }
+
+        score += OVERDUE_WEIGHT * Math.max(0.0, 1.0 - overdueTasks / OVERDUE_LIMIT);
+
+        if (emailsSent > 0) {
+            double openRate = Math.min(1.0, emailsOpened / (double) emailsSent);
+            double clickRate = Math.min(1.0, emailsClicked / (double) emailsSent);
+            score += ENGAGEMENT_WEIGHT * Math.min(1.0, 0.6 * openRate + 0.4 * Math.min(1.0, clickRate * 4));
+        } else {
+            score += ENGAGEMENT_WEIGHT / 2;
+        }
+
+        return (int) Math.round(Math.max(0, Math.min(100, score)));
+    }
+}
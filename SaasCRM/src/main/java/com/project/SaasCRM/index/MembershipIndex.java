@@ -0,0 +1,377 @@
+package com.project.SaasCRM.index;
+
+import com.project.SaasCRM.domain.MembershipDimension;
+import com.project.SaasCRM.domain.MembershipEntity;
+import com.project.SaasCRM.domain.dto.MembershipFilterDTO;
+import com.project.SaasCRM.domain.dto.MembershipPredicateDTO;
+import com.project.SaasCRM.domain.event.CustomerChangedEvent;
+import com.project.SaasCRM.domain.event.DealChangedEvent;
+import com.project.SaasCRM.domain.event.TaskChangedEvent;
+import com.project.SaasCRM.repository.CustomerRepository;
+import com.project.SaasCRM.repository.DealRepository;
+import com.project.SaasCRM.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Bitmap index over the categorical columns of customers, deals and tasks.
+ *
+ * <p>Every (dimension, value) pair owns a {@link RoaringBitmap} of entity ids, so multi-predicate
+ * membership filters and counts become AND/OR/ANDNOT over bitmaps instead of SQL joins. The index is
+ * loaded on startup, rebuilt periodically, and kept current in between by reloading the ids touched
+ * by committed writes.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MembershipIndex {
+
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    private final CustomerRepository customerRepository;
+    private final DealRepository dealRepository;
+    private final TaskRepository taskRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object refreshLock = new Object();
+    private final Map<MembershipEntity, Set<Long>> dirtyIds = new EnumMap<>(MembershipEntity.class);
+
+    private Map<MembershipEntity, RoaringBitmap> allIds = new EnumMap<>(MembershipEntity.class);
+    private Map<MembershipDimension, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(MembershipDimension.class);
+    private volatile boolean ready;
+
+    @Value("${app.index.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    {
+        for (MembershipEntity entity : MembershipEntity.values()) {
+            dirtyIds.put(entity, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Evaluates the filter and returns the matching ids as a new bitmap owned by the caller.
+     */
+    public RoaringBitmap evaluate(MembershipFilterDTO filter) {
+        if (filter == null || filter.getEntity() == null) {
+            throw new IllegalArgumentException("Membership filter entity is required");
+        }
+        validate(filter.getEntity(), filter.getInclude());
+        validate(filter.getEntity(), filter.getExclude());
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            if (filter.getInclude() != null) {
+                for (MembershipPredicateDTO predicate : filter.getInclude()) {
+                    RoaringBitmap matches = union(predicate);
+                    result = result == null ? matches : RoaringBitmap.and(result, matches);
+                    if (result.isEmpty()) {
+                        return result;
+                    }
+                }
+            }
+            if (result == null) {
+                result = allIds.getOrDefault(filter.getEntity(), new RoaringBitmap()).copy();
+            }
+            if (filter.getExclude() != null) {
+                for (MembershipPredicateDTO predicate : filter.getExclude()) {
+                    result = RoaringBitmap.andNot(result, union(predicate));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entities holding each value of {@code dimension}.
+     */
+    public Map<String, Long> countByValue(MembershipDimension dimension) {
+        lock.readLock().lock();
+        try {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            bitmaps.getOrDefault(dimension, Map.of())
+                    .forEach((value, bitmap) -> counts.put(value, bitmap.cardinality()));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.index.initial-load-delay-ms:5000}",
+               fixedDelayString = "${app.index.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        synchronized (refreshLock) {
+            long started = System.currentTimeMillis();
+            Map<MembershipEntity, RoaringBitmap> nextAll = new EnumMap<>(MembershipEntity.class);
+            Map<MembershipDimension, Map<String, RoaringBitmap>> nextBitmaps = new EnumMap<>(MembershipDimension.class);
+            for (MembershipEntity entity : MembershipEntity.values()) {
+                nextAll.put(entity, new RoaringBitmap());
+                long afterId = 0L;
+                while (true) {
+                    List<Object[]> batch = loadAfter(entity, afterId, PageRequest.of(0, loadBatchSize));
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    loadMemberships(entity, batch).forEach((id, values) ->
+                            apply(nextAll, nextBitmaps, entity, id, values));
+                    afterId = (Long) batch.get(batch.size() - 1)[0];
+                    if (batch.size() < loadBatchSize) {
+                        break;
+                    }
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                allIds = nextAll;
+                bitmaps = nextBitmaps;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Membership index rebuilt ({} customers, {} deals, {} tasks) in {} ms",
+                    nextAll.get(MembershipEntity.CUSTOMER).cardinality(),
+                    nextAll.get(MembershipEntity.DEAL).cardinality(),
+                    nextAll.get(MembershipEntity.TASK).cardinality(),
+                    System.currentTimeMillis() - started);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.index.refresh-interval-ms:1000}")
+    public void refreshDirty() {
+        if (!ready) {
+            return;
+        }
+        synchronized (refreshLock) {
+            for (MembershipEntity entity : MembershipEntity.values()) {
+                Set<Long> dirty = dirtyIds.get(entity);
+                if (dirty.isEmpty()) {
+                    continue;
+                }
+                List<Long> pending = new ArrayList<>(dirty);
+                dirty.removeAll(pending);
+                for (int from = 0; from < pending.size(); from += IN_CHUNK_SIZE) {
+                    List<Long> chunk = pending.subList(from, Math.min(pending.size(), from + IN_CHUNK_SIZE));
+                    Map<Long, Map<MembershipDimension, Collection<String>>> rows =
+                            loadMemberships(entity, loadByIds(entity, chunk));
+                    lock.writeLock().lock();
+                    try {
+                        for (Long id : chunk) {
+                            Map<MembershipDimension, Collection<String>> values = rows.get(id);
+                            if (values != null) {
+                                apply(allIds, bitmaps, entity, id, values);
+                            } else {
+                                evict(allIds, bitmaps, entity, id);
+                            }
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        markDirty(MembershipEntity.CUSTOMER, event.getCustomerId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDealChanged(DealChangedEvent event) {
+        markDirty(MembershipEntity.DEAL, event.getDealId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        markDirty(MembershipEntity.TASK, event.getTaskId());
+    }
+
+    private void markDirty(MembershipEntity entity, Long id) {
+        if (id != null) {
+            dirtyIds.get(entity).add(id);
+        }
+    }
+
+    private RoaringBitmap union(MembershipPredicateDTO predicate) {
+        Map<String, RoaringBitmap> byValue = bitmaps.getOrDefault(predicate.getDimension(), Map.of());
+        RoaringBitmap result = new RoaringBitmap();
+        for (String value : predicate.getValues()) {
+            RoaringBitmap bitmap = byValue.get(normalize(predicate.getDimension(), value));
+            if (bitmap != null) {
+                result = RoaringBitmap.or(result, bitmap);
+            }
+        }
+        return result;
+    }
+
+    private static void apply(Map<MembershipEntity, RoaringBitmap> all,
+                              Map<MembershipDimension, Map<String, RoaringBitmap>> bitmaps,
+                              MembershipEntity entity, Long id, Map<MembershipDimension, Collection<String>> values) {
+        int key = toKey(id);
+        evict(all, bitmaps, entity, id);
+        all.computeIfAbsent(entity, e -> new RoaringBitmap()).add(key);
+        values.forEach((dimension, dimensionValues) -> {
+            Map<String, RoaringBitmap> byValue = bitmaps.computeIfAbsent(dimension, d -> new HashMap<>());
+            for (String value : dimensionValues) {
+                byValue.computeIfAbsent(value, v -> new RoaringBitmap()).add(key);
+            }
+        });
+    }
+
+    private static void evict(Map<MembershipEntity, RoaringBitmap> all,
+                              Map<MembershipDimension, Map<String, RoaringBitmap>> bitmaps,
+                              MembershipEntity entity, Long id) {
+        int key = toKey(id);
+        RoaringBitmap entityIds = all.get(entity);
+        if (entityIds == null || !entityIds.contains(key)) {
+            return;
+        }
+        entityIds.remove(key);
+        for (MembershipDimension dimension : MembershipDimension.values()) {
+            if (dimension.getEntity() != entity || !bitmaps.containsKey(dimension)) {
+                continue;
+            }
+            Iterator<RoaringBitmap> iterator = bitmaps.get(dimension).values().iterator();
+            while (iterator.hasNext()) {
+                RoaringBitmap bitmap = iterator.next();
+                bitmap.remove(key);
+                if (bitmap.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private List<Object[]> loadAfter(MembershipEntity entity, Long afterId, Pageable pageable) {
+        switch (entity) {
+            case CUSTOMER:
+                return customerRepository.findSnapshotRowsAfter(afterId, pageable);
+            case DEAL:
+                return dealRepository.findMembershipRowsAfter(afterId, pageable);
+            default:
+                return taskRepository.findMembershipRowsAfter(afterId, pageable);
+        }
+    }
+
+    private List<Object[]> loadByIds(MembershipEntity entity, Collection<Long> ids) {
+        switch (entity) {
+            case CUSTOMER:
+                return customerRepository.findSnapshotRowsByIdIn(ids);
+            case DEAL:
+                return dealRepository.findMembershipRowsByIdIn(ids);
+            default:
+                return taskRepository.findMembershipRowsByIdIn(ids);
+        }
+    }
+
+    /**
+     * Turns projection rows (id first) into per-dimension values, adding user assignments for
+     * customers and deals from their join tables.
+     */
+    private Map<Long, Map<MembershipDimension, Collection<String>>> loadMemberships(MembershipEntity entity, List<Object[]> rows) {
+        Map<Long, Map<MembershipDimension, Collection<String>>> result = new LinkedHashMap<>();
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            ids.add(id);
+            Map<MembershipDimension, Collection<String>> values = new EnumMap<>(MembershipDimension.class);
+            switch (entity) {
+                case CUSTOMER:
+                    putValue(values, MembershipDimension.CUSTOMER_STATUS, row[1]);
+                    break;
+                case DEAL:
+                    putValue(values, MembershipDimension.DEAL_STAGE, row[1]);
+                    putValue(values, MembershipDimension.DEAL_STATUS, row[2]);
+                    break;
+                default:
+                    putValue(values, MembershipDimension.TASK_STATUS, row[1]);
+                    putValue(values, MembershipDimension.TASK_ASSIGNEE, row[2]);
+                    break;
+            }
+            result.put(id, values);
+        }
+
+        if (entity == MembershipEntity.CUSTOMER) {
+            addAssignments(result, ids, MembershipDimension.CUSTOMER_ASSIGNED_USER,
+                    customerRepository::findAssignedUserIdsByCustomerIdIn);
+        } else if (entity == MembershipEntity.DEAL) {
+            addAssignments(result, ids, MembershipDimension.DEAL_ASSIGNED_USER,
+                    dealRepository::findAssignedUserIdsByDealIdIn);
+        }
+        return result;
+    }
+
+    private static void addAssignments(Map<Long, Map<MembershipDimension, Collection<String>>> result, List<Long> ids,
+                                       MembershipDimension dimension, Function<Collection<Long>, List<Object[]>> loader) {
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            for (Object[] pair : loader.apply(ids.subList(from, Math.min(ids.size(), from + IN_CHUNK_SIZE)))) {
+                putValue(result.get((Long) pair[0]), dimension, pair[1]);
+            }
+        }
+    }
+
+    private static void putValue(Map<MembershipDimension, Collection<String>> values, MembershipDimension dimension, Object value) {
+        if (values != null && value != null) {
+            values.computeIfAbsent(dimension, d -> new HashSet<>())
+                    .add(value instanceof Enum ? ((Enum<?>) value).name() : value.toString());
+        }
+    }
+
+    private static void validate(MembershipEntity entity, List<MembershipPredicateDTO> predicates) {
+        if (predicates == null) {
+            return;
+        }
+        for (MembershipPredicateDTO predicate : predicates) {
+            if (predicate.getDimension() == null || predicate.getValues() == null || predicate.getValues().isEmpty()) {
+                throw new IllegalArgumentException("Membership predicates require a dimension and at least one value");
+            }
+            if (predicate.getDimension().getEntity() != entity) {
+                throw new IllegalArgumentException(predicate.getDimension() + " does not apply to " + entity);
+            }
+        }
+    }
+
+    private static String normalize(MembershipDimension dimension, String value) {
+        switch (dimension) {
+            case CUSTOMER_ASSIGNED_USER:
+            case DEAL_ASSIGNED_USER:
+            case TASK_ASSIGNEE:
+                return value.trim();
+            default:
+                return value.trim().toUpperCase();
+        }
+    }
+
+    private static int toKey(Long id) {
+        return Math.toIntExact(id);
+    }
+}
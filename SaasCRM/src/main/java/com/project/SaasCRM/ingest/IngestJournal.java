@@ -0,0 +1,169 @@
+package com.project.SaasCRM.ingest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of single-line payloads on local disk, split into segment files.
+ *
+ * <p>Every entry gets a sequence number and is written as {@code <sequence>\t<payload>\n}; an append
+ * returns only after the segment has been forced to disk. A segment is named after its first
+ * sequence and is deleted once every entry in it has been committed downstream. A torn entry at the
+ * end of a segment, left by a crash in the middle of a write, is dropped on open.</p>
+ *
+ * <p>Thread-safe.</p>
+ */
+final class IngestJournal implements Closeable {
+
+    record Entry(long sequence, String payload) {
+    }
+
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final String prefix;
+    private final long segmentBytes;
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    private FileChannel active;
+    private long nextSequence = 1;
+
+    IngestJournal(Path directory, String prefix, long segmentBytes) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Opens the journal for appending and returns the entries after {@code committedSequence}, in
+     * sequence order. Later sequences continue after both the highest sequence on disk and
+     * {@code committedSequence}.
+     */
+    synchronized List<Entry> open(long committedSequence) throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().startsWith(prefix + "-")
+                            && file.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(file -> segments.put(firstSequenceOf(file), file));
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        long highest = committedSequence;
+        for (Path segment : segments.values()) {
+            highest = Math.max(highest, read(segment, committedSequence, entries));
+        }
+        nextSequence = highest + 1;
+        trim(committedSequence);
+        roll();
+        return entries;
+    }
+
+    /**
+     * Appends {@code payloads} and forces them to disk.
+     *
+     * @return the sequence of the first payload
+     */
+    synchronized long append(List<String> payloads) throws IOException {
+        if (active == null) {
+            throw new IllegalStateException("Journal is not open");
+        }
+        if (active.size() >= segmentBytes) {
+            roll();
+        }
+        long first = nextSequence;
+        StringBuilder lines = new StringBuilder(payloads.size() * 256);
+        for (String payload : payloads) {
+            lines.append(nextSequence++).append('\t').append(payload).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            active.write(buffer);
+        }
+        active.force(false);
+        return first;
+    }
+
+    /**
+     * Deletes the segments whose entries all have a sequence up to {@code committedSequence}. The
+     * segment being appended to is kept.
+     */
+    synchronized void trim(long committedSequence) throws IOException {
+        while (segments.size() > 1) {
+            Map.Entry<Long, Path> oldest = segments.firstEntry();
+            Long next = segments.higherKey(oldest.getKey());
+            if (next - 1 > committedSequence) {
+                return;
+            }
+            Files.deleteIfExists(oldest.getValue());
+            segments.pollFirstEntry();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (active != null) {
+            active.close();
+            active = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        close();
+        Path file = directory.resolve(prefix + "-" + String.format("%020d", nextSequence) + SUFFIX);
+        active = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segments.put(nextSequence, file);
+    }
+
+    /**
+     * Adds the entries of {@code segment} after {@code committedSequence} to {@code entries},
+     * truncating a torn last line.
+     *
+     * @return the highest sequence in the segment
+     */
+    private long read(Path segment, long committedSequence, List<Entry> entries) throws IOException {
+        long highest = 0;
+        long validBytes = 0;
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c != '\n') {
+                    line.append((char) c);
+                    continue;
+                }
+                int tab = line.indexOf("\t");
+                long sequence = Long.parseLong(line.substring(0, tab));
+                if (sequence > committedSequence) {
+                    entries.add(new Entry(sequence, line.substring(tab + 1)));
+                }
+                highest = Math.max(highest, sequence);
+                validBytes += line.toString().getBytes(StandardCharsets.UTF_8).length + 1;
+                line.setLength(0);
+            }
+        }
+        if (validBytes < Files.size(segment)) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(validBytes);
+            }
+        }
+        return highest;
+    }
+
+    private long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length() + 1, name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.project.SaasCRM.ingest;
+
+import com.project.SaasCRM.domain.event.ChangeType;
+import com.project.SaasCRM.domain.event.CustomerChangedEvent;
+import com.project.SaasCRM.repository.CustomerRepository;
+import com.project.SaasCRM.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Remembers which user and customer ids exist, so that ingested interactions can be checked and
+ * written without a lookup per record. Misses are resolved with one query per call; the sets are
+ * cleared when they outgrow their bound.
+ */
+@Component
+public class IngestReferenceCache {
+
+    private final UserRepository userRepository;
+    private final CustomerRepository customerRepository;
+    private final Set<Long> users = ConcurrentHashMap.newKeySet();
+    private final Set<Long> customers = ConcurrentHashMap.newKeySet();
+    private final int maxSize;
+
+    public IngestReferenceCache(UserRepository userRepository,
+                                CustomerRepository customerRepository,
+                                @Value("${app.ingest.reference-cache-size:100000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.customerRepository = customerRepository;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the ids in {@code userIds} that do not belong to a user.
+     */
+    public Set<Long> missingUsers(Collection<Long> userIds) {
+        return missing(users, userIds, userRepository::findExistingIdsIn);
+    }
+
+    /**
+     * Returns the ids in {@code customerIds} that do not belong to a customer.
+     */
+    public Set<Long> missingCustomers(Collection<Long> customerIds) {
+        return missing(customers, customerIds, customerRepository::findExistingIdsIn);
+    }
+
+    /**
+     * Drops every cached id, for when a write found a reference that no longer exists.
+     */
+    public void invalidate() {
+        users.clear();
+        customers.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.getChangeType() == ChangeType.DELETED && event.getCustomerId() != null) {
+            customers.remove(event.getCustomerId());
+        }
+    }
+
+    private Set<Long> missing(Set<Long> known, Collection<Long> ids, Function<Collection<Long>, List<Long>> loader) {
+        Set<Long> unknown = new HashSet<>();
+        for (Long id : ids) {
+            if (!known.contains(id)) {
+                unknown.add(id);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return unknown;
+        }
+        List<Long> found = loader.apply(unknown);
+        if (known.size() + found.size() > maxSize) {
+            known.clear();
+        }
+        known.addAll(found);
+        found.forEach(unknown::remove);
+        return unknown;
+    }
+}
@@ -0,0 +1,172 @@
+package com.project.SaasCRM.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.SaasCRM.domain.dto.InteractionDTO;
+import com.project.SaasCRM.domain.entity.IngestCheckpoint;
+import com.project.SaasCRM.repository.IngestCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Durable hand-off between the ingestion endpoint and {@link InteractionIngestWriter}.
+ *
+ * <p>Accepted interactions are appended to an {@link IngestJournal} on local disk and kept in memory
+ * until the writer has committed them. The writer records the last committed sequence in
+ * {@code ingest_checkpoints} in the same transaction as the rows, so after a restart exactly the
+ * uncommitted tail of the journal is replayed.</p>
+ *
+ * <p>Every node has its own stream, {@code interactions:<app.ingest.node-id>}, with its own checkpoint
+ * row and its own journal directory under {@code app.ingest.journal-dir}. The node id must therefore
+ * be configured explicitly, stay the same across restarts of a node, for instance a StatefulSet
+ * ordinal with a persistent journal volume, and differ between nodes.</p>
+ */
+@Component
+@Slf4j
+public class InteractionIngestQueue {
+
+    private static final String STREAM_PREFIX = "interactions";
+    private static final Pattern NODE_ID = Pattern.compile("[A-Za-z0-9._-]{1,36}");
+
+    /**
+     * An accepted interaction and its journal sequence.
+     */
+    public record Pending(long sequence, InteractionDTO interaction) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final IngestJournal journal;
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+    private final int capacity;
+    private final String stream;
+
+    public InteractionIngestQueue(IngestCheckpointRepository checkpointRepository,
+                                  @Value("${app.ingest.node-id:local}") String nodeId,
+                                  @Value("${app.ingest.journal-dir:data/ingest}") String journalDir,
+                                  @Value("${app.ingest.segment-bytes:67108864}") long segmentBytes,
+                                  @Value("${app.ingest.capacity:100000}") int capacity) throws IOException {
+        if (!NODE_ID.matcher(nodeId).matches()) {
+            throw new IllegalArgumentException("app.ingest.node-id must be 1-36 letters, digits, '.', '_' or '-': " + nodeId);
+        }
+        this.capacity = capacity;
+        this.stream = STREAM_PREFIX + ":" + nodeId;
+        long committed = checkpointRepository.findById(stream)
+                .map(IngestCheckpoint::getLastSequence)
+                .orElseGet(() -> {
+                    IngestCheckpoint checkpoint = new IngestCheckpoint();
+                    checkpoint.setStream(stream);
+                    checkpoint.setUpdatedAt(LocalDateTime.now());
+                    return checkpointRepository.save(checkpoint).getLastSequence();
+                });
+        this.journal = new IngestJournal(Paths.get(journalDir, nodeId), STREAM_PREFIX, segmentBytes);
+        for (IngestJournal.Entry entry : journal.open(committed)) {
+            pending.add(new Pending(entry.sequence(), objectMapper.readValue(entry.payload(), InteractionDTO.class)));
+        }
+        warnAboutSharedJournal(Paths.get(journalDir));
+        if (!pending.isEmpty()) {
+            log.info("Replaying {} uncommitted ingested interactions from the journal", pending.size());
+        }
+    }
+
+    private static void warnAboutSharedJournal(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            if (files.anyMatch(file -> Files.isRegularFile(file) && file.getFileName().toString().startsWith(STREAM_PREFIX))) {
+                log.warn("Ignoring ingest journal segments left directly in {} by a version without node ids; "
+                        + "interactions in them that were not committed are not replayed", dir);
+            }
+        }
+    }
+
+    /**
+     * The name of this node's row in {@code ingest_checkpoints}.
+     */
+    public String stream() {
+        return stream;
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        journal.close();
+    }
+
+    /**
+     * Durably appends {@code interactions}.
+     *
+     * @return the sequence of the first interaction, or {@code -1} if the queue is full
+     */
+    public synchronized long offer(List<InteractionDTO> interactions) {
+        if (pending.size() + interactions.size() > capacity) {
+            return -1;
+        }
+        List<String> payloads = new ArrayList<>(interactions.size());
+        try {
+            for (InteractionDTO interaction : interactions) {
+                payloads.add(objectMapper.writeValueAsString(interaction));
+            }
+            long first = journal.append(payloads);
+            long sequence = first;
+            for (InteractionDTO interaction : interactions) {
+                pending.add(new Pending(sequence++, interaction));
+            }
+            return first;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Interaction cannot be serialised", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to the ingest journal", e);
+        }
+    }
+
+    /**
+     * Returns up to {@code max} of the oldest uncommitted interactions without removing them.
+     */
+    public synchronized List<Pending> peek(int max) {
+        List<Pending> batch = new ArrayList<>(Math.min(max, pending.size()));
+        for (Pending entry : pending) {
+            if (batch.size() == max) {
+                break;
+            }
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    /**
+     * Drops the interactions up to {@code sequence}, which the writer has committed, and deletes
+     * journal segments that are no longer needed.
+     */
+    public synchronized void acknowledge(long sequence) {
+        while (!pending.isEmpty() && pending.peekFirst().sequence() <= sequence) {
+            pending.pollFirst();
+        }
+        try {
+            journal.trim(sequence);
+        } catch (IOException e) {
+            log.warn("Failed to delete committed ingest journal segments", e);
+        }
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+}
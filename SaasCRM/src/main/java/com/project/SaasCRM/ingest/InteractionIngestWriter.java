@@ -0,0 +1,286 @@
+package com.project.SaasCRM.ingest;
+
+import com.project.SaasCRM.domain.dto.InteractionDTO;
+import com.project.SaasCRM.domain.event.ChangeType;
+import com.project.SaasCRM.domain.event.InteractionChangedEvent;
+import com.project.SaasCRM.interaction.InteractionStatistics;
+import com.project.SaasCRM.repository.IngestCheckpointRepository;
+import com.project.SaasCRM.service.AuditLogService;
+import com.project.SaasCRM.service.NotificationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains {@link InteractionIngestQueue} into the {@code interactions} table.
+ *
+ * <p>Each batch runs in one transaction: references are checked against
+ * {@link IngestReferenceCache}, the rows are inserted with one JDBC batch, the daily rollup, the
+ * customers' {@code last_contact} and the audit log are updated with one statement per distinct row,
+ * and the ingest checkpoint is advanced. The checkpoint row is locked first and entries at or below
+ * it are skipped, so a batch whose commit succeeded but was reported as failed is not inserted twice
+ * on retry. Notifications are sent from a separate pool after the commit. If a batch hits a
+ * constraint violation it is retried record by record, acknowledging each record as it commits, and
+ * the offending records are dropped; any other failure leaves the rest queued for the next flush.</p>
+ */
+@Component
+@Slf4j
+public class InteractionIngestWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO interactions (customer_id, user_id, type, title, "
+            + "description, outcome, next_steps, created_at, updated_at, scheduled_at, completed_at, "
+            + "duration_minutes, location, is_completed, is_successful) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String LAST_CONTACT_SQL = "UPDATE customers SET last_contact = ? "
+            + "WHERE id = ? AND (last_contact IS NULL OR last_contact < ?)";
+
+    private final InteractionIngestQueue queue;
+    private final IngestReferenceCache referenceCache;
+    private final IngestCheckpointRepository checkpointRepository;
+    private final InteractionStatistics interactionStatistics;
+    private final AuditLogService auditLogService;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService notifier;
+
+    @Value("${app.ingest.batch-size:500}")
+    private int batchSize;
+
+    public InteractionIngestWriter(InteractionIngestQueue queue,
+                                   IngestReferenceCache referenceCache,
+                                   IngestCheckpointRepository checkpointRepository,
+                                   InteractionStatistics interactionStatistics,
+                                   AuditLogService auditLogService,
+                                   NotificationService notificationService,
+                                   ApplicationEventPublisher eventPublisher,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.ingest.notification-threads:2}") int notificationThreads) {
+        this.queue = queue;
+        this.referenceCache = referenceCache;
+        this.checkpointRepository = checkpointRepository;
+        this.interactionStatistics = interactionStatistics;
+        this.auditLogService = auditLogService;
+        this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threads = new AtomicInteger();
+        this.notifier = Executors.newFixedThreadPool(Math.max(1, notificationThreads), runnable -> {
+            Thread thread = new Thread(runnable, "ingest-notifier-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdown();
+    }
+
+    /**
+     * Writes queued interactions until the queue is empty or a batch fails.
+     */
+    @Scheduled(fixedDelayString = "${app.ingest.flush-interval-ms:200}")
+    public void flush() {
+        while (true) {
+            List<InteractionIngestQueue.Pending> batch = queue.peek(batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Written> written;
+            try {
+                written = transactionTemplate.execute(status -> write(batch));
+            } catch (DataIntegrityViolationException e) {
+                referenceCache.invalidate();
+                List<Written> partial = new ArrayList<>();
+                boolean complete = writeOneByOne(batch, partial);
+                notifyAsync(partial);
+                if (!complete || batch.size() < batchSize) {
+                    return;
+                }
+                continue;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} ingested interactions, will retry", batch.size(), e);
+                return;
+            }
+            queue.acknowledge(batch.get(batch.size() - 1).sequence());
+            notifyAsync(written);
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes {@code batch} one entry per transaction, acknowledging each entry once it is committed or
+     * dropped, and adds what was written to {@code written}.
+     *
+     * @return {@code false} if an entry failed for another reason than a constraint violation, in
+     *         which case it and the entries after it stay queued
+     */
+    private boolean writeOneByOne(List<InteractionIngestQueue.Pending> batch, List<Written> written) {
+        for (int i = 0; i < batch.size(); i++) {
+            InteractionIngestQueue.Pending entry = batch.get(i);
+            try {
+                try {
+                    written.addAll(transactionTemplate.execute(status -> write(List.of(entry))));
+                } catch (DataIntegrityViolationException e) {
+                    log.warn("Dropping ingested interaction {}: {}", entry.sequence(), e.getMostSpecificCause().getMessage());
+                    transactionTemplate.executeWithoutResult(status -> checkpointRepository.advance(
+                            queue.stream(), entry.sequence(), LocalDateTime.now()));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to write ingested interaction {}, will retry it and the {} after it",
+                        entry.sequence(), batch.size() - i - 1, e);
+                return false;
+            }
+            queue.acknowledge(entry.sequence());
+        }
+        return true;
+    }
+
+    /**
+     * Writes the entries of {@code entries} above the checkpoint and advances it. Must run inside a
+     * transaction.
+     */
+    private List<Written> write(List<InteractionIngestQueue.Pending> entries) {
+        long committed = checkpointRepository.lockByStream(queue.stream())
+                .orElseThrow(() -> new IllegalStateException("Missing ingest checkpoint " + queue.stream()))
+                .getLastSequence();
+        List<InteractionIngestQueue.Pending> batch = new ArrayList<>(entries.size());
+        for (InteractionIngestQueue.Pending entry : entries) {
+            if (entry.sequence() > committed) {
+                batch.add(entry);
+            }
+        }
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> customerIds = new HashSet<>();
+        for (InteractionIngestQueue.Pending entry : batch) {
+            userIds.add(entry.interaction().getUserId());
+            customerIds.add(entry.interaction().getCustomerId());
+        }
+        Set<Long> missingUsers = referenceCache.missingUsers(userIds);
+        Set<Long> missingCustomers = referenceCache.missingCustomers(customerIds);
+        List<InteractionDTO> rows = new ArrayList<>(batch.size());
+        for (InteractionIngestQueue.Pending entry : batch) {
+            InteractionDTO interaction = entry.interaction();
+            if (missingUsers.contains(interaction.getUserId()) || missingCustomers.contains(interaction.getCustomerId())) {
+                log.warn("Dropping ingested interaction {}: user {} or customer {} no longer exists",
+                        entry.sequence(), interaction.getUserId(), interaction.getCustomerId());
+                continue;
+            }
+            rows.add(interaction);
+        }
+
+        List<Written> written = new ArrayList<>(rows.size());
+        if (!rows.isEmpty()) {
+            List<Long> ids = insert(rows);
+            List<InteractionStatistics.Facts> facts = new ArrayList<>(rows.size());
+            Map<Long, LocalDateTime> lastContact = new HashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                InteractionDTO interaction = rows.get(i);
+                Long id = ids.get(i);
+                facts.add(new InteractionStatistics.Facts(interaction.getCreatedAt().toLocalDate(),
+                        interaction.getCustomerId(), interaction.getUserId(), interaction.getType(),
+                        interaction.getDurationMinutes() != null ? interaction.getDurationMinutes() : 0));
+                lastContact.merge(interaction.getCustomerId(), interaction.getCreatedAt(),
+                        (a, b) -> a.isAfter(b) ? a : b);
+                eventPublisher.publishEvent(new InteractionChangedEvent(id, interaction.getCustomerId(), ChangeType.CREATED));
+                written.add(new Written(id, interaction.getUserId(), interaction.getTitle()));
+            }
+            interactionStatistics.recordCreatedAll(facts);
+            List<Object[]> contacts = new ArrayList<>(lastContact.size());
+            lastContact.forEach((customerId, at) -> contacts.add(
+                    new Object[]{Timestamp.valueOf(at), customerId, Timestamp.valueOf(at)}));
+            jdbcTemplate.batchUpdate(LAST_CONTACT_SQL, contacts);
+            auditLogService.logSystemActivities("INTERACTION_CREATED", "INTERACTION", ids);
+        }
+        checkpointRepository.advance(queue.stream(), batch.get(batch.size() - 1).sequence(),
+                LocalDateTime.now());
+        return written;
+    }
+
+    private List<Long> insert(List<InteractionDTO> rows) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        InteractionDTO row = rows.get(i);
+                        Timestamp createdAt = Timestamp.valueOf(row.getCreatedAt());
+                        ps.setLong(1, row.getCustomerId());
+                        ps.setLong(2, row.getUserId());
+                        ps.setString(3, row.getType().name());
+                        ps.setString(4, row.getTitle());
+                        ps.setString(5, row.getDescription());
+                        ps.setString(6, row.getOutcome());
+                        ps.setString(7, row.getNextSteps());
+                        ps.setTimestamp(8, createdAt);
+                        ps.setTimestamp(9, createdAt);
+                        ps.setTimestamp(10, row.getScheduledAt() != null ? Timestamp.valueOf(row.getScheduledAt()) : null);
+                        ps.setTimestamp(11, row.getCompletedAt() != null ? Timestamp.valueOf(row.getCompletedAt()) : null);
+                        ps.setObject(12, row.getDurationMinutes(), Types.INTEGER);
+                        ps.setString(13, row.getLocation());
+                        ps.setBoolean(14, row.isCompleted());
+                        ps.setObject(15, row.getSuccessful(), Types.BOOLEAN);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    private void notifyAsync(List<Written> written) {
+        for (Written interaction : written) {
+            notifier.execute(() -> {
+                try {
+                    notificationService.sendInteractionNotification(interaction.userId(), interaction.id(),
+                            "New interaction created: " + interaction.title());
+                } catch (Exception e) {
+                    log.warn("Failed to send notification for interaction {}", interaction.id(), e);
+                }
+            });
+        }
+    }
+
+    private record Written(Long id, Long userId, String title) {
+    }
+}
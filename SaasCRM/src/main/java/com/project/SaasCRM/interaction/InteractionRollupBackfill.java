@@ -0,0 +1,185 @@
+package com.project.SaasCRM.interaction;
+
+import com.project.SaasCRM.domain.ArchiveSource;
+import com.project.SaasCRM.domain.JobPartitionStatus;
+import com.project.SaasCRM.job.PartitionedJobRunner;
+import com.project.SaasCRM.job.PartitionedJobRunner.BatchResult;
+import com.project.SaasCRM.repository.ArchivedRecordRepository;
+import com.project.SaasCRM.repository.InteractionDailyRollupRepository;
+import com.project.SaasCRM.repository.InteractionRepository;
+import com.project.SaasCRM.repository.JobCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds {@code interaction_daily_rollup} from {@code interactions}.
+ *
+ * <p>A fresh run clears the rollup and then aggregates the interaction id space range by range with
+ * {@code INSERT ... SELECT ... GROUP BY}, adding into rows that live writes may already have created.
+ * The id space is swept by {@link PartitionedJobRunner}, so an interrupted rebuild resumes from its
+ * checkpoints without clearing again. The id space is bounded before the rollup is cleared and the run
+ * only aggregates up to that bound, so interactions written while a rebuild is in flight are counted
+ * by the live path alone; only a write in the short window between taking the bound and the clear
+ * can be miscounted. Runs on startup when the rollup is empty but interactions exist, and on
+ * demand.</p>
+ *
+ * <p>Days up to the newest archived interaction can no longer be recomputed from the hot table, so
+ * their rollup rows are kept as they are and only later days are rebuilt.</p>
+ */
+@Component
+@Slf4j
+public class InteractionRollupBackfill {
+
+    static final String JOB_NAME = "interaction-rollup-backfill";
+
+    private static final LocalDate EPOCH_DAY = LocalDate.of(1970, 1, 1);
+    private static final String CLEAR_SQL = "DELETE FROM interaction_daily_rollup WHERE day >= ?";
+    private static final String BATCH_BOUNDS_SQL = "SELECT COUNT(*), MAX(id) FROM "
+            + "(SELECT id FROM interactions WHERE id > ? AND id <= ? ORDER BY id LIMIT ?) batch";
+    private static final String AGGREGATE_SQL = "INSERT INTO interaction_daily_rollup "
+            + "(day, customer_id, user_id, type, interaction_count, total_duration_minutes) "
+            + "SELECT DATE(created_at), customer_id, user_id, type, COUNT(*), COALESCE(SUM(duration_minutes), 0) "
+            + "FROM interactions WHERE id > ? AND id <= ? AND created_at >= ? "
+            + "GROUP BY DATE(created_at), customer_id, user_id, type "
+            + "ON DUPLICATE KEY UPDATE interaction_count = interaction_count + VALUES(interaction_count), "
+            + "total_duration_minutes = total_duration_minutes + VALUES(total_duration_minutes)";
+
+    private final InteractionRepository interactionRepository;
+    private final InteractionDailyRollupRepository rollupRepository;
+    private final ArchivedRecordRepository archivedRecordRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final PartitionedJobRunner jobRunner;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskExecutor backgroundJobs;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.interaction-rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${app.interaction-rollup.partitions:8}")
+    private int partitions;
+
+    @Value("${app.interaction-rollup.concurrency:2}")
+    private int concurrency;
+
+    @Value("${app.interaction-rollup.batch-size:5000}")
+    private int batchSize;
+
+    public InteractionRollupBackfill(InteractionRepository interactionRepository,
+                                     InteractionDailyRollupRepository rollupRepository,
+                                     ArchivedRecordRepository archivedRecordRepository,
+                                     JobCheckpointRepository checkpointRepository,
+                                     PartitionedJobRunner jobRunner,
+                                     JdbcTemplate jdbcTemplate,
+                                     @Qualifier("backgroundJobExecutor") TaskExecutor backgroundJobs) {
+        this.interactionRepository = interactionRepository;
+        this.rollupRepository = rollupRepository;
+        this.archivedRecordRepository = archivedRecordRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.jobRunner = jobRunner;
+        this.jdbcTemplate = jdbcTemplate;
+        this.backgroundJobs = backgroundJobs;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Starts a rebuild on a background thread unless one is already in progress.
+     *
+     * @return {@code true} if a new rebuild was started
+     */
+    public boolean triggerAsync() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            backgroundJobs.execute(this::runClaimed);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            log.warn("No background thread free for the interaction rollup backfill");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whether a rebuild is running or a previous one stopped part way and still has to be resumed.
+     */
+    public boolean isPending() {
+        return running.get() || hasUnfinishedRun();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (backfillOnStartup
+                && (hasUnfinishedRun() || (rollupRepository.count() == 0 && interactionRepository.count() > 0))) {
+            triggerAsync();
+        }
+    }
+
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Interaction rollup backfill already running, skipping");
+            return;
+        }
+        runClaimed();
+    }
+
+    /**
+     * Runs a rebuild for which {@code running} is already set, and clears it.
+     */
+    private void runClaimed() {
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime latestArchived = archivedRecordRepository.findLatestCreatedAt(ArchiveSource.INTERACTION);
+            LocalDate firstDay = latestArchived != null ? latestArchived.toLocalDate().plusDays(1) : EPOCH_DAY;
+            // Bound the id space before clearing, so interactions upserted live after the clear are
+            // not aggregated a second time
+            List<Object[]> bounds = interactionRepository.findIdBounds();
+            Object[] row = bounds.isEmpty() ? new Object[2] : bounds.get(0);
+            if (!hasUnfinishedRun()) {
+                jdbcTemplate.update(CLEAR_SQL, Date.valueOf(firstDay));
+            }
+            Timestamp from = Timestamp.valueOf(firstDay.atStartOfDay());
+            long aggregated = jobRunner.run(JOB_NAME, (Long) row[0], (Long) row[1], partitions, concurrency,
+                    batchSize, (afterId, toId, limit) -> aggregateBatch(afterId, toId, limit, from));
+            log.info("Interaction rollup backfill aggregated {} interactions in {} ms",
+                    aggregated, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Interaction rollup backfill failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private boolean hasUnfinishedRun() {
+        return !checkpointRepository
+                .findByJobNameAndStatusNotOrderByPartitionIndex(JOB_NAME, JobPartitionStatus.COMPLETED).isEmpty();
+    }
+
+    private BatchResult aggregateBatch(long afterId, long toId, int limit, Timestamp from) {
+        long[] batch = jdbcTemplate.queryForObject(BATCH_BOUNDS_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}, afterId, toId, limit);
+        if (batch == null || batch[0] == 0) {
+            return BatchResult.empty();
+        }
+        jdbcTemplate.update(AGGREGATE_SQL, afterId, batch[1], from);
+        return new BatchResult(batch[1], (int) batch[0]);
+    }
+}
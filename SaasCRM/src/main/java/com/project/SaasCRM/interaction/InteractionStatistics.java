@@ -0,0 +1,169 @@
+package com.project.SaasCRM.interaction;
+
+import com.project.SaasCRM.domain.InteractionType;
+import com.project.SaasCRM.domain.entity.Interaction;
+import com.project.SaasCRM.repository.InteractionDailyRollupRepository;
+import com.project.SaasCRM.repository.InteractionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Interaction statistics backed by {@code interaction_daily_rollup}, which keeps one row per day,
+ * customer, user and type with the number of interactions and their total duration.
+ *
+ * <p>Every write applies its delta to the affected rollup row with a single upsert in the caller's
+ * transaction, so the rollup commits or rolls back together with the interaction. Reads aggregate
+ * rollup rows instead of interactions; only the partial first and last day of a timestamp range are
+ * counted from {@code interactions}, through its {@code created_at} index.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class InteractionStatistics {
+
+    private static final String UPSERT_SQL = "INSERT INTO interaction_daily_rollup "
+            + "(day, customer_id, user_id, type, interaction_count, total_duration_minutes) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE interaction_count = interaction_count + VALUES(interaction_count), "
+            + "total_duration_minutes = total_duration_minutes + VALUES(total_duration_minutes)";
+    private static final String PRUNE_SQL = "DELETE FROM interaction_daily_rollup "
+            + "WHERE day = ? AND customer_id = ? AND user_id = ? AND type = ? AND interaction_count <= 0";
+
+    private final InteractionDailyRollupRepository rollupRepository;
+    private final InteractionRepository interactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The rollup key and duration of one interaction.
+     */
+    public record Facts(LocalDate day, Long customerId, Long userId, InteractionType type, int durationMinutes) {
+        public static Facts of(Interaction interaction) {
+            return new Facts(interaction.getCreatedAt().toLocalDate(), interaction.getCustomer().getId(),
+                    interaction.getUser().getId(), interaction.getType(),
+                    interaction.getDurationMinutes() != null ? interaction.getDurationMinutes() : 0);
+        }
+    }
+
+    public void recordCreated(Facts facts) {
+        apply(facts, 1);
+    }
+
+    /**
+     * Adds many new interactions at once, with one upsert per distinct rollup row.
+     */
+    public void recordCreatedAll(Collection<Facts> created) {
+        Map<Facts, long[]> deltas = new HashMap<>();
+        for (Facts facts : created) {
+            long[] delta = deltas.computeIfAbsent(new Facts(facts.day(), facts.customerId(), facts.userId(),
+                    facts.type(), 0), key -> new long[2]);
+            delta[0]++;
+            delta[1] += facts.durationMinutes();
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> rows.add(new Object[]{Date.valueOf(key.day()), key.customerId(), key.userId(),
+                key.type().name(), delta[0], delta[1]}));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        }
+    }
+
+    public void recordDeleted(Facts facts) {
+        apply(facts, -1);
+    }
+
+    public void recordUpdated(Facts before, Facts after) {
+        if (!before.equals(after)) {
+            apply(before, -1);
+            apply(after, 1);
+        }
+    }
+
+    private void apply(Facts facts, int sign) {
+        Date day = Date.valueOf(facts.day());
+        jdbcTemplate.update(UPSERT_SQL, day, facts.customerId(), facts.userId(), facts.type().name(),
+                sign, (long) sign * facts.durationMinutes());
+        if (sign < 0) {
+            jdbcTemplate.update(PRUNE_SQL, day, facts.customerId(), facts.userId(), facts.type().name());
+        }
+    }
+
+    public Map<InteractionType, Long> countsByType(Long customerId) {
+        Map<InteractionType, Long> counts = new EnumMap<>(InteractionType.class);
+        for (Object[] row : rollupRepository.sumByTypeForCustomer(customerId)) {
+            counts.put((InteractionType) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    public Map<InteractionType, Long> durationMinutesByType(Long customerId) {
+        Map<InteractionType, Long> minutes = new EnumMap<>(InteractionType.class);
+        for (Object[] row : rollupRepository.sumByTypeForCustomer(customerId)) {
+            minutes.put((InteractionType) row[0], ((Number) row[2]).longValue());
+        }
+        return minutes;
+    }
+
+    public Map<Long, Long> countsByUser(LocalDate fromDay, LocalDate toDay) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rollupRepository.sumByUser(fromDay, toDay)) {
+            counts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Counts interactions created in {@code [start, end]} per day, keyed by ISO date. Days without
+     * interactions are left out.
+     */
+    public Map<String, Long> countsByDate(LocalDateTime start, LocalDateTime end) {
+        Map<String, Long> counts = new TreeMap<>();
+        if (start.isAfter(end)) {
+            return counts;
+        }
+        LocalDate firstDay = start.toLocalDate();
+        LocalDate lastDay = end.toLocalDate();
+        if (firstDay.equals(lastDay) && !coversWholeDay(start, end)) {
+            put(counts, firstDay, interactionRepository.countCreatedBetween(start, end));
+            return counts;
+        }
+
+        LocalDate fullFrom = firstDay;
+        if (!start.equals(firstDay.atStartOfDay())) {
+            put(counts, firstDay,
+                    interactionRepository.countCreatedFromBefore(start, firstDay.plusDays(1).atStartOfDay()));
+            fullFrom = firstDay.plusDays(1);
+        }
+        LocalDate fullTo = lastDay;
+        if (!end.toLocalTime().equals(LocalTime.MAX)) {
+            put(counts, lastDay, interactionRepository.countCreatedBetween(lastDay.atStartOfDay(), end));
+            fullTo = lastDay.minusDays(1);
+        }
+        if (!fullFrom.isAfter(fullTo)) {
+            for (Object[] row : rollupRepository.sumCountsByDay(fullFrom, fullTo)) {
+                put(counts, (LocalDate) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+
+    private static boolean coversWholeDay(LocalDateTime start, LocalDateTime end) {
+        return start.toLocalTime().equals(LocalTime.MIDNIGHT) && end.toLocalTime().equals(LocalTime.MAX);
+    }
+
+    private static void put(Map<String, Long> counts, LocalDate day, long count) {
+        if (count > 0) {
+            counts.put(day.toString(), count);
+        }
+    }
+}
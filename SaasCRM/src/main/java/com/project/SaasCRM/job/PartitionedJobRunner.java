@@ -0,0 +1,213 @@
+package com.project.SaasCRM.job;
+
+import com.project.SaasCRM.domain.JobPartitionStatus;
+import com.project.SaasCRM.domain.entity.JobCheckpoint;
+import com.project.SaasCRM.repository.JobCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a batch job over an id space split into contiguous ranges.
+ *
+ * <p>Partitions are processed in parallel on a pool bounded by the requested concurrency. Each
+ * partition is walked in id order in batches; every batch runs in its own transaction together with
+ * the update of the partition's row in {@code job_checkpoints}, so a crash loses at most the batch
+ * in flight. A run that did not complete is resumed from its checkpoints on the next invocation
+ * instead of being planned again.</p>
+ *
+ * <p>A partition failing on a batch counts a failed attempt, which the next successful batch clears.
+ * Once a partition has failed {@code app.jobs.max-partition-attempts} times in a row, for instance on
+ * a poison row, the run is abandoned: its checkpoints are dropped and the invocation does nothing, so
+ * the caller's next trigger starts a fresh run over the current id space.</p>
+ */
+@Component
+@Slf4j
+public class PartitionedJobRunner {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JobCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPartitionAttempts;
+
+    public PartitionedJobRunner(JobCheckpointRepository checkpointRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.jobs.max-partition-attempts:3}") int maxPartitionAttempts) {
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxPartitionAttempts = Math.max(1, maxPartitionAttempts);
+    }
+
+    /**
+     * Processes one batch of a partition.
+     */
+    @FunctionalInterface
+    public interface BatchProcessor {
+        /**
+         * Processes up to {@code batchSize} items with ids in {@code (afterId, toId]}, in id order.
+         * Runs inside the batch transaction.
+         */
+        BatchResult process(long afterId, long toId, int batchSize);
+    }
+
+    /**
+     * @param lastId    highest id covered by the batch, ignored when nothing was processed
+     * @param processed number of items the batch processed
+     */
+    public record BatchResult(long lastId, int processed) {
+        public static BatchResult empty() {
+            return new BatchResult(0L, 0);
+        }
+    }
+
+    /**
+     * Runs {@code jobName}, resuming its unfinished partitions if a previous run stopped part way.
+     *
+     * @param minId       lowest id in the space, or {@code null} if it is empty
+     * @param maxId       highest id in the space, or {@code null} if it is empty
+     * @param partitions  number of ranges to plan for a fresh run
+     * @param concurrency maximum number of partitions processed at the same time
+     * @return the number of items processed by this invocation
+     */
+    public long run(String jobName, Long minId, Long maxId, int partitions, int concurrency,
+                    int batchSize, BatchProcessor processor) {
+        List<JobCheckpoint> pending = checkpointRepository
+                .findByJobNameAndStatusNotOrderByPartitionIndex(jobName, JobPartitionStatus.COMPLETED);
+        if (pending.isEmpty()) {
+            if (minId == null || maxId == null) {
+                return 0L;
+            }
+            pending = plan(jobName, minId, maxId, Math.max(1, partitions));
+        } else {
+            int attempts = pending.stream().mapToInt(JobCheckpoint::getFailedAttempts).max().orElse(0);
+            if (attempts >= maxPartitionAttempts) {
+                log.error("Abandoning job {} run {}: a partition failed {} times in a row, last error: {}",
+                        jobName, pending.get(0).getRunId(), attempts, lastError(pending));
+                reset(jobName);
+                return 0L;
+            }
+            if (attempts > 0) {
+                log.warn("Resuming job {} run {} with {} unfinished partitions after {} failed attempts, last error: {}",
+                        jobName, pending.get(0).getRunId(), pending.size(), attempts, lastError(pending));
+            } else {
+                log.info("Resuming job {} run {} with {} unfinished partitions",
+                        jobName, pending.get(0).getRunId(), pending.size());
+            }
+        }
+
+        AtomicLong processed = new AtomicLong();
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, pending.size())),
+                runnable -> new Thread(runnable, jobName + "-" + threads.incrementAndGet()));
+        try {
+            List<Future<?>> futures = new ArrayList<>(pending.size());
+            for (JobCheckpoint checkpoint : pending) {
+                futures.add(pool.submit(() -> processed.addAndGet(runPartition(checkpoint, batchSize, processor))));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    log.error("Partition of job {} failed", jobName, e);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return processed.get();
+    }
+
+    /**
+     * Drops the checkpoints of {@code jobName}, so its next run is planned afresh.
+     */
+    public void reset(String jobName) {
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.deleteByJobName(jobName));
+    }
+
+    private static String lastError(List<JobCheckpoint> checkpoints) {
+        return checkpoints.stream()
+                .filter(checkpoint -> checkpoint.getFailedAttempts() > 0)
+                .max((a, b) -> Integer.compare(a.getFailedAttempts(), b.getFailedAttempts()))
+                .map(JobCheckpoint::getErrorMessage)
+                .orElse(null);
+    }
+
+    private List<JobCheckpoint> plan(String jobName, long minId, long maxId, int partitions) {
+        return transactionTemplate.execute(status -> {
+            checkpointRepository.deleteByJobName(jobName);
+            String runId = UUID.randomUUID().toString();
+            long span = maxId - minId + 1;
+            int count = (int) Math.min(partitions, span);
+            long size = (span + count - 1) / count;
+            List<JobCheckpoint> checkpoints = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long start = minId + i * size;
+                if (start > maxId) {
+                    break;
+                }
+                JobCheckpoint checkpoint = new JobCheckpoint();
+                checkpoint.setJobName(jobName);
+                checkpoint.setRunId(runId);
+                checkpoint.setPartitionIndex(i);
+                checkpoint.setRangeStart(start);
+                checkpoint.setRangeEnd(Math.min(maxId, start + size - 1));
+                checkpoint.setLastProcessedId(start - 1);
+                checkpoint.setStatus(JobPartitionStatus.PENDING);
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpoints.add(checkpoint);
+            }
+            log.info("Planned job {} run {} over ids {}..{} in {} partitions", jobName, runId, minId, maxId,
+                    checkpoints.size());
+            return checkpointRepository.saveAll(checkpoints);
+        });
+    }
+
+    private long runPartition(JobCheckpoint checkpoint, int batchSize, BatchProcessor processor) {
+        long afterId = checkpoint.getLastProcessedId();
+        long total = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long from = afterId;
+                BatchResult result = transactionTemplate.execute(status -> {
+                    BatchResult batch = processor.process(from, checkpoint.getRangeEnd(), batchSize);
+                    boolean done = batch.processed() < batchSize;
+                    long lastId = batch.processed() > 0 ? batch.lastId() : from;
+                    checkpointRepository.advance(checkpoint.getId(), done ? checkpoint.getRangeEnd() : lastId,
+                            batch.processed(), done ? JobPartitionStatus.COMPLETED : JobPartitionStatus.RUNNING,
+                            null, LocalDateTime.now());
+                    return batch;
+                });
+                total += result.processed();
+                if (result.processed() < batchSize) {
+                    break;
+                }
+                afterId = result.lastId();
+            }
+        } catch (RuntimeException e) {
+            String message = String.valueOf(e.getMessage());
+            long resumeFrom = afterId;
+            transactionTemplate.executeWithoutResult(status -> checkpointRepository.recordFailure(checkpoint.getId(),
+                    resumeFrom, JobPartitionStatus.FAILED,
+                    message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message,
+                    LocalDateTime.now()));
+            throw e;
+        }
+        return total;
+    }
+}
@@ -17,6 +17,8 @@ public interface CustomerMapper extends BaseMapper<Customer, CustomerDTO> {
 
     @Mapping(target = "assignedUsers", ignore = true)
     @Mapping(target = "deals", ignore = true)
+    @Mapping(target = "healthScore", ignore = true)
+    @Mapping(target = "healthScoreUpdatedAt", ignore = true)
     @Override
     Customer toEntity(CustomerDTO dto);
 
@@ -0,0 +1,40 @@
+package com.project.SaasCRM.mapper;
+
+import com.project.SaasCRM.domain.entity.CustomerSegment;
+import com.project.SaasCRM.domain.dto.CustomerSegmentDTO;
+import com.project.SaasCRM.domain.dto.SegmentFilterDTO;
+import org.mapstruct.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+@Mapper(componentModel = "spring")
+public interface CustomerSegmentMapper {
+
+    @Mapping(target = "filter", source = "filterDefinition")
+    CustomerSegmentDTO toDto(CustomerSegment segment);
+
+    @Mapping(target = "filterDefinition", source = "filter")
+    CustomerSegment toEntity(CustomerSegmentDTO dto);
+
+    default SegmentFilterDTO stringToFilter(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return new ObjectMapper().readValue(value, SegmentFilterDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored segment filter is not valid JSON", e);
+        }
+    }
+
+    default String filterToString(SegmentFilterDTO filter) {
+        if (filter == null) {
+            return null;
+        }
+        try {
+            return new ObjectMapper().writeValueAsString(filter);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Segment filter cannot be serialized", e);
+        }
+    }
+}
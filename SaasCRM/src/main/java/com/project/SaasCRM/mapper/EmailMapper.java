@@ -25,7 +25,7 @@ public interface EmailMapper {
     @Mapping(target = "status", source = "sendStatus")
     @Mapping(target = "sentAt", source = "sentAt")
     @Mapping(target = "scheduledAt", source = "scheduledFor")
-    @Mapping(target = "openCount", expression = "java(email.isOpened() != null && email.isOpened() ? 1 : 0)")
+    @Mapping(target = "openCount", expression = "java(email.getIsOpened() != null && email.getIsOpened() ? 1 : 0)")
     @Mapping(target = "clickCount", source = "clickCount")
     @Mapping(target = "errorMessage", ignore = true)
     @Mapping(target = "userId", source = "sentBy.id")
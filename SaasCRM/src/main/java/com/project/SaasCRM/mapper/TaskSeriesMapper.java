@@ -0,0 +1,39 @@
+package com.project.SaasCRM.mapper;
+
+import com.project.SaasCRM.domain.entity.TaskSeries;
+import com.project.SaasCRM.domain.dto.TaskSeriesDTO;
+import org.mapstruct.*;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Mapper(componentModel = "spring")
+public interface TaskSeriesMapper {
+
+    @Mapping(target = "weekdays", source = "byWeekdays")
+    TaskSeriesDTO toDto(TaskSeries series);
+
+    @Mapping(target = "byWeekdays", source = "weekdays")
+    TaskSeries toEntity(TaskSeriesDTO dto);
+
+    default Set<DayOfWeek> stringToWeekdays(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        return Arrays.stream(value.split(","))
+                .map(DayOfWeek::valueOf)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(DayOfWeek.class)));
+    }
+
+    default String weekdaysToString(Set<DayOfWeek> weekdays) {
+        if (weekdays == null || weekdays.isEmpty()) {
+            return null;
+        }
+        return EnumSet.copyOf(weekdays).stream()
+                .map(DayOfWeek::name)
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,193 @@
+package com.project.SaasCRM.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hourly and daily send quotas per sender, kept in Redis and shared by all nodes.
+ *
+ * <p>Both quotas are sliding-window counters: a window's count is the current fixed window plus the
+ * previous one weighted by how much of it still overlaps the window ending now. One Lua script first
+ * counts sends that already happened, then grants as many of the requested sends as both quotas
+ * allow and counts them too, so a check-and-consume is atomic and costs one round trip.
+ * {@link #acquire(Map, Map)} sends the script for every sender of a batch in one pipeline. Window
+ * boundaries come from this node's clock.</p>
+ */
+@Component
+public class RedisSendQuota {
+
+    static final long HOUR_MILLIS = 3_600_000L;
+    static final long DAY_MILLIS = 86_400_000L;
+
+    // KEYS: hour current, hour previous, day current, day previous
+    // ARGV: hour limit, day limit, hour previous weight, day previous weight, requested, already sent,
+    //       hour ttl ms, day ttl ms
+    private static final String SCRIPT = """
+            local function add(key, count, ttl)
+              if count > 0 then
+                redis.call('INCRBY', key, count)
+                redis.call('PEXPIRE', key, ttl)
+              end
+            end
+            local function used(current, previous, weight)
+              return tonumber(redis.call('GET', current) or '0')
+                + tonumber(redis.call('GET', previous) or '0') * tonumber(weight)
+            end
+            local sent = tonumber(ARGV[6])
+            add(KEYS[1], sent, ARGV[7])
+            add(KEYS[3], sent, ARGV[8])
+            local available = math.floor(math.min(
+              tonumber(ARGV[1]) - used(KEYS[1], KEYS[2], ARGV[3]),
+              tonumber(ARGV[2]) - used(KEYS[3], KEYS[4], ARGV[4])))
+            local granted = math.max(0, math.min(tonumber(ARGV[5]), available))
+            add(KEYS[1], granted, ARGV[7])
+            add(KEYS[3], granted, ARGV[8])
+            return {granted, available - granted}
+            """;
+
+    private static final RedisScript<List> QUOTA_SCRIPT = new DefaultRedisScript<>(SCRIPT, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maxPerHour;
+    private final int maxPerDay;
+
+    public RedisSendQuota(StringRedisTemplate redisTemplate,
+                          @Value("${app.email.rate-limit.max-per-hour:100}") int maxPerHour,
+                          @Value("${app.email.rate-limit.max-per-day:1000}") int maxPerDay) {
+        this.redisTemplate = redisTemplate;
+        this.maxPerHour = maxPerHour;
+        this.maxPerDay = maxPerDay;
+    }
+
+    public int getMaxPerHour() {
+        return maxPerHour;
+    }
+
+    public int getMaxPerDay() {
+        return maxPerDay;
+    }
+
+    /**
+     * The result of one script call: the sends granted and the sends still left afterwards in the
+     * tighter window, which may be negative.
+     */
+    public record Grant(int granted, int remaining) {
+    }
+
+    /**
+     * Counts the {@code sent} sends per sender, then grants up to the {@code requested} ones and
+     * counts those too, in one round trip for all senders of either map.
+     */
+    public Map<String, Grant> acquire(Map<String, Integer> requested, Map<String, Integer> sent) {
+        Map<String, Grant> grants = new LinkedHashMap<>();
+        Set<String> senders = new LinkedHashSet<>(requested.keySet());
+        senders.addAll(sent.keySet());
+        if (senders.isEmpty()) {
+            return grants;
+        }
+        if (senders.size() == 1) {
+            String sender = senders.iterator().next();
+            grants.put(sender, run(sender, requested.getOrDefault(sender, 0), sent.getOrDefault(sender, 0)));
+            return grants;
+        }
+        long now = System.currentTimeMillis();
+        List<String> order = new ArrayList<>(senders);
+        // EVALSHA fails inside a pipeline if the script is not cached yet, so make sure it is
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            if (!connection.scriptingCommands().scriptExists(QUOTA_SCRIPT.getSha1()).get(0)) {
+                connection.scriptingCommands().scriptLoad(SCRIPT.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String sender : order) {
+                connection.scriptingCommands().evalSha(QUOTA_SCRIPT.getSha1(), ReturnType.MULTI, 4,
+                        toBytes(keys(sender, now), args(now, requested.getOrDefault(sender, 0),
+                                sent.getOrDefault(sender, 0))));
+            }
+            return null;
+        });
+        for (int i = 0; i < order.size(); i++) {
+            grants.put(order.get(i), toGrant(results.get(i)));
+        }
+        return grants;
+    }
+
+    /**
+     * Counts {@code sends} against the quotas whether or not they fit.
+     */
+    public void record(String sender, int sends) {
+        run(sender, 0, sends);
+    }
+
+    /**
+     * The sends left in the tighter of the two windows, without consuming any.
+     */
+    public int remaining(String sender) {
+        return Math.max(0, run(sender, 0, 0).remaining());
+    }
+
+    public void reset(String sender) {
+        redisTemplate.delete(keys(sender, System.currentTimeMillis()));
+    }
+
+    private Grant run(String sender, int requested, int sent) {
+        long now = System.currentTimeMillis();
+        return toGrant(redisTemplate.execute(QUOTA_SCRIPT, keys(sender, now), (Object[]) args(now, requested, sent)));
+    }
+
+    private static Grant toGrant(Object result) {
+        if (!(result instanceof List<?> values) || values.size() < 2) {
+            throw new IllegalStateException("Unexpected send quota script result: " + result);
+        }
+        return new Grant(((Number) values.get(0)).intValue(), ((Number) values.get(1)).intValue());
+    }
+
+    private static List<String> keys(String sender, long now) {
+        long hour = now / HOUR_MILLIS;
+        long day = now / DAY_MILLIS;
+        // The hash tag keeps all of a sender's keys in one cluster slot
+        String prefix = "email:quota:{" + sender + "}:";
+        return List.of(prefix + "h:" + hour, prefix + "h:" + (hour - 1),
+                prefix + "d:" + day, prefix + "d:" + (day - 1));
+    }
+
+    private String[] args(long now, int requested, int sent) {
+        return new String[]{String.valueOf(maxPerHour), String.valueOf(maxPerDay),
+                String.valueOf(previousWeight(now, HOUR_MILLIS)), String.valueOf(previousWeight(now, DAY_MILLIS)),
+                String.valueOf(requested), String.valueOf(sent),
+                String.valueOf(2 * HOUR_MILLIS), String.valueOf(2 * DAY_MILLIS)};
+    }
+
+    /**
+     * The share of the previous fixed window that still overlaps the sliding window ending at
+     * {@code now}.
+     */
+    static double previousWeight(long now, long window) {
+        return 1.0 - (double) (now % window) / window;
+    }
+
+    private static byte[][] toBytes(List<String> keys, String[] args) {
+        byte[][] bytes = new byte[keys.size() + args.length][];
+        for (int i = 0; i < keys.size(); i++) {
+            bytes[i] = keys.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+        for (int i = 0; i < args.length; i++) {
+            bytes[keys.size() + i] = args[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,376 @@
+package com.project.SaasCRM.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-sender send quotas with an in-process first level in front of {@link RedisSendQuota}.
+ *
+ * <p>Each sender seen recently has a local entry, guarded by one of a fixed set of lock stripes, with
+ * sliding-window counts of this node's own sends and a budget: the share of the sender's global
+ * remaining quota this node may hand out on its own. Sends within the budget are granted without a
+ * Redis call and counted there on the next sync, which runs every
+ * {@code app.email.rate-limit.local.sync-interval-ms}, pushes the pending counts for all senders in
+ * one pipeline and refreshes their budgets. Only a sender without budget goes to Redis to acquire;
+ * {@link #remaining(String)} never does, it answers from the remainder seen at the last sync.
+ * The share is {@code 1 / app.email.rate-limit.local.nodes}, so the nodes together cannot overshoot
+ * the global quota by more than what they grant between two syncs.</p>
+ *
+ * <p>When a Redis call fails the limiter switches to local-only enforcement: each node allows a
+ * sender {@code 1 / nodes} of the hourly and daily quota, by its own counts. Pending counts are kept,
+ * and the next successful sync pushes them and switches back. The map holds at most
+ * {@code app.email.rate-limit.local.max-senders} entries; idle entries are evicted first.</p>
+ */
+@Component
+@Slf4j
+public class SendQuotaLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final RedisSendQuota redisQuota;
+    private final Object[] stripes = new Object[STRIPES];
+    private final ConcurrentHashMap<String, Sender> senders = new ConcurrentHashMap<>();
+    private final int nodes;
+    private final int maxSenders;
+    private final long syncIntervalMillis;
+    private volatile boolean redisAvailable = true;
+
+    public SendQuotaLimiter(RedisSendQuota redisQuota,
+                            @Value("${app.email.rate-limit.local.nodes:2}") int nodes,
+                            @Value("${app.email.rate-limit.local.max-senders:10000}") int maxSenders,
+                            @Value("${app.email.rate-limit.local.sync-interval-ms:5000}") long syncIntervalMillis) {
+        this.redisQuota = redisQuota;
+        this.nodes = Math.max(1, nodes);
+        this.maxSenders = Math.max(1, maxSenders);
+        this.syncIntervalMillis = syncIntervalMillis;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    public boolean isRedisAvailable() {
+        return redisAvailable;
+    }
+
+    /**
+     * Grants up to the requested number of sends per sender and counts the granted ones.
+     *
+     * @return the granted sends per sender
+     */
+    public Map<String, Integer> acquire(Map<String, Integer> requested) {
+        Map<String, Integer> granted = new HashMap<>();
+        Map<String, Integer> remote = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Integer> entry : requested.entrySet()) {
+            String sender = entry.getKey();
+            makeRoom(now);
+            synchronized (stripe(sender)) {
+                Sender state = state(sender, now);
+                int allowance = redisAvailable ? state.budget : state.localAllowance(now);
+                int local = Math.max(0, Math.min(entry.getValue(), allowance));
+                if (local > 0) {
+                    state.grant(local, now, redisAvailable);
+                }
+                granted.put(sender, local);
+                if (redisAvailable && local < entry.getValue()) {
+                    remote.put(sender, entry.getValue() - local);
+                }
+            }
+        }
+        if (!remote.isEmpty()) {
+            acquireRemote(remote, granted, now);
+        }
+        return granted;
+    }
+
+    /**
+     * Counts a send whether or not it fits the quota.
+     */
+    public void record(String sender) {
+        long now = System.currentTimeMillis();
+        makeRoom(now);
+        synchronized (stripe(sender)) {
+            Sender state = state(sender, now);
+            state.count(1, now);
+            state.pending++;
+            state.budget = Math.max(0, state.budget - 1);
+            state.spend(1);
+        }
+    }
+
+    /**
+     * The sends left for {@code sender}, answered without a Redis call: while Redis is reachable, the
+     * global remainder as of the last sync less this node's sends since, or the full quota less this
+     * node's counts for a sender not synced yet; this node's local allowance otherwise.
+     */
+    public int remaining(String sender) {
+        long now = System.currentTimeMillis();
+        makeRoom(now);
+        synchronized (stripe(sender)) {
+            Sender state = state(sender, now);
+            if (!redisAvailable) {
+                return state.localAllowance(now);
+            }
+            return state.remaining >= 0 ? state.remaining : state.globalAllowance(now);
+        }
+    }
+
+    public void reset(String sender) {
+        senders.remove(sender);
+        redisQuota.reset(sender);
+    }
+
+    /**
+     * Pushes the sends granted locally since the last sync to Redis and refreshes the budgets, for
+     * all senders in one pipeline. A successful sync ends local-only enforcement.
+     */
+    @Scheduled(fixedDelayString = "${app.email.rate-limit.local.sync-interval-ms:5000}")
+    public void sync() {
+        long now = System.currentTimeMillis();
+        evictIdle(now);
+        Map<String, Integer> pending = takePending(new ArrayList<>(senders.keySet()), now);
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, RedisSendQuota.Grant> grants;
+        try {
+            grants = redisQuota.acquire(Map.of(), pending);
+        } catch (RuntimeException e) {
+            restorePending(pending, now);
+            markUnavailable(e);
+            return;
+        }
+        for (Map.Entry<String, RedisSendQuota.Grant> entry : grants.entrySet()) {
+            synchronized (stripe(entry.getKey())) {
+                Sender state = senders.get(entry.getKey());
+                if (state != null) {
+                    state.refresh(entry.getValue().remaining());
+                }
+            }
+        }
+        if (!redisAvailable) {
+            log.info("Redis is reachable again, send quotas are global again");
+            redisAvailable = true;
+        }
+    }
+
+    private void acquireRemote(Map<String, Integer> remote, Map<String, Integer> granted, long now) {
+        Map<String, Integer> pending = takePending(remote.keySet(), now);
+        Map<String, RedisSendQuota.Grant> grants;
+        try {
+            grants = redisQuota.acquire(remote, pending);
+        } catch (RuntimeException e) {
+            restorePending(pending, now);
+            markUnavailable(e);
+            // Fall back to what this node may still grant on its own
+            for (Map.Entry<String, Integer> entry : remote.entrySet()) {
+                synchronized (stripe(entry.getKey())) {
+                    Sender state = state(entry.getKey(), now);
+                    int local = Math.min(entry.getValue(), state.localAllowance(now));
+                    if (local > 0) {
+                        state.grant(local, now, false);
+                        granted.merge(entry.getKey(), local, Integer::sum);
+                    }
+                }
+            }
+            return;
+        }
+        for (Map.Entry<String, RedisSendQuota.Grant> entry : grants.entrySet()) {
+            synchronized (stripe(entry.getKey())) {
+                Sender state = state(entry.getKey(), now);
+                // Already counted in Redis, so only the local windows
+                state.count(entry.getValue().granted(), now);
+                state.refresh(entry.getValue().remaining());
+            }
+            granted.merge(entry.getKey(), entry.getValue().granted(), Integer::sum);
+        }
+    }
+
+    /**
+     * Takes the pending counts of {@code names} for pushing to Redis.
+     */
+    private Map<String, Integer> takePending(Iterable<String> names, long now) {
+        Map<String, Integer> pending = new LinkedHashMap<>();
+        for (String sender : names) {
+            synchronized (stripe(sender)) {
+                Sender state = state(sender, now);
+                pending.put(sender, state.pending);
+                state.pending = 0;
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Puts back pending counts that could not be pushed.
+     */
+    private void restorePending(Map<String, Integer> pending, long now) {
+        pending.forEach((sender, count) -> {
+            if (count > 0) {
+                synchronized (stripe(sender)) {
+                    state(sender, now).pending += count;
+                }
+            }
+        });
+    }
+
+    private void markUnavailable(RuntimeException e) {
+        if (redisAvailable) {
+            log.warn("Redis is unreachable, enforcing send quotas per node until it is back", e);
+            redisAvailable = false;
+        }
+    }
+
+    private int share(int remaining) {
+        return Math.max(0, remaining / nodes);
+    }
+
+    /**
+     * The entry of {@code sender}, created if missing. Must be called holding the sender's stripe, which
+     * eviction takes too, so an entry is never changed after it left the map.
+     */
+    private Sender state(String sender, long now) {
+        return senders.computeIfAbsent(sender, key -> new Sender(now));
+    }
+
+    /**
+     * Evicts before a new entry may be added. Called without holding a stripe.
+     */
+    private void makeRoom(long now) {
+        if (senders.size() >= maxSenders) {
+            evictIdle(now);
+        }
+    }
+
+    /**
+     * Drops entries without pending sends that were idle for two sync intervals, oldest first, and
+     * more recent ones only while the map is over its bound.
+     */
+    private void evictIdle(long now) {
+        List<Map.Entry<String, Sender>> idle = new ArrayList<>();
+        for (Map.Entry<String, Sender> entry : senders.entrySet()) {
+            if (entry.getValue().pending == 0) {
+                idle.add(entry);
+            }
+        }
+        idle.sort((a, b) -> Long.compare(a.getValue().lastUsed, b.getValue().lastUsed));
+        for (Map.Entry<String, Sender> entry : idle) {
+            boolean stale = now - entry.getValue().lastUsed > 2 * syncIntervalMillis;
+            if (!stale && senders.size() < maxSenders) {
+                break;
+            }
+            synchronized (stripe(entry.getKey())) {
+                if (entry.getValue().pending == 0) {
+                    senders.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    private Object stripe(String sender) {
+        return stripes[(sender.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    /**
+     * Local state of one sender; only touched under its stripe lock.
+     */
+    private final class Sender {
+        private final Window hour = new Window(RedisSendQuota.HOUR_MILLIS);
+        private final Window day = new Window(RedisSendQuota.DAY_MILLIS);
+        private int pending;
+        private int budget;
+        // Global remainder as of the last Redis answer less this node's sends since, -1 before one
+        private int remaining = -1;
+        private long lastUsed;
+
+        private Sender(long now) {
+            this.lastUsed = now;
+        }
+
+        void grant(int sends, long now, boolean fromBudget) {
+            count(sends, now);
+            pending += sends;
+            if (fromBudget) {
+                budget -= sends;
+            }
+            spend(sends);
+        }
+
+        void refresh(int globalRemaining) {
+            budget = share(globalRemaining);
+            remaining = Math.max(0, globalRemaining);
+        }
+
+        void spend(int sends) {
+            if (remaining >= 0) {
+                remaining = Math.max(0, remaining - sends);
+            }
+        }
+
+        void count(int sends, long now) {
+            hour.add(sends, now);
+            day.add(sends, now);
+            lastUsed = now;
+        }
+
+        /**
+         * What this node may still send for the sender on its own, by its local counts.
+         */
+        int localAllowance(long now) {
+            int hourly = redisQuota.getMaxPerHour() / nodes - hour.used(now);
+            int daily = redisQuota.getMaxPerDay() / nodes - day.used(now);
+            return Math.max(0, Math.min(hourly, daily));
+        }
+
+        /**
+         * The whole quota less this node's own counts, for a sender Redis has not answered for yet.
+         */
+        int globalAllowance(long now) {
+            int hourly = redisQuota.getMaxPerHour() - hour.used(now);
+            int daily = redisQuota.getMaxPerDay() - day.used(now);
+            return Math.max(0, Math.min(hourly, daily));
+        }
+    }
+
+    /**
+     * Sliding-window counter from two fixed windows, like the one in Redis.
+     */
+    private static final class Window {
+        private final long length;
+        private long index;
+        private int current;
+        private int previous;
+
+        private Window(long length) {
+            this.length = length;
+        }
+
+        void add(int sends, long now) {
+            roll(now);
+            current += sends;
+        }
+
+        int used(long now) {
+            roll(now);
+            return current + (int) Math.floor(previous * RedisSendQuota.previousWeight(now, length));
+        }
+
+        private void roll(long now) {
+            long at = now / length;
+            if (at != index) {
+                previous = at == index + 1 ? current : 0;
+                current = 0;
+                index = at;
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.SaasCRM.repository;
+
+import com.project.SaasCRM.domain.ArchiveSource;
+import com.project.SaasCRM.domain.entity.ArchivedDailyCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ArchivedDailyCountRepository extends JpaRepository<ArchivedDailyCount, Long> {
+
+    @Query("SELECT c.metric, SUM(c.recordCount) FROM ArchivedDailyCount c " +
+           "WHERE c.source = :source AND c.day BETWEEN :fromDay AND :toDay GROUP BY c.metric")
+    List<Object[]> sumByMetric(
+        @Param("source") ArchiveSource source,
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay
+    );
+
+    @Query("SELECT c.metric, SUM(c.recordCount) FROM ArchivedDailyCount c " +
+           "WHERE c.source = :source GROUP BY c.metric")
+    List<Object[]> sumAllByMetric(@Param("source") ArchiveSource source);
+
+    @Query("SELECT c.day, c.metric, c.recordCount FROM ArchivedDailyCount c " +
+           "WHERE c.source = :source AND c.day BETWEEN :fromDay AND :toDay")
+    List<Object[]> findByDay(
+        @Param("source") ArchiveSource source,
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay
+    );
+}
@@ -0,0 +1,41 @@
+package com.project.SaasCRM.repository;
+
+import com.project.SaasCRM.domain.ArchiveSource;
+import com.project.SaasCRM.domain.entity.ArchivedRecord;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedRecordRepository extends JpaRepository<ArchivedRecord, Long> {
+    Optional<ArchivedRecord> findBySourceAndRecordId(ArchiveSource source, Long recordId);
+
+    @Query("SELECT r FROM ArchivedRecord r WHERE r.source = :source AND r.customerId = :customerId " +
+           "ORDER BY r.createdAt DESC, r.recordId DESC")
+    Page<ArchivedRecord> findByCustomer(
+        @Param("source") ArchiveSource source,
+        @Param("customerId") Long customerId,
+        Pageable pageable
+    );
+
+    @Query("SELECT r FROM ArchivedRecord r WHERE r.source = :source AND r.customerId = :customerId " +
+           "AND (r.createdAt < :before OR (r.createdAt = :before AND r.recordId < :beforeId)) " +
+           "ORDER BY r.createdAt DESC, r.recordId DESC")
+    List<ArchivedRecord> findTimelineRecords(
+        @Param("source") ArchiveSource source,
+        @Param("customerId") Long customerId,
+        @Param("before") LocalDateTime before,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+
+    @Query("SELECT MAX(r.createdAt) FROM ArchivedRecord r WHERE r.source = :source")
+    LocalDateTime findLatestCreatedAt(@Param("source") ArchiveSource source);
+}
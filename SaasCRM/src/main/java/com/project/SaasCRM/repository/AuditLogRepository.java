@@ -3,6 +3,8 @@ package com.project.SaasCRM.repository;
 import com.project.SaasCRM.domain.entity.AuditLog;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -22,4 +24,16 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     );
 
     List<AuditLog> findAllByOrderByTimestampDesc(Pageable pageable);
-} 
\ No newline at end of file
+
+    @Query("SELECT a.id, a.timestamp, a.activity, a.details, a.userId FROM AuditLog a " +
+           "WHERE a.entityType = :entityType AND a.entityId = :entityId " +
+           "AND (a.timestamp < :before OR (a.timestamp = :before AND a.id < :beforeId)) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<Object[]> findTimelineRows(
+        @Param("entityType") String entityType,
+        @Param("entityId") Long entityId,
+        @Param("before") LocalDateTime before,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -63,4 +64,28 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
+
+    @Query("SELECT c.id, c.status, c.lastContact, c.createdAt FROM Customer c " +
+           "WHERE c.id > :afterId ORDER BY c.id")
+    List<Object[]> findSnapshotRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c.id, c.status, c.lastContact, c.createdAt FROM Customer c WHERE c.id IN :ids")
+    List<Object[]> findSnapshotRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id, u.id FROM Customer c JOIN c.assignedUsers u WHERE c.id IN :ids")
+    List<Object[]> findAssignedUserIdsByCustomerIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.email FROM Customer c WHERE c.id IN :ids")
+    List<String> findEmailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id FROM Customer c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    Page<Customer> findByHealthScoreLessThanEqual(Integer healthScore, Pageable pageable);
+
+    @Query("SELECT c.id, c.status, u.id FROM Customer c JOIN c.assignedUsers u WHERE c.id IN :ids")
+    List<Object[]> findWorkloadRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id FROM Customer c WHERE c.id IN :ids")
+    List<Long> findExistingIdsIn(@Param("ids") Collection<Long> ids);
 }
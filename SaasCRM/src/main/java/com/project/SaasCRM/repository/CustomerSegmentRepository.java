@@ -0,0 +1,14 @@
+package com.project.SaasCRM.repository;
+
+import com.project.SaasCRM.domain.entity.CustomerSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CustomerSegmentRepository extends JpaRepository<CustomerSegment, Long> {
+    boolean existsByName(String name);
+
+    Optional<CustomerSegment> findByName(String name);
+}
@@ -15,6 +15,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -96,4 +97,42 @@ public interface DealRepository extends JpaRepository<Deal, Long> {
 
     @Query("SELECT SUM(d.value) FROM Deal d WHERE d.stage NOT IN (com.project.SaasCRM.domain.DealStage.CLOSED_WON, com.project.SaasCRM.domain.DealStage.CLOSED_LOST)")
     BigDecimal calculateTotalPipelineValue();
+
+    @Query("SELECT d.customer.id, COUNT(d), SUM(d.value) FROM Deal d " +
+           "WHERE d.customer.id IN :customerIds " +
+           "AND (d.stage IS NULL OR d.stage NOT IN (com.project.SaasCRM.domain.DealStage.CLOSED_WON, com.project.SaasCRM.domain.DealStage.CLOSED_LOST)) " +
+           "GROUP BY d.customer.id")
+    List<Object[]> aggregateOpenDealsByCustomerIdIn(@Param("customerIds") Collection<Long> customerIds);
+
+    @Query("SELECT d.id, d.stage, d.status FROM Deal d WHERE d.id > :afterId ORDER BY d.id")
+    List<Object[]> findMembershipRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT d.id, d.stage, d.status FROM Deal d WHERE d.id IN :ids")
+    List<Object[]> findMembershipRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT d.id, u.id FROM Deal d JOIN d.assignedUsers u WHERE d.id IN :ids")
+    List<Object[]> findAssignedUserIdsByDealIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT d.customer.id, SUM(d.value) FROM Deal d " +
+           "WHERE d.customer.id BETWEEN :fromId AND :toId " +
+           "AND (d.stage IS NULL OR d.stage NOT IN (com.project.SaasCRM.domain.DealStage.CLOSED_WON, com.project.SaasCRM.domain.DealStage.CLOSED_LOST)) " +
+           "GROUP BY d.customer.id")
+    List<Object[]> sumOpenDealValueByCustomerIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT d.id FROM Deal d WHERE d.id > :afterId ORDER BY d.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT d.id, d.stage, d.value, u.id FROM Deal d JOIN d.assignedUsers u WHERE d.id IN :ids")
+    List<Object[]> findWorkloadRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT d.id, d.updatedAt, d.name, d.stage FROM Deal d " +
+           "WHERE d.customer.id = :customerId " +
+           "AND (d.updatedAt < :before OR (d.updatedAt = :before AND d.id < :beforeId)) " +
+           "ORDER BY d.updatedAt DESC, d.id DESC")
+    List<Object[]> findTimelineRows(
+        @Param("customerId") Long customerId,
+        @Param("before") LocalDateTime before,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
 }
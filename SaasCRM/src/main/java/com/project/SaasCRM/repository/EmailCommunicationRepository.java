@@ -5,12 +5,15 @@ import com.project.SaasCRM.domain.entity.Customer;
 import com.project.SaasCRM.domain.entity.EmailCommunication;
 import com.project.SaasCRM.domain.entity.EmailTemplate;
 import com.project.SaasCRM.domain.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -54,4 +57,42 @@ public interface EmailCommunicationRepository extends JpaRepository<EmailCommuni
             @Param("currentTime") LocalDateTime currentTime);
     
     List<EmailCommunication> findBySentAtBetween(LocalDateTime startDate, LocalDateTime endDate);
-}
\ No newline at end of file
+
+    @Query("SELECT e.customer.id, COUNT(e), " +
+           "SUM(CASE WHEN e.isOpened = true THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN e.clickCount > 0 THEN 1 ELSE 0 END) " +
+           "FROM EmailCommunication e WHERE e.customer.id BETWEEN :fromId AND :toId AND e.sentAt >= :since " +
+           "GROUP BY e.customer.id")
+    List<Object[]> aggregateEngagementByCustomerIdBetween(
+        @Param("fromId") Long fromId,
+        @Param("toId") Long toId,
+        @Param("since") LocalDateTime since
+    );
+
+    @Query("SELECT e.sendStatus, COUNT(e) FROM EmailCommunication e WHERE e.bulkJobId = :bulkJobId " +
+           "GROUP BY e.sendStatus")
+    List<Object[]> countByBulkJobIdGroupedBySendStatus(@Param("bulkJobId") String bulkJobId);
+
+    @Query("SELECT e.id, e.createdAt, e.subject, e.sendStatus, e.sentBy.id FROM EmailCommunication e " +
+           "WHERE e.customer.id = :customerId " +
+           "AND (e.createdAt < :before OR (e.createdAt = :before AND e.id < :beforeId)) " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<Object[]> findTimelineRows(
+        @Param("customerId") Long customerId,
+        @Param("before") LocalDateTime before,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+
+    @Query("SELECT e.id FROM EmailCommunication e WHERE e.createdAt < :cutoff AND e.sendStatus IN :statuses " +
+           "ORDER BY e.createdAt, e.id")
+    List<Long> findIdsCreatedBefore(
+        @Param("cutoff") LocalDateTime cutoff,
+        @Param("statuses") Collection<SendStatus> statuses,
+        Pageable pageable
+    );
+
+    @Modifying
+    @Query("DELETE FROM EmailCommunication e WHERE e.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,28 @@
+package com.project.SaasCRM.repository;
+
+import com.project.SaasCRM.domain.entity.EmailDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface EmailDailyStatsRepository extends JpaRepository<EmailDailyStats, Long> {
+
+    @Query("SELECT s.eventType, SUM(s.eventCount), SUM(s.uniqueRecipients) FROM EmailDailyStats s " +
+           "WHERE s.day BETWEEN :fromDay AND :toDay GROUP BY s.eventType")
+    List<Object[]> sumByEventType(
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay
+    );
+
+    @Query("SELECT s.day, s.eventType, SUM(s.eventCount), SUM(s.uniqueRecipients) FROM EmailDailyStats s " +
+           "WHERE s.day BETWEEN :fromDay AND :toDay GROUP BY s.day, s.eventType")
+    List<Object[]> sumByDayAndEventType(
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay
+    );
+}
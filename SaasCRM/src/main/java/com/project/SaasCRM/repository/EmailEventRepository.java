@@ -2,12 +2,15 @@ package com.project.SaasCRM.repository;
 
 import com.project.SaasCRM.domain.EmailEventType;
 import com.project.SaasCRM.domain.entity.EmailEvent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -45,4 +48,14 @@ public interface EmailEventRepository extends JpaRepository<EmailEvent, Long> {
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
-} 
\ No newline at end of file
+
+    @Query("SELECT MIN(e.id), MAX(e.id) FROM EmailEvent e")
+    List<Object[]> findIdBounds();
+
+    @Query("SELECT e.id FROM EmailEvent e WHERE e.createdAt < :cutoff ORDER BY e.createdAt, e.id")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM EmailEvent e WHERE e.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,40 @@
+package com.project.SaasCRM.repository;
+
+import com.project.SaasCRM.domain.entity.IdempotencyRecord;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT r FROM IdempotencyRecord r WHERE r.scope = :scope AND r.idempotencyKey = :key")
+    Optional<IdempotencyRecord> lockByScopeAndIdempotencyKey(@Param("scope") String scope, @Param("key") String key);
+
+    /**
+     * Takes the key unless it exists. A concurrent uncommitted insert of the same key blocks this
+     * one until it commits or rolls back; no exception is raised for a duplicate.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO idempotency_records (scope, idempotency_key, request_hash, created_at) " +
+                   "VALUES (:scope, :key, :requestHash, :now)", nativeQuery = true)
+    int insertIfAbsent(
+        @Param("scope") String scope,
+        @Param("key") String key,
+        @Param("requestHash") String requestHash,
+        @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,30 @@
+package com.project.SaasCRM.repository;
+
+import com.project.SaasCRM.domain.entity.IngestCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IngestCheckpointRepository extends JpaRepository<IngestCheckpoint, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM IngestCheckpoint c WHERE c.stream = :stream")
+    Optional<IngestCheckpoint> lockByStream(@Param("stream") String stream);
+
+    @Modifying
+    @Query("UPDATE IngestCheckpoint c SET c.lastSequence = :sequence, c.updatedAt = :now " +
+           "WHERE c.stream = :stream AND c.lastSequence < :sequence")
+    int advance(
+        @Param("stream") String stream,
+        @Param("sequence") long sequence,
+        @Param("now") LocalDateTime now
+    );
+}
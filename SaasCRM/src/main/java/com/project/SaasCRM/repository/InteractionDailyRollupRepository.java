@@ -0,0 +1,32 @@
+package com.project.SaasCRM.repository;
+
+import com.project.SaasCRM.domain.entity.InteractionDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface InteractionDailyRollupRepository extends JpaRepository<InteractionDailyRollup, Long> {
+
+    @Query("SELECT r.type, SUM(r.interactionCount), SUM(r.totalDurationMinutes) FROM InteractionDailyRollup r " +
+           "WHERE r.customerId = :customerId GROUP BY r.type")
+    List<Object[]> sumByTypeForCustomer(@Param("customerId") Long customerId);
+
+    @Query("SELECT r.day, SUM(r.interactionCount) FROM InteractionDailyRollup r " +
+           "WHERE r.day BETWEEN :fromDay AND :toDay GROUP BY r.day")
+    List<Object[]> sumCountsByDay(
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay
+    );
+
+    @Query("SELECT r.userId, SUM(r.interactionCount), SUM(r.totalDurationMinutes) FROM InteractionDailyRollup r " +
+           "WHERE r.day BETWEEN :fromDay AND :toDay GROUP BY r.userId")
+    List<Object[]> sumByUser(
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay
+    );
+}
@@ -7,11 +7,13 @@ import com.project.SaasCRM.domain.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -41,17 +43,6 @@ public interface InteractionRepository extends JpaRepository<Interaction, Long>
     
     List<Interaction> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
     
-    @Query("SELECT i.type, COUNT(i) FROM Interaction i WHERE i.customer.id = :customerId GROUP BY i.type")
-    List<Object[]> countByTypeForCustomer(@Param("customerId") Long customerId);
-    
-    @Query("SELECT DATE(i.createdAt) as date, COUNT(i) FROM Interaction i " +
-           "WHERE i.createdAt BETWEEN :startDate AND :endDate " +
-           "GROUP BY DATE(i.createdAt)")
-    List<Object[]> countByDateRange(
-        @Param("startDate") LocalDateTime startDate,
-        @Param("endDate") LocalDateTime endDate
-    );
-    
     List<Interaction> findByCustomerIdOrderByCreatedAtDesc(Long customerId);
     
     List<Interaction> findByUserIdOrderByCreatedAtDesc(Long userId);
@@ -85,4 +76,49 @@ public interface InteractionRepository extends JpaRepository<Interaction, Long>
         @Param("customerId") Long customerId,
         @Param("since") LocalDateTime since
     );
-}
\ No newline at end of file
+
+    @Query("SELECT i.customer.id, COUNT(i), MAX(i.createdAt) FROM Interaction i " +
+           "WHERE i.customer.id IN :customerIds GROUP BY i.customer.id")
+    List<Object[]> aggregateByCustomerIdIn(@Param("customerIds") Collection<Long> customerIds);
+
+    @Query("SELECT i.customer.id, SUM(CASE WHEN i.createdAt >= :since THEN 1 ELSE 0 END), MAX(i.createdAt) " +
+           "FROM Interaction i WHERE i.customer.id BETWEEN :fromId AND :toId GROUP BY i.customer.id")
+    List<Object[]> aggregateActivityByCustomerIdBetween(
+        @Param("fromId") Long fromId,
+        @Param("toId") Long toId,
+        @Param("since") LocalDateTime since
+    );
+
+    @Query("SELECT i.id, i.createdAt, i.title, i.type, i.user.id FROM Interaction i " +
+           "WHERE i.customer.id = :customerId " +
+           "AND (i.createdAt < :before OR (i.createdAt = :before AND i.id < :beforeId)) " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    List<Object[]> findTimelineRows(
+        @Param("customerId") Long customerId,
+        @Param("before") LocalDateTime before,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+
+    @Query("SELECT COUNT(i) FROM Interaction i WHERE i.createdAt BETWEEN :startDate AND :endDate")
+    long countCreatedBetween(
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+
+    @Query("SELECT COUNT(i) FROM Interaction i WHERE i.createdAt >= :from AND i.createdAt < :before")
+    long countCreatedFromBefore(
+        @Param("from") LocalDateTime from,
+        @Param("before") LocalDateTime before
+    );
+
+    @Query("SELECT MIN(i.id), MAX(i.id) FROM Interaction i")
+    List<Object[]> findIdBounds();
+
+    @Query("SELECT i.id FROM Interaction i WHERE i.createdAt < :cutoff ORDER BY i.createdAt, i.id")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Interaction i WHERE i.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
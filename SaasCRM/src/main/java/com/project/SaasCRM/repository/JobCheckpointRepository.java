@@ -0,0 +1,46 @@
+package com.project.SaasCRM.repository;
+
+import com.project.SaasCRM.domain.JobPartitionStatus;
+import com.project.SaasCRM.domain.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, Long> {
+    List<JobCheckpoint> findByJobNameAndStatusNotOrderByPartitionIndex(String jobName, JobPartitionStatus status);
+
+    @Modifying
+    @Query("DELETE FROM JobCheckpoint c WHERE c.jobName = :jobName")
+    int deleteByJobName(@Param("jobName") String jobName);
+
+    @Modifying
+    @Query("UPDATE JobCheckpoint c SET c.lastProcessedId = :lastProcessedId, " +
+           "c.processedCount = c.processedCount + :processed, c.status = :status, " +
+           "c.errorMessage = :errorMessage, c.failedAttempts = 0, c.updatedAt = :now WHERE c.id = :id")
+    int advance(
+        @Param("id") Long id,
+        @Param("lastProcessedId") long lastProcessedId,
+        @Param("processed") long processed,
+        @Param("status") JobPartitionStatus status,
+        @Param("errorMessage") String errorMessage,
+        @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("UPDATE JobCheckpoint c SET c.lastProcessedId = :lastProcessedId, c.status = :status, " +
+           "c.errorMessage = :errorMessage, c.failedAttempts = c.failedAttempts + 1, c.updatedAt = :now " +
+           "WHERE c.id = :id")
+    int recordFailure(
+        @Param("id") Long id,
+        @Param("lastProcessedId") long lastProcessedId,
+        @Param("status") JobPartitionStatus status,
+        @Param("errorMessage") String errorMessage,
+        @Param("now") LocalDateTime now
+    );
+}
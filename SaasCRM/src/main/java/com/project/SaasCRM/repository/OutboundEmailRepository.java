@@ -0,0 +1,9 @@
+package com.project.SaasCRM.repository;
+
+import com.project.SaasCRM.domain.entity.OutboundEmail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+}
@@ -6,14 +6,18 @@ import com.project.SaasCRM.domain.entity.Customer;
 import com.project.SaasCRM.domain.entity.Deal;
 import com.project.SaasCRM.domain.entity.Task;
 import com.project.SaasCRM.domain.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -56,8 +60,11 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT COUNT(t) FROM Task t WHERE t.status = :status")
     long countByStatus(@Param("status") TaskStatus status);
 
-    @Query("SELECT t FROM Task t WHERE DATE(t.dueDate) = CURRENT_DATE")
-    List<Task> findTasksDueToday();
+    @Query("SELECT t FROM Task t WHERE t.dueDate >= :dayStart AND t.dueDate < :dayEnd")
+    List<Task> findTasksDueBetween(
+            @Param("dayStart") LocalDateTime dayStart,
+            @Param("dayEnd") LocalDateTime dayEnd
+    );
 
     @Query("SELECT t FROM Task t WHERE " +
             "t.dueDate BETWEEN CURRENT_DATE AND (CURRENT_DATE + 7)")
@@ -119,4 +126,199 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
         @Param("userId") Long userId,
         @Param("date") LocalDateTime date
     );
-}
\ No newline at end of file
+
+    @Query("SELECT t.id, t.status, a.id FROM Task t LEFT JOIN t.assignee a " +
+           "WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findMembershipRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT t.id, t.status, a.id FROM Task t LEFT JOIN t.assignee a WHERE t.id IN :ids")
+    List<Object[]> findMembershipRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.customer.id, COUNT(t) FROM Task t " +
+           "WHERE t.customer.id BETWEEN :fromId AND :toId AND t.dueDate < :now " +
+           "AND t.status NOT IN (com.project.SaasCRM.domain.TaskStatus.COMPLETED, com.project.SaasCRM.domain.TaskStatus.CANCELLED) " +
+           "GROUP BY t.customer.id")
+    List<Object[]> countOverdueByCustomerIdBetween(
+        @Param("fromId") Long fromId,
+        @Param("toId") Long toId,
+        @Param("now") LocalDateTime now
+    );
+
+    @Query("SELECT a.id, t.status, t.priority, t.type, COUNT(t) FROM Task t LEFT JOIN t.assignee a " +
+           "GROUP BY a.id, t.status, t.priority, t.type")
+    List<Object[]> countGroupedByAssigneeStatusPriorityType();
+
+    @Query("SELECT t.status, COUNT(t) FROM Task t GROUP BY t.status")
+    List<Object[]> countGroupedByStatus();
+
+    @Query("SELECT SUM(CASE WHEN t.dueDate < :now THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.dueDate >= :dayStart THEN 1 ELSE 0 END) FROM Task t " +
+           "WHERE t.status IN :openStatuses AND t.dueDate < :dayEnd")
+    List<Object[]> countOverdueAndDueToday(
+        @Param("openStatuses") Collection<TaskStatus> openStatuses,
+        @Param("now") LocalDateTime now,
+        @Param("dayStart") LocalDateTime dayStart,
+        @Param("dayEnd") LocalDateTime dayEnd
+    );
+
+    @Query("SELECT SUM(CASE WHEN t.dueDate < :now THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.dueDate >= :dayStart THEN 1 ELSE 0 END) FROM Task t " +
+           "WHERE t.assignee.id = :userId AND t.status IN :openStatuses AND t.dueDate < :dayEnd")
+    List<Object[]> countOverdueAndDueTodayByAssignee(
+        @Param("userId") Long userId,
+        @Param("openStatuses") Collection<TaskStatus> openStatuses,
+        @Param("now") LocalDateTime now,
+        @Param("dayStart") LocalDateTime dayStart,
+        @Param("dayEnd") LocalDateTime dayEnd
+    );
+
+    @Query("SELECT t.id, t.reminderDate FROM Task t " +
+           "WHERE t.reminderDate > :from AND t.reminderDate <= :to " +
+           "AND t.status IN :openStatuses AND t.assignee IS NOT NULL")
+    List<Object[]> findReminderRowsBetween(
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("openStatuses") Collection<TaskStatus> openStatuses
+    );
+
+    @Modifying
+    @Query("UPDATE Task t SET t.reminderSentAt = :now WHERE t.id = :id AND t.reminderDate <= :now " +
+           "AND t.status IN :openStatuses AND t.assignee IS NOT NULL " +
+           "AND (t.reminderSentAt IS NULL OR t.reminderSentAt < t.reminderDate)")
+    int claimReminder(
+        @Param("id") Long id,
+        @Param("now") LocalDateTime now,
+        @Param("openStatuses") Collection<TaskStatus> openStatuses
+    );
+
+    @Query("SELECT MIN(t.id), MAX(t.id) FROM Task t")
+    List<Object[]> findIdBounds();
+
+    @Query("SELECT t.id, t.title, t.status, t.priority, t.type, a.id, t.dueDate, t.reminderDate " +
+           "FROM Task t LEFT JOIN t.assignee a " +
+           "WHERE t.id > :afterId AND t.id <= :toId AND t.dueDate < :now AND t.status IN :openStatuses " +
+           "AND (t.escalatedAt IS NULL OR t.escalatedAt < t.dueDate) ORDER BY t.id")
+    List<Object[]> findEscalationCandidatesBetween(
+        @Param("afterId") Long afterId,
+        @Param("toId") Long toId,
+        @Param("now") LocalDateTime now,
+        @Param("openStatuses") Collection<TaskStatus> openStatuses,
+        Pageable pageable
+    );
+
+    @Modifying
+    @Query("UPDATE Task t SET t.priority = :priority, t.escalatedAt = :now, t.updatedAt = :now " +
+           "WHERE t.id = :id AND t.dueDate < :now AND t.status IN :openStatuses " +
+           "AND (t.escalatedAt IS NULL OR t.escalatedAt < t.dueDate)")
+    int escalateIfOverdue(
+        @Param("id") Long id,
+        @Param("priority") TaskPriority priority,
+        @Param("now") LocalDateTime now,
+        @Param("openStatuses") Collection<TaskStatus> openStatuses
+    );
+
+    @Query("SELECT t FROM Task t WHERE t.assignee.id = :userId AND t.status = :status " +
+           "AND t.dueDate >= :from AND t.dueDate < :to AND (t.dueDate > :from OR t.id > :afterId) " +
+           "AND t.priority IN :priorities ORDER BY t.dueDate, t.id")
+    List<Task> findInboxPage(
+        @Param("userId") Long userId,
+        @Param("status") TaskStatus status,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("afterId") Long afterId,
+        @Param("priorities") Collection<TaskPriority> priorities,
+        Pageable pageable
+    );
+
+    @Query("SELECT t FROM Task t WHERE t.assignee.id = :userId AND t.status = :status " +
+           "AND t.dueDate IS NULL AND t.id > :afterId AND t.priority IN :priorities ORDER BY t.id")
+    List<Task> findUndatedInboxPage(
+        @Param("userId") Long userId,
+        @Param("status") TaskStatus status,
+        @Param("afterId") Long afterId,
+        @Param("priorities") Collection<TaskPriority> priorities,
+        Pageable pageable
+    );
+
+    @Query("SELECT t.id, t.status, t.priority, t.type, a.id, t.dueDate, t.reminderDate " +
+           "FROM Task t LEFT JOIN t.assignee a " +
+           "WHERE t.seriesId = :seriesId AND t.dueDate > :after AND t.dueDate <= :to AND t.status IN :statuses " +
+           "ORDER BY t.dueDate")
+    List<Object[]> findSeriesOccurrenceRows(
+        @Param("seriesId") Long seriesId,
+        @Param("after") LocalDateTime after,
+        @Param("to") LocalDateTime to,
+        @Param("statuses") Collection<TaskStatus> statuses
+    );
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id, t.status, t.priority, t.type, t.assignee.id, t.dueDate, t.reminderDate " +
+           "FROM Task t WHERE t.id IN :ids ORDER BY t.id")
+    List<Object[]> lockChangeRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id FROM Task t WHERE (:assigneeId IS NULL OR t.assignee.id = :assigneeId) " +
+           "AND (:customerId IS NULL OR t.customer.id = :customerId) " +
+           "AND t.status IN :statuses AND t.priority IN :priorities " +
+           "AND (:dueAfter IS NULL OR t.dueDate >= :dueAfter) AND (:dueBefore IS NULL OR t.dueDate < :dueBefore) " +
+           "ORDER BY t.id")
+    List<Long> findIdsMatching(
+        @Param("assigneeId") Long assigneeId,
+        @Param("customerId") Long customerId,
+        @Param("statuses") Collection<TaskStatus> statuses,
+        @Param("priorities") Collection<TaskPriority> priorities,
+        @Param("dueAfter") LocalDateTime dueAfter,
+        @Param("dueBefore") LocalDateTime dueBefore,
+        Pageable pageable
+    );
+
+    @Modifying
+    @Query("UPDATE Task t SET t.assignee = :assignee, t.updatedAt = :now WHERE t.id IN :ids")
+    int assignAll(
+        @Param("ids") Collection<Long> ids,
+        @Param("assignee") User assignee,
+        @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("UPDATE Task t SET t.status = :status, t.updatedAt = :now WHERE t.id IN :ids")
+    int updateStatusAll(
+        @Param("ids") Collection<Long> ids,
+        @Param("status") TaskStatus status,
+        @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("UPDATE Task t SET t.status = com.project.SaasCRM.domain.TaskStatus.COMPLETED, " +
+           "t.completedAt = :now, t.updatedAt = :now WHERE t.id IN :ids")
+    int completeAll(
+        @Param("ids") Collection<Long> ids,
+        @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("UPDATE Task t SET t.priority = :priority, t.updatedAt = :now WHERE t.id IN :ids")
+    int updatePriorityAll(
+        @Param("ids") Collection<Long> ids,
+        @Param("priority") TaskPriority priority,
+        @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.assignee.id, COUNT(t) FROM Task t WHERE t.assignee IS NOT NULL AND t.status IN :statuses " +
+           "GROUP BY t.assignee.id")
+    List<Object[]> countOpenByAssignee(@Param("statuses") Collection<TaskStatus> statuses);
+
+    @Query("SELECT t.id, t.createdAt, t.title, t.status, t.assignee.id FROM Task t " +
+           "WHERE t.customer.id = :customerId " +
+           "AND (t.createdAt < :before OR (t.createdAt = :before AND t.id < :beforeId)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Object[]> findTimelineRows(
+        @Param("customerId") Long customerId,
+        @Param("before") LocalDateTime before,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+}
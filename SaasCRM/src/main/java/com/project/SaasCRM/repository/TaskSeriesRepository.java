@@ -0,0 +1,32 @@
+package com.project.SaasCRM.repository;
+
+import com.project.SaasCRM.domain.entity.TaskSeries;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskSeriesRepository extends JpaRepository<TaskSeries, Long> {
+    Page<TaskSeries> findByAssigneeId(Long assigneeId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TaskSeries s WHERE s.id = :id")
+    Optional<TaskSeries> lockById(@Param("id") Long id);
+
+    @Query("SELECT s.id FROM TaskSeries s WHERE s.active = true AND s.id > :afterId " +
+           "AND (s.materializedThrough IS NULL OR s.materializedThrough < :horizon) ORDER BY s.id")
+    List<Long> findIdsDueForMaterializationAfter(
+        @Param("afterId") Long afterId,
+        @Param("horizon") LocalDateTime horizon,
+        Pageable pageable
+    );
+}
@@ -0,0 +1,272 @@
+package com.project.SaasCRM.segment;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar in-memory copy of the customer attributes used by segment filters.
+ *
+ * <p>Rows are kept sorted by customer id and every attribute lives in its own primitive array, so a
+ * filter is evaluated as a tight loop over contiguous memory producing one 64-bit match mask per
+ * 64 rows. Blocks of words are scanned in parallel. Deleted customers are only cleared from the
+ * live bitmap; their slots are reclaimed by the next full rebuild.</p>
+ */
+public class CustomerColumnStore {
+
+    static final long NULL_TIME = Long.MIN_VALUE;
+    static final byte NULL_STATUS = -1;
+
+    private static final long[] NO_USERS = new long[0];
+    private static final int WORDS_PER_BLOCK = 1024;
+    private static final int PARALLEL_THRESHOLD_WORDS = 2 * WORDS_PER_BLOCK;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LocalDateTime builtAt;
+
+    private int size;
+    private int liveCount;
+    private long[] ids;
+    private byte[] statuses;
+    private long[] createdAt;
+    private long[] lastContact;
+    private int[] openDealCount;
+    private double[] openDealValue;
+    private int[] interactionCount;
+    private long[] lastInteraction;
+    private long[][] assignedUsers;
+    private long[] live;
+
+    public CustomerColumnStore(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 64);
+        this.builtAt = LocalDateTime.now();
+        this.ids = new long[capacity];
+        this.statuses = new byte[capacity];
+        this.createdAt = new long[capacity];
+        this.lastContact = new long[capacity];
+        this.openDealCount = new int[capacity];
+        this.openDealValue = new double[capacity];
+        this.interactionCount = new int[capacity];
+        this.lastInteraction = new long[capacity];
+        this.assignedUsers = new long[capacity][];
+        this.live = new long[wordsFor(capacity)];
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public int liveCount() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts or replaces the row for {@code row.getId()}, keeping the id column sorted.
+     */
+    public void upsert(CustomerSnapshotRow row) {
+        lock.writeLock().lock();
+        try {
+            int index = Arrays.binarySearch(ids, 0, size, row.getId());
+            if (index < 0) {
+                index = -index - 1;
+                insertSlot(index);
+                ids[index] = row.getId();
+            }
+            write(index, row);
+            if (!isSet(live, index)) {
+                live[index >>> 6] |= 1L << index;
+                liveCount++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long customerId) {
+        lock.writeLock().lock();
+        try {
+            int index = Arrays.binarySearch(ids, 0, size, customerId);
+            if (index >= 0 && isSet(live, index)) {
+                live[index >>> 6] &= ~(1L << index);
+                assignedUsers[index] = NO_USERS;
+                liveCount--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluates {@code matcher} against every live row. Returns the total match count and the ids of
+     * the matches in ascending order, skipping {@code offset} and returning at most {@code limit}.
+     */
+    public SegmentMatch evaluate(RowMatcher matcher, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int words = wordsFor(size);
+            long[] result = new long[words];
+            if (words < PARALLEL_THRESHOLD_WORDS) {
+                scan(matcher, result, 0, words);
+            } else {
+                int blocks = (words + WORDS_PER_BLOCK - 1) / WORDS_PER_BLOCK;
+                IntStream.range(0, blocks).parallel().forEach(block -> {
+                    int from = block * WORDS_PER_BLOCK;
+                    scan(matcher, result, from, Math.min(words, from + WORDS_PER_BLOCK));
+                });
+            }
+            long count = 0;
+            for (long word : result) {
+                count += Long.bitCount(word);
+            }
+            int wanted = (int) Math.max(0, Math.min(limit, count - offset));
+            return new SegmentMatch(count, collectIds(result, offset, wanted), builtAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] collectIds(long[] matchWords, int offset, int limit) {
+        long[] out = new long[limit];
+        int written = 0;
+        int skipped = 0;
+        for (int word = 0; word < matchWords.length && written < limit; word++) {
+            long bits = matchWords[word];
+            while (bits != 0 && written < limit) {
+                int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    out[written++] = ids[row];
+                }
+            }
+        }
+        return out;
+    }
+
+    private void scan(RowMatcher matcher, long[] result, int fromWord, int toWord) {
+        for (int word = fromWord; word < toWord; word++) {
+            long liveWord = live[word];
+            if (liveWord == 0) {
+                continue;
+            }
+            int base = word << 6;
+            int rows = Math.min(64, size - base);
+            result[word] = matcher.match(this, base, rows) & liveWord;
+        }
+    }
+
+    private void write(int index, CustomerSnapshotRow row) {
+        statuses[index] = row.getStatus() != null ? (byte) row.getStatus().ordinal() : NULL_STATUS;
+        createdAt[index] = toEpochMillis(row.getCreatedAt());
+        lastContact[index] = toEpochMillis(row.getLastContact());
+        openDealCount[index] = row.getOpenDealCount();
+        openDealValue[index] = row.getOpenDealValue();
+        interactionCount[index] = row.getInteractionCount();
+        lastInteraction[index] = toEpochMillis(row.getLastInteraction());
+        assignedUsers[index] = row.getAssignedUserIds() != null ? row.getAssignedUserIds() : NO_USERS;
+    }
+
+    private void insertSlot(int index) {
+        if (size == ids.length) {
+            grow(size * 2);
+        }
+        int tail = size - index;
+        if (tail > 0) {
+            System.arraycopy(ids, index, ids, index + 1, tail);
+            System.arraycopy(statuses, index, statuses, index + 1, tail);
+            System.arraycopy(createdAt, index, createdAt, index + 1, tail);
+            System.arraycopy(lastContact, index, lastContact, index + 1, tail);
+            System.arraycopy(openDealCount, index, openDealCount, index + 1, tail);
+            System.arraycopy(openDealValue, index, openDealValue, index + 1, tail);
+            System.arraycopy(interactionCount, index, interactionCount, index + 1, tail);
+            System.arraycopy(lastInteraction, index, lastInteraction, index + 1, tail);
+            System.arraycopy(assignedUsers, index, assignedUsers, index + 1, tail);
+            shiftLiveBitsUp(index);
+        }
+        size++;
+    }
+
+    private void shiftLiveBitsUp(int index) {
+        for (int row = size; row > index; row--) {
+            if (isSet(live, row - 1)) {
+                live[row >>> 6] |= 1L << row;
+            } else {
+                live[row >>> 6] &= ~(1L << row);
+            }
+        }
+        live[index >>> 6] &= ~(1L << index);
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        lastContact = Arrays.copyOf(lastContact, capacity);
+        openDealCount = Arrays.copyOf(openDealCount, capacity);
+        openDealValue = Arrays.copyOf(openDealValue, capacity);
+        interactionCount = Arrays.copyOf(interactionCount, capacity);
+        lastInteraction = Arrays.copyOf(lastInteraction, capacity);
+        assignedUsers = Arrays.copyOf(assignedUsers, capacity);
+        live = Arrays.copyOf(live, wordsFor(capacity));
+    }
+
+    byte[] statuses() {
+        return statuses;
+    }
+
+    long[] createdAt() {
+        return createdAt;
+    }
+
+    long[] lastContact() {
+        return lastContact;
+    }
+
+    int[] openDealCount() {
+        return openDealCount;
+    }
+
+    double[] openDealValue() {
+        return openDealValue;
+    }
+
+    int[] interactionCount() {
+        return interactionCount;
+    }
+
+    long[] lastInteraction() {
+        return lastInteraction;
+    }
+
+    long[][] assignedUsers() {
+        return assignedUsers;
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : NULL_TIME;
+    }
+
+    private static boolean isSet(long[] words, int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static int wordsFor(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    /**
+     * Computes the match mask for rows {@code [base, base + rows)}; bit {@code i} corresponds to row {@code base + i}.
+     */
+    @FunctionalInterface
+    public interface RowMatcher {
+        long match(CustomerColumnStore store, int base, int rows);
+    }
+}
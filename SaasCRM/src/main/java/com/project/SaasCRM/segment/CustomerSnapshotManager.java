@@ -0,0 +1,176 @@
+package com.project.SaasCRM.segment;
+
+import com.project.SaasCRM.domain.CustomerStatus;
+import com.project.SaasCRM.domain.event.CustomerChangedEvent;
+import com.project.SaasCRM.domain.event.DealChangedEvent;
+import com.project.SaasCRM.domain.event.InteractionChangedEvent;
+import com.project.SaasCRM.repository.CustomerRepository;
+import com.project.SaasCRM.repository.DealRepository;
+import com.project.SaasCRM.repository.InteractionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the {@link CustomerColumnStore} used for segment evaluation.
+ *
+ * <p>The store is fully rebuilt by a scheduled job shortly after startup and periodically after that,
+ * never on a request thread; until the first build ends there is no store. Between rebuilds, committed
+ * customer, deal and interaction writes mark the affected customer dirty and a short-interval job
+ * reloads only those rows, so filters see changes within about one refresh interval.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerSnapshotManager {
+
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    private final CustomerRepository customerRepository;
+    private final DealRepository dealRepository;
+    private final InteractionRepository interactionRepository;
+
+    private final Set<Long> dirtyCustomerIds = ConcurrentHashMap.newKeySet();
+    private final Object refreshLock = new Object();
+
+    private volatile CustomerColumnStore store;
+
+    @Value("${app.segment.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    /**
+     * Returns the current store, or {@code null} while the startup rebuild has not finished.
+     */
+    public CustomerColumnStore getStore() {
+        return store;
+    }
+
+    @Scheduled(initialDelayString = "${app.segment.initial-load-delay-ms:5000}",
+               fixedDelayString = "${app.segment.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        synchronized (refreshLock) {
+            long started = System.currentTimeMillis();
+            CustomerColumnStore next = new CustomerColumnStore(store != null ? store.liveCount() : loadBatchSize);
+            long afterId = 0L;
+            while (true) {
+                List<Object[]> batch = customerRepository.findSnapshotRowsAfter(afterId, PageRequest.of(0, loadBatchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (CustomerSnapshotRow row : buildRows(batch)) {
+                    next.upsert(row);
+                }
+                afterId = (Long) batch.get(batch.size() - 1)[0];
+                if (batch.size() < loadBatchSize) {
+                    break;
+                }
+            }
+            store = next;
+            log.info("Customer segment snapshot rebuilt with {} customers in {} ms",
+                    next.liveCount(), System.currentTimeMillis() - started);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.segment.refresh-interval-ms:1000}")
+    public void refreshDirty() {
+        if (dirtyCustomerIds.isEmpty() || store == null) {
+            return;
+        }
+        synchronized (refreshLock) {
+            List<Long> pending = new ArrayList<>(dirtyCustomerIds);
+            dirtyCustomerIds.removeAll(pending);
+            CustomerColumnStore current = store;
+            for (int from = 0; from < pending.size(); from += IN_CHUNK_SIZE) {
+                List<Long> chunk = pending.subList(from, Math.min(pending.size(), from + IN_CHUNK_SIZE));
+                Set<Long> missing = new HashSet<>(chunk);
+                for (CustomerSnapshotRow row : buildRows(customerRepository.findSnapshotRowsByIdIn(chunk))) {
+                    current.upsert(row);
+                    missing.remove(row.getId());
+                }
+                missing.forEach(current::remove);
+            }
+            log.debug("Refreshed {} customers in segment snapshot", pending.size());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        markDirty(event.getCustomerId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDealChanged(DealChangedEvent event) {
+        markDirty(event.getCustomerId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInteractionChanged(InteractionChangedEvent event) {
+        markDirty(event.getCustomerId());
+    }
+
+    private void markDirty(Long customerId) {
+        if (customerId != null) {
+            dirtyCustomerIds.add(customerId);
+        }
+    }
+
+    private List<CustomerSnapshotRow> buildRows(List<Object[]> customers) {
+        if (customers.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(customers.size());
+        for (Object[] customer : customers) {
+            ids.add((Long) customer[0]);
+        }
+
+        Map<Long, List<Long>> assigned = new HashMap<>();
+        Map<Long, Object[]> deals = new HashMap<>();
+        Map<Long, Object[]> interactions = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + IN_CHUNK_SIZE));
+            for (Object[] pair : customerRepository.findAssignedUserIdsByCustomerIdIn(chunk)) {
+                assigned.computeIfAbsent((Long) pair[0], k -> new ArrayList<>()).add((Long) pair[1]);
+            }
+            for (Object[] aggregate : dealRepository.aggregateOpenDealsByCustomerIdIn(chunk)) {
+                deals.put((Long) aggregate[0], aggregate);
+            }
+            for (Object[] aggregate : interactionRepository.aggregateByCustomerIdIn(chunk)) {
+                interactions.put((Long) aggregate[0], aggregate);
+            }
+        }
+
+        List<CustomerSnapshotRow> rows = new ArrayList<>(customers.size());
+        for (Object[] customer : customers) {
+            Long id = (Long) customer[0];
+            Object[] deal = deals.get(id);
+            Object[] interaction = interactions.get(id);
+            List<Long> users = assigned.get(id);
+            rows.add(CustomerSnapshotRow.builder()
+                    .id(id)
+                    .status((CustomerStatus) customer[1])
+                    .lastContact((LocalDateTime) customer[2])
+                    .createdAt((LocalDateTime) customer[3])
+                    .openDealCount(deal != null ? ((Number) deal[1]).intValue() : 0)
+                    .openDealValue(deal != null && deal[2] != null ? ((Number) deal[2]).doubleValue() : 0d)
+                    .interactionCount(interaction != null ? ((Number) interaction[1]).intValue() : 0)
+                    .lastInteraction(interaction != null ? (LocalDateTime) interaction[2] : null)
+                    .assignedUserIds(users != null ? users.stream().mapToLong(Long::longValue).toArray() : null)
+                    .build());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.SaasCRM.segment;
+
+import com.project.SaasCRM.domain.CustomerStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One customer's segmentable attributes together with its derived deal and interaction aggregates.
+ */
+@Getter
+@Builder
+public class CustomerSnapshotRow {
+    private final long id;
+    private final CustomerStatus status;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime lastContact;
+    private final int openDealCount;
+    private final double openDealValue;
+    private final int interactionCount;
+    private final LocalDateTime lastInteraction;
+    private final long[] assignedUserIds;
+}
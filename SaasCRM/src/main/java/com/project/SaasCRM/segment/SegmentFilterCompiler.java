@@ -0,0 +1,350 @@
+package com.project.SaasCRM.segment;
+
+import com.project.SaasCRM.domain.CustomerStatus;
+import com.project.SaasCRM.domain.SegmentField;
+import com.project.SaasCRM.domain.SegmentOperator;
+import com.project.SaasCRM.domain.dto.SegmentFilterDTO;
+import com.project.SaasCRM.segment.CustomerColumnStore.RowMatcher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Compiles a {@link SegmentFilterDTO} expression tree into a {@link RowMatcher} over the customer column store.
+ * Relative predicates (WITHIN_DAYS, OLDER_THAN_DAYS) are resolved against {@code now} once at compile time.
+ */
+public final class SegmentFilterCompiler {
+
+    private static final int MAX_DEPTH = 16;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private SegmentFilterCompiler() {
+    }
+
+    public static RowMatcher compile(SegmentFilterDTO filter, LocalDateTime now) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Segment filter cannot be null");
+        }
+        return compile(filter, CustomerColumnStore.toEpochMillis(now), 0);
+    }
+
+    private static RowMatcher compile(SegmentFilterDTO node, long nowMillis, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Segment filter is nested too deeply");
+        }
+        SegmentOperator operator = node.getOperator();
+        if (operator == null) {
+            throw new IllegalArgumentException("Segment filter operator is required");
+        }
+        switch (operator) {
+            case AND:
+            case OR:
+                return compileGroup(node, nowMillis, depth);
+            case NOT:
+                if (node.getChildren() == null || node.getChildren().size() != 1) {
+                    throw new IllegalArgumentException("NOT requires exactly one child filter");
+                }
+                RowMatcher inner = compile(node.getChildren().get(0), nowMillis, depth + 1);
+                return (store, base, rows) -> ~inner.match(store, base, rows);
+            default:
+                return compileLeaf(node, nowMillis);
+        }
+    }
+
+    private static RowMatcher compileGroup(SegmentFilterDTO node, long nowMillis, int depth) {
+        List<SegmentFilterDTO> children = node.getChildren();
+        if (children == null || children.isEmpty()) {
+            throw new IllegalArgumentException(node.getOperator() + " requires at least one child filter");
+        }
+        RowMatcher[] matchers = new RowMatcher[children.size()];
+        for (int i = 0; i < matchers.length; i++) {
+            matchers[i] = compile(children.get(i), nowMillis, depth + 1);
+        }
+        if (node.getOperator() == SegmentOperator.AND) {
+            return (store, base, rows) -> {
+                long mask = -1L;
+                for (RowMatcher matcher : matchers) {
+                    mask &= matcher.match(store, base, rows);
+                    if (mask == 0) {
+                        break;
+                    }
+                }
+                return mask;
+            };
+        }
+        return (store, base, rows) -> {
+            long mask = 0L;
+            for (RowMatcher matcher : matchers) {
+                mask |= matcher.match(store, base, rows);
+                if (mask == -1L) {
+                    break;
+                }
+            }
+            return mask;
+        };
+    }
+
+    private static RowMatcher compileLeaf(SegmentFilterDTO node, long nowMillis) {
+        SegmentField field = node.getField();
+        if (field == null) {
+            throw new IllegalArgumentException("Segment filter field is required for operator " + node.getOperator());
+        }
+        switch (field) {
+            case STATUS:
+                return statusMatcher(node);
+            case ASSIGNED_USER:
+                return assignedUserMatcher(node);
+            case CREATED_AT:
+                return timeMatcher(node, nowMillis, CustomerColumnStore::createdAt);
+            case LAST_CONTACT:
+                return timeMatcher(node, nowMillis, CustomerColumnStore::lastContact);
+            case LAST_INTERACTION:
+                return timeMatcher(node, nowMillis, CustomerColumnStore::lastInteraction);
+            case OPEN_DEAL_COUNT:
+                return intMatcher(node, CustomerColumnStore::openDealCount);
+            case INTERACTION_COUNT:
+                return intMatcher(node, CustomerColumnStore::interactionCount);
+            case OPEN_DEAL_VALUE:
+                return valueMatcher(node);
+            default:
+                throw new IllegalArgumentException("Unsupported segment field: " + field);
+        }
+    }
+
+    private static RowMatcher statusMatcher(SegmentFilterDTO node) {
+        SegmentOperator operator = node.getOperator();
+        if (operator == SegmentOperator.IS_EMPTY) {
+            return (store, base, rows) -> {
+                byte[] statuses = store.statuses();
+                long mask = 0L;
+                for (int i = 0; i < rows; i++) {
+                    if (statuses[base + i] == CustomerColumnStore.NULL_STATUS) {
+                        mask |= 1L << i;
+                    }
+                }
+                return mask;
+            };
+        }
+        if (operator != SegmentOperator.IN && operator != SegmentOperator.NOT_IN) {
+            throw unsupported(node);
+        }
+        boolean[] accepted = new boolean[CustomerStatus.values().length];
+        for (String value : requireValues(node)) {
+            try {
+                accepted[CustomerStatus.valueOf(value.trim().toUpperCase()).ordinal()] = true;
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown customer status: " + value);
+            }
+        }
+        boolean negate = operator == SegmentOperator.NOT_IN;
+        return (store, base, rows) -> {
+            byte[] statuses = store.statuses();
+            long mask = 0L;
+            for (int i = 0; i < rows; i++) {
+                byte status = statuses[base + i];
+                boolean hit = status != CustomerColumnStore.NULL_STATUS && accepted[status];
+                if (hit != negate) {
+                    mask |= 1L << i;
+                }
+            }
+            return mask;
+        };
+    }
+
+    private static RowMatcher assignedUserMatcher(SegmentFilterDTO node) {
+        SegmentOperator operator = node.getOperator();
+        if (operator == SegmentOperator.IS_EMPTY) {
+            return (store, base, rows) -> {
+                long[][] users = store.assignedUsers();
+                long mask = 0L;
+                for (int i = 0; i < rows; i++) {
+                    if (users[base + i] == null || users[base + i].length == 0) {
+                        mask |= 1L << i;
+                    }
+                }
+                return mask;
+            };
+        }
+        if (operator != SegmentOperator.IN && operator != SegmentOperator.NOT_IN) {
+            throw unsupported(node);
+        }
+        long[] userIds = requireValues(node).stream().mapToLong(SegmentFilterCompiler::parseLong).toArray();
+        boolean negate = operator == SegmentOperator.NOT_IN;
+        return (store, base, rows) -> {
+            long[][] users = store.assignedUsers();
+            long mask = 0L;
+            for (int i = 0; i < rows; i++) {
+                if (containsAny(users[base + i], userIds) != negate) {
+                    mask |= 1L << i;
+                }
+            }
+            return mask;
+        };
+    }
+
+    private static RowMatcher timeMatcher(SegmentFilterDTO node, long nowMillis, TimeColumn column) {
+        SegmentOperator operator = node.getOperator();
+        final long bound;
+        final boolean lower;
+        final boolean matchNull;
+        switch (operator) {
+            case IS_EMPTY:
+                return (store, base, rows) -> {
+                    long[] values = column.of(store);
+                    long mask = 0L;
+                    for (int i = 0; i < rows; i++) {
+                        if (values[base + i] == CustomerColumnStore.NULL_TIME) {
+                            mask |= 1L << i;
+                        }
+                    }
+                    return mask;
+                };
+            case GTE:
+                bound = parseTime(singleValue(node));
+                lower = true;
+                matchNull = false;
+                break;
+            case LTE:
+                bound = parseTime(singleValue(node));
+                lower = false;
+                matchNull = false;
+                break;
+            case WITHIN_DAYS:
+                bound = nowMillis - parseLong(singleValue(node)) * DAY_MILLIS;
+                lower = true;
+                matchNull = false;
+                break;
+            case OLDER_THAN_DAYS:
+                // "not contacted in N days" includes customers that were never contacted
+                bound = nowMillis - parseLong(singleValue(node)) * DAY_MILLIS - 1;
+                lower = false;
+                matchNull = true;
+                break;
+            default:
+                throw unsupported(node);
+        }
+        return (store, base, rows) -> {
+            long[] values = column.of(store);
+            long mask = 0L;
+            for (int i = 0; i < rows; i++) {
+                long value = values[base + i];
+                boolean hit = value == CustomerColumnStore.NULL_TIME
+                        ? matchNull
+                        : (lower ? value >= bound : value <= bound);
+                if (hit) {
+                    mask |= 1L << i;
+                }
+            }
+            return mask;
+        };
+    }
+
+    private static RowMatcher intMatcher(SegmentFilterDTO node, IntColumn column) {
+        SegmentOperator operator = node.getOperator();
+        if (operator != SegmentOperator.GTE && operator != SegmentOperator.LTE) {
+            throw unsupported(node);
+        }
+        long bound = parseLong(singleValue(node));
+        boolean lower = operator == SegmentOperator.GTE;
+        return (store, base, rows) -> {
+            int[] values = column.of(store);
+            long mask = 0L;
+            for (int i = 0; i < rows; i++) {
+                int value = values[base + i];
+                if (lower ? value >= bound : value <= bound) {
+                    mask |= 1L << i;
+                }
+            }
+            return mask;
+        };
+    }
+
+    private static RowMatcher valueMatcher(SegmentFilterDTO node) {
+        SegmentOperator operator = node.getOperator();
+        if (operator != SegmentOperator.GTE && operator != SegmentOperator.LTE) {
+            throw unsupported(node);
+        }
+        double bound;
+        try {
+            bound = Double.parseDouble(singleValue(node));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid numeric value: " + singleValue(node));
+        }
+        boolean lower = operator == SegmentOperator.GTE;
+        return (store, base, rows) -> {
+            double[] values = store.openDealValue();
+            long mask = 0L;
+            for (int i = 0; i < rows; i++) {
+                double value = values[base + i];
+                if (lower ? value >= bound : value <= bound) {
+                    mask |= 1L << i;
+                }
+            }
+            return mask;
+        };
+    }
+
+    private static boolean containsAny(long[] assigned, long[] wanted) {
+        if (assigned == null) {
+            return false;
+        }
+        for (long user : assigned) {
+            for (long candidate : wanted) {
+                if (user == candidate) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<String> requireValues(SegmentFilterDTO node) {
+        if (node.getValues() == null || node.getValues().isEmpty()) {
+            throw new IllegalArgumentException(node.getField() + " " + node.getOperator() + " requires at least one value");
+        }
+        return node.getValues();
+    }
+
+    private static String singleValue(SegmentFilterDTO node) {
+        List<String> values = requireValues(node);
+        if (values.size() != 1) {
+            throw new IllegalArgumentException(node.getField() + " " + node.getOperator() + " requires exactly one value");
+        }
+        return values.get(0).trim();
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid numeric value: " + value);
+        }
+    }
+
+    private static long parseTime(String value) {
+        try {
+            if (value.length() == 10) {
+                return CustomerColumnStore.toEpochMillis(LocalDate.parse(value).atStartOfDay());
+            }
+            return CustomerColumnStore.toEpochMillis(LocalDateTime.parse(value));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date value: " + value);
+        }
+    }
+
+    private static IllegalArgumentException unsupported(SegmentFilterDTO node) {
+        return new IllegalArgumentException("Operator " + node.getOperator() + " is not supported for field " + node.getField());
+    }
+
+    @FunctionalInterface
+    private interface TimeColumn {
+        long[] of(CustomerColumnStore store);
+    }
+
+    @FunctionalInterface
+    private interface IntColumn {
+        int[] of(CustomerColumnStore store);
+    }
+}
@@ -0,0 +1,14 @@
+package com.project.SaasCRM.segment;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@RequiredArgsConstructor
+public class SegmentMatch {
+    private final long count;
+    private final long[] customerIds;
+    private final LocalDateTime snapshotBuiltAt;
+}
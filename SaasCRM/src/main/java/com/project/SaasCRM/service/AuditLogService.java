@@ -2,6 +2,7 @@ package com.project.SaasCRM.service;
 
 import com.project.SaasCRM.domain.dto.AuditLogDTO;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AuditLogService {
@@ -9,6 +10,8 @@ public interface AuditLogService {
 
     void logSystemActivity(String activity, String entityType, Long entityId);
 
+    void logSystemActivities(String activity, String entityType, Collection<Long> entityIds);
+
     List<AuditLogDTO> getUserActivityLogs(Long userId, int limit);
 
     List<AuditLogDTO> getUserActivityLogs(Long userId, LocalDateTime startDate, LocalDateTime endDate);
@@ -1,7 +1,9 @@
 package com.project.SaasCRM.service;
 
 import com.project.SaasCRM.domain.CustomerStatus;
+import com.project.SaasCRM.domain.dto.CursorPageDTO;
 import com.project.SaasCRM.domain.dto.CustomerDTO;
+import com.project.SaasCRM.domain.dto.TimelineEntryDTO;
 import com.project.SaasCRM.domain.dto.UserDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -38,6 +40,8 @@ public interface CustomerService {
     Page<CustomerDTO> searchCustomers(String searchTerm, Pageable pageable);
     
     CustomerDTO assignUserToCustomer(Long customerId, Long userId);
+
+    CustomerDTO autoAssignCustomer(Long customerId, String role);
     
     CustomerDTO removeUserFromCustomer(Long customerId, Long userId);
     
@@ -58,5 +62,11 @@ public interface CustomerService {
     List<CustomerDTO> findCustomersByAssignedUser(Long userId);
     
     Page<CustomerDTO> findCustomersByAssignedUserPaginated(Long userId, Pageable pageable);
+
+    Page<CustomerDTO> findAtRiskCustomers(int maxHealthScore, Pageable pageable);
+
+    boolean recomputeHealthScores();
+
+    CursorPageDTO<TimelineEntryDTO> getTimeline(Long customerId, String cursor, int limit);
 }
 
@@ -25,6 +25,8 @@ public interface EmailCommunicationService {
 
     List<EmailCommunicationDTO> findEmailsByCustomer(Long customerId);
 
+    List<EmailCommunicationDTO> findArchivedEmailsByCustomer(Long customerId);
+
     List<EmailCommunicationDTO> findEmailsBySentBy(Long userId);
 
     List<EmailCommunicationDTO> findEmailsByTemplate(Long templateId);
@@ -52,4 +54,6 @@ public interface EmailCommunicationService {
     double calculateEmailOpenRate(LocalDateTime startDate, LocalDateTime endDate);
 
     double calculateEmailClickRate(LocalDateTime startDate, LocalDateTime endDate);
+
+    boolean rebuildEmailStats();
 }
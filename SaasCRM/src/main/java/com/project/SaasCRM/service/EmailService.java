@@ -1,11 +1,15 @@
 package com.project.SaasCRM.service;
 
+import com.project.SaasCRM.domain.dto.BulkEmailJobDTO;
+import com.project.SaasCRM.domain.dto.BulkEmailRequestDTO;
 import com.project.SaasCRM.domain.dto.EmailDTO;
 import com.project.SaasCRM.domain.dto.EmailStatsDTO;
+import com.project.SaasCRM.domain.dto.MailMergeRequestDTO;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public interface EmailService {
     EmailDTO sendEmail(String to, String subject, String content);
@@ -18,13 +22,32 @@ public interface EmailService {
     
     List<EmailDTO> sendBulkTemplatedEmail(List<String> recipients, String templateName, Map<String, Object> templateVariables);
     
+    BulkEmailJobDTO startBulkEmailJob(BulkEmailRequestDTO request);
+    
+    BulkEmailJobDTO startMailMergeJob(MailMergeRequestDTO request);
+    
+    Optional<BulkEmailJobDTO> findBulkEmailJob(String jobId);
+    
+    Optional<BulkEmailJobDTO> cancelBulkEmailJob(String jobId);
+    
     EmailDTO scheduleEmail(String to, String subject, String content, LocalDateTime scheduledTime);
     
     EmailDTO scheduleTemplatedEmail(String to, String templateName, Map<String, Object> templateVariables, LocalDateTime scheduledTime);
     
-    void trackEmailOpen(String emailId);
-    
-    void trackEmailClick(String emailId, String linkId);
+    /**
+     * Records an open of the email identified by a signed tracking {@code token}.
+     *
+     * @throws IllegalArgumentException if the token is not valid
+     */
+    void trackEmailOpen(String token);
+    
+    /**
+     * Records a click on link {@code linkId} of the email identified by a signed tracking {@code token}.
+     *
+     * @return the link to redirect to, or {@code null} if {@code signature} does not sign it
+     * @throws IllegalArgumentException if the token is not valid
+     */
+    String trackEmailClick(String token, String linkId, String signature);
     
     EmailStatsDTO getEmailStats(LocalDateTime startDate, LocalDateTime endDate);
     
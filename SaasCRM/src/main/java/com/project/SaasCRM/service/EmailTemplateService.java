@@ -1,6 +1,7 @@
 package com.project.SaasCRM.service;
 
 import com.project.SaasCRM.domain.dto.EmailTemplateDTO;
+import com.project.SaasCRM.email.CompiledEmailTemplate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -27,6 +28,7 @@ public interface EmailTemplateService {
     // Template Processing
     String processTemplate(String templateName, Map<String, Object> variables);
     String processTemplateForCustomer(Long templateId, Long customerId);
+    CompiledEmailTemplate compileTemplate(Long templateId);
     void validateTemplate(String templateContent, List<String> requiredVariables);
     
     // Template Management
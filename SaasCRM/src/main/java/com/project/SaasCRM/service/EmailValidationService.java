@@ -1,5 +1,7 @@
 package com.project.SaasCRM.service;
 
+import java.util.Map;
+
 public interface EmailValidationService {
     boolean isValidEmail(String email);
     
@@ -11,6 +13,8 @@ public interface EmailValidationService {
     
     void recordEmailSent(String sender);
     
+    Map<String, Integer> acquireSendQuota(Map<String, Integer> sendsBySender);
+    
     int getRemainingQuota(String sender);
     
     void resetQuota(String sender);
@@ -2,9 +2,11 @@ package com.project.SaasCRM.service;
 
 import com.project.SaasCRM.domain.InteractionType;
 import com.project.SaasCRM.domain.dto.InteractionDTO;
+import com.project.SaasCRM.domain.dto.InteractionIngestResultDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +29,8 @@ public interface InteractionService {
 
     Page<InteractionDTO> findInteractionsByCustomerPaginated(Long customerId, Pageable pageable);
 
+    Page<InteractionDTO> findArchivedInteractionsByCustomer(Long customerId, Pageable pageable);
+
     List<InteractionDTO> findInteractionsByUser(Long userId);
 
     List<InteractionDTO> findInteractionsByType(InteractionType type);
@@ -38,4 +42,12 @@ public interface InteractionService {
     Map<InteractionType, Long> getInteractionTypeCounts(Long customerId);
 
     Map<String, Long> getInteractionCountsByDate(LocalDateTime startDate, LocalDateTime endDate);
+
+    Map<InteractionType, Long> getInteractionDurationByType(Long customerId);
+
+    Map<Long, Long> getInteractionCountsByUser(LocalDate startDate, LocalDate endDate);
+
+    boolean rebuildInteractionRollup();
+
+    InteractionIngestResultDTO ingestInteractions(List<InteractionDTO> interactions);
 }
\ No newline at end of file
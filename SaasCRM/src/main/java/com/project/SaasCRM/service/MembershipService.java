@@ -0,0 +1,15 @@
+package com.project.SaasCRM.service;
+
+import com.project.SaasCRM.domain.MembershipDimension;
+import com.project.SaasCRM.domain.dto.MembershipFilterDTO;
+import com.project.SaasCRM.domain.dto.MembershipResultDTO;
+
+import java.util.Map;
+
+public interface MembershipService {
+    MembershipResultDTO query(MembershipFilterDTO filter, int offset, int limit);
+
+    long count(MembershipFilterDTO filter);
+
+    Map<String, Long> countByValue(MembershipDimension dimension);
+}
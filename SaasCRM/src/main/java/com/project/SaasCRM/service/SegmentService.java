@@ -0,0 +1,30 @@
+package com.project.SaasCRM.service;
+
+import com.project.SaasCRM.domain.dto.CustomerDTO;
+import com.project.SaasCRM.domain.dto.CustomerSegmentDTO;
+import com.project.SaasCRM.domain.dto.SegmentFilterDTO;
+import com.project.SaasCRM.domain.dto.SegmentResultDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SegmentService {
+    // Saved segments
+    CustomerSegmentDTO createSegment(CustomerSegmentDTO segment);
+    CustomerSegmentDTO updateSegment(CustomerSegmentDTO segment);
+    void deleteSegment(Long segmentId);
+    Optional<CustomerSegmentDTO> findById(Long segmentId);
+    List<CustomerSegmentDTO> findAllSegments();
+
+    // Evaluation against the in-memory customer snapshot
+    SegmentResultDTO evaluate(SegmentFilterDTO filter, int limit);
+    SegmentResultDTO evaluateSegment(Long segmentId, int limit);
+    long countSegment(Long segmentId);
+    List<Long> findCustomerIds(SegmentFilterDTO filter);
+
+    // Consumers: exports and email campaigns
+    Page<CustomerDTO> findSegmentCustomers(Long segmentId, Pageable pageable);
+    List<String> findRecipientEmails(Long segmentId);
+}
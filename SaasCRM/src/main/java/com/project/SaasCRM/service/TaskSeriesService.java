@@ -0,0 +1,21 @@
+package com.project.SaasCRM.service;
+
+import com.project.SaasCRM.domain.dto.TaskSeriesDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+public interface TaskSeriesService {
+    TaskSeriesDTO createSeries(TaskSeriesDTO series);
+
+    TaskSeriesDTO updateSeries(TaskSeriesDTO series);
+
+    void deleteSeries(Long seriesId);
+
+    Optional<TaskSeriesDTO> findById(Long seriesId);
+
+    Page<TaskSeriesDTO> findAllSeries(Pageable pageable);
+
+    Page<TaskSeriesDTO> findSeriesByAssignee(Long userId, Pageable pageable);
+}
@@ -2,7 +2,11 @@ package com.project.SaasCRM.service;
 
 import com.project.SaasCRM.domain.TaskPriority;
 import com.project.SaasCRM.domain.TaskStatus;
+import com.project.SaasCRM.domain.dto.CursorPageDTO;
+import com.project.SaasCRM.domain.dto.TaskBatchRequestDTO;
+import com.project.SaasCRM.domain.dto.TaskBatchResultDTO;
 import com.project.SaasCRM.domain.dto.TaskDTO;
+import com.project.SaasCRM.domain.dto.TaskStatisticsDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -10,6 +14,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public interface TaskService {
     TaskDTO createTask(TaskDTO task);
@@ -40,12 +45,18 @@ public interface TaskService {
     
     TaskDTO assignTaskToUser(Long taskId, Long userId);
     
+    TaskDTO autoAssignTask(Long taskId, String role);
+    
     TaskDTO updateTaskStatus(Long taskId, TaskStatus newStatus);
     
     TaskDTO updateTaskPriority(Long taskId, TaskPriority newPriority);
     
     Map<TaskStatus, Long> getTaskCountsByStatus();
     
+    TaskStatisticsDTO getTaskStatistics();
+    
+    TaskStatisticsDTO getTaskStatistics(Long userId);
+    
     List<TaskDTO> findOverdueTasks();
     
     List<TaskDTO> findUpcomingTasks(int days);
@@ -63,4 +74,11 @@ public interface TaskService {
     Map<String, Long> getTaskCountsByDueDate(LocalDateTime startDate, LocalDateTime endDate);
     
     TaskDTO markTaskAsCompleted(Long taskId);
+    
+    CursorPageDTO<TaskDTO> findInbox(Long userId, Set<TaskStatus> statuses, Set<TaskPriority> priorities,
+                                     LocalDateTime dueFrom, LocalDateTime dueTo, String cursor, int limit);
+    
+    boolean sweepOverdueTasks();
+    
+    TaskBatchResultDTO executeBatch(TaskBatchRequestDTO request, String idempotencyKey);
 }
\ No newline at end of file
@@ -7,19 +7,27 @@ import com.project.SaasCRM.service.AuditLogService;
 import com.project.SaasCRM.mapper.AuditLogMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AuditLogServiceImpl implements AuditLogService {
+    private static final String BATCH_INSERT_SQL = "INSERT INTO audit_logs "
+            + "(activity, entity_type, entity_id, timestamp, system_activity) VALUES (?, ?, ?, ?, true)";
+
     private final AuditLogRepository auditLogRepository;
     private final AuditLogMapper auditLogMapper;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     @Transactional
@@ -57,6 +65,21 @@ public class AuditLogServiceImpl implements AuditLogService {
         auditLogRepository.save(log);
     }
 
+    @Override
+    @Transactional
+    public void logSystemActivities(String activity, String entityType, Collection<Long> entityIds) {
+        Assert.hasText(activity, "Activity cannot be empty");
+        Assert.hasText(entityType, "Entity type cannot be empty");
+        Assert.notNull(entityIds, "Entity IDs cannot be null");
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(entityIds.size());
+        for (Long entityId : entityIds) {
+            batch.add(new Object[]{activity, entityType, entityId, now});
+        }
+        jdbcTemplate.batchUpdate(BATCH_INSERT_SQL, batch);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<AuditLogDTO> getUserActivityLogs(Long userId, int limit) {
@@ -1,21 +1,32 @@
 package com.project.SaasCRM.service.impl;
 
+import com.project.SaasCRM.assignment.WorkloadAssignmentEngine;
 import com.project.SaasCRM.domain.CustomerStatus;
+import com.project.SaasCRM.domain.MembershipDimension;
 import com.project.SaasCRM.domain.entity.Customer;
 import com.project.SaasCRM.domain.entity.User;
+import com.project.SaasCRM.domain.dto.CursorPageDTO;
 import com.project.SaasCRM.domain.dto.CustomerDTO;
+import com.project.SaasCRM.domain.dto.TimelineEntryDTO;
 import com.project.SaasCRM.domain.dto.UserDTO;
+import com.project.SaasCRM.domain.event.ChangeType;
+import com.project.SaasCRM.domain.event.CustomerChangedEvent;
 import com.project.SaasCRM.exception.CustomerNotFoundException;
+import com.project.SaasCRM.health.CustomerHealthScoreJob;
+import com.project.SaasCRM.index.MembershipIndex;
 import com.project.SaasCRM.repository.CustomerRepository;
 import com.project.SaasCRM.repository.UserRepository;
 import com.project.SaasCRM.service.CustomerService;
 import com.project.SaasCRM.service.AuditLogService;
 import com.project.SaasCRM.mapper.CustomerMapper;
 import com.project.SaasCRM.mapper.UserMapper;
+import com.project.SaasCRM.timeline.CustomerTimelineReader;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,11 +42,19 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 
+    // Page used when the caller asks for at-risk customers unpaged
+    private static final int AT_RISK_DEFAULT_PAGE_SIZE = 50;
+
     private final CustomerRepository customerRepository;
     private final UserRepository userRepository;
     private final AuditLogService auditLogService;
     private final CustomerMapper customerMapper;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MembershipIndex membershipIndex;
+    private final CustomerHealthScoreJob healthScoreJob;
+    private final WorkloadAssignmentEngine assignmentEngine;
+    private final CustomerTimelineReader timelineReader;
 
     @Override
     @Transactional
@@ -48,9 +67,14 @@ public class CustomerServiceImpl implements CustomerService {
         if (customer.getStatus() == null) {
             customer.setStatus(CustomerStatus.NEW);
         }
+        if (customer.getAssignedUsers().isEmpty() && assignmentEngine.isAutoAssignNewCustomers()) {
+            assignmentEngine.pickUserForCustomer(null).flatMap(userRepository::findById)
+                    .ifPresent(customer.getAssignedUsers()::add);
+        }
 
         Customer savedCustomer = customerRepository.save(customer);
         auditLogService.logSystemActivity("CUSTOMER_CREATED", "CUSTOMER", savedCustomer.getId());
+        eventPublisher.publishEvent(new CustomerChangedEvent(savedCustomer.getId(), ChangeType.CREATED));
         return customerMapper.toDto(savedCustomer);
     }
 
@@ -66,8 +90,11 @@ public class CustomerServiceImpl implements CustomerService {
         }
 
         Customer customer = customerMapper.toEntity(customerDTO);
+        customer.setHealthScore(existingCustomer.getHealthScore());
+        customer.setHealthScoreUpdatedAt(existingCustomer.getHealthScoreUpdatedAt());
         Customer updatedCustomer = customerRepository.save(customer);
         auditLogService.logSystemActivity("CUSTOMER_UPDATED", "CUSTOMER", updatedCustomer.getId());
+        eventPublisher.publishEvent(new CustomerChangedEvent(updatedCustomer.getId(), ChangeType.UPDATED));
         return customerMapper.toDto(updatedCustomer);
     }
 
@@ -110,9 +137,18 @@ public class CustomerServiceImpl implements CustomerService {
         customer.getAssignedUsers().add(user);
         Customer updatedCustomer = customerRepository.save(customer);
         auditLogService.logUserActivity(userId, "USER_ASSIGNED_TO_CUSTOMER", "CUSTOMER", customerId);
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId, ChangeType.UPDATED));
         return customerMapper.toDto(updatedCustomer);
     }
 
+    @Override
+    @Transactional
+    public CustomerDTO autoAssignCustomer(Long customerId, String role) {
+        Long userId = assignmentEngine.pickUserForCustomer(role)
+                .orElseThrow(() -> new IllegalArgumentException("No eligible user to assign"));
+        return assignUserToCustomer(customerId, userId);
+    }
+
     @Override
     @Transactional
     public CustomerDTO removeUserFromCustomer(Long customerId, Long userId) {
@@ -125,6 +161,7 @@ public class CustomerServiceImpl implements CustomerService {
         customer.getAssignedUsers().remove(user);
         Customer updatedCustomer = customerRepository.save(customer);
         auditLogService.logUserActivity(userId, "USER_REMOVED_FROM_CUSTOMER", "CUSTOMER", customerId);
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId, ChangeType.UPDATED));
         return customerMapper.toDto(updatedCustomer);
     }
 
@@ -137,6 +174,7 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setStatus(newStatus);
         Customer updatedCustomer = customerRepository.save(customer);
         auditLogService.logSystemActivity("CUSTOMER_STATUS_UPDATED", "CUSTOMER", customerId);
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId, ChangeType.UPDATED));
         return customerMapper.toDto(updatedCustomer);
     }
 
@@ -148,6 +186,7 @@ public class CustomerServiceImpl implements CustomerService {
         
         customer.setLastContact(LocalDateTime.now());
         customerRepository.save(customer);
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId, ChangeType.UPDATED));
     }
 
     @Override
@@ -193,14 +232,23 @@ public class CustomerServiceImpl implements CustomerService {
                 .orElseThrow(() -> new CustomerNotFoundException("Customer not found"));
         customerRepository.delete(customer);
         auditLogService.logSystemActivity("CUSTOMER_DELETED", "CUSTOMER", customerId);
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId, ChangeType.DELETED));
     }
 
     @Override
     @Transactional
     public CustomerDTO saveCustomer(CustomerDTO customerDTO) {
         Customer customer = customerMapper.toEntity(customerDTO);
+        if (customerDTO.getId() != null) {
+            // The mapper leaves out the batch-computed score, keep the stored one
+            customerRepository.findById(customerDTO.getId()).ifPresent(existing -> {
+                customer.setHealthScore(existing.getHealthScore());
+                customer.setHealthScoreUpdatedAt(existing.getHealthScoreUpdatedAt());
+            });
+        }
         Customer savedCustomer = customerRepository.save(customer);
         auditLogService.logSystemActivity("CUSTOMER_SAVED", "CUSTOMER", savedCustomer.getId());
+        eventPublisher.publishEvent(new CustomerChangedEvent(savedCustomer.getId(), ChangeType.UPDATED));
         return customerMapper.toDto(savedCustomer);
     }
 
@@ -221,6 +269,13 @@ public class CustomerServiceImpl implements CustomerService {
     @Transactional(readOnly = true)
     public Map<CustomerStatus, Long> getCustomerStatusCounts() {
         Map<CustomerStatus, Long> statusCounts = new EnumMap<>(CustomerStatus.class);
+        if (membershipIndex.isReady()) {
+            Map<String, Long> indexed = membershipIndex.countByValue(MembershipDimension.CUSTOMER_STATUS);
+            for (CustomerStatus status : CustomerStatus.values()) {
+                statusCounts.put(status, indexed.getOrDefault(status.name(), 0L));
+            }
+            return statusCounts;
+        }
         for (CustomerStatus status : CustomerStatus.values()) {
             statusCounts.put(status, customerRepository.countByStatus(status));
         }
@@ -245,4 +300,29 @@ public class CustomerServiceImpl implements CustomerService {
         return customerRepository.findByAssignedUsers_Id(userId, pageable)
                 .map(customerMapper::toDto);
     }
-} 
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<CustomerDTO> findAtRiskCustomers(int maxHealthScore, Pageable pageable) {
+        Sort sort = Sort.by(Sort.Direction.ASC, "healthScore").and(Sort.by("id"));
+        Pageable byScore = pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                : PageRequest.of(0, AT_RISK_DEFAULT_PAGE_SIZE, sort);
+        return customerRepository.findByHealthScoreLessThanEqual(maxHealthScore, byScore)
+                .map(customerMapper::toDto);
+    }
+
+    @Override
+    public boolean recomputeHealthScores() {
+        return healthScoreJob.triggerAsync();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TimelineEntryDTO> getTimeline(Long customerId, String cursor, int limit) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new CustomerNotFoundException("Customer not found");
+        }
+        return timelineReader.read(customerId, cursor, limit);
+    }
+}
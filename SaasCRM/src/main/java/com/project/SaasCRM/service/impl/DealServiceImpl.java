@@ -1,11 +1,15 @@
 package com.project.SaasCRM.service.impl;
 
 import com.project.SaasCRM.domain.DealStage;
+import com.project.SaasCRM.domain.MembershipDimension;
 import com.project.SaasCRM.domain.entity.Deal;
 import com.project.SaasCRM.domain.entity.User;
 import com.project.SaasCRM.domain.dto.DealDTO;
 import com.project.SaasCRM.domain.dto.UserDTO;
+import com.project.SaasCRM.domain.event.ChangeType;
+import com.project.SaasCRM.domain.event.DealChangedEvent;
 import com.project.SaasCRM.exception.DealNotFoundException;
+import com.project.SaasCRM.index.MembershipIndex;
 import com.project.SaasCRM.repository.DealRepository;
 import com.project.SaasCRM.repository.UserRepository;
 import com.project.SaasCRM.service.DealService;
@@ -14,6 +18,7 @@ import com.project.SaasCRM.mapper.DealMapper;
 import com.project.SaasCRM.mapper.UserMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
@@ -37,6 +42,8 @@ public class DealServiceImpl implements DealService {
     private final AuditLogService auditLogService;
     private final DealMapper dealMapper;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MembershipIndex membershipIndex;
 
     @Override
     @Transactional
@@ -51,6 +58,7 @@ public class DealServiceImpl implements DealService {
 
             Deal savedDeal = dealRepository.save(deal);
             auditLogService.logSystemActivity("DEAL_CREATED", "DEAL", savedDeal.getId());
+            publishDealChanged(savedDeal, ChangeType.CREATED);
             return dealMapper.toDto(savedDeal);
         } catch (Exception e) {
             log.error("Error creating deal", e);
@@ -70,6 +78,8 @@ public class DealServiceImpl implements DealService {
             Deal deal = dealMapper.toEntity(dealDTO);
             Deal updatedDeal = dealRepository.save(deal);
             auditLogService.logSystemActivity("DEAL_UPDATED", "DEAL", updatedDeal.getId());
+            publishDealChanged(existingDeal, ChangeType.UPDATED);
+            publishDealChanged(updatedDeal, ChangeType.UPDATED);
             return dealMapper.toDto(updatedDeal);
         } catch (Exception e) {
             log.error("Error updating deal", e);
@@ -141,6 +151,7 @@ public class DealServiceImpl implements DealService {
             deal.getAssignedUsers().add(user);
             Deal updatedDeal = dealRepository.save(deal);
             auditLogService.logUserActivity(userId, "USER_ASSIGNED_TO_DEAL", "DEAL", dealId);
+            publishDealChanged(updatedDeal, ChangeType.UPDATED);
             return dealMapper.toDto(updatedDeal);
         } catch (Exception e) {
             log.error("Error assigning user to deal", e);
@@ -162,6 +173,7 @@ public class DealServiceImpl implements DealService {
             deal.getAssignedUsers().remove(user);
             Deal updatedDeal = dealRepository.save(deal);
             auditLogService.logUserActivity(userId, "USER_REMOVED_FROM_DEAL", "DEAL", dealId);
+            publishDealChanged(updatedDeal, ChangeType.UPDATED);
             return dealMapper.toDto(updatedDeal);
         } catch (Exception e) {
             log.error("Error removing user from deal", e);
@@ -184,6 +196,7 @@ public class DealServiceImpl implements DealService {
 
             Deal updatedDeal = dealRepository.save(deal);
             auditLogService.logSystemActivity("DEAL_STAGE_UPDATED", "DEAL", dealId);
+            publishDealChanged(updatedDeal, ChangeType.UPDATED);
             return dealMapper.toDto(updatedDeal);
         } catch (Exception e) {
             log.error("Error updating deal stage", e);
@@ -197,6 +210,13 @@ public class DealServiceImpl implements DealService {
     public Map<DealStage, Long> getDealCountsByStage() {
         try {
             Map<DealStage, Long> countsByStage = new EnumMap<>(DealStage.class);
+            if (membershipIndex.isReady()) {
+                Map<String, Long> indexed = membershipIndex.countByValue(MembershipDimension.DEAL_STAGE);
+                for (DealStage stage : DealStage.values()) {
+                    countsByStage.put(stage, indexed.getOrDefault(stage.name(), 0L));
+                }
+                return countsByStage;
+            }
             for (DealStage stage : DealStage.values()) {
                 countsByStage.put(stage, dealRepository.countByStage(stage));
             }
@@ -251,6 +271,7 @@ public class DealServiceImpl implements DealService {
         deal.setActualCloseDate(closeDate);
         Deal updatedDeal = dealRepository.save(deal);
         auditLogService.logSystemActivity("DEAL_CLOSED_WON", "DEAL", dealId);
+        publishDealChanged(updatedDeal, ChangeType.UPDATED);
         return dealMapper.toDto(updatedDeal);
     }
 
@@ -265,6 +286,7 @@ public class DealServiceImpl implements DealService {
         // deal.setLostReason(reason);
         Deal updatedDeal = dealRepository.save(deal);
         auditLogService.logSystemActivity("DEAL_CLOSED_LOST", "DEAL", dealId);
+        publishDealChanged(updatedDeal, ChangeType.UPDATED);
         return dealMapper.toDto(updatedDeal);
     }
 
@@ -319,6 +341,7 @@ public class DealServiceImpl implements DealService {
         Deal deal = dealMapper.toEntity(dealDTO);
         Deal savedDeal = dealRepository.save(deal);
         auditLogService.logSystemActivity("DEAL_SAVED", "DEAL", savedDeal.getId());
+        publishDealChanged(savedDeal, ChangeType.UPDATED);
         return dealMapper.toDto(savedDeal);
     }
 
@@ -354,6 +377,12 @@ public class DealServiceImpl implements DealService {
                 .orElseThrow(() -> new DealNotFoundException("Deal not found"));
         dealRepository.delete(deal);
         auditLogService.logSystemActivity("DEAL_DELETED", "DEAL", dealId);
+        publishDealChanged(deal, ChangeType.DELETED);
+    }
+
+    private void publishDealChanged(Deal deal, ChangeType changeType) {
+        Long customerId = deal.getCustomer() != null ? deal.getCustomer().getId() : null;
+        eventPublisher.publishEvent(new DealChangedEvent(deal.getId(), customerId, changeType));
     }
 
     @Override
@@ -1,10 +1,20 @@
 package com.project.SaasCRM.service.impl;
 
+import com.project.SaasCRM.archive.ArchiveReader;
+import com.project.SaasCRM.archive.ColdStorageArchiver;
+import com.project.SaasCRM.domain.ArchiveSource;
+import com.project.SaasCRM.domain.EmailEventType;
 import com.project.SaasCRM.domain.SendStatus;
 import com.project.SaasCRM.domain.entity.EmailCommunication;
 import com.project.SaasCRM.domain.entity.Customer;
 import com.project.SaasCRM.domain.entity.User;
 import com.project.SaasCRM.domain.entity.EmailTemplate;
+import com.project.SaasCRM.email.CompiledEmailTemplate;
+import com.project.SaasCRM.email.EmailStatistics;
+import com.project.SaasCRM.email.EmailStatsRollupBackfill;
+import com.project.SaasCRM.email.EmailTemplateCache;
+import com.project.SaasCRM.email.EmailTrackingBuffer;
+import com.project.SaasCRM.email.ScheduledEmailClaimer;
 import com.project.SaasCRM.domain.dto.EmailCommunicationDTO;
 import com.project.SaasCRM.exception.ResourceNotFoundException;
 import com.project.SaasCRM.repository.EmailCommunicationRepository;
@@ -21,9 +31,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,6 +47,12 @@ public class EmailCommunicationServiceImpl implements EmailCommunicationService
     private final EmailTemplateRepository emailTemplateRepository;
     private final AuditLogService auditLogService;
     private final EmailCommunicationMapper emailCommunicationMapper;
+    private final ArchiveReader archiveReader;
+    private final EmailTemplateCache emailTemplateCache;
+    private final EmailTrackingBuffer emailTrackingBuffer;
+    private final EmailStatistics emailStatistics;
+    private final EmailStatsRollupBackfill emailStatsRollupBackfill;
+    private final ScheduledEmailClaimer scheduledEmailClaimer;
 
     @Override
     @Transactional
@@ -70,7 +88,8 @@ public class EmailCommunicationServiceImpl implements EmailCommunicationService
     @Transactional(readOnly = true)
     public Optional<EmailCommunicationDTO> findById(Long emailId) {
         return emailCommunicationRepository.findById(emailId)
-                .map(emailCommunicationMapper::toDto);
+                .map(emailCommunicationMapper::toDto)
+                .or(() -> archiveReader.findEmail(emailId));
     }
 
     @Override
@@ -92,6 +111,12 @@ public class EmailCommunicationServiceImpl implements EmailCommunicationService
         return emailCommunicationMapper.toDtoList(emailCommunicationRepository.findByCustomerId(customerId));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmailCommunicationDTO> findArchivedEmailsByCustomer(Long customerId) {
+        return archiveReader.findEmailsByCustomer(customerId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<EmailCommunicationDTO> findEmailsBySentBy(Long userId) {
@@ -150,47 +175,26 @@ public class EmailCommunicationServiceImpl implements EmailCommunicationService
     }
 
     @Override
-    @Transactional
     public void processScheduledEmails() {
-        LocalDateTime now = LocalDateTime.now();
-        List<EmailCommunication> scheduledEmails = emailCommunicationRepository
-                .findByStatusAndScheduledTimeLessThanEqual(SendStatus.SCHEDULED, now);
-        
-        for (EmailCommunication email : scheduledEmails) {
-            try {
-                // Send email logic here
-                email.setSendStatus(SendStatus.SENT);
-                email.setSentAt(now);
-                emailCommunicationRepository.save(email);
-            } catch (Exception e) {
-                email.setSendStatus(SendStatus.FAILED);
-                emailCommunicationRepository.save(email);
-                throw new RuntimeException("Failed to send scheduled email", e);
-            }
-        }
+        scheduledEmailClaimer.claimDue();
     }
 
     @Override
     @Transactional
     public void markEmailAsOpened(Long emailId) {
-        EmailCommunication email = emailCommunicationRepository.findById(emailId)
-                .orElseThrow(() -> new ResourceNotFoundException("Email not found with id: " + emailId));
-        
-        email.setIsOpened(true);
-        email.setOpenedAt(LocalDateTime.now());
-        emailCommunicationRepository.save(email);
-        auditLogService.logSystemActivity("EMAIL_OPENED", "EMAIL", emailId);
+        if (!emailCommunicationRepository.existsById(emailId)) {
+            throw new ResourceNotFoundException("Email not found with id: " + emailId);
+        }
+        emailTrackingBuffer.recordOpen(emailId);
     }
 
     @Override
     @Transactional
     public void incrementEmailClickCount(Long emailId) {
-        EmailCommunication email = emailCommunicationRepository.findById(emailId)
-                .orElseThrow(() -> new ResourceNotFoundException("Email not found with id: " + emailId));
-        
-        email.setClickCount(email.getClickCount() + 1);
-        emailCommunicationRepository.save(email);
-        auditLogService.logSystemActivity("EMAIL_CLICKED", "EMAIL", emailId);
+        if (!emailCommunicationRepository.existsById(emailId)) {
+            throw new ResourceNotFoundException("Email not found with id: " + emailId);
+        }
+        emailTrackingBuffer.recordClick(emailId, null);
     }
 
     @Override
@@ -202,10 +206,18 @@ public class EmailCommunicationServiceImpl implements EmailCommunicationService
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
         
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("customerId", customer.getId());
+        variables.put("customerName", customer.getName());
+        variables.put("customerEmail", customer.getEmail());
+        CompiledEmailTemplate compiled = emailTemplateCache.get(template);
+
         EmailCommunication emailCommunication = new EmailCommunication();
         emailCommunication.setEmailTemplate(template);
         emailCommunication.setCustomer(customer);
-        emailCommunication.setSubject(subject);
+        emailCommunication.setRecipientEmail(customer.getEmail());
+        emailCommunication.setSubject(subject != null ? subject : compiled.renderSubject(variables));
+        emailCommunication.setContent(compiled.renderContent(variables));
         emailCommunication.setSendStatus(SendStatus.DRAFT);
         
         EmailCommunication savedEmail = emailCommunicationRepository.save(emailCommunication);
@@ -216,58 +228,48 @@ public class EmailCommunicationServiceImpl implements EmailCommunicationService
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> getEmailCountsByDate(LocalDateTime startDate, LocalDateTime endDate) {
-        return emailCommunicationRepository.findBySentAtBetween(startDate, endDate)
-                .stream()
-                .collect(Collectors.groupingBy(
-                    email -> email.getSentAt().toLocalDate().toString(),
-                    Collectors.counting()
-                ));
+        Map<String, Long> counts = new TreeMap<>();
+        emailStatistics.byDay(startDate.toLocalDate(), endDate.toLocalDate()).forEach((day, byType) -> {
+            EmailStatistics.Counts sent = byType.get(EmailEventType.SENT);
+            if (sent != null && sent.events() > 0) {
+                counts.put(day.toString(), sent.events());
+            }
+        });
+        return counts;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<SendStatus, Long> getEmailStatusCounts() {
-        return emailCommunicationRepository.findAll()
+        Map<SendStatus, Long> counts = emailCommunicationRepository.findAll()
                 .stream()
                 .collect(Collectors.groupingBy(
                     EmailCommunication::getSendStatus,
                     Collectors.counting()
                 ));
+        archiveReader.countsByMetric(ArchiveSource.EMAIL_COMMUNICATION, null, null).forEach((metric, count) -> {
+            if (metric.startsWith(ColdStorageArchiver.STATUS_METRIC_PREFIX)) {
+                counts.merge(SendStatus.valueOf(metric.substring(ColdStorageArchiver.STATUS_METRIC_PREFIX.length())),
+                        count, Long::sum);
+            }
+        });
+        return counts;
     }
 
     @Override
     @Transactional(readOnly = true)
     public double calculateEmailOpenRate(LocalDateTime startDate, LocalDateTime endDate) {
-        List<EmailCommunication> emails = emailCommunicationRepository
-                .findBySentAtBetween(startDate, endDate);
-        
-        if (emails.isEmpty()) {
-            return 0.0;
-        }
-        
-        long totalEmails = emails.size();
-        long openedEmails = emails.stream()
-                .filter(email -> email.getIsOpened())
-                .count();
-        
-        return (double) openedEmails / totalEmails * 100;
+        return emailStatistics.rate(startDate.toLocalDate(), endDate.toLocalDate(), EmailEventType.OPENED);
     }
 
     @Override
     @Transactional(readOnly = true)
     public double calculateEmailClickRate(LocalDateTime startDate, LocalDateTime endDate) {
-        List<EmailCommunication> emails = emailCommunicationRepository
-                .findBySentAtBetween(startDate, endDate);
-        
-        if (emails.isEmpty()) {
-            return 0.0;
-        }
-        
-        long totalEmails = emails.size();
-        long clickedEmails = emails.stream()
-                .filter(email -> email.getClickCount() > 0)
-                .count();
-        
-        return (double) clickedEmails / totalEmails * 100;
+        return emailStatistics.rate(startDate.toLocalDate(), endDate.toLocalDate(), EmailEventType.CLICKED);
+    }
+
+    @Override
+    public boolean rebuildEmailStats() {
+        return emailStatsRollupBackfill.triggerAsync();
     }
-} 
\ No newline at end of file
+}
@@ -2,36 +2,40 @@ package com.project.SaasCRM.service.impl;
 
 import com.project.SaasCRM.domain.EmailEventType;
 import com.project.SaasCRM.domain.SendStatus;
-import com.project.SaasCRM.domain.entity.EmailEvent;
 import com.project.SaasCRM.domain.entity.EmailCommunication;
+import com.project.SaasCRM.domain.dto.BulkEmailJobDTO;
+import com.project.SaasCRM.domain.dto.BulkEmailRequestDTO;
 import com.project.SaasCRM.domain.dto.EmailDTO;
 import com.project.SaasCRM.domain.dto.EmailStatsDTO;
-import com.project.SaasCRM.repository.EmailEventRepository;
+import com.project.SaasCRM.domain.dto.MailMergeRequestDTO;
+import com.project.SaasCRM.email.BulkEmailJobRunner;
+import com.project.SaasCRM.email.CompiledEmailTemplate;
+import com.project.SaasCRM.email.EmailStatistics;
+import com.project.SaasCRM.email.EmailTrackingBuffer;
+import com.project.SaasCRM.email.EmailTrackingTokens;
+import com.project.SaasCRM.email.OutboundEmailQueue;
 import com.project.SaasCRM.repository.EmailCommunicationRepository;
 import com.project.SaasCRM.service.EmailService;
+import com.project.SaasCRM.service.EmailTemplateService;
 import com.project.SaasCRM.service.EmailValidationService;
 import com.project.SaasCRM.service.AuditLogService;
 import com.project.SaasCRM.mapper.EmailMapper;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
 import java.io.File;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -39,14 +43,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender emailSender;
     private final TemplateEngine templateEngine;
-    private final TaskScheduler taskScheduler;
     private final AuditLogService auditLogService;
-    private final EmailEventRepository emailEventRepository;
     private final EmailCommunicationRepository emailCommunicationRepository;
     private final EmailValidationService emailValidationService;
     private final EmailMapper emailMapper;
+    private final OutboundEmailQueue outboundEmailQueue;
+    private final BulkEmailJobRunner bulkEmailJobRunner;
+    private final EmailTrackingBuffer emailTrackingBuffer;
+    private final EmailTrackingTokens emailTrackingTokens;
+    private final EmailStatistics emailStatistics;
+    private final EmailTemplateService emailTemplateService;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -54,93 +61,30 @@ public class EmailServiceImpl implements EmailService {
     @Value("${app.email.templates.path}")
     private String templatesPath;
 
+    @Value("${app.email.bulk.max-recipients:50000}")
+    private int maxBulkRecipients;
+
     @Override
     @Transactional
     public EmailDTO sendEmail(String to, String subject, String content) {
         validateAndCheckRateLimit(to);
-        
-        EmailCommunication email = EmailCommunication.builder()
-            .subject(subject)
-            .content(content)
-            .senderEmail(fromEmail)
-            .recipientEmail(to)
-            .sentAt(LocalDateTime.now())
-            .isOpened(false)
-            .clickCount(0)
-            .createdAt(LocalDateTime.now())
-            .sendStatus(SendStatus.SENT)
-            .build();
-        
-        try {
-            MimeMessage message = emailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(content, true);
-            
-            emailSender.send(message);
-            emailValidationService.recordEmailSent(fromEmail);
-            createEmailEvent(email.getId().toString(), to, subject, EmailEventType.SENT, null);
-            auditLogService.logSystemActivity("EMAIL_SENT", "EMAIL", null);
-            
-            email = emailCommunicationRepository.save(email);
-            return emailMapper.toDto(email);
-        } catch (MessagingException e) {
-            createEmailEvent(email.getId().toString(), to, subject, EmailEventType.FAILED, e.getMessage());
-            auditLogService.logSystemActivity("EMAIL_SEND_FAILED", "EMAIL", null);
-            
-            email.setSendStatus(SendStatus.FAILED);
-            email = emailCommunicationRepository.save(email);
-            return emailMapper.toDto(email);
-        }
+
+        EmailCommunication email = emailCommunicationRepository.save(newPendingEmail(to, subject, content));
+        outboundEmailQueue.enqueue(email, null);
+        return emailMapper.toDto(email);
     }
 
     @Override
     @Transactional
     public EmailDTO sendEmailWithAttachment(String to, String subject, String content, String attachmentPath) {
         validateAndCheckRateLimit(to);
-        
-        EmailCommunication email = EmailCommunication.builder()
-            .subject(subject)
-            .content(content)
-            .senderEmail(fromEmail)
-            .recipientEmail(to)
-            .sentAt(LocalDateTime.now())
-            .isOpened(false)
-            .clickCount(0)
-            .createdAt(LocalDateTime.now())
-            .sendStatus(SendStatus.SENT)
-            .build();
-        
-        try {
-            MimeMessage message = emailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(content, true);
-            
-            FileSystemResource file = new FileSystemResource(new File(attachmentPath));
-            helper.addAttachment(file.getFilename(), file);
-            
-            emailSender.send(message);
-            emailValidationService.recordEmailSent(fromEmail);
-            createEmailEvent(email.getId().toString(), to, subject, EmailEventType.SENT, "Attachment: " + file.getFilename());
-            auditLogService.logSystemActivity("EMAIL_WITH_ATTACHMENT_SENT", "EMAIL", null);
-            
-            email = emailCommunicationRepository.save(email);
-            return emailMapper.toDto(email);
-        } catch (MessagingException e) {
-            createEmailEvent(email.getId().toString(), to, subject, EmailEventType.FAILED, e.getMessage());
-            auditLogService.logSystemActivity("EMAIL_SEND_FAILED", "EMAIL", null);
-            
-            email.setSendStatus(SendStatus.FAILED);
-            email = emailCommunicationRepository.save(email);
-            return emailMapper.toDto(email);
+        if (attachmentPath == null || !new File(attachmentPath).isFile()) {
+            throw new IllegalArgumentException("Attachment not found: " + attachmentPath);
         }
+
+        EmailCommunication email = emailCommunicationRepository.save(newPendingEmail(to, subject, content));
+        outboundEmailQueue.enqueue(email, attachmentPath);
+        return emailMapper.toDto(email);
     }
 
     @Override
@@ -155,29 +99,89 @@ public class EmailServiceImpl implements EmailService {
     @Override
     @Transactional
     public List<EmailDTO> sendBulkEmail(List<String> recipients, String subject, String content) {
-        return recipients.stream()
-            .map(recipient -> {
-                try {
-                    validateAndCheckRateLimit(recipient);
-                    return sendEmail(recipient, subject, content);
-                } catch (RuntimeException e) {
-                    auditLogService.logSystemActivity("BULK_EMAIL_RECIPIENT_FAILED", "EMAIL", null);
-                    return null;
-                }
-            })
-            .filter(email -> email != null)
+        List<EmailCommunication> emails = new ArrayList<>(recipients.size());
+        for (String recipient : recipients) {
+            try {
+                validateAndCheckRateLimit(recipient);
+                emails.add(newPendingEmail(recipient, subject, content));
+            } catch (RuntimeException e) {
+                auditLogService.logSystemActivity("BULK_EMAIL_RECIPIENT_FAILED", "EMAIL", null);
+            }
+        }
+        emails = emailCommunicationRepository.saveAll(emails);
+        outboundEmailQueue.enqueueAll(emails);
+        return emails.stream()
+            .map(emailMapper::toDto)
             .collect(Collectors.toList());
     }
 
     @Override
     public List<EmailDTO> sendBulkTemplatedEmail(List<String> recipients, String templateName, Map<String, Object> templateVariables) {
-        return recipients.stream()
-            .map(recipient -> sendTemplatedEmail(recipient, templateName, templateVariables))
-            .collect(Collectors.toList());
+        // The variables are the same for every recipient, so the template is rendered once
+        return sendBulkEmail(recipients, (String) templateVariables.get("subject"),
+            renderTemplate(templateName, templateVariables));
+    }
+
+    @Override
+    public BulkEmailJobDTO startBulkEmailJob(BulkEmailRequestDTO request) {
+        if (request.getRecipients() == null || request.getRecipients().isEmpty()) {
+            throw new IllegalArgumentException("At least one recipient is required");
+        }
+        if (request.getRecipients().size() > maxBulkRecipients) {
+            throw new IllegalArgumentException("At most " + maxBulkRecipients + " recipients are allowed per bulk email");
+        }
+        String subject = request.getSubject();
+        String content = request.getContent();
+        if (StringUtils.hasText(request.getTemplateName())) {
+            Map<String, Object> variables = request.getTemplateVariables() != null
+                ? request.getTemplateVariables() : new HashMap<>();
+            content = renderTemplate(request.getTemplateName(), variables);
+            if (!StringUtils.hasText(subject)) {
+                subject = (String) variables.get("subject");
+            }
+        }
+        if (!StringUtils.hasText(subject) || !StringUtils.hasText(content)) {
+            throw new IllegalArgumentException("Subject and content, or a template, are required");
+        }
+        return bulkEmailJobRunner.start(request.getRecipients(), subject, content);
+    }
+
+    @Override
+    public BulkEmailJobDTO startMailMergeJob(MailMergeRequestDTO request) {
+        if (request.getTemplateId() == null) {
+            throw new IllegalArgumentException("A template is required");
+        }
+        if (request.getCustomerIds() == null || request.getCustomerIds().isEmpty()) {
+            throw new IllegalArgumentException("At least one customer is required");
+        }
+        if (request.getCustomerIds().size() > maxBulkRecipients) {
+            throw new IllegalArgumentException("At most " + maxBulkRecipients + " recipients are allowed per bulk email");
+        }
+        CompiledEmailTemplate template = emailTemplateService.compileTemplate(request.getTemplateId());
+        String subject = StringUtils.hasText(request.getSubject()) ? request.getSubject() : null;
+        emailTemplateService.recordTemplateUsage(template.getId());
+        return bulkEmailJobRunner.startMerge(template, request.getCustomerIds(), subject, request.getTemplateVariables());
+    }
+
+    @Override
+    public Optional<BulkEmailJobDTO> findBulkEmailJob(String jobId) {
+        return bulkEmailJobRunner.find(jobId);
+    }
+
+    @Override
+    public Optional<BulkEmailJobDTO> cancelBulkEmailJob(String jobId) {
+        return bulkEmailJobRunner.cancel(jobId);
     }
 
     @Override
     public EmailDTO scheduleEmail(String to, String subject, String content, LocalDateTime scheduledTime) {
+        if (!emailValidationService.isValidEmail(to)) {
+            throw new IllegalArgumentException("Invalid email address: " + to);
+        }
+        if (scheduledTime == null) {
+            throw new IllegalArgumentException("Scheduled time is required");
+        }
+
         EmailCommunication email = EmailCommunication.builder()
             .subject(subject)
             .content(content)
@@ -190,14 +194,9 @@ public class EmailServiceImpl implements EmailService {
             .sendStatus(SendStatus.SCHEDULED)
             .build();
         
+        // Picked up by ScheduledEmailClaimer once due
         email = emailCommunicationRepository.save(email);
-        
-        Date scheduledDate = Date.from(scheduledTime.atZone(ZoneId.systemDefault()).toInstant());
-        taskScheduler.schedule(
-            () -> sendEmail(to, subject, content),
-            scheduledDate
-        );
-        auditLogService.logSystemActivity("EMAIL_SCHEDULED", "EMAIL", null);
+        auditLogService.logSystemActivity("EMAIL_SCHEDULED", "EMAIL", email.getId());
         
         return emailMapper.toDto(email);
     }
@@ -212,75 +211,58 @@ public class EmailServiceImpl implements EmailService {
     }
 
     @Override
-    @Transactional
-    public void trackEmailOpen(String emailId) {
-        createEmailEvent(emailId, null, null, EmailEventType.OPENED, null);
-        auditLogService.logSystemActivity("EMAIL_OPENED", "EMAIL", null);
-        
-        EmailCommunication email = emailCommunicationRepository.findById(Long.parseLong(emailId))
-            .orElseThrow(() -> new RuntimeException("Email not found"));
-        email.setIsOpened(true);
-        email.setOpenedAt(LocalDateTime.now());
-        emailCommunicationRepository.save(email);
+    public void trackEmailOpen(String token) {
+        emailTrackingBuffer.recordOpen(emailTrackingTokens.verify(token));
     }
 
     @Override
-    @Transactional
-    public void trackEmailClick(String emailId, String linkId) {
-        createEmailEvent(emailId, null, null, EmailEventType.CLICKED, "Link: " + linkId);
-        auditLogService.logSystemActivity("EMAIL_LINK_CLICKED", "EMAIL", null);
-        
-        EmailCommunication email = emailCommunicationRepository.findById(Long.parseLong(emailId))
-            .orElseThrow(() -> new RuntimeException("Email not found"));
-        email.setClickCount(email.getClickCount() + 1);
-        emailCommunicationRepository.save(email);
+    public String trackEmailClick(String token, String linkId, String signature) {
+        long emailId = emailTrackingTokens.verify(token);
+        emailTrackingBuffer.recordClick(emailId, linkId);
+        return emailTrackingTokens.verifyLink(emailId, linkId, signature) ? linkId : null;
     }
 
     @Override
     @Transactional(readOnly = true)
     public EmailStatsDTO getEmailStats(LocalDateTime startDate, LocalDateTime endDate) {
         EmailStatsDTO stats = new EmailStatsDTO();
-        
-        List<Object[]> eventCounts = emailEventRepository.countByEventType(startDate, endDate);
+        LocalDate fromDay = startDate.toLocalDate();
+        LocalDate toDay = endDate.toLocalDate();
+
+        Map<EmailEventType, EmailStatistics.Counts> totals = emailStatistics.totals(fromDay, toDay);
         Map<String, Long> statusCounts = new HashMap<>();
-        for (Object[] result : eventCounts) {
-            EmailEventType type = (EmailEventType) result[0];
-            Long count = (Long) result[1];
-            statusCounts.put(type.name(), count);
-        }
+        totals.forEach((type, counts) -> statusCounts.put(type.name(), counts.events()));
         stats.setStatusCounts(statusCounts);
-        
-        List<Object[]> dailyStats = emailEventRepository.countByDateAndEventType(startDate, endDate);
+
         Map<LocalDateTime, Long> sentByDate = new HashMap<>();
         Map<LocalDateTime, Long> openedByDate = new HashMap<>();
         Map<LocalDateTime, Long> clickedByDate = new HashMap<>();
-        
-        for (Object[] result : dailyStats) {
-            LocalDateTime date = (LocalDateTime) result[0];
-            EmailEventType type = (EmailEventType) result[1];
-            Long count = (Long) result[2];
-            
-            switch (type) {
-                case SENT -> sentByDate.put(date, count);
-                case OPENED -> openedByDate.put(date, count);
-                case CLICKED -> clickedByDate.put(date, count);
-            }
-        }
-        
+        emailStatistics.byDay(fromDay, toDay).forEach((day, counts) -> {
+            LocalDateTime date = day.atStartOfDay();
+            counts.forEach((type, count) -> {
+                switch (type) {
+                    case SENT -> sentByDate.put(date, count.events());
+                    case OPENED -> openedByDate.put(date, count.events());
+                    case CLICKED -> clickedByDate.put(date, count.events());
+                    default -> { }
+                }
+            });
+        });
         stats.setSentByDate(sentByDate);
         stats.setOpenedByDate(openedByDate);
         stats.setClickedByDate(clickedByDate);
-        
-        long totalSent = sentByDate.values().stream().mapToLong(Long::longValue).sum();
-        long totalOpened = openedByDate.values().stream().mapToLong(Long::longValue).sum();
-        long totalClicked = clickedByDate.values().stream().mapToLong(Long::longValue).sum();
-        
-        stats.setTotalSent(totalSent);
-        stats.setTotalOpened(totalOpened);
-        stats.setTotalClicked(totalClicked);
-        stats.setOpenRate(totalSent > 0 ? (double) totalOpened / totalSent : 0.0);
-        stats.setClickRate(totalSent > 0 ? (double) totalClicked / totalSent : 0.0);
-        
+
+        EmailStatistics.Counts sent = totals.getOrDefault(EmailEventType.SENT, EmailStatistics.Counts.NONE);
+        EmailStatistics.Counts opened = totals.getOrDefault(EmailEventType.OPENED, EmailStatistics.Counts.NONE);
+        EmailStatistics.Counts clicked = totals.getOrDefault(EmailEventType.CLICKED, EmailStatistics.Counts.NONE);
+        stats.setTotalSent(sent.events());
+        stats.setTotalOpened(opened.events());
+        stats.setTotalClicked(clicked.events());
+        stats.setOpenRate(sent.uniqueRecipients() > 0
+                ? (double) opened.uniqueRecipients() / sent.uniqueRecipients() : 0.0);
+        stats.setClickRate(sent.uniqueRecipients() > 0
+                ? (double) clicked.uniqueRecipients() / sent.uniqueRecipients() : 0.0);
+
         return stats;
     }
 
@@ -334,14 +316,23 @@ public class EmailServiceImpl implements EmailService {
         return sendTemplatedEmail(to, "meeting-reminder", templateVariables);
     }
 
-    private void createEmailEvent(String emailId, String recipient, String subject, EmailEventType eventType, String metadata) {
-        EmailEvent event = new EmailEvent();
-        event.setEmailId(emailId);
-        event.setRecipient(recipient);
-        event.setSubject(subject);
-        event.setEventType(eventType);
-        event.setMetadata(metadata);
-        emailEventRepository.save(event);
+    private String renderTemplate(String templateName, Map<String, Object> templateVariables) {
+        Context context = new Context();
+        context.setVariables(templateVariables);
+        return templateEngine.process(templateName, context);
+    }
+
+    private EmailCommunication newPendingEmail(String to, String subject, String content) {
+        return EmailCommunication.builder()
+            .subject(subject)
+            .content(content)
+            .senderEmail(fromEmail)
+            .recipientEmail(to)
+            .isOpened(false)
+            .clickCount(0)
+            .createdAt(LocalDateTime.now())
+            .sendStatus(SendStatus.PENDING)
+            .build();
     }
 
     private void validateAndCheckRateLimit(String to) {
@@ -2,6 +2,8 @@ package com.project.SaasCRM.service.impl;
 
 import com.project.SaasCRM.domain.entity.EmailTemplate;
 import com.project.SaasCRM.domain.dto.EmailTemplateDTO;
+import com.project.SaasCRM.email.CompiledEmailTemplate;
+import com.project.SaasCRM.email.EmailTemplateCache;
 import com.project.SaasCRM.repository.EmailTemplateRepository;
 import com.project.SaasCRM.service.EmailTemplateService;
 import com.project.SaasCRM.service.AuditLogService;
@@ -12,10 +14,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,7 +28,7 @@ import java.util.regex.Pattern;
 public class EmailTemplateServiceImpl implements EmailTemplateService {
 
     private final EmailTemplateRepository emailTemplateRepository;
-    private final TemplateEngine templateEngine;
+    private final EmailTemplateCache emailTemplateCache;
     private final EmailTemplateMapper emailTemplateMapper;
     private final AuditLogService auditLogService;
 
@@ -65,6 +66,7 @@ public class EmailTemplateServiceImpl implements EmailTemplateService {
         EmailTemplate template = emailTemplateRepository.findById(templateId)
                 .orElseThrow(() -> new ResourceNotFoundException("Template not found with id: " + templateId));
         emailTemplateRepository.delete(template);
+        emailTemplateCache.evict(templateId);
         auditLogService.logSystemActivity("TEMPLATE_DELETED", "EMAIL_TEMPLATE", templateId);
     }
 
@@ -111,15 +113,21 @@ public class EmailTemplateServiceImpl implements EmailTemplateService {
     public String processTemplate(String templateName, Map<String, Object> variables) {
         EmailTemplate template = emailTemplateRepository.findByName(templateName)
             .orElseThrow(() -> new ResourceNotFoundException("Template not found: " + templateName));
-            
-        validateTemplate(template.getContentTemplate(), variables.keySet().stream().toList());
-        
-        Context context = new Context();
-        context.setVariables(variables);
-        
+
+        CompiledEmailTemplate compiled = emailTemplateCache.get(template);
+        validateVariables(compiled, variables.keySet());
+
         recordTemplateUsage(template.getId());
-        
-        return templateEngine.process(templateName, context);
+
+        return compiled.renderContent(variables);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CompiledEmailTemplate compileTemplate(Long templateId) {
+        EmailTemplate template = emailTemplateRepository.findById(templateId)
+            .orElseThrow(() -> new ResourceNotFoundException("Template not found with id: " + templateId));
+        return emailTemplateCache.get(template);
     }
 
     @Override
@@ -204,13 +212,27 @@ public class EmailTemplateServiceImpl implements EmailTemplateService {
             "timestamp", LocalDateTime.now()
         );
         
-        validateTemplate(template.getContentTemplate(), variables.keySet().stream().toList());
-        
-        Context context = new Context();
-        context.setVariables(variables);
-        
+        CompiledEmailTemplate compiled = emailTemplateCache.get(template);
+        validateVariables(compiled, variables.keySet());
+
         recordTemplateUsage(template.getId());
-        
-        return templateEngine.process(template.getName(), context);
+
+        return compiled.renderContent(variables);
+    }
+
+    /**
+     * Same rules as {@link #validateTemplate} against the precomputed variables of a compiled template.
+     */
+    private void validateVariables(CompiledEmailTemplate compiled, Collection<String> provided) {
+        for (String variable : compiled.getContentVariables()) {
+            if (!provided.contains(variable)) {
+                throw new IllegalArgumentException("Template contains undefined variable: " + variable);
+            }
+        }
+        for (String variable : provided) {
+            if (!compiled.getContentVariables().contains(variable)) {
+                throw new IllegalArgumentException("Required variable not used in template: " + variable);
+            }
+        }
     }
-} 
\ No newline at end of file
+}
@@ -1,11 +1,19 @@
 package com.project.SaasCRM.service.impl;
 
+import com.project.SaasCRM.archive.ArchiveReader;
 import com.project.SaasCRM.domain.InteractionType;
 import com.project.SaasCRM.domain.entity.Interaction;
 import com.project.SaasCRM.domain.entity.User;
 import com.project.SaasCRM.domain.entity.Customer;
 import com.project.SaasCRM.domain.dto.InteractionDTO;
+import com.project.SaasCRM.domain.dto.InteractionIngestResultDTO;
+import com.project.SaasCRM.domain.event.ChangeType;
+import com.project.SaasCRM.domain.event.InteractionChangedEvent;
 import com.project.SaasCRM.exception.ResourceNotFoundException;
+import com.project.SaasCRM.ingest.IngestReferenceCache;
+import com.project.SaasCRM.ingest.InteractionIngestQueue;
+import com.project.SaasCRM.interaction.InteractionRollupBackfill;
+import com.project.SaasCRM.interaction.InteractionStatistics;
 import com.project.SaasCRM.repository.InteractionRepository;
 import com.project.SaasCRM.repository.UserRepository;
 import com.project.SaasCRM.repository.CustomerRepository;
@@ -14,6 +22,8 @@ import com.project.SaasCRM.service.AuditLogService;
 import com.project.SaasCRM.service.NotificationService;
 import com.project.SaasCRM.mapper.InteractionMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
@@ -22,12 +32,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.HashMap;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -39,6 +51,15 @@ public class InteractionServiceImpl implements InteractionService {
     private final InteractionMapper interactionMapper;
     private final AuditLogService auditLogService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InteractionStatistics interactionStatistics;
+    private final InteractionRollupBackfill interactionRollupBackfill;
+    private final ArchiveReader archiveReader;
+    private final InteractionIngestQueue interactionIngestQueue;
+    private final IngestReferenceCache ingestReferenceCache;
+
+    @Value("${app.ingest.max-batch-size:1000}")
+    private int maxIngestBatchSize;
 
     @Override
     @Transactional
@@ -56,7 +77,9 @@ public class InteractionServiceImpl implements InteractionService {
         interaction.setCustomer(customer);
 
         Interaction savedInteraction = interactionRepository.save(interaction);
+        interactionStatistics.recordCreated(InteractionStatistics.Facts.of(savedInteraction));
         auditLogService.logSystemActivity("INTERACTION_CREATED", "INTERACTION", savedInteraction.getId());
+        eventPublisher.publishEvent(new InteractionChangedEvent(savedInteraction.getId(), customer.getId(), ChangeType.CREATED));
 
         // Send notification to assigned users
         notificationService.sendInteractionNotification(
@@ -79,6 +102,9 @@ public class InteractionServiceImpl implements InteractionService {
 
         Interaction existingInteraction = interactionRepository.findById(interactionDTO.getId())
             .orElseThrow(() -> new ResourceNotFoundException("Interaction not found with id: " + interactionDTO.getId()));
+        // Captured before the save, which merges the new state into the managed instance
+        InteractionStatistics.Facts before = InteractionStatistics.Facts.of(existingInteraction);
+        Long previousCustomerId = existingInteraction.getCustomer().getId();
 
         User user = userRepository.findById(interactionDTO.getUserId())
             .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + interactionDTO.getUserId()));
@@ -92,7 +118,12 @@ public class InteractionServiceImpl implements InteractionService {
         interaction.setCreatedAt(existingInteraction.getCreatedAt());
 
         Interaction updatedInteraction = interactionRepository.save(interaction);
+        interactionStatistics.recordUpdated(before, InteractionStatistics.Facts.of(updatedInteraction));
         auditLogService.logSystemActivity("INTERACTION_UPDATED", "INTERACTION", updatedInteraction.getId());
+        if (!previousCustomerId.equals(customer.getId())) {
+            eventPublisher.publishEvent(new InteractionChangedEvent(updatedInteraction.getId(), previousCustomerId, ChangeType.UPDATED));
+        }
+        eventPublisher.publishEvent(new InteractionChangedEvent(updatedInteraction.getId(), customer.getId(), ChangeType.UPDATED));
 
         return interactionMapper.toDto(updatedInteraction);
     }
@@ -100,19 +131,22 @@ public class InteractionServiceImpl implements InteractionService {
     @Override
     @Transactional
     public void deleteInteraction(Long interactionId) {
-        if (!interactionRepository.existsById(interactionId)) {
-            throw new ResourceNotFoundException("Interaction not found with id: " + interactionId);
-        }
+        Interaction interaction = interactionRepository.findById(interactionId)
+            .orElseThrow(() -> new ResourceNotFoundException("Interaction not found with id: " + interactionId));
+        Long customerId = interaction.getCustomer() != null ? interaction.getCustomer().getId() : null;
 
-        interactionRepository.deleteById(interactionId);
+        interactionStatistics.recordDeleted(InteractionStatistics.Facts.of(interaction));
+        interactionRepository.delete(interaction);
         auditLogService.logSystemActivity("INTERACTION_DELETED", "INTERACTION", interactionId);
+        eventPublisher.publishEvent(new InteractionChangedEvent(interactionId, customerId, ChangeType.DELETED));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<InteractionDTO> findById(Long interactionId) {
         return interactionRepository.findById(interactionId)
-            .map(interactionMapper::toDto);
+            .map(interactionMapper::toDto)
+            .or(() -> archiveReader.findInteraction(interactionId));
     }
 
     @Override
@@ -141,6 +175,12 @@ public class InteractionServiceImpl implements InteractionService {
             .map(interactionMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<InteractionDTO> findArchivedInteractionsByCustomer(Long customerId, Pageable pageable) {
+        return archiveReader.findInteractionsByCustomer(customerId, pageable);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<InteractionDTO> findInteractionsByUser(Long userId) {
@@ -171,21 +211,72 @@ public class InteractionServiceImpl implements InteractionService {
     @Override
     @Transactional(readOnly = true)
     public Map<InteractionType, Long> getInteractionTypeCounts(Long customerId) {
-        return interactionRepository.findByCustomerId(customerId).stream()
-            .collect(Collectors.groupingBy(
-                Interaction::getType,
-                Collectors.counting()
-            ));
+        return interactionStatistics.countsByType(customerId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> getInteractionCountsByDate(LocalDateTime startDate, LocalDateTime endDate) {
-        return interactionRepository.findByCreatedAtBetween(startDate, endDate).stream()
-            .collect(Collectors.groupingBy(
-                interaction -> interaction.getCreatedAt().toLocalDate().toString(),
-                Collectors.counting()
-            ));
+        return interactionStatistics.countsByDate(startDate, endDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<InteractionType, Long> getInteractionDurationByType(Long customerId) {
+        return interactionStatistics.durationMinutesByType(customerId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getInteractionCountsByUser(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        return interactionStatistics.countsByUser(startDate, endDate);
+    }
+
+    @Override
+    public boolean rebuildInteractionRollup() {
+        return interactionRollupBackfill.triggerAsync();
+    }
+
+    @Override
+    public InteractionIngestResultDTO ingestInteractions(List<InteractionDTO> interactions) {
+        if (interactions == null || interactions.isEmpty()) {
+            throw new IllegalArgumentException("At least one interaction is required");
+        }
+        if (interactions.size() > maxIngestBatchSize) {
+            throw new IllegalArgumentException("At most " + maxIngestBatchSize + " interactions can be ingested at once");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> customerIds = new HashSet<>();
+        for (InteractionDTO interaction : interactions) {
+            validateInteractionDTO(interaction);
+            interaction.setId(null);
+            if (interaction.getCreatedAt() == null) {
+                interaction.setCreatedAt(now);
+            }
+            userIds.add(interaction.getUserId());
+            customerIds.add(interaction.getCustomerId());
+        }
+        Set<Long> missingUsers = ingestReferenceCache.missingUsers(userIds);
+        if (!missingUsers.isEmpty()) {
+            throw new IllegalArgumentException("Users not found: " + missingUsers);
+        }
+        Set<Long> missingCustomers = ingestReferenceCache.missingCustomers(customerIds);
+        if (!missingCustomers.isEmpty()) {
+            throw new IllegalArgumentException("Customers not found: " + missingCustomers);
+        }
+
+        long first = interactionIngestQueue.offer(interactions);
+        return InteractionIngestResultDTO.builder()
+                .accepted(first >= 0)
+                .count(first >= 0 ? interactions.size() : 0)
+                .firstSequence(first)
+                .lastSequence(first >= 0 ? first + interactions.size() - 1 : -1)
+                .queued(interactionIngestQueue.size())
+                .build();
     }
 
     private void validateInteractionDTO(InteractionDTO interactionDTO) {
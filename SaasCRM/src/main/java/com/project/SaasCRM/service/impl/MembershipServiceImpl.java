@@ -0,0 +1,59 @@
+package com.project.SaasCRM.service.impl;
+
+import com.project.SaasCRM.domain.MembershipDimension;
+import com.project.SaasCRM.domain.dto.MembershipFilterDTO;
+import com.project.SaasCRM.domain.dto.MembershipResultDTO;
+import com.project.SaasCRM.exception.ServiceUnavailableException;
+import com.project.SaasCRM.index.MembershipIndex;
+import com.project.SaasCRM.index.RoaringBitmap;
+import com.project.SaasCRM.service.MembershipService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class MembershipServiceImpl implements MembershipService {
+
+    private static final int MAX_RESULT_LIMIT = 10000;
+    private static final long LOADING_RETRY_AFTER_SECONDS = 5;
+
+    private final MembershipIndex membershipIndex;
+
+    @Override
+    public MembershipResultDTO query(MembershipFilterDTO filter, int offset, int limit) {
+        requireReady();
+        RoaringBitmap matches = membershipIndex.evaluate(filter);
+        long[] ids = matches.toArray(Math.max(0, offset), Math.max(0, Math.min(limit, MAX_RESULT_LIMIT)));
+        return MembershipResultDTO.builder()
+                .entity(filter.getEntity())
+                .count(matches.cardinality())
+                .ids(Arrays.stream(ids).boxed().collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    public long count(MembershipFilterDTO filter) {
+        requireReady();
+        return membershipIndex.evaluate(filter).cardinality();
+    }
+
+    @Override
+    public Map<String, Long> countByValue(MembershipDimension dimension) {
+        requireReady();
+        return membershipIndex.countByValue(dimension);
+    }
+
+    /**
+     * Arbitrary filters have no equivalent repository query, so while the index loads after a
+     * restart callers get a 503 and retry.
+     */
+    private void requireReady() {
+        if (!membershipIndex.isReady()) {
+            throw new ServiceUnavailableException("Membership index is still loading", LOADING_RETRY_AFTER_SECONDS);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import com.project.SaasCRM.service.NotificationService;
 import com.project.SaasCRM.service.EmailService;
 import com.project.SaasCRM.mapper.NotificationMapper;
 import com.project.SaasCRM.exception.ResourceNotFoundException;
+import com.project.SaasCRM.task.TaskStatisticsCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -42,10 +43,16 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendTaskReminder(Long taskId) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
-            
-        String message = String.format("Task '%s' is due on %s", 
-            task.getTitle(), 
-            task.getDueDate().toString());
+
+        // Every node schedules the reminder; only the one that marks it sent, while the task is still
+        // open and the reminder due, sends it
+        if (taskRepository.claimReminder(taskId, LocalDateTime.now(), TaskStatisticsCache.OPEN_STATUSES) == 0) {
+            return;
+        }
+
+        String message = task.getDueDate() != null
+            ? String.format("Task '%s' is due on %s", task.getTitle(), task.getDueDate())
+            : String.format("Reminder for task '%s'", task.getTitle());
             
         Notification notification = Notification.builder()
             .user(task.getAssignee())
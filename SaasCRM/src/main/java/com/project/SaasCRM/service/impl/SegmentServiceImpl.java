@@ -0,0 +1,195 @@
+package com.project.SaasCRM.service.impl;
+
+import com.project.SaasCRM.domain.entity.Customer;
+import com.project.SaasCRM.domain.entity.CustomerSegment;
+import com.project.SaasCRM.domain.dto.CustomerDTO;
+import com.project.SaasCRM.domain.dto.CustomerSegmentDTO;
+import com.project.SaasCRM.domain.dto.SegmentFilterDTO;
+import com.project.SaasCRM.domain.dto.SegmentResultDTO;
+import com.project.SaasCRM.exception.ResourceNotFoundException;
+import com.project.SaasCRM.exception.ServiceUnavailableException;
+import com.project.SaasCRM.mapper.CustomerMapper;
+import com.project.SaasCRM.mapper.CustomerSegmentMapper;
+import com.project.SaasCRM.repository.CustomerRepository;
+import com.project.SaasCRM.repository.CustomerSegmentRepository;
+import com.project.SaasCRM.segment.CustomerColumnStore;
+import com.project.SaasCRM.segment.CustomerColumnStore.RowMatcher;
+import com.project.SaasCRM.segment.CustomerSnapshotManager;
+import com.project.SaasCRM.segment.SegmentFilterCompiler;
+import com.project.SaasCRM.segment.SegmentMatch;
+import com.project.SaasCRM.service.AuditLogService;
+import com.project.SaasCRM.service.SegmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class SegmentServiceImpl implements SegmentService {
+
+    private static final int MAX_RESULT_LIMIT = 10000;
+    private static final int IN_CHUNK_SIZE = 1000;
+    private static final long LOADING_RETRY_AFTER_SECONDS = 5;
+
+    private final CustomerSegmentRepository segmentRepository;
+    private final CustomerRepository customerRepository;
+    private final CustomerSnapshotManager snapshotManager;
+    private final AuditLogService auditLogService;
+    private final CustomerSegmentMapper segmentMapper;
+    private final CustomerMapper customerMapper;
+
+    @Override
+    @Transactional
+    public CustomerSegmentDTO createSegment(CustomerSegmentDTO segmentDTO) {
+        validateSegment(segmentDTO);
+        if (segmentRepository.existsByName(segmentDTO.getName())) {
+            throw new IllegalArgumentException("Segment name is already in use");
+        }
+        CustomerSegment saved = segmentRepository.save(segmentMapper.toEntity(segmentDTO));
+        auditLogService.logSystemActivity("SEGMENT_CREATED", "SEGMENT", saved.getId());
+        return segmentMapper.toDto(saved);
+    }
+
+    @Override
+    @Transactional
+    public CustomerSegmentDTO updateSegment(CustomerSegmentDTO segmentDTO) {
+        CustomerSegment existing = findSegment(segmentDTO.getId());
+        validateSegment(segmentDTO);
+        if (!existing.getName().equals(segmentDTO.getName()) && segmentRepository.existsByName(segmentDTO.getName())) {
+            throw new IllegalArgumentException("Segment name is already in use");
+        }
+        existing.setName(segmentDTO.getName());
+        existing.setDescription(segmentDTO.getDescription());
+        existing.setFilterDefinition(segmentMapper.filterToString(segmentDTO.getFilter()));
+        CustomerSegment saved = segmentRepository.save(existing);
+        auditLogService.logSystemActivity("SEGMENT_UPDATED", "SEGMENT", saved.getId());
+        return segmentMapper.toDto(saved);
+    }
+
+    @Override
+    @Transactional
+    public void deleteSegment(Long segmentId) {
+        if (!segmentRepository.existsById(segmentId)) {
+            throw new ResourceNotFoundException("Segment not found with id: " + segmentId);
+        }
+        segmentRepository.deleteById(segmentId);
+        auditLogService.logSystemActivity("SEGMENT_DELETED", "SEGMENT", segmentId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<CustomerSegmentDTO> findById(Long segmentId) {
+        return segmentRepository.findById(segmentId).map(segmentMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerSegmentDTO> findAllSegments() {
+        return segmentRepository.findAll().stream()
+                .map(segmentMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public SegmentResultDTO evaluate(SegmentFilterDTO filter, int limit) {
+        int capped = Math.max(0, Math.min(limit, MAX_RESULT_LIMIT));
+        long started = System.currentTimeMillis();
+        SegmentMatch match = run(filter, 0, capped);
+        return SegmentResultDTO.builder()
+                .count(match.getCount())
+                .customerIds(toList(match.getCustomerIds()))
+                .truncated(match.getCount() > match.getCustomerIds().length)
+                .snapshotTime(match.getSnapshotBuiltAt())
+                .evaluationMillis(System.currentTimeMillis() - started)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SegmentResultDTO evaluateSegment(Long segmentId, int limit) {
+        return evaluate(loadFilter(segmentId), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countSegment(Long segmentId) {
+        return run(loadFilter(segmentId), 0, 0).getCount();
+    }
+
+    @Override
+    public List<Long> findCustomerIds(SegmentFilterDTO filter) {
+        return toList(run(filter, 0, Integer.MAX_VALUE).getCustomerIds());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<CustomerDTO> findSegmentCustomers(Long segmentId, Pageable pageable) {
+        SegmentMatch match = run(loadFilter(segmentId), (int) pageable.getOffset(), pageable.getPageSize());
+        List<Long> ids = toList(match.getCustomerIds());
+        Map<Long, Customer> customers = customerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        List<CustomerDTO> content = ids.stream()
+                .map(customers::get)
+                .filter(customer -> customer != null)
+                .map(customerMapper::toDto)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, match.getCount());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findRecipientEmails(Long segmentId) {
+        List<Long> ids = findCustomerIds(loadFilter(segmentId));
+        List<String> emails = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            emails.addAll(customerRepository.findEmailsByIdIn(ids.subList(from, Math.min(ids.size(), from + IN_CHUNK_SIZE))));
+        }
+        return emails;
+    }
+
+    /**
+     * Segment filters are only evaluated against the snapshot, so while it loads after a restart
+     * callers get a 503 and retry.
+     */
+    private SegmentMatch run(SegmentFilterDTO filter, int offset, int limit) {
+        RowMatcher matcher = SegmentFilterCompiler.compile(filter, LocalDateTime.now());
+        CustomerColumnStore store = snapshotManager.getStore();
+        if (store == null) {
+            throw new ServiceUnavailableException("Customer segment snapshot is still loading", LOADING_RETRY_AFTER_SECONDS);
+        }
+        return store.evaluate(matcher, offset, limit);
+    }
+
+    private SegmentFilterDTO loadFilter(Long segmentId) {
+        return segmentMapper.stringToFilter(findSegment(segmentId).getFilterDefinition());
+    }
+
+    private CustomerSegment findSegment(Long segmentId) {
+        return segmentRepository.findById(segmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Segment not found with id: " + segmentId));
+    }
+
+    private void validateSegment(CustomerSegmentDTO segmentDTO) {
+        if (segmentDTO.getName() == null || segmentDTO.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Segment name is required");
+        }
+        // Compiling rejects unknown fields, unsupported operators and malformed values up front
+        SegmentFilterCompiler.compile(segmentDTO.getFilter(), LocalDateTime.now());
+    }
+
+    private static List<Long> toList(long[] ids) {
+        return Arrays.stream(ids).boxed().collect(Collectors.toList());
+    }
+}
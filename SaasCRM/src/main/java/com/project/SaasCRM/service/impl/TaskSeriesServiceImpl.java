@@ -0,0 +1,150 @@
+package com.project.SaasCRM.service.impl;
+
+import com.project.SaasCRM.domain.TaskPriority;
+import com.project.SaasCRM.domain.dto.TaskSeriesDTO;
+import com.project.SaasCRM.domain.entity.TaskSeries;
+import com.project.SaasCRM.exception.ResourceNotFoundException;
+import com.project.SaasCRM.mapper.TaskSeriesMapper;
+import com.project.SaasCRM.repository.CustomerRepository;
+import com.project.SaasCRM.repository.TaskSeriesRepository;
+import com.project.SaasCRM.repository.UserRepository;
+import com.project.SaasCRM.service.AuditLogService;
+import com.project.SaasCRM.service.TaskSeriesService;
+import com.project.SaasCRM.task.TaskSeriesMaterializer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class TaskSeriesServiceImpl implements TaskSeriesService {
+
+    private final TaskSeriesRepository seriesRepository;
+    private final UserRepository userRepository;
+    private final CustomerRepository customerRepository;
+    private final TaskSeriesMaterializer materializer;
+    private final AuditLogService auditLogService;
+    private final TaskSeriesMapper seriesMapper;
+
+    @Override
+    @Transactional
+    public TaskSeriesDTO createSeries(TaskSeriesDTO seriesDTO) {
+        TaskSeries series = seriesMapper.toEntity(seriesDTO);
+        series.setId(null);
+        series.setActive(true);
+        series.setMaterializedThrough(null);
+        series.setOccurrenceCount(0);
+        if (series.getPriority() == null) {
+            series.setPriority(TaskPriority.MEDIUM);
+        }
+        validateSeries(series);
+
+        TaskSeries saved = seriesRepository.save(series);
+        materializer.materialize(saved, materializer.horizon());
+        auditLogService.logSystemActivity("TASK_SERIES_CREATED", "TASK_SERIES", saved.getId());
+        return seriesMapper.toDto(saved);
+    }
+
+    @Override
+    @Transactional
+    public TaskSeriesDTO updateSeries(TaskSeriesDTO seriesDTO) {
+        TaskSeries existing = findSeries(seriesDTO.getId());
+        TaskSeries requested = seriesMapper.toEntity(seriesDTO);
+        if (requested.getPriority() == null) {
+            requested.setPriority(existing.getPriority());
+        }
+        validateSeries(requested);
+        boolean scheduleChanged = existing.getFrequency() != requested.getFrequency()
+                || existing.getInterval() != requested.getInterval()
+                || !Objects.equals(existing.getByWeekdays(), requested.getByWeekdays())
+                || !Objects.equals(existing.getStartAt(), requested.getStartAt())
+                || !Objects.equals(existing.getUntilAt(), requested.getUntilAt())
+                || !Objects.equals(existing.getMaxOccurrences(), requested.getMaxOccurrences())
+                || !Objects.equals(existing.getReminderMinutesBefore(), requested.getReminderMinutesBefore());
+
+        existing.setTitle(requested.getTitle());
+        existing.setDescription(requested.getDescription());
+        existing.setType(requested.getType());
+        existing.setPriority(requested.getPriority());
+        existing.setAssigneeId(requested.getAssigneeId());
+        existing.setCustomerId(requested.getCustomerId());
+
+        if (scheduleChanged) {
+            // Pending future occurrences follow the old rule: drop them and regenerate.
+            materializer.removeFutureOccurrences(existing);
+            existing.setFrequency(requested.getFrequency());
+            existing.setInterval(requested.getInterval());
+            existing.setByWeekdays(requested.getByWeekdays());
+            existing.setStartAt(requested.getStartAt());
+            existing.setUntilAt(requested.getUntilAt());
+            existing.setMaxOccurrences(requested.getMaxOccurrences());
+            existing.setReminderMinutesBefore(requested.getReminderMinutesBefore());
+            existing.setActive(true);
+            materializer.materialize(existing, materializer.horizon());
+        } else {
+            materializer.applyAttributes(existing);
+        }
+
+        TaskSeries saved = seriesRepository.save(existing);
+        auditLogService.logSystemActivity("TASK_SERIES_UPDATED", "TASK_SERIES", saved.getId());
+        return seriesMapper.toDto(saved);
+    }
+
+    @Override
+    @Transactional
+    public void deleteSeries(Long seriesId) {
+        TaskSeries series = findSeries(seriesId);
+        materializer.removeFutureOccurrences(series);
+        seriesRepository.delete(series);
+        auditLogService.logSystemActivity("TASK_SERIES_DELETED", "TASK_SERIES", seriesId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TaskSeriesDTO> findById(Long seriesId) {
+        return seriesRepository.findById(seriesId).map(seriesMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TaskSeriesDTO> findAllSeries(Pageable pageable) {
+        return seriesRepository.findAll(pageable).map(seriesMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TaskSeriesDTO> findSeriesByAssignee(Long userId, Pageable pageable) {
+        return seriesRepository.findByAssigneeId(userId, pageable).map(seriesMapper::toDto);
+    }
+
+    /**
+     * Loads the series locked for update, so the materializer cannot extend it with the old rule
+     * while it is being changed.
+     */
+    private TaskSeries findSeries(Long seriesId) {
+        return seriesRepository.lockById(seriesId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task series not found with id: " + seriesId));
+    }
+
+    private void validateSeries(TaskSeries series) {
+        if (series.getTitle() == null || series.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Series title is required");
+        }
+        // Rejects inconsistent rules before anything is stored.
+        materializer.ruleOf(series);
+        if (series.getReminderMinutesBefore() != null && series.getReminderMinutesBefore() < 0) {
+            throw new IllegalArgumentException("Reminder offset must not be negative");
+        }
+        if (series.getAssigneeId() != null && !userRepository.existsById(series.getAssigneeId())) {
+            throw new IllegalArgumentException("User not found");
+        }
+        if (series.getCustomerId() != null && !customerRepository.existsById(series.getCustomerId())) {
+            throw new IllegalArgumentException("Customer not found");
+        }
+    }
+}
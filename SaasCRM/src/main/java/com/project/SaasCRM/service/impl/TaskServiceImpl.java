@@ -1,37 +1,65 @@
 package com.project.SaasCRM.service.impl;
 
+import com.project.SaasCRM.assignment.WorkloadAssignmentEngine;
 import com.project.SaasCRM.domain.TaskStatus;
 import com.project.SaasCRM.domain.TaskPriority;
 import com.project.SaasCRM.domain.entity.Task;
 import com.project.SaasCRM.domain.entity.User;
+import com.project.SaasCRM.domain.dto.CursorPageDTO;
+import com.project.SaasCRM.domain.dto.TaskBatchRequestDTO;
+import com.project.SaasCRM.domain.dto.TaskBatchResultDTO;
 import com.project.SaasCRM.domain.dto.TaskDTO;
+import com.project.SaasCRM.domain.dto.TaskStatisticsDTO;
+import com.project.SaasCRM.domain.event.ChangeType;
+import com.project.SaasCRM.domain.event.TaskChangedEvent;
+import com.project.SaasCRM.domain.event.TaskSnapshot;
 import com.project.SaasCRM.exception.TaskNotFoundException;
 import com.project.SaasCRM.repository.TaskRepository;
 import com.project.SaasCRM.repository.UserRepository;
 import com.project.SaasCRM.service.TaskService;
 import com.project.SaasCRM.service.AuditLogService;
 import com.project.SaasCRM.mapper.TaskMapper;
+import com.project.SaasCRM.task.OverdueTaskSweeper;
+import com.project.SaasCRM.task.TaskBatchProcessor;
+import com.project.SaasCRM.task.TaskInboxCursor;
+import com.project.SaasCRM.task.TaskStatisticsCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.HashMap;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class TaskServiceImpl implements TaskService {
 
+    private static final int MAX_INBOX_LIMIT = 200;
+    private static final LocalDateTime MIN_DUE_DATE = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DUE_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final AuditLogService auditLogService;
     private final TaskMapper taskMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskStatisticsCache taskStatisticsCache;
+    private final OverdueTaskSweeper overdueTaskSweeper;
+    private final TaskBatchProcessor taskBatchProcessor;
+    private final WorkloadAssignmentEngine assignmentEngine;
 
     @Override
     @Transactional
@@ -43,9 +71,14 @@ public class TaskServiceImpl implements TaskService {
         if (task.getPriority() == null) {
             task.setPriority(TaskPriority.MEDIUM);
         }
+        if (task.getAssignee() == null && assignmentEngine.isAutoAssignNewTasks()) {
+            assignmentEngine.pickUserForTask(null).map(userRepository::getReferenceById).ifPresent(task::setAssignee);
+        }
 
         Task savedTask = taskRepository.save(task);
         auditLogService.logSystemActivity("TASK_CREATED", "TASK", savedTask.getId());
+        eventPublisher.publishEvent(new TaskChangedEvent(savedTask.getId(), ChangeType.CREATED,
+                null, TaskSnapshot.of(savedTask)));
         return taskMapper.toDto(savedTask);
     }
 
@@ -54,10 +87,13 @@ public class TaskServiceImpl implements TaskService {
     public TaskDTO updateTask(TaskDTO taskDTO) {
         Task existingTask = taskRepository.findById(taskDTO.getId())
                 .orElseThrow(() -> new TaskNotFoundException("Task not found"));
+        TaskSnapshot before = TaskSnapshot.of(existingTask);
 
         Task task = taskMapper.toEntity(taskDTO);
         Task updatedTask = taskRepository.save(task);
         auditLogService.logSystemActivity("TASK_UPDATED", "TASK", updatedTask.getId());
+        eventPublisher.publishEvent(new TaskChangedEvent(updatedTask.getId(), ChangeType.UPDATED,
+                before, TaskSnapshot.of(updatedTask)));
         return taskMapper.toDto(updatedTask);
     }
 
@@ -108,18 +144,30 @@ public class TaskServiceImpl implements TaskService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
+        TaskSnapshot before = TaskSnapshot.of(task);
         task.setAssignee(user);
         Task updatedTask = taskRepository.save(task);
         auditLogService.logUserActivity(userId, "TASK_ASSIGNED", "TASK", taskId);
+        eventPublisher.publishEvent(new TaskChangedEvent(taskId, ChangeType.UPDATED,
+                before, TaskSnapshot.of(updatedTask)));
         return taskMapper.toDto(updatedTask);
     }
 
+    @Override
+    @Transactional
+    public TaskDTO autoAssignTask(Long taskId, String role) {
+        Long userId = assignmentEngine.pickUserForTask(role)
+                .orElseThrow(() -> new IllegalArgumentException("No eligible user to assign"));
+        return assignTaskToUser(taskId, userId);
+    }
+
     @Override
     @Transactional
     public TaskDTO updateTaskStatus(Long taskId, TaskStatus newStatus) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found"));
 
+        TaskSnapshot before = TaskSnapshot.of(task);
         task.setStatus(newStatus);
         if (newStatus == TaskStatus.COMPLETED) {
             task.setCompletedAt(LocalDateTime.now());
@@ -127,6 +175,8 @@ public class TaskServiceImpl implements TaskService {
 
         Task updatedTask = taskRepository.save(task);
         auditLogService.logSystemActivity("TASK_STATUS_UPDATED", "TASK", taskId);
+        eventPublisher.publishEvent(new TaskChangedEvent(taskId, ChangeType.UPDATED,
+                before, TaskSnapshot.of(updatedTask)));
         return taskMapper.toDto(updatedTask);
     }
 
@@ -136,20 +186,31 @@ public class TaskServiceImpl implements TaskService {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found"));
 
+        TaskSnapshot before = TaskSnapshot.of(task);
         task.setPriority(newPriority);
         Task updatedTask = taskRepository.save(task);
         auditLogService.logSystemActivity("TASK_PRIORITY_UPDATED", "TASK", taskId);
+        eventPublisher.publishEvent(new TaskChangedEvent(taskId, ChangeType.UPDATED,
+                before, TaskSnapshot.of(updatedTask)));
         return taskMapper.toDto(updatedTask);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<TaskStatus, Long> getTaskCountsByStatus() {
-        return taskRepository.findAll().stream()
-                .collect(Collectors.groupingBy(
-                    Task::getStatus,
-                    Collectors.counting()
-                ));
+        return taskStatisticsCache.getStatusCounts();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskStatisticsDTO getTaskStatistics() {
+        return taskStatisticsCache.getStatistics();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskStatisticsDTO getTaskStatistics(Long userId) {
+        return taskStatisticsCache.getStatistics(userId);
     }
 
     @Override
@@ -176,7 +237,8 @@ public class TaskServiceImpl implements TaskService {
     @Override
     @Transactional(readOnly = true)
     public List<TaskDTO> findTasksDueToday() {
-        return taskMapper.toDtoList(taskRepository.findTasksDueToday());
+        LocalDateTime dayStart = LocalDate.now().atStartOfDay();
+        return taskMapper.toDtoList(taskRepository.findTasksDueBetween(dayStart, dayStart.plusDays(1)));
     }
 
     @Override
@@ -194,14 +256,7 @@ public class TaskServiceImpl implements TaskService {
     @Override
     @Transactional(readOnly = true)
     public Map<TaskStatus, Long> getTaskStatusCounts(Long userId) {
-        List<Object[]> results = taskRepository.getTaskStatusCounts(userId);
-        Map<TaskStatus, Long> statusCounts = new HashMap<>();
-        for (Object[] result : results) {
-            TaskStatus status = (TaskStatus) result[0];
-            Long count = (Long) result[1];
-            statusCounts.put(status, count);
-        }
-        return statusCounts;
+        return taskStatisticsCache.getStatusCounts(userId);
     }
 
     @Override
@@ -228,10 +283,13 @@ public class TaskServiceImpl implements TaskService {
     public TaskDTO markTaskAsCompleted(Long taskId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found"));
+        TaskSnapshot before = TaskSnapshot.of(task);
         task.setStatus(TaskStatus.COMPLETED);
         task.setCompletedAt(LocalDateTime.now());
         Task updatedTask = taskRepository.save(task);
         auditLogService.logSystemActivity("TASK_COMPLETED", "TASK", taskId);
+        eventPublisher.publishEvent(new TaskChangedEvent(taskId, ChangeType.UPDATED,
+                before, TaskSnapshot.of(updatedTask)));
         return taskMapper.toDto(updatedTask);
     }
 
@@ -251,9 +309,14 @@ public class TaskServiceImpl implements TaskService {
     @Override
     @Transactional
     public TaskDTO saveTask(TaskDTO taskDTO) {
+        TaskSnapshot before = taskDTO.getId() == null ? null : taskRepository.findById(taskDTO.getId())
+                .map(TaskSnapshot::of)
+                .orElse(null);
         Task task = taskMapper.toEntity(taskDTO);
         Task savedTask = taskRepository.save(task);
         auditLogService.logSystemActivity("TASK_SAVED", "TASK", savedTask.getId());
+        eventPublisher.publishEvent(new TaskChangedEvent(savedTask.getId(),
+                before == null ? ChangeType.CREATED : ChangeType.UPDATED, before, TaskSnapshot.of(savedTask)));
         return taskMapper.toDto(savedTask);
     }
 
@@ -268,7 +331,70 @@ public class TaskServiceImpl implements TaskService {
     public void deleteTask(Long taskId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found"));
+        TaskSnapshot before = TaskSnapshot.of(task);
         taskRepository.delete(task);
         auditLogService.logSystemActivity("TASK_DELETED", "TASK", taskId);
+        eventPublisher.publishEvent(new TaskChangedEvent(taskId, ChangeType.DELETED, before, null));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDTO> findInbox(Long userId, Set<TaskStatus> statuses, Set<TaskPriority> priorities,
+                                            LocalDateTime dueFrom, LocalDateTime dueTo, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_INBOX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_INBOX_LIMIT);
+        }
+        Collection<TaskStatus> statusFilter = statuses == null || statuses.isEmpty()
+                ? TaskStatisticsCache.OPEN_STATUSES : statuses;
+        Collection<TaskPriority> priorityFilter = priorities == null || priorities.isEmpty()
+                ? EnumSet.allOf(TaskPriority.class) : priorities;
+        TaskInboxCursor position = cursor == null || cursor.isBlank() ? null : TaskInboxCursor.decode(cursor);
+        Pageable page = PageRequest.of(0, limit + 1);
+
+        // One (assignee_id, status, due_date, id) range scan per status, merged on (due_date, id).
+        List<Task> tasks = new ArrayList<>(limit + 1);
+        if (position == null || !position.isUndated()) {
+            LocalDateTime from = dueFrom != null ? dueFrom : MIN_DUE_DATE;
+            long afterId = 0L;
+            if (position != null && !position.dueDate().isBefore(from)) {
+                from = position.dueDate();
+                afterId = position.id();
+            }
+            LocalDateTime to = dueTo != null ? dueTo : MAX_DUE_DATE;
+            for (TaskStatus status : statusFilter) {
+                tasks.addAll(taskRepository.findInboxPage(userId, status, from, to, afterId, priorityFilter, page));
+            }
+            tasks.sort(Comparator.comparing(Task::getDueDate).thenComparing(Task::getId));
+        }
+        // Undated tasks follow the dated ones unless the caller asked for a due window.
+        if (dueFrom == null && dueTo == null && tasks.size() <= limit) {
+            long afterId = position != null && position.isUndated() ? position.id() : 0L;
+            List<Task> undated = new ArrayList<>();
+            for (TaskStatus status : statusFilter) {
+                undated.addAll(taskRepository.findUndatedInboxPage(userId, status, afterId, priorityFilter, page));
+            }
+            undated.sort(Comparator.comparing(Task::getId));
+            tasks.addAll(undated);
+        }
+
+        boolean hasMore = tasks.size() > limit;
+        List<Task> items = hasMore ? tasks.subList(0, limit) : tasks;
+        Task last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return CursorPageDTO.<TaskDTO>builder()
+                .items(taskMapper.toDtoList(items))
+                .nextCursor(hasMore ? new TaskInboxCursor(last.getDueDate(), last.getId()).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    public boolean sweepOverdueTasks() {
+        return overdueTaskSweeper.triggerAsync();
+    }
+
+    @Override
+    @Transactional
+    public TaskBatchResultDTO executeBatch(TaskBatchRequestDTO request, String idempotencyKey) {
+        return taskBatchProcessor.execute(request, idempotencyKey);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,183 @@
+package com.project.SaasCRM.task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical hashed timer wheel keyed by entity id.
+ *
+ * <p>Level {@code l} has {@value #WHEEL_SIZE} slots of {@code tickMs * 64^l} milliseconds each. An
+ * entry is placed on the lowest level whose span covers its remaining delay and cascades down one
+ * level each time the wheel above it turns, so scheduling, rescheduling and cancelling are O(1) and
+ * advancing costs O(1) per tick plus the entries that actually fire or cascade.</p>
+ *
+ * <p>Not thread-safe; callers serialise access.</p>
+ */
+public class HierarchicalTimerWheel {
+
+    static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final long tickMs;
+    private final int levels;
+    private final Entry[][] slots;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long currentTick;
+
+    public HierarchicalTimerWheel(long tickMs, int levels, long startMillis) {
+        if (tickMs <= 0 || levels <= 0 || levels * WHEEL_BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid timer wheel geometry");
+        }
+        this.tickMs = tickMs;
+        this.levels = levels;
+        this.slots = new Entry[levels][WHEEL_SIZE];
+        this.currentTick = startMillis / tickMs;
+    }
+
+    /**
+     * Returns the furthest delay, in milliseconds from the current tick, that can be scheduled.
+     */
+    public long horizonMillis() {
+        return ((1L << (WHEEL_BITS * levels)) - 1) * tickMs;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean contains(long id) {
+        return entries.containsKey(id);
+    }
+
+    /**
+     * Schedules {@code id} to fire at {@code deadlineMillis}, replacing any earlier schedule for it.
+     * Deadlines at or before the current tick fire on the next {@link #advance}.
+     *
+     * @return {@code false} if the deadline lies beyond the wheel's horizon
+     */
+    public boolean schedule(long id, long deadlineMillis) {
+        long deadlineTick = Math.max(deadlineMillis / tickMs, currentTick);
+        if (deadlineTick - currentTick > horizonMillis() / tickMs) {
+            cancel(id);
+            return false;
+        }
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            unlink(entry);
+        } else {
+            entry = new Entry(id);
+            entries.put(id, entry);
+        }
+        entry.deadlineTick = deadlineTick;
+        place(entry);
+        return true;
+    }
+
+    public boolean cancel(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns the ids whose deadline has passed,
+     * in deadline order per tick. Fired ids are no longer scheduled.
+     */
+    public List<Long> advance(long nowMillis) {
+        List<Long> expired = new ArrayList<>();
+        drainSlot(0, (int) (currentTick & WHEEL_MASK), expired);
+        long targetTick = nowMillis / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = highestTurnedLevel(currentTick); level >= 1; level--) {
+                int index = (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+                Entry entry = slots[level][index];
+                slots[level][index] = null;
+                while (entry != null) {
+                    Entry next = entry.next;
+                    entry.prev = null;
+                    entry.next = null;
+                    entry.level = -1;
+                    place(entry);
+                    entry = next;
+                }
+            }
+            drainSlot(0, (int) (currentTick & WHEEL_MASK), expired);
+        }
+        return expired;
+    }
+
+    private int highestTurnedLevel(long tick) {
+        int level = 0;
+        while (level + 1 < levels && (tick & ((1L << (WHEEL_BITS * (level + 1))) - 1)) == 0) {
+            level++;
+        }
+        return level;
+    }
+
+    private void place(Entry entry) {
+        long delay = entry.deadlineTick - currentTick;
+        int level = 0;
+        while (level + 1 < levels && delay >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((entry.deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        entry.level = level;
+        entry.index = index;
+        Entry head = slots[level][index];
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        slots[level][index] = entry;
+    }
+
+    private void drainSlot(int level, int index, List<Long> expired) {
+        Entry entry = slots[level][index];
+        while (entry != null) {
+            Entry next = entry.next;
+            if (entry.deadlineTick <= currentTick) {
+                unlink(entry);
+                entries.remove(entry.id);
+                expired.add(entry.id);
+            }
+            entry = next;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.level < 0) {
+            return;
+        }
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            slots[entry.level][entry.index] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+        entry.level = -1;
+    }
+
+    private static final class Entry {
+        final long id;
+        long deadlineTick;
+        int level = -1;
+        int index;
+        Entry prev;
+        Entry next;
+
+        Entry(long id) {
+            this.id = id;
+        }
+    }
+}
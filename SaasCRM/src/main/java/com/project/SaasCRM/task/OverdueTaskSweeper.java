@@ -0,0 +1,186 @@
+package com.project.SaasCRM.task;
+
+import com.project.SaasCRM.domain.TaskPriority;
+import com.project.SaasCRM.domain.TaskStatus;
+import com.project.SaasCRM.domain.TaskType;
+import com.project.SaasCRM.domain.event.ChangeType;
+import com.project.SaasCRM.domain.event.TaskChangedEvent;
+import com.project.SaasCRM.domain.event.TaskSnapshot;
+import com.project.SaasCRM.job.PartitionedJobRunner;
+import com.project.SaasCRM.job.PartitionedJobRunner.BatchResult;
+import com.project.SaasCRM.repository.TaskRepository;
+import com.project.SaasCRM.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Escalates overdue open tasks: raises their priority one level, stamps {@code escalated_at} and
+ * notifies the assignee once the batch has committed.
+ *
+ * <p>A task is escalated once per due date; moving the due date re-arms it. The task id space is
+ * swept by {@link PartitionedJobRunner}, so partitions run in parallel and an interrupted sweep
+ * resumes from its checkpoints. Each task is claimed by a conditional update that only matches while
+ * it is still open, overdue and not escalated for its due date, so a sweep running on another node,
+ * or a write since the batch was read, makes the update miss and the task is skipped.</p>
+ *
+ * <p>The status is left alone: {@link TaskStatus} has no overdue state, and being overdue is derived
+ * from the due date wherever it is shown, so the task stays in its open status and the priority
+ * carries the escalation.</p>
+ */
+@Component
+@Slf4j
+public class OverdueTaskSweeper {
+
+    static final String JOB_NAME = "overdue-task-sweep";
+
+    private final TaskRepository taskRepository;
+    private final PartitionedJobRunner jobRunner;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor backgroundJobs;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.overdue-sweep.partitions:16}")
+    private int partitions;
+
+    @Value("${app.overdue-sweep.concurrency:4}")
+    private int concurrency;
+
+    @Value("${app.overdue-sweep.batch-size:500}")
+    private int batchSize;
+
+    public OverdueTaskSweeper(TaskRepository taskRepository,
+                              PartitionedJobRunner jobRunner,
+                              NotificationService notificationService,
+                              ApplicationEventPublisher eventPublisher,
+                              @Qualifier("backgroundJobExecutor") TaskExecutor backgroundJobs) {
+        this.taskRepository = taskRepository;
+        this.jobRunner = jobRunner;
+        this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.backgroundJobs = backgroundJobs;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Starts a sweep on a background thread unless one is already in progress.
+     *
+     * @return {@code true} if a new sweep was started
+     */
+    public boolean triggerAsync() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            backgroundJobs.execute(this::runClaimed);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            log.warn("No background thread free for the overdue task sweep");
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(cron = "${app.overdue-sweep.cron:0 */15 * * * *}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Overdue task sweep already running, skipping");
+            return;
+        }
+        runClaimed();
+    }
+
+    /**
+     * Runs a sweep for which {@code running} is already set, and clears it.
+     */
+    private void runClaimed() {
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> bounds = taskRepository.findIdBounds();
+            Object[] row = bounds.isEmpty() ? new Object[2] : bounds.get(0);
+            long escalated = jobRunner.run(JOB_NAME, (Long) row[0], (Long) row[1], partitions, concurrency,
+                    batchSize, (afterId, toId, limit) -> escalateBatch(afterId, toId, limit, now));
+            log.info("Overdue task sweep escalated {} tasks in {} ms", escalated, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Overdue task sweep failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private BatchResult escalateBatch(long afterId, long toId, int limit, LocalDateTime now) {
+        List<Object[]> rows = taskRepository.findEscalationCandidatesBetween(afterId, toId, now,
+                TaskStatisticsCache.OPEN_STATUSES, PageRequest.of(0, limit));
+        if (rows.isEmpty()) {
+            return BatchResult.empty();
+        }
+
+        List<Overdue> notifications = new ArrayList<>();
+        for (Object[] row : rows) {
+            Long taskId = (Long) row[0];
+            TaskStatus status = (TaskStatus) row[2];
+            TaskPriority priority = (TaskPriority) row[3];
+            TaskPriority target = escalate(priority);
+            Long assigneeId = (Long) row[5];
+            LocalDateTime dueDate = (LocalDateTime) row[6];
+            LocalDateTime reminderDate = (LocalDateTime) row[7];
+            if (taskRepository.escalateIfOverdue(taskId, target, now, TaskStatisticsCache.OPEN_STATUSES) == 0) {
+                continue;
+            }
+
+            TaskSnapshot before = new TaskSnapshot(status, priority, (TaskType) row[4], assigneeId, dueDate, reminderDate);
+            TaskSnapshot after = new TaskSnapshot(status, target, (TaskType) row[4], assigneeId, dueDate, reminderDate);
+            eventPublisher.publishEvent(new TaskChangedEvent(taskId, ChangeType.UPDATED, before, after));
+            if (assigneeId != null) {
+                notifications.add(new Overdue(taskId, (String) row[1], assigneeId, dueDate));
+            }
+        }
+        if (!notifications.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notifications.forEach(OverdueTaskSweeper.this::notifyAssignee);
+                }
+            });
+        }
+        return new BatchResult((Long) rows.get(rows.size() - 1)[0], rows.size());
+    }
+
+    private void notifyAssignee(Overdue task) {
+        try {
+            notificationService.sendReminderNotification(task.assigneeId(), "TASK", task.taskId(), task.dueDate(),
+                    String.format("Task '%s' is overdue (was due %s)", task.title(), task.dueDate()));
+        } catch (Exception e) {
+            log.warn("Failed to notify assignee of overdue task {}", task.taskId(), e);
+        }
+    }
+
+    private static TaskPriority escalate(TaskPriority priority) {
+        if (priority == null) {
+            return TaskPriority.HIGH;
+        }
+        TaskPriority[] values = TaskPriority.values();
+        return values[Math.min(priority.ordinal() + 1, values.length - 1)];
+    }
+
+    private record Overdue(Long taskId, String title, Long assigneeId, LocalDateTime dueDate) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.SaasCRM.task;
+
+import com.project.SaasCRM.domain.RecurrenceFrequency;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Expands a daily, weekly or monthly recurrence into concrete occurrence times.
+ *
+ * <p>Every occurrence keeps the time of day of {@code startAt}. Weekly rules fire on each of
+ * {@code weekdays} (the start's weekday when empty) of every {@code interval}-th week counted from
+ * the start's week; monthly rules keep the start's day of month, clamped to shorter months. The
+ * series ends at {@code untilAt} (inclusive) or after {@code maxOccurrences} occurrences counted from
+ * the start, whichever comes first.</p>
+ */
+public final class RecurrenceRule {
+
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final RecurrenceFrequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> weekdays;
+    private final LocalDateTime startAt;
+    private final LocalDateTime untilAt;
+    private final Integer maxOccurrences;
+
+    public RecurrenceRule(RecurrenceFrequency frequency, int interval, Set<DayOfWeek> weekdays,
+                          LocalDateTime startAt, LocalDateTime untilAt, Integer maxOccurrences) {
+        if (frequency == null || startAt == null) {
+            throw new IllegalArgumentException("Recurrence frequency and start are required");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("Recurrence interval must be at least 1");
+        }
+        if (untilAt != null && untilAt.isBefore(startAt)) {
+            throw new IllegalArgumentException("Recurrence end must not be before its start");
+        }
+        if (maxOccurrences != null && maxOccurrences < 1) {
+            throw new IllegalArgumentException("Maximum occurrences must be at least 1");
+        }
+        if (weekdays != null && !weekdays.isEmpty() && frequency != RecurrenceFrequency.WEEKLY) {
+            throw new IllegalArgumentException("Weekdays can only be set on weekly recurrences");
+        }
+        this.frequency = frequency;
+        this.interval = interval;
+        this.weekdays = weekdays == null || weekdays.isEmpty()
+                ? EnumSet.of(startAt.getDayOfWeek()) : EnumSet.copyOf(weekdays);
+        this.startAt = startAt;
+        this.untilAt = untilAt;
+        this.maxOccurrences = maxOccurrences;
+    }
+
+    /**
+     * Returns the occurrences in {@code (after, to]} in ascending order. A {@code null} {@code after}
+     * includes the first occurrence.
+     */
+    public List<LocalDateTime> between(LocalDateTime after, LocalDateTime to) {
+        return expand(after, to, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the first occurrence after {@code after}, or {@code null} once the series has ended.
+     */
+    public LocalDateTime nextAfter(LocalDateTime after) {
+        List<LocalDateTime> next = expand(after, LATEST, 1);
+        return next.isEmpty() ? null : next.get(0);
+    }
+
+    private List<LocalDateTime> expand(LocalDateTime after, LocalDateTime to, int limit) {
+        List<LocalDateTime> result = new ArrayList<>();
+        LocalDateTime end = untilAt != null && untilAt.isBefore(to) ? untilAt : to;
+        if (end.isBefore(startAt)) {
+            return result;
+        }
+        int ordinal = 0;
+        if (frequency == RecurrenceFrequency.WEEKLY) {
+            LocalTime time = startAt.toLocalTime();
+            LocalDate weekStart = startAt.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            for (long week = 0; ; week += interval) {
+                LocalDate monday = weekStart.plusWeeks(week);
+                if (monday.atTime(time).isAfter(end)) {
+                    return result;
+                }
+                for (DayOfWeek day : weekdays) {
+                    LocalDateTime occurrence = monday.plusDays(day.getValue() - 1L).atTime(time);
+                    if (occurrence.isBefore(startAt)) {
+                        continue;
+                    }
+                    if (occurrence.isAfter(end) || (maxOccurrences != null && ++ordinal > maxOccurrences)) {
+                        return result;
+                    }
+                    if (after == null || occurrence.isAfter(after)) {
+                        result.add(occurrence);
+                        if (result.size() >= limit) {
+                            return result;
+                        }
+                    }
+                }
+            }
+        }
+        for (long step = 0; ; step += interval) {
+            LocalDateTime occurrence = frequency == RecurrenceFrequency.DAILY
+                    ? startAt.plusDays(step) : startAt.plusMonths(step);
+            if (occurrence.isAfter(end) || (maxOccurrences != null && ++ordinal > maxOccurrences)) {
+                return result;
+            }
+            if (after == null || occurrence.isAfter(after)) {
+                result.add(occurrence);
+                if (result.size() >= limit) {
+                    return result;
+                }
+            }
+        }
+    }
+}
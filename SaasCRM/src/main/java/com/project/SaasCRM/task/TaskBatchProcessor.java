@@ -0,0 +1,355 @@
+package com.project.SaasCRM.task;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.SaasCRM.domain.TaskBatchOperation;
+import com.project.SaasCRM.domain.TaskPriority;
+import com.project.SaasCRM.domain.TaskStatus;
+import com.project.SaasCRM.domain.TaskType;
+import com.project.SaasCRM.domain.dto.TaskBatchRequestDTO;
+import com.project.SaasCRM.domain.dto.TaskBatchResultDTO;
+import com.project.SaasCRM.domain.entity.IdempotencyRecord;
+import com.project.SaasCRM.domain.entity.User;
+import com.project.SaasCRM.domain.event.ChangeType;
+import com.project.SaasCRM.domain.event.TaskChangedEvent;
+import com.project.SaasCRM.domain.event.TaskSnapshot;
+import com.project.SaasCRM.repository.IdempotencyRecordRepository;
+import com.project.SaasCRM.repository.TaskRepository;
+import com.project.SaasCRM.repository.UserRepository;
+import com.project.SaasCRM.service.AuditLogService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Applies one operation to many tasks with set-based statements.
+ *
+ * <p>The target ids are processed in chunks: each chunk locks and reads its rows once, to tell
+ * changed rows from unchanged or missing ones and to publish accurate {@link TaskChangedEvent}s, then
+ * issues a single {@code UPDATE ... WHERE id IN (...)} (or {@code DELETE}) and a single batched audit
+ * insert for the rows that actually change. With an idempotency key the result is stored with the
+ * batch, so a retried request replays the original summary instead of running again. The key is
+ * taken with {@code INSERT IGNORE}: a concurrent retry waits for the running batch to commit and then
+ * replays it, and a duplicate never raises an exception that would leave the transaction
+ * rollback-only.</p>
+ */
+@Component
+@Slf4j
+public class TaskBatchProcessor {
+
+    static final String IDEMPOTENCY_SCOPE = "TASK_BATCH";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final AuditLogService auditLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${app.task-batch.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.task-batch.max-tasks:50000}")
+    private int maxTasks;
+
+    @Value("${app.task-batch.idempotency-retention-hours:24}")
+    private int idempotencyRetentionHours;
+
+    public TaskBatchProcessor(TaskRepository taskRepository,
+                              UserRepository userRepository,
+                              IdempotencyRecordRepository idempotencyRecordRepository,
+                              AuditLogService auditLogService,
+                              ApplicationEventPublisher eventPublisher) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.auditLogService = auditLogService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Runs {@code request}, or replays the stored result of an earlier run with the same
+     * idempotency key. Must run inside a transaction, which covers the whole batch.
+     */
+    public TaskBatchResultDTO execute(TaskBatchRequestDTO request, String idempotencyKey) {
+        long started = System.currentTimeMillis();
+        validate(request);
+
+        IdempotencyRecord record = null;
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                throw new IllegalArgumentException(
+                        "Idempotency key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+            }
+            String requestHash = fingerprint(request);
+            Optional<IdempotencyRecord> previous =
+                    idempotencyRecordRepository.findByScopeAndIdempotencyKey(IDEMPOTENCY_SCOPE, idempotencyKey);
+            if (previous.isPresent()) {
+                return replay(previous.get(), requestHash);
+            }
+            if (idempotencyRecordRepository.insertIfAbsent(IDEMPOTENCY_SCOPE, idempotencyKey, requestHash,
+                    LocalDateTime.now()) == 0) {
+                // A concurrent batch with this key committed while the insert waited for it
+                return replay(lockRecord(idempotencyKey).orElseThrow(() -> new IllegalArgumentException(
+                        "A batch with this idempotency key is already in progress")), requestHash);
+            }
+            record = lockRecord(idempotencyKey)
+                    .orElseThrow(() -> new IllegalStateException("Idempotency record was not stored"));
+        }
+
+        TaskBatchResultDTO result = run(request);
+        result.setIdempotencyKey(record != null ? idempotencyKey : null);
+        result.setDurationMillis(System.currentTimeMillis() - started);
+        if (record != null) {
+            record.setResponseBody(write(result));
+            idempotencyRecordRepository.save(record);
+        }
+        log.info("Task batch {} matched {} tasks and changed {} in {} ms", request.getOperation(),
+                result.getMatched(), result.getUpdated(), result.getDurationMillis());
+        return result;
+    }
+
+    @Scheduled(cron = "${app.task-batch.idempotency-purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeIdempotencyRecords() {
+        int purged = idempotencyRecordRepository.deleteCreatedBefore(
+                LocalDateTime.now().minusHours(idempotencyRetentionHours));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private TaskBatchResultDTO run(TaskBatchRequestDTO request) {
+        List<Long> ids = resolveTargets(request);
+        User assignee = request.getOperation() == TaskBatchOperation.ASSIGN
+                ? userRepository.getReferenceById(request.getAssigneeId()) : null;
+        LocalDateTime now = LocalDateTime.now();
+
+        int matched = 0;
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+            List<Object[]> rows = taskRepository.lockChangeRowsByIdIn(chunk);
+            matched += rows.size();
+
+            List<Long> changed = new ArrayList<>(rows.size());
+            List<TaskChangedEvent> events = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                TaskSnapshot before = snapshot(row);
+                TaskSnapshot after = apply(request, before);
+                if (after != null && !changes(request.getOperation(), before, after)) {
+                    continue;
+                }
+                Long taskId = (Long) row[0];
+                changed.add(taskId);
+                events.add(new TaskChangedEvent(taskId, after == null ? ChangeType.DELETED : ChangeType.UPDATED,
+                        before, after));
+            }
+            if (changed.isEmpty()) {
+                continue;
+            }
+
+            updated += write(request, changed, assignee, now);
+            auditLogService.logSystemActivities(activity(request), "TASK", changed);
+            events.forEach(eventPublisher::publishEvent);
+        }
+
+        return TaskBatchResultDTO.builder()
+                .operation(request.getOperation())
+                .matched(matched)
+                .updated(updated)
+                .unchanged(matched - updated)
+                .notFound(ids.size() - matched)
+                .build();
+    }
+
+    private int write(TaskBatchRequestDTO request, List<Long> ids, User assignee, LocalDateTime now) {
+        return switch (request.getOperation()) {
+            case ASSIGN -> taskRepository.assignAll(ids, assignee, now);
+            case STATUS -> request.getStatus() == TaskStatus.COMPLETED
+                    ? taskRepository.completeAll(ids, now)
+                    : taskRepository.updateStatusAll(ids, request.getStatus(), now);
+            case PRIORITY -> taskRepository.updatePriorityAll(ids, request.getPriority(), now);
+            case DELETE -> taskRepository.deleteAllByIdIn(ids);
+        };
+    }
+
+    private static TaskSnapshot apply(TaskBatchRequestDTO request, TaskSnapshot before) {
+        return switch (request.getOperation()) {
+            case ASSIGN -> new TaskSnapshot(before.getStatus(), before.getPriority(), before.getType(),
+                    request.getAssigneeId(), before.getDueDate(), before.getReminderDate());
+            case STATUS -> new TaskSnapshot(request.getStatus(), before.getPriority(), before.getType(),
+                    before.getAssigneeId(), before.getDueDate(), before.getReminderDate());
+            case PRIORITY -> new TaskSnapshot(before.getStatus(), request.getPriority(), before.getType(),
+                    before.getAssigneeId(), before.getDueDate(), before.getReminderDate());
+            case DELETE -> null;
+        };
+    }
+
+    private static boolean changes(TaskBatchOperation operation, TaskSnapshot before, TaskSnapshot after) {
+        return switch (operation) {
+            case ASSIGN -> !Objects.equals(before.getAssigneeId(), after.getAssigneeId());
+            case STATUS -> before.getStatus() != after.getStatus();
+            case PRIORITY -> before.getPriority() != after.getPriority();
+            case DELETE -> true;
+        };
+    }
+
+    private static String activity(TaskBatchRequestDTO request) {
+        return switch (request.getOperation()) {
+            case ASSIGN -> "TASK_ASSIGNED";
+            case STATUS -> request.getStatus() == TaskStatus.COMPLETED ? "TASK_COMPLETED" : "TASK_STATUS_UPDATED";
+            case PRIORITY -> "TASK_PRIORITY_UPDATED";
+            case DELETE -> "TASK_DELETED";
+        };
+    }
+
+    private void validate(TaskBatchRequestDTO request) {
+        if (request.getOperation() == null) {
+            throw new IllegalArgumentException("Batch operation is required");
+        }
+        boolean hasIds = request.getTaskIds() != null && !request.getTaskIds().isEmpty();
+        if (hasIds == (request.getFilter() != null)) {
+            throw new IllegalArgumentException("Provide either task IDs or a filter");
+        }
+        if (request.getFilter() != null && !hasCriteria(request.getFilter())) {
+            throw new IllegalArgumentException("Batch filter must have at least one criterion");
+        }
+        switch (request.getOperation()) {
+            case ASSIGN -> {
+                if (request.getAssigneeId() == null) {
+                    throw new IllegalArgumentException("Assignee is required for ASSIGN");
+                }
+                if (!userRepository.existsById(request.getAssigneeId())) {
+                    throw new IllegalArgumentException("User not found");
+                }
+            }
+            case STATUS -> {
+                if (request.getStatus() == null) {
+                    throw new IllegalArgumentException("Status is required for STATUS");
+                }
+            }
+            case PRIORITY -> {
+                if (request.getPriority() == null) {
+                    throw new IllegalArgumentException("Priority is required for PRIORITY");
+                }
+            }
+            case DELETE -> {
+            }
+        }
+    }
+
+    private List<Long> resolveTargets(TaskBatchRequestDTO request) {
+        if (request.getFilter() == null) {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getTaskIds()));
+            ids.removeIf(Objects::isNull);
+            if (ids.size() > maxTasks) {
+                throw new IllegalArgumentException("A batch can target at most " + maxTasks + " tasks");
+            }
+            return ids;
+        }
+        TaskBatchRequestDTO.Filter filter = request.getFilter();
+        Collection<TaskStatus> statuses = filter.getStatuses() == null || filter.getStatuses().isEmpty()
+                ? EnumSet.allOf(TaskStatus.class) : filter.getStatuses();
+        Collection<TaskPriority> priorities = filter.getPriorities() == null || filter.getPriorities().isEmpty()
+                ? EnumSet.allOf(TaskPriority.class) : filter.getPriorities();
+        List<Long> ids = taskRepository.findIdsMatching(filter.getAssigneeId(), filter.getCustomerId(), statuses,
+                priorities, filter.getDueAfter(), filter.getDueBefore(), PageRequest.of(0, maxTasks + 1));
+        if (ids.size() > maxTasks) {
+            throw new IllegalArgumentException("Batch filter matches more than " + maxTasks + " tasks");
+        }
+        return ids;
+    }
+
+    private static boolean hasCriteria(TaskBatchRequestDTO.Filter filter) {
+        return filter.getAssigneeId() != null || filter.getCustomerId() != null
+                || (filter.getStatuses() != null && !filter.getStatuses().isEmpty())
+                || (filter.getPriorities() != null && !filter.getPriorities().isEmpty())
+                || filter.getDueAfter() != null || filter.getDueBefore() != null;
+    }
+
+    /**
+     * Reads the committed record with a shared lock, which sees rows committed after this
+     * transaction's snapshot was taken.
+     */
+    private Optional<IdempotencyRecord> lockRecord(String idempotencyKey) {
+        return idempotencyRecordRepository.lockByScopeAndIdempotencyKey(IDEMPOTENCY_SCOPE, idempotencyKey);
+    }
+
+    private TaskBatchResultDTO replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency key was already used for a different batch");
+        }
+        try {
+            TaskBatchResultDTO result = objectMapper.readValue(record.getResponseBody(), TaskBatchResultDTO.class);
+            result.setReplayed(true);
+            return result;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored batch result is unreadable", e);
+        }
+    }
+
+    private String write(TaskBatchResultDTO result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to store batch result", e);
+        }
+    }
+
+    /**
+     * Hashes a canonical form of the request, with ids and enum sets sorted, so the same batch
+     * always produces the same hash.
+     */
+    private static String fingerprint(TaskBatchRequestDTO request) {
+        StringBuilder canonical = new StringBuilder()
+                .append(request.getOperation()).append('|')
+                .append(request.getAssigneeId()).append('|')
+                .append(request.getStatus()).append('|')
+                .append(request.getPriority()).append('|');
+        if (request.getTaskIds() != null) {
+            TreeSet<Long> ids = new TreeSet<>();
+            request.getTaskIds().stream().filter(Objects::nonNull).forEach(ids::add);
+            canonical.append(ids);
+        }
+        TaskBatchRequestDTO.Filter filter = request.getFilter();
+        if (filter != null) {
+            canonical.append('|').append(filter.getAssigneeId())
+                    .append('|').append(filter.getCustomerId())
+                    .append('|').append(filter.getStatuses() != null ? new TreeSet<>(filter.getStatuses()) : null)
+                    .append('|').append(filter.getPriorities() != null ? new TreeSet<>(filter.getPriorities()) : null)
+                    .append('|').append(filter.getDueAfter())
+                    .append('|').append(filter.getDueBefore());
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static TaskSnapshot snapshot(Object[] row) {
+        return new TaskSnapshot((TaskStatus) row[1], (TaskPriority) row[2], (TaskType) row[3], (Long) row[4],
+                (LocalDateTime) row[5], (LocalDateTime) row[6]);
+    }
+}
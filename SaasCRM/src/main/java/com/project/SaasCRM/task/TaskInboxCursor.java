@@ -0,0 +1,37 @@
+package com.project.SaasCRM.task;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in a task inbox ordered by {@code (due_date, id)}, with undated tasks after all dated ones.
+ *
+ * <p>Encoded as {@code <ISO due date>_<id>}, or {@code ~_<id>} once the undated tail is reached. The
+ * due date keeps full precision so the keyset predicate never re-reads the last row.</p>
+ */
+public record TaskInboxCursor(LocalDateTime dueDate, long id) {
+
+    private static final String UNDATED = "~";
+
+    public boolean isUndated() {
+        return dueDate == null;
+    }
+
+    public String encode() {
+        return (dueDate == null ? UNDATED : dueDate.toString()) + "_" + id;
+    }
+
+    public static TaskInboxCursor decode(String value) {
+        int separator = value.lastIndexOf('_');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid inbox cursor: " + value);
+        }
+        try {
+            String due = value.substring(0, separator);
+            long id = Long.parseLong(value.substring(separator + 1));
+            return new TaskInboxCursor(UNDATED.equals(due) ? null : LocalDateTime.parse(due), id);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid inbox cursor: " + value);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.project.SaasCRM.task;
+
+import com.project.SaasCRM.domain.event.TaskChangedEvent;
+import com.project.SaasCRM.domain.event.TaskSnapshot;
+import com.project.SaasCRM.repository.TaskRepository;
+import com.project.SaasCRM.service.NotificationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires task reminders (including meetings, which are tasks of type MEETING) from an in-process
+ * {@link HierarchicalTimerWheel}.
+ *
+ * <p>The wheel only holds reminders that fall inside a sliding window ahead of now. The window is
+ * extended periodically by an indexed range query over {@code reminder_date} that only covers the
+ * slice added since the previous refill, and committed task writes reschedule or cancel their own
+ * entry, so no query ever scans for due reminders. Task writes that commit while a refill query runs
+ * are replayed over its rows, so a stale row cannot undo them.</p>
+ *
+ * <p>Every node keeps its own wheel. When a reminder fires, {@link NotificationService#sendTaskReminder}
+ * marks it sent with a conditional update that also checks the task is still open, so it goes out once
+ * and not for a task closed in the meantime.</p>
+ */
+@Component
+@Slf4j
+public class TaskReminderScheduler {
+
+    private final TaskRepository taskRepository;
+    private final NotificationService notificationService;
+    private final ExecutorService dispatcher;
+    private final HierarchicalTimerWheel wheel;
+    private final long tickMs;
+    private final long windowMillis;
+    // Task events committed during a refill query, replayed over its rows; null when none is running
+    private List<TaskChangedEvent> refillTaskEvents;
+
+    private volatile LocalDateTime loadedUntil;
+
+    public TaskReminderScheduler(TaskRepository taskRepository,
+                                 NotificationService notificationService,
+                                 @Value("${app.reminders.tick-ms:1000}") long tickMs,
+                                 @Value("${app.reminders.window-minutes:120}") long windowMinutes,
+                                 @Value("${app.reminders.dispatch-threads:2}") int dispatchThreads) {
+        this.taskRepository = taskRepository;
+        this.notificationService = notificationService;
+        this.wheel = new HierarchicalTimerWheel(tickMs, 3, System.currentTimeMillis());
+        this.tickMs = tickMs;
+        this.windowMillis = Math.min(windowMinutes * 60_000L, wheel.horizonMillis() / 2);
+        AtomicInteger threads = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(Math.max(1, dispatchThreads), runnable -> {
+            Thread thread = new Thread(runnable, "task-reminder-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    public int getScheduledCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * Loads the reminders between the end of the previously loaded window and now plus the window
+     * length. The first run loads the whole window starting at now.
+     */
+    @Scheduled(initialDelayString = "${app.reminders.initial-load-delay-ms:5000}",
+            fixedDelayString = "${app.reminders.refill-interval-ms:300000}")
+    public void refill() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = loadedUntil != null && loadedUntil.isAfter(now) ? loadedUntil : now;
+        LocalDateTime to = now.plusNanos(windowMillis * 1_000_000L);
+        if (!to.isAfter(from)) {
+            return;
+        }
+        synchronized (wheel) {
+            refillTaskEvents = new ArrayList<>();
+        }
+        List<Object[]> rows = taskRepository.findReminderRowsBetween(from, to, TaskStatisticsCache.OPEN_STATUSES);
+        int replayed;
+        synchronized (wheel) {
+            for (Object[] row : rows) {
+                wheel.schedule((Long) row[0], deadline((LocalDateTime) row[1]));
+            }
+            replayed = refillTaskEvents.size();
+            for (TaskChangedEvent event : refillTaskEvents) {
+                apply(event, System.currentTimeMillis());
+            }
+            refillTaskEvents = null;
+        }
+        loadedUntil = to;
+        log.debug("Loaded {} task reminders up to {}, replayed {} task events", rows.size(), to, replayed);
+    }
+
+    @Scheduled(fixedRateString = "${app.reminders.tick-ms:1000}")
+    public void tick() {
+        List<Long> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        for (Long taskId : due) {
+            dispatcher.execute(() -> fire(taskId));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.getTaskId() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (wheel) {
+            if (refillTaskEvents != null) {
+                refillTaskEvents.add(event);
+            }
+            apply(event, now);
+        }
+    }
+
+    private void apply(TaskChangedEvent event, long now) {
+        TaskSnapshot after = event.getAfter();
+        if (after == null || after.getReminderDate() == null || after.getAssigneeId() == null
+                || !TaskStatisticsCache.OPEN_STATUSES.contains(after.getStatus())) {
+            wheel.cancel(event.getTaskId());
+            return;
+        }
+        long reminderAt = toMillis(after.getReminderDate());
+        if (reminderAt < now || reminderAt > now + windowMillis) {
+            // Past reminders are not replayed; later ones are picked up when the window slides.
+            wheel.cancel(event.getTaskId());
+            return;
+        }
+        wheel.schedule(event.getTaskId(), deadline(after.getReminderDate()));
+    }
+
+    /**
+     * Rounds the reminder time up to the next tick, since the wheel fires a whole tick at once and the
+     * send only goes out once the reminder is due.
+     */
+    private long deadline(LocalDateTime reminderDate) {
+        return toMillis(reminderDate) + tickMs - 1;
+    }
+
+    private void fire(Long taskId) {
+        try {
+            notificationService.sendTaskReminder(taskId);
+        } catch (Exception e) {
+            log.warn("Failed to send reminder for task {}", taskId, e);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,239 @@
+package com.project.SaasCRM.task;
+
+import com.project.SaasCRM.domain.TaskPriority;
+import com.project.SaasCRM.domain.TaskStatus;
+import com.project.SaasCRM.domain.TaskType;
+import com.project.SaasCRM.domain.entity.TaskSeries;
+import com.project.SaasCRM.domain.event.ChangeType;
+import com.project.SaasCRM.domain.event.TaskChangedEvent;
+import com.project.SaasCRM.domain.event.TaskSnapshot;
+import com.project.SaasCRM.mapper.TaskSeriesMapper;
+import com.project.SaasCRM.repository.TaskRepository;
+import com.project.SaasCRM.repository.TaskSeriesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns {@link TaskSeries} rules into task rows.
+ *
+ * <p>Occurrences are only materialised up to a rolling horizon ahead of now. Each pass inserts the
+ * occurrences between the series' {@code materialized_through} mark and the horizon with one JDBC
+ * batch and then advances the mark, so series are extended lazily and never re-read from the start.
+ * Edits to a series are applied to its future pending occurrences with single set-based statements.
+ * Both paths lock the series row first, so an edit and a horizon extension of the same series run
+ * one after the other and never mix occurrences of the old and the new rule.</p>
+ */
+@Component
+@Slf4j
+public class TaskSeriesMaterializer {
+
+    private static final String INSERT_SQL = "INSERT INTO tasks (title, description, task_type, due_date, "
+            + "reminder_date, status, priority, assignee_id, customer_id, series_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_FUTURE_SQL = "UPDATE tasks SET title = ?, description = ?, task_type = ?, "
+            + "priority = ?, assignee_id = ?, customer_id = ?, updated_at = ? "
+            + "WHERE series_id = ? AND due_date > ? AND status = 'PENDING'";
+    private static final String DELETE_FUTURE_SQL =
+            "DELETE FROM tasks WHERE series_id = ? AND due_date > ? AND status = 'PENDING'";
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final Set<TaskStatus> PENDING = EnumSet.of(TaskStatus.PENDING);
+
+    private final TaskSeriesRepository seriesRepository;
+    private final TaskRepository taskRepository;
+    private final TaskSeriesMapper seriesMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.task-series.horizon-days:30}")
+    private int horizonDays;
+
+    @Value("${app.task-series.load-batch-size:500}")
+    private int loadBatchSize;
+
+    public TaskSeriesMaterializer(TaskSeriesRepository seriesRepository,
+                                  TaskRepository taskRepository,
+                                  TaskSeriesMapper seriesMapper,
+                                  JdbcTemplate jdbcTemplate,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager) {
+        this.seriesRepository = seriesRepository;
+        this.taskRepository = taskRepository;
+        this.seriesMapper = seriesMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public RecurrenceRule ruleOf(TaskSeries series) {
+        return new RecurrenceRule(series.getFrequency(), series.getInterval(),
+                seriesMapper.stringToWeekdays(series.getByWeekdays()), series.getStartAt(),
+                series.getUntilAt(), series.getMaxOccurrences());
+    }
+
+    /**
+     * Extends every active series whose materialised range falls short of the horizon, one
+     * transaction per series.
+     */
+    @Scheduled(initialDelayString = "${app.task-series.initial-delay-ms:10000}",
+            fixedDelayString = "${app.task-series.materialize-interval-ms:3600000}")
+    public void materializeAll() {
+        LocalDateTime horizon = horizon();
+        long started = System.currentTimeMillis();
+        int created = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Long> ids = seriesRepository.findIdsDueForMaterializationAfter(afterId, horizon,
+                    PageRequest.of(0, loadBatchSize));
+            for (Long id : ids) {
+                try {
+                    Integer inserted = transactionTemplate.execute(status -> seriesRepository.lockById(id)
+                            .map(series -> materialize(series, horizon))
+                            .orElse(0));
+                    created += inserted != null ? inserted : 0;
+                } catch (RuntimeException e) {
+                    log.warn("Failed to materialise task series {}", id, e);
+                }
+            }
+            if (ids.size() < loadBatchSize) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+        if (created > 0) {
+            log.info("Materialised {} recurring tasks in {} ms", created, System.currentTimeMillis() - started);
+        }
+    }
+
+    public LocalDateTime horizon() {
+        return LocalDateTime.now().plusDays(horizonDays);
+    }
+
+    /**
+     * Inserts the occurrences of {@code series} up to {@code horizon} that do not exist yet and
+     * advances its mark. Must run inside a transaction.
+     *
+     * @return the number of tasks inserted
+     */
+    public int materialize(TaskSeries series, LocalDateTime horizon) {
+        if (!series.isActive()) {
+            return 0;
+        }
+        RecurrenceRule rule = ruleOf(series);
+        LocalDateTime now = LocalDateTime.now();
+        // A new series starts from now rather than backfilling occurrences that already passed.
+        LocalDateTime from = series.getMaterializedThrough() != null ? series.getMaterializedThrough()
+                : (series.getStartAt().isBefore(now) ? now : series.getStartAt().minusNanos(1));
+        List<LocalDateTime> occurrences = from.isBefore(horizon) ? rule.between(from, horizon) : List.of();
+
+        int inserted = 0;
+        if (!occurrences.isEmpty()) {
+            Set<LocalDateTime> existing = new HashSet<>();
+            for (Object[] row : taskRepository.findSeriesOccurrenceRows(series.getId(), from, horizon,
+                    EnumSet.allOf(TaskStatus.class))) {
+                existing.add((LocalDateTime) row[5]);
+            }
+            Timestamp created = Timestamp.valueOf(now);
+            List<Object[]> batch = new ArrayList<>(occurrences.size());
+            for (LocalDateTime dueDate : occurrences) {
+                if (existing.contains(dueDate)) {
+                    continue;
+                }
+                LocalDateTime reminderDate = series.getReminderMinutesBefore() != null
+                        ? dueDate.minusMinutes(series.getReminderMinutesBefore()) : null;
+                batch.add(new Object[]{series.getTitle(), series.getDescription(), name(series.getType()),
+                        Timestamp.valueOf(dueDate), reminderDate != null ? Timestamp.valueOf(reminderDate) : null,
+                        TaskStatus.PENDING.name(), name(series.getPriority()), series.getAssigneeId(),
+                        series.getCustomerId(), series.getId(), created, created});
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                inserted = batch.size();
+                publishCreated(series.getId(), from, horizon, existing);
+            }
+        }
+
+        LocalDateTime through = horizon.isAfter(from) ? horizon : from;
+        series.setMaterializedThrough(through);
+        series.setOccurrenceCount(series.getOccurrenceCount() + inserted);
+        if (rule.nextAfter(through) == null) {
+            series.setActive(false);
+        }
+        seriesRepository.save(series);
+        return inserted;
+    }
+
+    /**
+     * Copies the task attributes of {@code series} onto its pending occurrences due after now.
+     * Must run inside a transaction.
+     */
+    public int applyAttributes(TaskSeries series) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = taskRepository.findSeriesOccurrenceRows(series.getId(), now, LATEST, PENDING);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int updated = jdbcTemplate.update(UPDATE_FUTURE_SQL, series.getTitle(), series.getDescription(),
+                name(series.getType()), name(series.getPriority()), series.getAssigneeId(), series.getCustomerId(),
+                Timestamp.valueOf(now), series.getId(), Timestamp.valueOf(now));
+        for (Object[] row : rows) {
+            TaskSnapshot before = snapshot(row);
+            TaskSnapshot after = new TaskSnapshot(TaskStatus.PENDING, series.getPriority(), series.getType(),
+                    series.getAssigneeId(), before.getDueDate(), before.getReminderDate());
+            eventPublisher.publishEvent(new TaskChangedEvent((Long) row[0], ChangeType.UPDATED, before, after));
+        }
+        return updated;
+    }
+
+    /**
+     * Deletes the pending occurrences of {@code series} due after now and rewinds its mark so the
+     * next materialisation regenerates them from the current rule. Must run inside a transaction.
+     */
+    public int removeFutureOccurrences(TaskSeries series) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = taskRepository.findSeriesOccurrenceRows(series.getId(), now, LATEST, PENDING);
+        int deleted = rows.isEmpty() ? 0
+                : jdbcTemplate.update(DELETE_FUTURE_SQL, series.getId(), Timestamp.valueOf(now));
+        for (Object[] row : rows) {
+            eventPublisher.publishEvent(new TaskChangedEvent((Long) row[0], ChangeType.DELETED, snapshot(row), null));
+        }
+        series.setOccurrenceCount(Math.max(0, series.getOccurrenceCount() - deleted));
+        if (series.getMaterializedThrough() != null && series.getMaterializedThrough().isAfter(now)) {
+            series.setMaterializedThrough(now);
+        }
+        return deleted;
+    }
+
+    private void publishCreated(Long seriesId, LocalDateTime from, LocalDateTime to, Set<LocalDateTime> existing) {
+        for (Object[] row : taskRepository.findSeriesOccurrenceRows(seriesId, from, to, PENDING)) {
+            if (existing.contains((LocalDateTime) row[5])) {
+                continue;
+            }
+            eventPublisher.publishEvent(new TaskChangedEvent((Long) row[0], ChangeType.CREATED, null, snapshot(row)));
+        }
+    }
+
+    private static TaskSnapshot snapshot(Object[] row) {
+        return new TaskSnapshot((TaskStatus) row[1], (TaskPriority) row[2], (TaskType) row[3], (Long) row[4],
+                (LocalDateTime) row[5], (LocalDateTime) row[6]);
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+}
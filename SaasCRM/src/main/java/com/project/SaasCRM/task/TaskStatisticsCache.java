@@ -0,0 +1,276 @@
+package com.project.SaasCRM.task;
+
+import com.project.SaasCRM.domain.TaskPriority;
+import com.project.SaasCRM.domain.TaskStatus;
+import com.project.SaasCRM.domain.TaskType;
+import com.project.SaasCRM.domain.dto.TaskStatisticsDTO;
+import com.project.SaasCRM.domain.event.TaskChangedEvent;
+import com.project.SaasCRM.domain.event.TaskSnapshot;
+import com.project.SaasCRM.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory task counters for dashboard headers.
+ *
+ * <p>Counts by status, priority and type, globally and per assignee, are loaded from one grouped
+ * aggregate query and then adjusted in place from the before/after snapshots on
+ * {@link TaskChangedEvent}, so reading them costs no database round trip. A periodic reconcile
+ * reloads them to absorb any drift; events arriving while it reloads are replayed onto the reloaded
+ * counters before they are swapped in. Overdue and due-today counts depend on the clock, so they are
+ * recomputed by a single indexed range count whenever tasks change or the cached value ages out.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskStatisticsCache {
+
+    public static final Set<TaskStatus> OPEN_STATUSES =
+            EnumSet.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS, TaskStatus.ON_HOLD);
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+    private static final TaskType[] TYPES = TaskType.values();
+
+    private final TaskRepository taskRepository;
+
+    private final Object refreshLock = new Object();
+    // Task events seen during a reconcile, guarded by its own monitor; null when not reconciling
+    private final Object taskEventLock = new Object();
+    private List<TaskChangedEvent> rebuildTaskEvents;
+    private volatile State state;
+    private volatile DueCounts dueCounts;
+    private volatile boolean dueDirty = true;
+
+    @Value("${app.task-stats.due-max-age-ms:60000}")
+    private long dueMaxAgeMs;
+
+    public boolean isReady() {
+        return state != null;
+    }
+
+    public TaskStatisticsDTO getStatistics() {
+        Counters counters = currentState().global;
+        DueCounts due = currentDueCounts();
+        return counters.toDto(null, due.overdue, due.dueToday, due.computedAt);
+    }
+
+    /**
+     * Returns the counters of one assignee. Due counts are not cached per user, so they cost one
+     * indexed count over the assignee's open tasks.
+     */
+    public TaskStatisticsDTO getStatistics(Long userId) {
+        Counters counters = currentState().byAssignee.getOrDefault(userId, new Counters());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dayStart = LocalDate.now().atStartOfDay();
+        long[] due = toDueCounts(taskRepository.countOverdueAndDueTodayByAssignee(
+                userId, OPEN_STATUSES, now, dayStart, dayStart.plusDays(1)));
+        return counters.toDto(userId, due[0], due[1], now);
+    }
+
+    public Map<TaskStatus, Long> getStatusCounts() {
+        return currentState().global.statusCounts();
+    }
+
+    public Map<TaskStatus, Long> getStatusCounts(Long userId) {
+        return currentState().byAssignee.getOrDefault(userId, new Counters()).statusCounts();
+    }
+
+    @Scheduled(initialDelayString = "${app.task-stats.initial-load-delay-ms:5000}",
+            fixedDelayString = "${app.task-stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        synchronized (refreshLock) {
+            long started = System.currentTimeMillis();
+            synchronized (taskEventLock) {
+                rebuildTaskEvents = new ArrayList<>();
+            }
+            Counters global = new Counters();
+            Map<Long, Counters> byAssignee = new ConcurrentHashMap<>();
+            for (Object[] row : taskRepository.countGroupedByAssigneeStatusPriorityType()) {
+                Long assigneeId = (Long) row[0];
+                TaskStatus status = (TaskStatus) row[1];
+                TaskPriority priority = (TaskPriority) row[2];
+                TaskType type = (TaskType) row[3];
+                long count = ((Number) row[4]).longValue();
+                global.add(status, priority, type, count);
+                if (assigneeId != null) {
+                    byAssignee.computeIfAbsent(assigneeId, id -> new Counters()).add(status, priority, type, count);
+                }
+            }
+            State fresh = new State(global, byAssignee);
+            int replayed;
+            synchronized (taskEventLock) {
+                // A task committed between the start of buffering and the grouped query is counted twice
+                // until the next reconcile; losing it would be worse
+                replayed = rebuildTaskEvents.size();
+                rebuildTaskEvents.forEach(fresh::apply);
+                rebuildTaskEvents = null;
+                state = fresh;
+            }
+            dueDirty = true;
+            log.info("Task statistics reconciled: {} tasks, {} assignees, {} task changes replayed in {} ms",
+                    global.total.get(), byAssignee.size(), replayed, System.currentTimeMillis() - started);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.task-stats.due-refresh-interval-ms:5000}")
+    public void refreshDueCounts() {
+        DueCounts current = dueCounts;
+        if (!dueDirty && current != null && !isStale(current)) {
+            return;
+        }
+        dueDirty = false;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dayStart = LocalDate.now().atStartOfDay();
+        long[] due = toDueCounts(taskRepository.countOverdueAndDueToday(
+                OPEN_STATUSES, now, dayStart, dayStart.plusDays(1)));
+        dueCounts = new DueCounts(due[0], due[1], now);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        synchronized (taskEventLock) {
+            if (rebuildTaskEvents != null) {
+                rebuildTaskEvents.add(event);
+            }
+            State current = state;
+            if (current != null) {
+                current.apply(event);
+            }
+        }
+        dueDirty = true;
+    }
+
+    private State currentState() {
+        if (state == null) {
+            reconcile();
+        }
+        return state;
+    }
+
+    private DueCounts currentDueCounts() {
+        DueCounts current = dueCounts;
+        if (current == null || isStale(current)) {
+            refreshDueCounts();
+            current = dueCounts;
+        }
+        return current;
+    }
+
+    private boolean isStale(DueCounts counts) {
+        return counts.computedAt.plus(Duration.ofMillis(dueMaxAgeMs)).isBefore(LocalDateTime.now());
+    }
+
+    private static long[] toDueCounts(List<Object[]> rows) {
+        long[] counts = new long[2];
+        if (!rows.isEmpty()) {
+            Object[] row = rows.get(0);
+            counts[0] = row[0] != null ? ((Number) row[0]).longValue() : 0L;
+            counts[1] = row[1] != null ? ((Number) row[1]).longValue() : 0L;
+        }
+        return counts;
+    }
+
+    private record DueCounts(long overdue, long dueToday, LocalDateTime computedAt) {
+    }
+
+    private static final class State {
+        final Counters global;
+        final Map<Long, Counters> byAssignee;
+
+        State(Counters global, Map<Long, Counters> byAssignee) {
+            this.global = global;
+            this.byAssignee = byAssignee;
+        }
+
+        void apply(TaskChangedEvent event) {
+            apply(event.getBefore(), -1);
+            apply(event.getAfter(), 1);
+        }
+
+        void apply(TaskSnapshot snapshot, long delta) {
+            if (snapshot == null) {
+                return;
+            }
+            global.add(snapshot.getStatus(), snapshot.getPriority(), snapshot.getType(), delta);
+            if (snapshot.getAssigneeId() != null) {
+                byAssignee.computeIfAbsent(snapshot.getAssigneeId(), id -> new Counters())
+                        .add(snapshot.getStatus(), snapshot.getPriority(), snapshot.getType(), delta);
+            }
+        }
+    }
+
+    /**
+     * Status, priority and type counters for one scope, indexed by enum ordinal.
+     */
+    private static final class Counters {
+        final AtomicLong total = new AtomicLong();
+        final AtomicLongArray byStatus = new AtomicLongArray(STATUSES.length);
+        final AtomicLongArray byPriority = new AtomicLongArray(PRIORITIES.length);
+        final AtomicLongArray byType = new AtomicLongArray(TYPES.length);
+
+        void add(TaskStatus status, TaskPriority priority, TaskType type, long delta) {
+            total.addAndGet(delta);
+            if (status != null) {
+                byStatus.addAndGet(status.ordinal(), delta);
+            }
+            if (priority != null) {
+                byPriority.addAndGet(priority.ordinal(), delta);
+            }
+            if (type != null) {
+                byType.addAndGet(type.ordinal(), delta);
+            }
+        }
+
+        Map<TaskStatus, Long> statusCounts() {
+            return toMap(STATUSES, byStatus, TaskStatus.class);
+        }
+
+        TaskStatisticsDTO toDto(Long assigneeId, long overdue, long dueToday, LocalDateTime dueCountsAsOf) {
+            long open = 0;
+            for (TaskStatus status : OPEN_STATUSES) {
+                open += Math.max(0L, byStatus.get(status.ordinal()));
+            }
+            return TaskStatisticsDTO.builder()
+                    .assigneeId(assigneeId)
+                    .total(Math.max(0L, total.get()))
+                    .open(open)
+                    .overdue(overdue)
+                    .dueToday(dueToday)
+                    .byStatus(statusCounts())
+                    .byPriority(toMap(PRIORITIES, byPriority, TaskPriority.class))
+                    .byType(toMap(TYPES, byType, TaskType.class))
+                    .dueCountsAsOf(dueCountsAsOf)
+                    .build();
+        }
+
+        private static <E extends Enum<E>> Map<E, Long> toMap(E[] values, AtomicLongArray counts, Class<E> type) {
+            Map<E, Long> result = new EnumMap<>(type);
+            for (E value : values) {
+                long count = counts.get(value.ordinal());
+                if (count > 0) {
+                    result.put(value, count);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.project.SaasCRM.timeline;
+
+import com.project.SaasCRM.archive.ArchiveReader;
+import com.project.SaasCRM.domain.TimelineSource;
+import com.project.SaasCRM.domain.dto.CursorPageDTO;
+import com.project.SaasCRM.domain.dto.EmailCommunicationDTO;
+import com.project.SaasCRM.domain.dto.InteractionDTO;
+import com.project.SaasCRM.domain.dto.TimelineEntryDTO;
+import com.project.SaasCRM.repository.AuditLogRepository;
+import com.project.SaasCRM.repository.DealRepository;
+import com.project.SaasCRM.repository.EmailCommunicationRepository;
+import com.project.SaasCRM.repository.InteractionRepository;
+import com.project.SaasCRM.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Reads one page of a customer's activity, newest first, across interactions, emails, tasks, deals
+ * and the customer's audit entries.
+ *
+ * <p>Each source is read with a keyset query over its {@code (customer, time, id)} index that is
+ * limited to the page size plus one, and the sorted results are k-way merged through a heap, so a page
+ * costs one short index range per source regardless of how long the history is. Deals have no change
+ * history table, so each deal appears once, at its last update.</p>
+ *
+ * <p>Archived interactions and emails are read the same way from the archive tier and merged as two
+ * more sources; they keep their original ids, so cursors stay valid across the hot/cold boundary.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerTimelineReader {
+
+    public static final int MAX_LIMIT = 200;
+
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final Comparator<TimelineEntryDTO> NEWEST_FIRST = Comparator
+            .comparing(TimelineEntryDTO::getOccurredAt, Comparator.reverseOrder())
+            .thenComparing(TimelineEntryDTO::getSource)
+            .thenComparing(TimelineEntryDTO::getId, Comparator.reverseOrder());
+
+    private final InteractionRepository interactionRepository;
+    private final EmailCommunicationRepository emailCommunicationRepository;
+    private final TaskRepository taskRepository;
+    private final DealRepository dealRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final ArchiveReader archiveReader;
+
+    public CursorPageDTO<TimelineEntryDTO> read(Long customerId, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        TimelineCursor position = cursor == null || cursor.isBlank() ? null : TimelineCursor.decode(cursor);
+        LocalDateTime before = position != null ? position.occurredAt() : LATEST;
+        Pageable page = PageRequest.of(0, limit + 1);
+
+        List<List<TimelineEntryDTO>> sources = new ArrayList<>(TimelineSource.values().length + 2);
+        for (TimelineSource source : TimelineSource.values()) {
+            long beforeId = position != null ? position.beforeIdFor(source) : Long.MAX_VALUE;
+            sources.add(toEntries(source, load(source, customerId, before, beforeId, page)));
+        }
+        sources.add(archivedInteractions(customerId, before,
+                position != null ? position.beforeIdFor(TimelineSource.INTERACTION) : Long.MAX_VALUE, limit + 1));
+        sources.add(archivedEmails(customerId, before,
+                position != null ? position.beforeIdFor(TimelineSource.EMAIL) : Long.MAX_VALUE, limit + 1));
+
+        List<TimelineEntryDTO> items = merge(sources, limit + 1);
+        boolean hasMore = items.size() > limit;
+        if (hasMore) {
+            items = items.subList(0, limit);
+        }
+        TimelineEntryDTO last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return CursorPageDTO.<TimelineEntryDTO>builder()
+                .items(items)
+                .nextCursor(hasMore ? new TimelineCursor(last.getOccurredAt(), last.getSource(), last.getId()).encode()
+                        : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private List<Object[]> load(TimelineSource source, Long customerId, LocalDateTime before, long beforeId,
+                                Pageable page) {
+        return switch (source) {
+            case INTERACTION -> interactionRepository.findTimelineRows(customerId, before, beforeId, page);
+            case EMAIL -> emailCommunicationRepository.findTimelineRows(customerId, before, beforeId, page);
+            case TASK -> taskRepository.findTimelineRows(customerId, before, beforeId, page);
+            case DEAL -> dealRepository.findTimelineRows(customerId, before, beforeId, page);
+            case AUDIT -> auditLogRepository.findTimelineRows("CUSTOMER", customerId, before, beforeId, page);
+        };
+    }
+
+    private List<TimelineEntryDTO> archivedInteractions(Long customerId, LocalDateTime before, long beforeId,
+                                                        int limit) {
+        List<TimelineEntryDTO> entries = new ArrayList<>();
+        for (InteractionDTO interaction : archiveReader.findInteractionTimeline(customerId, before, beforeId, limit)) {
+            entries.add(TimelineEntryDTO.builder()
+                    .source(TimelineSource.INTERACTION)
+                    .id(interaction.getId())
+                    .occurredAt(interaction.getCreatedAt())
+                    .title(interaction.getTitle())
+                    .detail(Objects.toString(interaction.getType(), null))
+                    .userId(interaction.getUserId())
+                    .build());
+        }
+        return entries;
+    }
+
+    private List<TimelineEntryDTO> archivedEmails(Long customerId, LocalDateTime before, long beforeId, int limit) {
+        List<TimelineEntryDTO> entries = new ArrayList<>();
+        for (EmailCommunicationDTO email : archiveReader.findEmailTimeline(customerId, before, beforeId, limit)) {
+            entries.add(TimelineEntryDTO.builder()
+                    .source(TimelineSource.EMAIL)
+                    .id(email.getId())
+                    .occurredAt(email.getCreatedAt())
+                    .title(email.getSubject())
+                    .detail(Objects.toString(email.getSendStatus(), null))
+                    .userId(email.getSentByUserId())
+                    .build());
+        }
+        return entries;
+    }
+
+    /**
+     * Merges lists that are each sorted newest first into the first {@code limit} entries overall.
+     */
+    static List<TimelineEntryDTO> merge(List<List<TimelineEntryDTO>> sources, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(sources.size(),
+                Comparator.comparing(Head::entry, NEWEST_FIRST));
+        for (List<TimelineEntryDTO> source : sources) {
+            Iterator<TimelineEntryDTO> iterator = source.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+        List<TimelineEntryDTO> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.entry());
+            if (head.rest().hasNext()) {
+                heads.add(new Head(head.rest().next(), head.rest()));
+            }
+        }
+        return merged;
+    }
+
+    private static List<TimelineEntryDTO> toEntries(TimelineSource source, List<Object[]> rows) {
+        List<TimelineEntryDTO> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            entries.add(TimelineEntryDTO.builder()
+                    .source(source)
+                    .id((Long) row[0])
+                    .occurredAt((LocalDateTime) row[1])
+                    .title((String) row[2])
+                    .detail(Objects.toString(row[3], null))
+                    .userId(row.length > 4 ? (Long) row[4] : null)
+                    .build());
+        }
+        return entries;
+    }
+
+    private record Head(TimelineEntryDTO entry, Iterator<TimelineEntryDTO> rest) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.SaasCRM.timeline;
+
+import com.project.SaasCRM.domain.TimelineSource;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in a customer timeline ordered by {@code (occurred_at DESC, source, id DESC)}.
+ *
+ * <p>Encoded as {@code <ISO time>_<source>_<id>}. The source is part of the position because rows of
+ * different sources can share a timestamp and an id.</p>
+ */
+public record TimelineCursor(LocalDateTime occurredAt, TimelineSource source, long id) {
+
+    public String encode() {
+        return occurredAt + "_" + source.name() + "_" + id;
+    }
+
+    /**
+     * Returns the exclusive upper id bound for rows of {@code other} that share this cursor's
+     * timestamp: sources ranked before the cursor's were already returned in full at that instant,
+     * later sources not at all.
+     */
+    public long beforeIdFor(TimelineSource other) {
+        int byRank = Integer.compare(other.ordinal(), source.ordinal());
+        return byRank < 0 ? Long.MIN_VALUE : byRank > 0 ? Long.MAX_VALUE : id;
+    }
+
+    public static TimelineCursor decode(String value) {
+        int idSeparator = value.lastIndexOf('_');
+        int sourceSeparator = idSeparator > 0 ? value.lastIndexOf('_', idSeparator - 1) : -1;
+        if (sourceSeparator <= 0) {
+            throw new IllegalArgumentException("Invalid timeline cursor: " + value);
+        }
+        try {
+            return new TimelineCursor(LocalDateTime.parse(value.substring(0, sourceSeparator)),
+                    TimelineSource.valueOf(value.substring(sourceSeparator + 1, idSeparator)),
+                    Long.parseLong(value.substring(idSeparator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid timeline cursor: " + value);
+        }
+    }
+}
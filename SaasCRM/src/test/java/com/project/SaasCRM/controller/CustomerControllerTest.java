@@ -1,9 +1,12 @@
 package com.project.SaasCRM.controller;
 
 import com.project.SaasCRM.domain.CustomerStatus;
+import com.project.SaasCRM.domain.TimelineSource;
+import com.project.SaasCRM.domain.dto.CursorPageDTO;
 import com.project.SaasCRM.domain.dto.CustomerDTO;
 import com.project.SaasCRM.domain.dto.DealDTO;
 import com.project.SaasCRM.domain.dto.TaskDTO;
+import com.project.SaasCRM.domain.dto.TimelineEntryDTO;
 import com.project.SaasCRM.domain.dto.UserDTO;
 import com.project.SaasCRM.exception.UnauthorizedException;
 import com.project.SaasCRM.security.SecurityService;
@@ -29,7 +32,9 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -223,4 +228,77 @@ class CustomerControllerTest {
         assertEquals(stats, response.getBody());
         verify(customerService).getCustomerStatusCounts();
     }
-} 
\ No newline at end of file
+    
+    @Test
+    void getAtRiskCustomers_ShouldReturnCustomersAtOrBelowScore() {
+        testCustomer.setHealthScore(25);
+        when(customerService.findAtRiskCustomers(eq(40), any(Pageable.class))).thenReturn(customerPage);
+        
+        ResponseEntity<Page<CustomerDTO>> response = customerController.getAtRiskCustomers(40, Pageable.unpaged());
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(25, response.getBody().getContent().get(0).getHealthScore());
+        verify(customerService).findAtRiskCustomers(eq(40), any(Pageable.class));
+    }
+    
+    @Test
+    void recomputeHealthScores_WhenIdle_ShouldReturnAccepted() {
+        when(customerService.recomputeHealthScores()).thenReturn(true);
+        
+        ResponseEntity<Void> response = customerController.recomputeHealthScores();
+        
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+    }
+    
+    @Test
+    void recomputeHealthScores_WhenAlreadyRunning_ShouldReturnConflict() {
+        when(customerService.recomputeHealthScores()).thenReturn(false);
+        
+        ResponseEntity<Void> response = customerController.recomputeHealthScores();
+        
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+    
+    @Test
+    void autoAssignCustomer_ShouldAssignLeastLoadedUser() {
+        when(customerService.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(customerService.autoAssignCustomer(1L, null)).thenReturn(testCustomer);
+        
+        ResponseEntity<CustomerDTO> response = customerController.autoAssignCustomer(1L, null);
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(testCustomer, response.getBody());
+        verify(customerService).autoAssignCustomer(1L, null);
+    }
+    
+    @Test
+    void getCustomerTimeline_WhenAuthorized_ShouldReturnPage() {
+        CursorPageDTO<TimelineEntryDTO> page = CursorPageDTO.<TimelineEntryDTO>builder()
+                .items(List.of(TimelineEntryDTO.builder()
+                        .source(TimelineSource.INTERACTION)
+                        .id(7L)
+                        .occurredAt(LocalDateTime.of(2024, 1, 1, 9, 0))
+                        .title("Intro call")
+                        .build()))
+                .nextCursor("2024-01-01T09:00_INTERACTION_7")
+                .hasMore(true)
+                .build();
+        when(securityService.isAdmin()).thenReturn(true);
+        when(customerService.getTimeline(1L, null, 50)).thenReturn(page);
+        
+        ResponseEntity<CursorPageDTO<TimelineEntryDTO>> response = customerController.getCustomerTimeline(1L, null, 50);
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+        verify(customerService).getTimeline(1L, null, 50);
+    }
+    
+    @Test
+    void getCustomerTimeline_WhenUnauthorized_ShouldThrowException() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.canAccessCustomer(1L)).thenReturn(false);
+        
+        assertThrows(UnauthorizedException.class, () -> customerController.getCustomerTimeline(1L, null, 50));
+        verify(customerService, never()).getTimeline(anyLong(), any(), anyInt());
+    }
+}
@@ -1,10 +1,15 @@
 package com.project.SaasCRM.controller;
 
+import com.project.SaasCRM.domain.BulkEmailJobStatus;
 import com.project.SaasCRM.domain.SendStatus;
+import com.project.SaasCRM.domain.dto.BulkEmailJobDTO;
+import com.project.SaasCRM.domain.dto.BulkEmailRequestDTO;
+import com.project.SaasCRM.domain.dto.MailMergeRequestDTO;
 import com.project.SaasCRM.domain.dto.EmailCommunicationDTO;
 import com.project.SaasCRM.exception.UnauthorizedException;
 import com.project.SaasCRM.security.SecurityService;
 import com.project.SaasCRM.service.EmailCommunicationService;
+import com.project.SaasCRM.service.EmailService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +35,9 @@ public class EmailCommunicationControllerTest {
     @Mock
     private EmailCommunicationService emailCommunicationService;
 
+    @Mock
+    private EmailService emailService;
+
     @Mock
     private SecurityService securityService;
 
@@ -140,7 +148,7 @@ public class EmailCommunicationControllerTest {
         when(securityService.isAdmin()).thenReturn(true);
         when(emailCommunicationService.findEmailsByCustomer(1L)).thenReturn(emailList);
 
-        ResponseEntity<List<EmailCommunicationDTO>> response = emailCommunicationController.getEmailsByCustomer(1L);
+        ResponseEntity<List<EmailCommunicationDTO>> response = emailCommunicationController.getEmailsByCustomer(1L, false);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(emailList, response.getBody());
@@ -153,7 +161,7 @@ public class EmailCommunicationControllerTest {
         when(securityService.isAdmin()).thenReturn(false);
         when(securityService.canAccessCustomer(1L)).thenReturn(false);
 
-        assertThrows(UnauthorizedException.class, () -> emailCommunicationController.getEmailsByCustomer(1L));
+        assertThrows(UnauthorizedException.class, () -> emailCommunicationController.getEmailsByCustomer(1L, false));
 
         verify(securityService).isAdmin();
         verify(securityService).canAccessCustomer(1L);
@@ -332,4 +340,54 @@ public class EmailCommunicationControllerTest {
         assertEquals(clickRate, response.getBody());
         verify(emailCommunicationService).calculateEmailClickRate(startDate, endDate);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void startBulkEmail_ShouldReturnAcceptedJob() {
+        BulkEmailRequestDTO request = BulkEmailRequestDTO.builder()
+                .recipients(List.of("a@example.com", "b@example.com"))
+                .subject("Newsletter")
+                .content("<p>Hello</p>")
+                .build();
+        BulkEmailJobDTO job = BulkEmailJobDTO.builder().jobId("job-1").status(BulkEmailJobStatus.RUNNING).total(2).build();
+        when(emailService.startBulkEmailJob(request)).thenReturn(job);
+
+        ResponseEntity<BulkEmailJobDTO> response = emailCommunicationController.startBulkEmail(request);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("job-1", response.getBody().getJobId());
+    }
+
+    @Test
+    void startMailMerge_ShouldReturnAcceptedJob() {
+        MailMergeRequestDTO request = MailMergeRequestDTO.builder()
+                .templateId(1L)
+                .customerIds(List.of(10L, 11L, 12L))
+                .build();
+        BulkEmailJobDTO job = BulkEmailJobDTO.builder().jobId("merge-1").status(BulkEmailJobStatus.RUNNING).total(3).build();
+        when(emailService.startMailMergeJob(request)).thenReturn(job);
+
+        ResponseEntity<BulkEmailJobDTO> response = emailCommunicationController.startMailMerge(request);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(3, response.getBody().getTotal());
+    }
+
+    @Test
+    void cancelBulkEmailJob_WhenUnknown_ShouldReturnNotFound() {
+        when(emailService.cancelBulkEmailJob("missing")).thenReturn(Optional.empty());
+
+        ResponseEntity<BulkEmailJobDTO> response = emailCommunicationController.cancelBulkEmailJob("missing");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void rebuildEmailStats_WhenAlreadyRunning_ShouldReturnConflict() {
+        when(emailCommunicationService.rebuildEmailStats()).thenReturn(false);
+
+        ResponseEntity<Void> response = emailCommunicationController.rebuildEmailStats();
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        verify(emailCommunicationService).rebuildEmailStats();
+    }
+}
@@ -0,0 +1,63 @@
+package com.project.SaasCRM.controller;
+
+import com.project.SaasCRM.service.EmailService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailTrackingControllerTest {
+
+    @Mock
+    private EmailService emailService;
+
+    @InjectMocks
+    private EmailTrackingController emailTrackingController;
+
+    private static final String TOKEN = "1.ySHHDxUbuYvT3mnGJ3rqXw";
+
+    @Test
+    void trackOpen_ShouldRecordOpenAndReturnPixel() {
+        ResponseEntity<byte[]> response = emailTrackingController.trackOpen(TOKEN);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.IMAGE_GIF, response.getHeaders().getContentType());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().length > 0);
+        verify(emailService).trackEmailOpen(TOKEN);
+    }
+
+    @Test
+    void trackClick_ShouldRecordClick() {
+        ResponseEntity<Void> response = emailTrackingController.trackClick(TOKEN, "cta", null);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(emailService).trackEmailClick(TOKEN, "cta", null);
+    }
+
+    @Test
+    void trackClick_ShouldRedirectToSignedLink() {
+        when(emailService.trackEmailClick(TOKEN, "https://example.com/offer", "sig"))
+                .thenReturn("https://example.com/offer");
+
+        ResponseEntity<Void> response = emailTrackingController.trackClick(TOKEN, "https://example.com/offer", "sig");
+
+        assertEquals(HttpStatus.FOUND, response.getStatusCode());
+        assertEquals("https://example.com/offer", response.getHeaders().getLocation().toString());
+    }
+
+    @Test
+    void trackOpen_ShouldRejectInvalidToken() {
+        doThrow(new IllegalArgumentException("Invalid tracking token")).when(emailService).trackEmailOpen("1");
+
+        assertThrows(IllegalArgumentException.class, () -> emailTrackingController.trackOpen("1"));
+    }
+}
@@ -2,6 +2,7 @@ package com.project.SaasCRM.controller;
 
 import com.project.SaasCRM.domain.InteractionType;
 import com.project.SaasCRM.domain.dto.InteractionDTO;
+import com.project.SaasCRM.domain.dto.InteractionIngestResultDTO;
 import com.project.SaasCRM.exception.UnauthorizedException;
 import com.project.SaasCRM.security.SecurityService;
 import com.project.SaasCRM.service.InteractionService;
@@ -17,6 +18,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -138,7 +140,7 @@ public class InteractionControllerTest {
         when(securityService.isAdmin()).thenReturn(true);
         when(interactionService.findInteractionsByCustomerPaginated(anyLong(), any(Pageable.class))).thenReturn(interactionPage);
 
-        ResponseEntity<Page<InteractionDTO>> response = interactionController.getInteractionsByCustomer(1L, Pageable.unpaged());
+        ResponseEntity<Page<InteractionDTO>> response = interactionController.getInteractionsByCustomer(1L, false, Pageable.unpaged());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(interactionPage, response.getBody());
@@ -146,12 +148,24 @@ public class InteractionControllerTest {
         verify(interactionService).findInteractionsByCustomerPaginated(eq(1L), any(Pageable.class));
     }
 
+    @Test
+    void getInteractionsByCustomer_WhenArchived_ShouldReadArchive() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(interactionService.findArchivedInteractionsByCustomer(eq(1L), any(Pageable.class))).thenReturn(interactionPage);
+
+        ResponseEntity<Page<InteractionDTO>> response = interactionController.getInteractionsByCustomer(1L, true, Pageable.unpaged());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(interactionPage, response.getBody());
+        verify(interactionService, never()).findInteractionsByCustomerPaginated(anyLong(), any(Pageable.class));
+    }
+
     @Test
     void getInteractionsByCustomer_WhenUnauthorized_ShouldThrowException() {
         when(securityService.isAdmin()).thenReturn(false);
         when(securityService.canAccessCustomer(1L)).thenReturn(false);
 
-        assertThrows(UnauthorizedException.class, () -> interactionController.getInteractionsByCustomer(1L, Pageable.unpaged()));
+        assertThrows(UnauthorizedException.class, () -> interactionController.getInteractionsByCustomer(1L, false, Pageable.unpaged()));
 
         verify(securityService).isAdmin();
         verify(securityService).canAccessCustomer(1L);
@@ -251,6 +265,55 @@ public class InteractionControllerTest {
         verify(interactionService).getInteractionCountsByDate(startDate, endDate);
     }
 
+    @Test
+    void getInteractionStatsByUser_ShouldReturnStats() {
+        LocalDate startDate = LocalDate.of(2023, 7, 1);
+        LocalDate endDate = LocalDate.of(2023, 7, 31);
+        Map<Long, Long> userStats = Map.of(1L, 4L, 2L, 9L);
+
+        when(interactionService.getInteractionCountsByUser(startDate, endDate)).thenReturn(userStats);
+
+        ResponseEntity<Map<Long, Long>> response = interactionController.getInteractionStatsByUser(startDate, endDate);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(userStats, response.getBody());
+        verify(interactionService).getInteractionCountsByUser(startDate, endDate);
+    }
+
+    @Test
+    void rebuildInteractionStats_WhenAlreadyRunning_ShouldReturnConflict() {
+        when(interactionService.rebuildInteractionRollup()).thenReturn(false);
+
+        ResponseEntity<Void> response = interactionController.rebuildInteractionStats();
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        verify(interactionService).rebuildInteractionRollup();
+    }
+
+    @Test
+    void ingestInteractions_WhenAccepted_ShouldReturnAccepted() {
+        List<InteractionDTO> interactions = interactionList;
+        InteractionIngestResultDTO result = InteractionIngestResultDTO.builder()
+                .accepted(true).count(2).firstSequence(1).lastSequence(2).queued(2).build();
+        when(interactionService.ingestInteractions(interactions)).thenReturn(result);
+
+        ResponseEntity<InteractionIngestResultDTO> response = interactionController.ingestInteractions(interactions);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void ingestInteraction_WhenQueueFull_ShouldReturnServiceUnavailable() {
+        InteractionIngestResultDTO result = InteractionIngestResultDTO.builder()
+                .accepted(false).firstSequence(-1).lastSequence(-1).build();
+        when(interactionService.ingestInteractions(List.of(testInteraction))).thenReturn(result);
+
+        ResponseEntity<InteractionIngestResultDTO> response = interactionController.ingestInteraction(testInteraction);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
     @Test
     void getInteractionsByDateRange_ShouldReturnInteractions() {
         LocalDateTime startDate = LocalDateTime.now().minusDays(7);
@@ -0,0 +1,85 @@
+package com.project.SaasCRM.controller;
+
+import com.project.SaasCRM.domain.MembershipDimension;
+import com.project.SaasCRM.domain.MembershipEntity;
+import com.project.SaasCRM.domain.dto.MembershipFilterDTO;
+import com.project.SaasCRM.domain.dto.MembershipPredicateDTO;
+import com.project.SaasCRM.domain.dto.MembershipResultDTO;
+import com.project.SaasCRM.service.MembershipService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipControllerTest {
+
+    @Mock
+    private MembershipService membershipService;
+
+    @InjectMocks
+    private MembershipController membershipController;
+
+    private MembershipFilterDTO testFilter;
+
+    @BeforeEach
+    void setUp() {
+        testFilter = MembershipFilterDTO.builder()
+                .entity(MembershipEntity.DEAL)
+                .include(List.of(MembershipPredicateDTO.builder()
+                        .dimension(MembershipDimension.DEAL_ASSIGNED_USER)
+                        .values(List.of("7"))
+                        .build()))
+                .exclude(List.of(MembershipPredicateDTO.builder()
+                        .dimension(MembershipDimension.DEAL_STAGE)
+                        .values(List.of("CLOSED_WON", "CLOSED_LOST"))
+                        .build()))
+                .build();
+    }
+
+    @Test
+    void query_ShouldReturnMatchingIds() {
+        MembershipResultDTO result = MembershipResultDTO.builder()
+                .entity(MembershipEntity.DEAL)
+                .count(3)
+                .ids(List.of(1L, 4L, 9L))
+                .build();
+        when(membershipService.query(testFilter, 0, 100)).thenReturn(result);
+
+        ResponseEntity<MembershipResultDTO> response = membershipController.query(testFilter, 0, 100);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getBody().getCount());
+        assertEquals(List.of(1L, 4L, 9L), response.getBody().getIds());
+    }
+
+    @Test
+    void count_ShouldReturnCount() {
+        when(membershipService.count(testFilter)).thenReturn(12L);
+
+        ResponseEntity<Long> response = membershipController.count(testFilter);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(12L, response.getBody());
+    }
+
+    @Test
+    void countByValue_ShouldReturnCountsPerValue() {
+        Map<String, Long> counts = Map.of("PENDING", 5L, "COMPLETED", 2L);
+        when(membershipService.countByValue(MembershipDimension.TASK_STATUS)).thenReturn(counts);
+
+        ResponseEntity<Map<String, Long>> response = membershipController.countByValue(MembershipDimension.TASK_STATUS);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(counts, response.getBody());
+    }
+}
@@ -0,0 +1,169 @@
+package com.project.SaasCRM.controller;
+
+import com.project.SaasCRM.domain.SegmentField;
+import com.project.SaasCRM.domain.SegmentOperator;
+import com.project.SaasCRM.domain.dto.CustomerDTO;
+import com.project.SaasCRM.domain.dto.CustomerSegmentDTO;
+import com.project.SaasCRM.domain.dto.SegmentFilterDTO;
+import com.project.SaasCRM.domain.dto.SegmentResultDTO;
+import com.project.SaasCRM.security.SecurityService;
+import com.project.SaasCRM.service.SegmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SegmentControllerTest {
+
+    @Mock
+    private SegmentService segmentService;
+
+    @Mock
+    private SecurityService securityService;
+
+    @InjectMocks
+    private SegmentController segmentController;
+
+    private CustomerSegmentDTO testSegment;
+    private SegmentFilterDTO testFilter;
+    private SegmentResultDTO testResult;
+
+    @BeforeEach
+    void setUp() {
+        testFilter = SegmentFilterDTO.builder()
+                .operator(SegmentOperator.AND)
+                .children(List.of(
+                        SegmentFilterDTO.builder()
+                                .operator(SegmentOperator.IN)
+                                .field(SegmentField.STATUS)
+                                .values(List.of("ACTIVE"))
+                                .build(),
+                        SegmentFilterDTO.builder()
+                                .operator(SegmentOperator.OLDER_THAN_DAYS)
+                                .field(SegmentField.LAST_CONTACT)
+                                .values(List.of("30"))
+                                .build()))
+                .build();
+
+        testSegment = new CustomerSegmentDTO();
+        testSegment.setId(1L);
+        testSegment.setName("Dormant active customers");
+        testSegment.setFilter(testFilter);
+
+        testResult = SegmentResultDTO.builder()
+                .count(2)
+                .customerIds(List.of(10L, 11L))
+                .truncated(false)
+                .snapshotTime(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void createSegment_ShouldSetCreatorAndReturnCreated() {
+        when(securityService.getCurrentUserId()).thenReturn(5L);
+        when(segmentService.createSegment(any(CustomerSegmentDTO.class))).thenReturn(testSegment);
+
+        ResponseEntity<CustomerSegmentDTO> response = segmentController.createSegment(testSegment);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(testSegment, response.getBody());
+        assertEquals(5L, testSegment.getCreatedByUserId());
+        verify(segmentService).createSegment(testSegment);
+    }
+
+    @Test
+    void getSegmentById_WhenSegmentExists_ShouldReturnSegment() {
+        when(segmentService.findById(1L)).thenReturn(Optional.of(testSegment));
+
+        ResponseEntity<CustomerSegmentDTO> response = segmentController.getSegmentById(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(testSegment, response.getBody());
+    }
+
+    @Test
+    void getSegmentById_WhenSegmentDoesNotExist_ShouldReturnNotFound() {
+        when(segmentService.findById(99L)).thenReturn(Optional.empty());
+
+        ResponseEntity<CustomerSegmentDTO> response = segmentController.getSegmentById(99L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void updateSegment_WithMismatchedId_ShouldReturnBadRequest() {
+        ResponseEntity<CustomerSegmentDTO> response = segmentController.updateSegment(2L, testSegment);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(segmentService, never()).updateSegment(any());
+    }
+
+    @Test
+    void evaluateFilter_ShouldReturnResult() {
+        when(segmentService.evaluate(testFilter, 100)).thenReturn(testResult);
+
+        ResponseEntity<SegmentResultDTO> response = segmentController.evaluateFilter(testFilter, 100);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getCount());
+        assertEquals(List.of(10L, 11L), response.getBody().getCustomerIds());
+    }
+
+    @Test
+    void countSegment_ShouldReturnCount() {
+        when(segmentService.countSegment(1L)).thenReturn(42L);
+
+        ResponseEntity<Long> response = segmentController.countSegment(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(42L, response.getBody());
+    }
+
+    @Test
+    void getSegmentCustomers_ShouldReturnPage() {
+        Pageable pageable = PageRequest.of(0, 100);
+        Page<CustomerDTO> page = new PageImpl<>(List.of(new CustomerDTO()), pageable, 1);
+        when(segmentService.findSegmentCustomers(1L, pageable)).thenReturn(page);
+
+        ResponseEntity<Page<CustomerDTO>> response = segmentController.getSegmentCustomers(1L, pageable);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getTotalElements());
+    }
+
+    @Test
+    void getSegmentRecipients_ShouldReturnEmails() {
+        when(segmentService.findRecipientEmails(1L)).thenReturn(List.of("a@example.com", "b@example.com"));
+
+        ResponseEntity<List<String>> response = segmentController.getSegmentRecipients(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().size());
+    }
+
+    @Test
+    void deleteSegment_ShouldReturnNoContent() {
+        doNothing().when(segmentService).deleteSegment(1L);
+
+        ResponseEntity<Void> response = segmentController.deleteSegment(1L);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(segmentService).deleteSegment(1L);
+    }
+}
@@ -1,8 +1,13 @@
 package com.project.SaasCRM.controller;
 
+import com.project.SaasCRM.domain.TaskBatchOperation;
 import com.project.SaasCRM.domain.TaskPriority;
 import com.project.SaasCRM.domain.TaskStatus;
+import com.project.SaasCRM.domain.dto.CursorPageDTO;
+import com.project.SaasCRM.domain.dto.TaskBatchRequestDTO;
+import com.project.SaasCRM.domain.dto.TaskBatchResultDTO;
 import com.project.SaasCRM.domain.dto.TaskDTO;
+import com.project.SaasCRM.domain.dto.TaskStatisticsDTO;
 import com.project.SaasCRM.exception.UnauthorizedException;
 import com.project.SaasCRM.security.SecurityService;
 import com.project.SaasCRM.service.TaskService;
@@ -240,6 +245,17 @@ public class TaskControllerTest {
         verify(taskService).assignTaskToUser(1L, 1L);
     }
 
+    @Test
+    void autoAssignTask_ShouldPassRoleFilter() {
+        when(taskService.autoAssignTask(1L, "MANAGER")).thenReturn(testTask);
+
+        ResponseEntity<TaskDTO> response = taskController.autoAssignTask(1L, "MANAGER");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(testTask, response.getBody());
+        verify(taskService).autoAssignTask(1L, "MANAGER");
+    }
+
     @Test
     void updateTaskStatus_ShouldUpdateStatus() {
         when(taskService.updateTaskStatus(1L, TaskStatus.IN_PROGRESS)).thenReturn(testTask);
@@ -332,6 +348,120 @@ public class TaskControllerTest {
         verify(taskService).getTaskCountsByStatus();
     }
 
+    @Test
+    void getTaskSummary_ShouldReturnSummary() {
+        TaskStatisticsDTO summary = TaskStatisticsDTO.builder()
+                .total(8L)
+                .open(8L)
+                .overdue(2L)
+                .dueToday(1L)
+                .byStatus(Map.of(TaskStatus.PENDING, 5L, TaskStatus.IN_PROGRESS, 3L))
+                .build();
+        when(taskService.getTaskStatistics()).thenReturn(summary);
+
+        ResponseEntity<TaskStatisticsDTO> response = taskController.getTaskSummary();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2L, response.getBody().getOverdue());
+        assertEquals(5L, response.getBody().getByStatus().get(TaskStatus.PENDING));
+    }
+
+    @Test
+    void getTaskSummaryForUser_WhenAuthorized_ShouldReturnUserSummary() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isCurrentUser(1L)).thenReturn(true);
+        TaskStatisticsDTO summary = TaskStatisticsDTO.builder()
+                .assigneeId(1L)
+                .total(3L)
+                .dueToday(1L)
+                .build();
+        when(taskService.getTaskStatistics(1L)).thenReturn(summary);
+
+        ResponseEntity<TaskStatisticsDTO> response = taskController.getTaskSummaryForUser(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1L, response.getBody().getAssigneeId());
+        verify(taskService).getTaskStatistics(1L);
+    }
+
+    @Test
+    void getTaskSummaryForUser_WhenUnauthorized_ShouldThrowException() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isCurrentUser(2L)).thenReturn(false);
+
+        assertThrows(UnauthorizedException.class, () -> taskController.getTaskSummaryForUser(2L));
+
+        verify(taskService, never()).getTaskStatistics(anyLong());
+    }
+
+    @Test
+    void sweepOverdueTasks_WhenIdle_ShouldReturnAccepted() {
+        when(taskService.sweepOverdueTasks()).thenReturn(true);
+
+        ResponseEntity<Void> response = taskController.sweepOverdueTasks();
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+    }
+
+    @Test
+    void sweepOverdueTasks_WhenAlreadyRunning_ShouldReturnConflict() {
+        when(taskService.sweepOverdueTasks()).thenReturn(false);
+
+        ResponseEntity<Void> response = taskController.sweepOverdueTasks();
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void executeBatch_ShouldPassIdempotencyKeyAndReturnSummary() {
+        TaskBatchRequestDTO request = new TaskBatchRequestDTO();
+        request.setOperation(TaskBatchOperation.STATUS);
+        request.setStatus(TaskStatus.COMPLETED);
+        request.setTaskIds(List.of(1L, 2L, 3L));
+        TaskBatchResultDTO result = TaskBatchResultDTO.builder()
+                .operation(TaskBatchOperation.STATUS)
+                .matched(2)
+                .updated(2)
+                .notFound(1)
+                .idempotencyKey("batch-1")
+                .build();
+        when(taskService.executeBatch(request, "batch-1")).thenReturn(result);
+
+        ResponseEntity<TaskBatchResultDTO> response = taskController.executeBatch(request, "batch-1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getUpdated());
+        assertEquals(1, response.getBody().getNotFound());
+        verify(taskService).executeBatch(request, "batch-1");
+    }
+
+    @Test
+    void getMyInbox_ShouldUseCurrentUser() {
+        CursorPageDTO<TaskDTO> page = CursorPageDTO.<TaskDTO>builder()
+                .items(taskList)
+                .nextCursor("2024-01-01T09:00_1")
+                .hasMore(true)
+                .build();
+        when(securityService.getCurrentUserId()).thenReturn(1L);
+        when(taskService.findInbox(1L, null, null, null, null, null, 50)).thenReturn(page);
+
+        ResponseEntity<CursorPageDTO<TaskDTO>> response = taskController.getMyInbox(null, null, null, null, null, 50);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getItems().size());
+        assertTrue(response.getBody().isHasMore());
+    }
+
+    @Test
+    void getInboxByUser_WhenNotAuthorized_ShouldThrowException() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isCurrentUser(2L)).thenReturn(false);
+
+        assertThrows(UnauthorizedException.class,
+                () -> taskController.getInboxByUser(2L, null, null, null, null, null, 50));
+        verify(taskService, never()).findInbox(any(), any(), any(), any(), any(), any(), anyInt());
+    }
+
     @Test
     void getTasksByDueDateRange_ShouldReturnTasksInRange() {
         LocalDateTime startDate = LocalDateTime.now();
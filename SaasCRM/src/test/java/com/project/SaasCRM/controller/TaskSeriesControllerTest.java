@@ -0,0 +1,100 @@
+package com.project.SaasCRM.controller;
+
+import com.project.SaasCRM.domain.RecurrenceFrequency;
+import com.project.SaasCRM.domain.dto.TaskSeriesDTO;
+import com.project.SaasCRM.exception.UnauthorizedException;
+import com.project.SaasCRM.security.SecurityService;
+import com.project.SaasCRM.service.TaskSeriesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSeriesControllerTest {
+
+    @Mock
+    private TaskSeriesService taskSeriesService;
+
+    @Mock
+    private SecurityService securityService;
+
+    @InjectMocks
+    private TaskSeriesController taskSeriesController;
+
+    private TaskSeriesDTO testSeries;
+
+    @BeforeEach
+    void setUp() {
+        testSeries = new TaskSeriesDTO();
+        testSeries.setId(1L);
+        testSeries.setTitle("Weekly check-in");
+        testSeries.setFrequency(RecurrenceFrequency.WEEKLY);
+        testSeries.setWeekdays(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY));
+        testSeries.setStartAt(LocalDateTime.now().plusDays(1));
+        testSeries.setAssigneeId(3L);
+    }
+
+    @Test
+    void createSeries_ShouldSetCreatorAndReturnCreated() {
+        when(securityService.getCurrentUserId()).thenReturn(5L);
+        when(taskSeriesService.createSeries(any(TaskSeriesDTO.class))).thenReturn(testSeries);
+
+        ResponseEntity<TaskSeriesDTO> response = taskSeriesController.createSeries(testSeries);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(5L, testSeries.getCreatedByUserId());
+        verify(taskSeriesService).createSeries(testSeries);
+    }
+
+    @Test
+    void getSeriesById_WhenSeriesDoesNotExist_ShouldReturnNotFound() {
+        when(taskSeriesService.findById(99L)).thenReturn(Optional.empty());
+
+        ResponseEntity<TaskSeriesDTO> response = taskSeriesController.getSeriesById(99L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void updateSeries_WithMismatchedId_ShouldReturnBadRequest() {
+        ResponseEntity<TaskSeriesDTO> response = taskSeriesController.updateSeries(2L, testSeries);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(taskSeriesService, never()).updateSeries(any());
+    }
+
+    @Test
+    void getSeriesByUser_WhenNotAuthorized_ShouldThrowException() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isCurrentUser(3L)).thenReturn(false);
+
+        assertThrows(UnauthorizedException.class, () -> taskSeriesController.getSeriesByUser(3L, pageable));
+        verify(taskSeriesService, never()).findSeriesByAssignee(any(), any());
+    }
+
+    @Test
+    void deleteSeries_ShouldReturnNoContent() {
+        doNothing().when(taskSeriesService).deleteSeries(1L);
+
+        ResponseEntity<Void> response = taskSeriesController.deleteSeries(1L);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(taskSeriesService).deleteSeries(1L);
+    }
+}
@@ -0,0 +1,116 @@
+package com.project.SaasCRM.email;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DisposableDomainIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void bundledList_ShouldBeLoadedWhenNoFileIsSet() {
+        DisposableDomainIndex index = new DisposableDomainIndex("");
+
+        assertTrue(index.size() > 0);
+        assertTrue(index.isDisposable("someone@mailinator.com"));
+        assertFalse(index.isDisposable("someone@example.com"));
+    }
+
+    @Test
+    void isDisposable_ShouldMatchDomainAndSubdomains() throws IOException {
+        DisposableDomainIndex index = new DisposableDomainIndex(write("trash.io\n").toString());
+
+        assertTrue(index.isDisposable("a@trash.io"));
+        assertTrue(index.isDisposable("a@mx.eu.trash.io"));
+        assertFalse(index.isDisposable("a@nottrash.io"));
+        assertFalse(index.isDisposable("a@trash.io.example.com"));
+        assertFalse(index.isDisposable("a@io"));
+    }
+
+    @Test
+    void isDisposable_ShouldIgnoreCase() throws IOException {
+        DisposableDomainIndex index = new DisposableDomainIndex(write("Trash.IO\n").toString());
+
+        assertTrue(index.isDisposable("A@TRASH.io"));
+        assertTrue(index.isDisposable("a@Sub.Trash.Io"));
+    }
+
+    @Test
+    void isDisposable_ShouldMatchDomainWithTrailingDot() throws IOException {
+        DisposableDomainIndex index = new DisposableDomainIndex(write("trash.io\n").toString());
+
+        assertTrue(index.isDisposable("a@trash.io."));
+    }
+
+    @Test
+    void isDisposable_ShouldTreatAddressWithoutAtAsDomain() throws IOException {
+        DisposableDomainIndex index = new DisposableDomainIndex(write("trash.io\n").toString());
+
+        assertTrue(index.isDisposable("trash.io"));
+        assertFalse(index.isDisposable("someone"));
+        assertFalse(index.isDisposable(""));
+    }
+
+    @Test
+    void read_ShouldSkipCommentsWildcardsAndInvalidLines() throws IOException {
+        DisposableDomainIndex index = new DisposableDomainIndex(
+                write("# comment\n*.wild.io\n.dot.io\nbad_domain.io\nplain.io # trailing\n\n").toString());
+
+        assertEquals(3, index.size());
+        assertTrue(index.isDisposable("a@x.wild.io"));
+        assertTrue(index.isDisposable("a@dot.io"));
+        assertTrue(index.isDisposable("a@plain.io"));
+    }
+
+    @Test
+    void reloadIfChanged_ShouldSwapInChangedList() throws IOException {
+        Path file = write("first.io\n");
+        DisposableDomainIndex index = new DisposableDomainIndex(file.toString());
+
+        Files.writeString(file, "second.io\nthird.io\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+        index.reloadIfChanged();
+
+        assertEquals(2, index.size());
+        assertFalse(index.isDisposable("a@first.io"));
+        assertTrue(index.isDisposable("a@second.io"));
+    }
+
+    @Test
+    void reloadIfChanged_ShouldKeepListWhenFileIsGone() throws IOException {
+        Path file = write("first.io\n");
+        DisposableDomainIndex index = new DisposableDomainIndex(file.toString());
+
+        Files.delete(file);
+        index.reloadIfChanged();
+
+        assertTrue(index.isDisposable("a@first.io"));
+    }
+
+    @Test
+    void isValidDomain_ShouldCheckLabels() {
+        assertTrue(DisposableDomainIndex.isValidDomain("example.com", 0, 11));
+        assertTrue(DisposableDomainIndex.isValidDomain("a@my-host.example.co", 2, 20));
+        assertFalse(DisposableDomainIndex.isValidDomain("localhost", 0, 9));
+        assertFalse(DisposableDomainIndex.isValidDomain("-host.com", 0, 9));
+        assertFalse(DisposableDomainIndex.isValidDomain("host..com", 0, 9));
+        assertFalse(DisposableDomainIndex.isValidDomain("host.c0m", 0, 8));
+        assertFalse(DisposableDomainIndex.isValidDomain("host.c", 0, 6));
+        assertFalse(DisposableDomainIndex.isValidDomain("", 0, 0));
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = dir.resolve("domains.txt");
+        Files.writeString(file, content);
+        return file;
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.SaasCRM.email;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmailTrackingRendererTest {
+
+    private static final String BASE = "https://crm.test/api";
+
+    private final EmailTrackingTokens tokens = new EmailTrackingTokens("test-secret");
+    private final EmailTrackingRenderer renderer = new EmailTrackingRenderer(tokens, BASE + "/");
+
+    @Test
+    void render_ShouldAddPixelBeforeBodyEnd() {
+        String html = renderer.render(7L, "<html><body><p>Hi</p></BODY></html>");
+
+        assertEquals("<html><body><p>Hi</p><img src=\"" + BASE + tokens.openPath(7L)
+                + "\" width=\"1\" height=\"1\" alt=\"\" style=\"border:0\"></BODY></html>", html);
+    }
+
+    @Test
+    void render_ShouldAppendPixelToFragment() {
+        String html = renderer.render(7L, "<p>Hi</p>");
+
+        assertTrue(html.startsWith("<p>Hi</p><img src=\"" + BASE + tokens.openPath(7L) + "\""));
+    }
+
+    @Test
+    void render_ShouldPointAbsoluteLinksAtClickEndpoint() {
+        String html = renderer.render(7L, "<a class=\"cta\" href='https://example.com/offer?a=1&amp;b=2'>Offer</a>"
+                + " <a href=\"mailto:sales@crm.test\">Mail</a> <a href=\"#top\">Top</a>");
+
+        String tracked = (BASE + tokens.clickPath(7L, "https://example.com/offer?a=1&b=2")).replace("&", "&amp;");
+        assertTrue(html.startsWith("<a class=\"cta\" href='" + tracked + "'>Offer</a>"), html);
+        assertTrue(html.contains("<a href=\"mailto:sales@crm.test\">Mail</a> <a href=\"#top\">Top</a>"));
+    }
+
+    @Test
+    void render_ShouldLeaveLinksLongerThanLinkIdColumn() {
+        String url = "https://example.com/" + "x".repeat(300);
+
+        String html = renderer.render(7L, "<a href=\"" + url + "\">Long</a>");
+
+        assertTrue(html.startsWith("<a href=\"" + url + "\">Long</a>"));
+    }
+
+    @Test
+    void render_ShouldKeepNullContent() {
+        assertNull(renderer.render(7L, null));
+    }
+}
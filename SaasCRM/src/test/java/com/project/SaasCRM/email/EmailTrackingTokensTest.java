@@ -0,0 +1,63 @@
+package com.project.SaasCRM.email;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmailTrackingTokensTest {
+
+    private final EmailTrackingTokens tokens = new EmailTrackingTokens("test-secret");
+
+    @Test
+    void verify_ShouldReturnEmailIdOfIssuedToken() {
+        assertEquals(42L, tokens.verify(tokens.tokenFor(42L)));
+    }
+
+    @Test
+    void verify_ShouldRejectUnsignedId() {
+        assertThrows(IllegalArgumentException.class, () -> tokens.verify("42"));
+    }
+
+    @Test
+    void verify_ShouldRejectSignatureOfAnotherId() {
+        String other = tokens.tokenFor(43L);
+        String forged = "42" + other.substring(other.indexOf('.'));
+
+        assertThrows(IllegalArgumentException.class, () -> tokens.verify(forged));
+    }
+
+    @Test
+    void verify_ShouldRejectTokenSignedWithAnotherSecret() {
+        String token = new EmailTrackingTokens("other-secret").tokenFor(42L);
+
+        assertThrows(IllegalArgumentException.class, () -> tokens.verify(token));
+    }
+
+    @Test
+    void verify_ShouldRejectMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> tokens.verify(null));
+        assertThrows(IllegalArgumentException.class, () -> tokens.verify(".abc"));
+        assertThrows(IllegalArgumentException.class, () -> tokens.verify("x.abc"));
+        assertThrows(IllegalArgumentException.class, () -> tokens.verify("42.***"));
+    }
+
+    @Test
+    void paths_ShouldCarryTokenAndEncodedLinkId() {
+        String token = tokens.tokenFor(7L);
+
+        assertEquals("/api/track/emails/" + token + "/open", tokens.openPath(7L));
+        assertTrue(tokens.clickPath(7L, "a b").startsWith("/api/track/emails/" + token + "/click?linkId=a%20b&sig="));
+    }
+
+    @Test
+    void verifyLink_ShouldOnlyAcceptTheSignatureOfThatLinkAndEmail() {
+        String path = tokens.clickPath(7L, "https://example.com/a?b=1");
+        String signature = path.substring(path.indexOf("&sig=") + 5);
+
+        assertTrue(tokens.verifyLink(7L, "https://example.com/a?b=1", signature));
+        assertFalse(tokens.verifyLink(8L, "https://example.com/a?b=1", signature));
+        assertFalse(tokens.verifyLink(7L, "https://evil.example/", signature));
+        assertFalse(tokens.verifyLink(7L, "https://example.com/a?b=1", null));
+        assertFalse(tokens.verifyLink(7L, "https://example.com/a?b=1", "***"));
+    }
+}
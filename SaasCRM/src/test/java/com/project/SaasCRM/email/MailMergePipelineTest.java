@@ -0,0 +1,198 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.domain.entity.Customer;
+import com.project.SaasCRM.domain.entity.EmailCommunication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MailMergePipelineTest {
+
+    private static final String NAME = "merge-test";
+
+    private final ExecutorService renderPool = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        renderPool.shutdownNow();
+    }
+
+    @Test
+    void run_ShouldWriteEveryRenderedEmailAndSkipNullRenders() throws InterruptedException {
+        StubStages stages = new StubStages();
+        stages.skip = id -> id % 5 == 0;
+
+        new MailMergePipeline(renderPool, 3, 2, NAME).run(ids(100), 7, stages);
+
+        assertEquals(LongStream.rangeClosed(1, 100).filter(id -> id % 5 != 0).boxed().toList(),
+                stages.written.stream().sorted().toList());
+    }
+
+    @Test
+    void run_ShouldDiscardTheRestOnceStopped() throws InterruptedException {
+        StubStages stages = new StubStages();
+        stages.stopAfterWrites = 1;
+
+        new MailMergePipeline(renderPool, 2, 1, NAME).run(ids(50), 5, stages);
+
+        assertEquals(1, stages.writes.get());
+        assertEquals(5, stages.written.size());
+    }
+
+    @Test
+    void run_ShouldRethrowRenderFailureAndWriteNothingAfterIt() {
+        StubStages stages = new StubStages();
+        IllegalStateException broken = new IllegalStateException("broken template");
+        stages.renderFailure = id -> id == 4 ? broken : null;
+
+        // One renderer, so the batches before the failing one are rendered first
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> new MailMergePipeline(renderPool, 1, 1, NAME).run(ids(20), 1, stages));
+
+        assertSame(broken, thrown);
+        assertTrue(stages.written.stream().allMatch(id -> id < 4), "written " + stages.written);
+    }
+
+    @Test
+    void run_ShouldRethrowLoadFailureAndWriteNothingAfterIt() {
+        StubStages stages = new StubStages();
+        stages.failLoadFrom = 11;
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> new MailMergePipeline(renderPool, 2, 2, NAME).run(ids(30), 5, stages));
+
+        assertEquals("database down", thrown.getMessage());
+        assertTrue(stages.written.stream().allMatch(id -> id <= 10), "written " + stages.written);
+    }
+
+    @Test
+    void run_ShouldRethrowWriteFailureAndStopWriting() {
+        StubStages stages = new StubStages();
+        stages.failWrites = true;
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> new MailMergePipeline(renderPool, 2, 1, NAME).run(ids(50), 5, stages));
+
+        assertEquals("queue full", thrown.getMessage());
+        assertEquals(1, stages.writes.get());
+    }
+
+    @Test
+    void run_ShouldCancelLoaderAndRenderersWhenInterrupted() throws Exception {
+        StubStages stages = new StubStages();
+        CountDownLatch writing = new CountDownLatch(1);
+        stages.blockWrites = writing;
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+
+        // Enough recipients that the loader and renderers are blocked on full queues
+        Thread caller = new Thread(() -> {
+            try {
+                new MailMergePipeline(renderPool, 2, 1, NAME).run(ids(1000), 1, stages);
+            } catch (Throwable e) {
+                thrown.set(e);
+            }
+        });
+        caller.start();
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        caller.interrupt();
+        caller.join(5000);
+
+        assertFalse(caller.isAlive());
+        assertInstanceOf(InterruptedException.class, thrown.get());
+        renderPool.shutdown();
+        assertTrue(renderPool.awaitTermination(5, TimeUnit.SECONDS), "render tasks still running");
+        assertTrue(loaderStopped(), "loader still running");
+        assertTrue(stages.loaded.get() < 1000);
+    }
+
+    private static boolean loaderStopped() throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            if (Thread.getAllStackTraces().keySet().stream().noneMatch(t -> t.getName().equals(NAME + "-loader"))) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    private static List<Long> ids(int count) {
+        return LongStream.rangeClosed(1, count).boxed().toList();
+    }
+
+    /**
+     * Loads a customer per id and renders an email whose subject is the customer id.
+     */
+    private static class StubStages implements MailMergePipeline.Stages {
+        final List<Long> written = new CopyOnWriteArrayList<>();
+        final AtomicInteger writes = new AtomicInteger();
+        final AtomicInteger loaded = new AtomicInteger();
+        final AtomicBoolean stopped = new AtomicBoolean();
+
+        LongPredicate skip = id -> false;
+        LongFunction<RuntimeException> renderFailure = id -> null;
+        long failLoadFrom = Long.MAX_VALUE;
+        int stopAfterWrites = Integer.MAX_VALUE;
+        boolean failWrites;
+        CountDownLatch blockWrites;
+
+        @Override
+        public List<Customer> load(List<Long> customerIds) {
+            if (customerIds.get(customerIds.size() - 1) >= failLoadFrom) {
+                throw new IllegalStateException("database down");
+            }
+            loaded.addAndGet(customerIds.size());
+            return customerIds.stream().map(id -> {
+                Customer customer = new Customer();
+                customer.setId(id);
+                return customer;
+            }).toList();
+        }
+
+        @Override
+        public EmailCommunication render(Customer customer, StringBuilder buffer) {
+            RuntimeException failure = renderFailure.apply(customer.getId());
+            if (failure != null) {
+                throw failure;
+            }
+            if (skip.test(customer.getId())) {
+                return null;
+            }
+            buffer.append(customer.getId());
+            return EmailCommunication.builder().subject(buffer.toString()).build();
+        }
+
+        @Override
+        public void write(List<EmailCommunication> emails) throws InterruptedException {
+            if (blockWrites != null) {
+                blockWrites.countDown();
+                new CountDownLatch(1).await();
+            }
+            if (writes.incrementAndGet() >= stopAfterWrites) {
+                stopped.set(true);
+            }
+            if (failWrites) {
+                throw new IllegalStateException("queue full");
+            }
+            emails.forEach(email -> written.add(Long.valueOf(email.getSubject())));
+        }
+
+        @Override
+        public boolean isStopped() {
+            return stopped.get();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.service.EmailValidationService;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboundEmailDispatcherTest {
+
+    private static final String SENDER = "sales@crm.test";
+
+    @Mock
+    private OutboundEmailQueue queue;
+
+    @Mock
+    private SmtpTransportPool transportPool;
+
+    @Mock
+    private EmailValidationService emailValidationService;
+
+    @Mock
+    private DomainThrottle domainThrottle;
+
+    private OutboundEmailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new OutboundEmailDispatcher(queue, transportPool, emailValidationService, domainThrottle,
+                new EmailTrackingRenderer(new EmailTrackingTokens("test-secret"), "https://crm.test/api"), 4);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffMillis", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMillis", 5000L);
+        ReflectionTestUtils.setField(dispatcher, "leaseMillis", 60_000L);
+        ReflectionTestUtils.setField(dispatcher, "quotaRetryMillis", 30_000L);
+        ReflectionTestUtils.setField(dispatcher, "statusBatchSize", 2);
+        lenient().when(transportPool.createMimeMessage())
+                .thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+        lenient().when(emailValidationService.acquireSendQuota(anyMap())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void dispatch_ShouldClaimOnlyAsManyMessagesAsThereAreFreeSenders() {
+        when(queue.claim(eq(4), any())).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        ArgumentCaptor<LocalDateTime> leaseUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(queue).claim(eq(4), leaseUntil.capture());
+        long leaseMillis = Duration.between(LocalDateTime.now(), leaseUntil.getValue()).toMillis();
+        assertTrue(leaseMillis > 50_000 && leaseMillis <= 60_000);
+    }
+
+    @Test
+    void dispatch_ShouldReportDeliveredMessage() throws Exception {
+        claim(message(1L, 0));
+
+        OutboundEmailQueue.Outcome outcome = sendAndCollect().get(0);
+
+        assertTrue(outcome.sent());
+        assertNull(outcome.retryAt());
+        ArgumentCaptor<MimeMessage> sent = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(transportPool).send(sent.capture());
+        verify(domainThrottle).release("lead1@example.com");
+        // The message carries the open pixel of the email, not of the queue row
+        sent.getValue().saveChanges();
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        sent.getValue().writeTo(raw);
+        assertTrue(raw.toString(StandardCharsets.UTF_8).contains("/api/track/emails/11."), "pixel missing");
+    }
+
+    @Test
+    void dispatch_ShouldRetryFailedSendWithBackoff() throws Exception {
+        claim(message(1L, 1));
+        doThrow(new MessagingException("421 try later")).when(transportPool).send(any());
+
+        LocalDateTime before = LocalDateTime.now();
+        OutboundEmailQueue.Outcome outcome = sendAndCollect().get(0);
+
+        assertFalse(outcome.sent());
+        assertEquals("421 try later", outcome.error());
+        // Second failed attempt: twice the initial backoff plus up to 20% jitter
+        long delay = Duration.between(before, outcome.retryAt()).toMillis();
+        assertTrue(delay >= 2000 && delay <= 2400 + 1000, "delay " + delay);
+    }
+
+    @Test
+    void dispatch_ShouldCapBackoff() throws Exception {
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 20);
+        claim(message(1L, 10));
+        doThrow(new MessagingException("421 try later")).when(transportPool).send(any());
+
+        LocalDateTime before = LocalDateTime.now();
+        OutboundEmailQueue.Outcome outcome = sendAndCollect().get(0);
+
+        long delay = Duration.between(before, outcome.retryAt()).toMillis();
+        assertTrue(delay >= 5000 && delay <= 6000 + 1000, "delay " + delay);
+    }
+
+    @Test
+    void dispatch_ShouldGiveUpAfterMaxAttempts() throws Exception {
+        claim(message(1L, 2));
+        doThrow(new MessagingException("421 try later")).when(transportPool).send(any());
+
+        OutboundEmailQueue.Outcome outcome = sendAndCollect().get(0);
+
+        assertFalse(outcome.sent());
+        assertEquals("421 try later", outcome.error());
+        assertNull(outcome.retryAt());
+    }
+
+    @Test
+    void dispatch_ShouldNotRetryRejectedRecipient() throws Exception {
+        claim(message(1L, 0));
+        Address invalid = new InternetAddress("lead1@example.com");
+        doThrow(new SendFailedException("550 no such user", null, null, null, new Address[]{invalid}))
+                .when(transportPool).send(any());
+
+        OutboundEmailQueue.Outcome outcome = sendAndCollect().get(0);
+
+        assertFalse(outcome.sent());
+        assertNull(outcome.retryAt());
+    }
+
+    @Test
+    void dispatch_ShouldDeferWithoutAttemptWhenDomainIsBusy() throws Exception {
+        claim(message(1L, 0));
+        when(domainThrottle.tryAcquire("lead1@example.com")).thenReturn(700L);
+
+        dispatcher.dispatch();
+        dispatcher.flushOutcomes();
+
+        OutboundEmailQueue.Outcome outcome = completed().get(0);
+        assertNull(outcome.error());
+        assertNotNull(outcome.retryAt());
+        verify(transportPool, never()).send(any());
+        verify(domainThrottle, never()).release(any());
+        verifyNoInteractions(emailValidationService);
+    }
+
+    @Test
+    void dispatch_ShouldDeferAndReleaseDomainWhenSenderQuotaIsUsedUp() throws Exception {
+        claim(message(1L, 0), message(2L, 0));
+        when(emailValidationService.acquireSendQuota(Map.of(SENDER, 2))).thenReturn(Map.of(SENDER, 1));
+
+        List<OutboundEmailQueue.Outcome> outcomes = sendAndCollect();
+
+        assertEquals(2, outcomes.size());
+        OutboundEmailQueue.Outcome deferred = outcomes.stream().filter(o -> !o.sent()).findFirst().orElseThrow();
+        assertEquals(2L, deferred.message().id());
+        assertNull(deferred.error());
+        long delay = Duration.between(LocalDateTime.now(), deferred.retryAt()).toMillis();
+        assertTrue(delay > 20_000 && delay <= 30_000);
+        verify(transportPool, times(1)).send(any());
+        verify(domainThrottle).release("lead2@example.com");
+    }
+
+    @Test
+    void flushOutcomes_ShouldWriteOutcomesInBatches() {
+        deferAll(message(1L, 0), message(2L, 0), message(3L, 0));
+
+        dispatcher.flushOutcomes();
+
+        List<List<OutboundEmailQueue.Outcome>> batches = completedBatches(2);
+        assertEquals(2, batches.get(0).size());
+        assertEquals(1, batches.get(1).size());
+    }
+
+    @Test
+    void flushOutcomes_ShouldKeepOutcomesForNextFlushWhenWriteFails() {
+        deferAll(message(1L, 0), message(2L, 0), message(3L, 0));
+        doThrow(new DataAccessResourceFailureException("down")).doNothing().when(queue).complete(anyList());
+
+        dispatcher.flushOutcomes();
+        verify(queue, times(1)).complete(anyList());
+
+        dispatcher.flushOutcomes();
+
+        List<List<OutboundEmailQueue.Outcome>> batches = completedBatches(3);
+        List<Long> written = new ArrayList<>();
+        batches.subList(1, 3).forEach(batch -> batch.forEach(outcome -> written.add(outcome.message().id())));
+        assertEquals(List.of(1L, 2L, 3L), written.stream().sorted().toList());
+    }
+
+    private void claim(OutboundEmailQueue.Claimed... messages) {
+        when(queue.claim(anyInt(), any())).thenReturn(List.of(messages));
+    }
+
+    private void deferAll(OutboundEmailQueue.Claimed... messages) {
+        claim(messages);
+        when(domainThrottle.tryAcquire(anyString())).thenReturn(1000L);
+        dispatcher.dispatch();
+    }
+
+    /**
+     * Dispatches, waits for the senders and flushes what they reported.
+     */
+    private List<OutboundEmailQueue.Outcome> sendAndCollect() throws InterruptedException {
+        dispatcher.dispatch();
+        dispatcher.shutdown();
+        return completed();
+    }
+
+    private List<OutboundEmailQueue.Outcome> completed() {
+        List<OutboundEmailQueue.Outcome> all = new ArrayList<>();
+        completedBatches(-1).forEach(all::addAll);
+        return all;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<OutboundEmailQueue.Outcome>> completedBatches(int expected) {
+        ArgumentCaptor<List<OutboundEmailQueue.Outcome>> batches = ArgumentCaptor.forClass(List.class);
+        verify(queue, expected < 0 ? atLeastOnce() : times(expected)).complete(batches.capture());
+        return batches.getAllValues();
+    }
+
+    private static OutboundEmailQueue.Claimed message(long id, int attempts) {
+        return new OutboundEmailQueue.Claimed(id, 10 + id, null, null, attempts, SENDER,
+                "lead" + id + "@example.com", "Hello", "<p>Hi</p>", null);
+    }
+}
@@ -0,0 +1,196 @@
+package com.project.SaasCRM.email;
+
+import com.project.SaasCRM.repository.OutboundEmailRepository;
+import com.project.SaasCRM.service.AuditLogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboundEmailQueueTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    @Mock
+    private OutboundEmailRepository outboundEmailRepository;
+
+    @Mock
+    private AuditLogService auditLogService;
+
+    @Mock
+    private EmailStatistics emailStatistics;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboundEmailQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        queue = new OutboundEmailQueue(outboundEmailRepository, auditLogService, emailStatistics, jdbcTemplate,
+                transactionManager);
+    }
+
+    @Test
+    void claim_ShouldLeaseDueUncancelledRowsAndReadThemBackByOwner() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+        OutboundEmailQueue.Claimed claimed = message(1L, 11L, null, 0);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of(claimed));
+        LocalDateTime leaseUntil = LocalDateTime.now().plusMinutes(5);
+
+        assertEquals(List.of(claimed), queue.claim(8, leaseUntil));
+
+        ArgumentCaptor<String> claimSql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> claimArgs = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(claimSql.capture(), claimArgs.capture());
+        assertTrue(claimSql.getValue().startsWith("UPDATE outbound_emails SET lease_owner = ?, lease_until = ?"));
+        assertTrue(claimSql.getValue().contains("next_attempt_at <= ?"));
+        assertTrue(claimSql.getValue().contains("(lease_until IS NULL OR lease_until < ?)"));
+        assertTrue(claimSql.getValue().contains("cancelled = FALSE"));
+        assertTrue(claimSql.getValue().endsWith("ORDER BY next_attempt_at, id LIMIT ?"));
+        Object[] args = claimArgs.getValue();
+        assertEquals(5, args.length);
+        assertEquals(Timestamp.valueOf(leaseUntil), args[1]);
+        assertEquals(args[2], args[3]);
+        assertEquals(8, args[4]);
+
+        ArgumentCaptor<String> readSql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> readArgs = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(readSql.capture(), any(RowMapper.class), readArgs.capture());
+        assertTrue(readSql.getValue().contains("WHERE o.lease_owner = ?"));
+        assertArrayEquals(new Object[]{args[0]}, readArgs.getValue());
+    }
+
+    @Test
+    void claim_ShouldNotReadWhenNothingWasLeased() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(0);
+
+        assertEquals(List.of(), queue.claim(8, LocalDateTime.now().plusMinutes(5)));
+
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void complete_ShouldRemoveFinishedMessagesAndRescheduleTheOthersInOneTransaction() {
+        Map<String, List<Object[]>> batches = recordBatches();
+        LocalDateTime retryAt = AT.plusMinutes(1);
+
+        queue.complete(List.of(
+                new OutboundEmailQueue.Outcome(message(1L, 11L, null, 0), true, null, null, AT),
+                new OutboundEmailQueue.Outcome(message(2L, 12L, null, 5), false, "550 no such user", null, AT),
+                new OutboundEmailQueue.Outcome(message(3L, 13L, null, 2), false, "421 try later", retryAt, AT),
+                new OutboundEmailQueue.Outcome(message(4L, 14L, "job", 2), false, null, retryAt, AT)));
+
+        List<Object[]> statuses = batch(batches, "UPDATE email_communications SET send_status");
+        assertArrayEquals(new Object[]{"SENT", Timestamp.valueOf(AT), 11L}, statuses.get(0));
+        assertArrayEquals(new Object[]{"FAILED", null, 12L}, statuses.get(1));
+        assertEquals(2, batch(batches, "INSERT INTO email_events").size());
+        assertEquals(List.of(1L, 2L), ids(batch(batches, "DELETE FROM outbound_emails WHERE id = ?")));
+
+        List<Object[]> retries = batch(batches, "UPDATE outbound_emails SET attempts");
+        // An error uses up an attempt, a deferral does not
+        assertArrayEquals(new Object[]{3, Timestamp.valueOf(retryAt), "421 try later", 3L}, retries.get(0));
+        assertArrayEquals(new Object[]{2, Timestamp.valueOf(retryAt), null, 4L}, retries.get(1));
+
+        // Only the bulk message can have been cancelled while it was out
+        assertEquals(List.of(4L), ids(batch(batches, "DELETE FROM outbound_emails WHERE id = ? AND cancelled")));
+
+        verify(auditLogService).logSystemActivities("EMAIL_SENT", "EMAIL", List.of(11L));
+        verify(auditLogService).logSystemActivities("EMAIL_SEND_FAILED", "EMAIL", List.of(12L));
+        verify(emailStatistics).apply(any());
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void complete_ShouldTruncateLongErrors() {
+        Map<String, List<Object[]>> batches = recordBatches();
+
+        queue.complete(List.of(new OutboundEmailQueue.Outcome(message(1L, 11L, null, 0), false, "x".repeat(1500),
+                AT.plusMinutes(1), AT)));
+
+        assertEquals(1000, ((String) batch(batches, "UPDATE outbound_emails SET attempts").get(0)[2]).length());
+    }
+
+    @Test
+    void complete_ShouldRollBackWhenAWriteFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> queue.complete(List.of(
+                new OutboundEmailQueue.Outcome(message(1L, 11L, null, 0), true, null, null, AT))));
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verifyNoInteractions(auditLogService, emailStatistics);
+    }
+
+    @Test
+    void cancelBulkJob_ShouldRemoveIdleMessagesAndFlagLeasedOnes() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(3, 2, 4);
+
+        assertEquals(2, queue.cancelBulkJob("job"));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(3)).update(sql.capture(), args.capture());
+        assertTrue(sql.getAllValues().get(0).startsWith("UPDATE email_communications e JOIN outbound_emails o"));
+        assertEquals("DRAFT", args.getAllValues().get(0)[0]);
+        assertTrue(sql.getAllValues().get(1).startsWith("DELETE FROM outbound_emails WHERE bulk_job_id = ?"));
+        assertEquals("UPDATE outbound_emails SET cancelled = TRUE WHERE bulk_job_id = ?", sql.getAllValues().get(2));
+        assertArrayEquals(new Object[]{"job"}, args.getAllValues().get(2));
+        verify(transactionManager).commit(any());
+    }
+
+    /**
+     * Collects the rows of each batch update by the start of its statement.
+     */
+    private Map<String, List<Object[]>> recordBatches() {
+        Map<String, List<Object[]>> batches = new LinkedHashMap<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            List<Object[]> rows = invocation.getArgument(1);
+            batches.put(sql, rows);
+            return new int[rows.size()];
+        });
+        return batches;
+    }
+
+    private static List<Object[]> batch(Map<String, List<Object[]>> batches, String prefix) {
+        return batches.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No batch update for " + prefix));
+    }
+
+    private static List<Long> ids(List<Object[]> rows) {
+        return rows.stream().map(row -> (Long) row[0]).toList();
+    }
+
+    private static OutboundEmailQueue.Claimed message(long id, long emailId, String bulkJobId, int attempts) {
+        return new OutboundEmailQueue.Claimed(id, emailId, bulkJobId, null, attempts, "sales@crm.test",
+                "lead" + id + "@example.com", "Hello", "<p>Hi</p>", null);
+    }
+}
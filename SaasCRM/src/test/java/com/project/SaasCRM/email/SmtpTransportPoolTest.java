@@ -0,0 +1,186 @@
+package com.project.SaasCRM.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmtpTransportPoolTest {
+
+    private FakeSmtpServer server;
+    private Session session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeSmtpServer();
+        Properties properties = new Properties();
+        properties.put("mail.smtp.host", "localhost");
+        properties.put("mail.smtp.port", String.valueOf(server.port()));
+        session = Session.getInstance(properties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void send_ShouldReuseOneConnectionAndResetBetweenMessages() throws Exception {
+        SmtpTransportPool pool = pool(60000);
+
+        for (int i = 0; i < 5; i++) {
+            pool.send(message(pool, "user" + i + "@example.com"));
+        }
+        pool.shutdown();
+
+        assertEquals(1, server.connections.get());
+        assertEquals(5, server.messages.get());
+        assertEquals(5, server.resets.get());
+    }
+
+    @Test
+    void send_WhenIdleConnectionWasDropped_ShouldReplaceIt() throws Exception {
+        SmtpTransportPool pool = pool(0);
+        pool.send(message(pool, "first@example.com"));
+
+        server.dropConnections();
+        pool.send(message(pool, "second@example.com"));
+        pool.shutdown();
+
+        assertEquals(2, server.connections.get());
+        assertEquals(2, server.messages.get());
+    }
+
+    @Test
+    void send_WhenRecipientRejected_ShouldKeepConnection() throws Exception {
+        SmtpTransportPool pool = pool(60000);
+
+        assertThrows(SendFailedException.class, () -> pool.send(message(pool, "reject@example.com")));
+        pool.send(message(pool, "accept@example.com"));
+        pool.shutdown();
+
+        assertEquals(1, server.connections.get());
+        assertEquals(1, server.messages.get());
+    }
+
+    private SmtpTransportPool pool(long idleCheckMillis) {
+        return new SmtpTransportPool(session, "localhost", server.port(), null, null, 2, 100, idleCheckMillis, 5000);
+    }
+
+    private MimeMessage message(SmtpTransportPool pool, String to) throws MessagingException {
+        MimeMessage message = pool.createMimeMessage();
+        message.setFrom(new InternetAddress("crm@example.com"));
+        message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress(to));
+        message.setSubject("Test");
+        message.setText("Hello");
+        return message;
+    }
+
+    /**
+     * Minimal in-process SMTP server that accepts everything except recipients starting with
+     * {@code reject@}.
+     */
+    private static final class FakeSmtpServer implements AutoCloseable {
+        private final ServerSocket socket = new ServerSocket(0);
+        private final List<Socket> clients = new CopyOnWriteArrayList<>();
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger messages = new AtomicInteger();
+        private final AtomicInteger resets = new AtomicInteger();
+
+        private FakeSmtpServer() throws IOException {
+            Thread acceptor = new Thread(this::accept, "fake-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        void dropConnections() throws IOException {
+            for (Socket client : clients) {
+                client.close();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            dropConnections();
+            socket.close();
+        }
+
+        private void accept() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket client = socket.accept();
+                    clients.add(client);
+                    connections.incrementAndGet();
+                    Thread handler = new Thread(() -> handle(client), "fake-smtp-client");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket client) {
+            try (client;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+                 Writer out = new OutputStreamWriter(client.getOutputStream(), StandardCharsets.US_ASCII)) {
+                reply(out, "220 localhost ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    switch (command) {
+                        case "EHLO", "HELO" -> reply(out, "250 localhost");
+                        case "RCPT" -> reply(out, line.toLowerCase().contains("<reject@") ? "550 No such user" : "250 OK");
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // discard the message body
+                            }
+                            messages.incrementAndGet();
+                            reply(out, "250 OK");
+                        }
+                        case "RSET" -> {
+                            resets.incrementAndGet();
+                            reply(out, "250 OK");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // connection dropped
+            }
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line + "\r\n");
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.project.SaasCRM.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoaringBitmapTest {
+
+    private static final int CHUNK = 1 << 16;
+
+    private final Random random = new Random(7);
+
+    @Test
+    void add_ShouldConvertArrayToBitmapPastArrayMaxAndBack() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < RoaringBitmap.ARRAY_MAX; i++) {
+            add(bitmap, expected, CHUNK + i * 7);
+        }
+        assertSameValues(expected, bitmap);
+
+        // One past the array limit turns the container into a bitmap
+        add(bitmap, expected, CHUNK + 3);
+        assertSameValues(expected, bitmap);
+        add(bitmap, expected, CHUNK + 3);
+        assertEquals(RoaringBitmap.ARRAY_MAX + 1, bitmap.cardinality());
+
+        // Back at the limit it is an array again
+        remove(bitmap, expected, CHUNK);
+        assertSameValues(expected, bitmap);
+        remove(bitmap, expected, CHUNK + 1);
+        assertSameValues(expected, bitmap);
+        for (int i = 1; i < RoaringBitmap.ARRAY_MAX; i++) {
+            remove(bitmap, expected, CHUNK + i * 7);
+        }
+        assertSameValues(expected, bitmap);
+        remove(bitmap, expected, CHUNK + 3);
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    void operations_ShouldMatchBitSetAcrossContainerTypes() {
+        // Sparse, exactly at the array limit, one past it and dense containers, in shared and own chunks
+        int[] densities = {10, RoaringBitmap.ARRAY_MAX, RoaringBitmap.ARRAY_MAX + 1, 30_000};
+        List<BitSet> sets = new ArrayList<>();
+        for (int left : densities) {
+            for (int right : densities) {
+                BitSet set = new BitSet();
+                fill(set, 0, left);
+                fill(set, 2, right);
+                sets.add(set);
+            }
+        }
+        sets.add(new BitSet());
+
+        for (BitSet left : sets) {
+            for (BitSet right : sets) {
+                RoaringBitmap a = toBitmap(left);
+                RoaringBitmap b = toBitmap(right);
+
+                BitSet and = (BitSet) left.clone();
+                and.and(right);
+                assertSameValues(and, RoaringBitmap.and(a, b));
+
+                BitSet or = (BitSet) left.clone();
+                or.or(right);
+                assertSameValues(or, RoaringBitmap.or(a, b));
+
+                BitSet andNot = (BitSet) left.clone();
+                andNot.andNot(right);
+                assertSameValues(andNot, RoaringBitmap.andNot(a, b));
+
+                // Operands are left untouched
+                assertSameValues(left, a);
+                assertSameValues(right, b);
+            }
+        }
+    }
+
+    @Test
+    void forEach_ShouldVisitValuesInAscendingOrderAcrossChunks() {
+        RoaringBitmap bitmap = RoaringBitmap.of(5 * CHUNK + 1, 3, CHUNK - 1, CHUNK, 0, 5 * CHUNK);
+        List<Integer> visited = new ArrayList<>();
+
+        bitmap.forEach(visited::add);
+
+        assertEquals(List.of(0, 3, CHUNK - 1, CHUNK, 5 * CHUNK, 5 * CHUNK + 1), visited);
+    }
+
+    @Test
+    void toArray_ShouldPageInAscendingOrder() {
+        BitSet expected = new BitSet();
+        fill(expected, 0, 30_000);
+        fill(expected, 1, 100);
+        RoaringBitmap bitmap = toBitmap(expected);
+
+        long[] all = expected.stream().asLongStream().toArray();
+        assertArrayEquals(LongStream.of(all).skip(29_990).limit(20).toArray(), bitmap.toArray(29_990, 20));
+        assertArrayEquals(all, bitmap.toArray(0, Integer.MAX_VALUE));
+        assertEquals(0, bitmap.toArray(all.length, 10).length);
+    }
+
+    @Test
+    void copy_ShouldBeIndependentOfOriginal() {
+        BitSet expected = new BitSet();
+        fill(expected, 0, 5000);
+        RoaringBitmap original = toBitmap(expected);
+
+        RoaringBitmap copy = original.copy();
+        copy.add(3 * CHUNK);
+        copy.remove(expected.nextSetBit(0));
+
+        assertSameValues(expected, original);
+        assertEquals(expected.cardinality(), copy.cardinality());
+    }
+
+    @Test
+    void add_ShouldRejectNegativeValues() {
+        assertThrows(IllegalArgumentException.class, () -> new RoaringBitmap().add(-1));
+    }
+
+    /**
+     * Sets {@code count} random values in chunk {@code chunk}.
+     */
+    private void fill(BitSet set, int chunk, int count) {
+        BitSet values = new BitSet(CHUNK);
+        while (values.cardinality() < count) {
+            values.set(random.nextInt(CHUNK));
+        }
+        values.stream().forEach(value -> set.set(chunk * CHUNK + value));
+    }
+
+    private static RoaringBitmap toBitmap(BitSet set) {
+        return RoaringBitmap.of(set.stream().toArray());
+    }
+
+    private static void add(RoaringBitmap bitmap, BitSet expected, int value) {
+        bitmap.add(value);
+        expected.set(value);
+    }
+
+    private static void remove(RoaringBitmap bitmap, BitSet expected, int value) {
+        bitmap.remove(value);
+        expected.clear(value);
+    }
+
+    private static void assertSameValues(BitSet expected, RoaringBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        List<Integer> values = new ArrayList<>();
+        actual.forEach(values::add);
+        assertEquals(expected.stream().boxed().toList(), values);
+        for (int probe = expected.nextClearBit(0); probe < 3 * CHUNK; probe = expected.nextClearBit(probe + 997)) {
+            assertFalse(actual.contains(probe), "contains " + probe);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.project.SaasCRM.job;
+
+import com.project.SaasCRM.domain.JobPartitionStatus;
+import com.project.SaasCRM.domain.entity.JobCheckpoint;
+import com.project.SaasCRM.job.PartitionedJobRunner.BatchProcessor;
+import com.project.SaasCRM.job.PartitionedJobRunner.BatchResult;
+import com.project.SaasCRM.repository.JobCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PartitionedJobRunnerTest {
+
+    private static final String JOB = "test-job";
+
+    @Mock
+    private JobCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PartitionedJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        runner = new PartitionedJobRunner(checkpointRepository, transactionManager, 3);
+    }
+
+    @Test
+    void run_ShouldPlanPartitionsAndWalkEachInBatches() {
+        when(checkpointRepository.findByJobNameAndStatusNotOrderByPartitionIndex(JOB, JobPartitionStatus.COMPLETED))
+                .thenReturn(List.of());
+        AtomicLong ids = new AtomicLong();
+        when(checkpointRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<JobCheckpoint> checkpoints = invocation.getArgument(0);
+            checkpoints.forEach(checkpoint -> checkpoint.setId(ids.incrementAndGet()));
+            return checkpoints;
+        });
+        List<Long> seen = Collections.synchronizedList(new ArrayList<>());
+
+        long processed = runner.run(JOB, 1L, 10L, 3, 2, 2, everyId(seen));
+
+        assertEquals(10, processed);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), seen.stream().sorted().toList());
+        verify(checkpointRepository).deleteByJobName(JOB);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<JobCheckpoint>> planned = ArgumentCaptor.forClass(List.class);
+        verify(checkpointRepository).saveAll(planned.capture());
+        assertEquals(List.of(1L, 5L, 9L), planned.getValue().stream().map(JobCheckpoint::getRangeStart).toList());
+        assertEquals(List.of(4L, 8L, 10L), planned.getValue().stream().map(JobCheckpoint::getRangeEnd).toList());
+        verify(checkpointRepository).advance(eq(1L), eq(4L), eq(0L), eq(JobPartitionStatus.COMPLETED), isNull(), any());
+        verify(checkpointRepository).advance(eq(2L), eq(8L), eq(0L), eq(JobPartitionStatus.COMPLETED), isNull(), any());
+        verify(checkpointRepository).advance(eq(3L), eq(10L), eq(0L), eq(JobPartitionStatus.COMPLETED), isNull(), any());
+    }
+
+    @Test
+    void run_ShouldDoNothingForEmptyIdSpace() {
+        when(checkpointRepository.findByJobNameAndStatusNotOrderByPartitionIndex(JOB, JobPartitionStatus.COMPLETED))
+                .thenReturn(List.of());
+        BatchProcessor processor = mock(BatchProcessor.class);
+
+        assertEquals(0, runner.run(JOB, null, null, 3, 2, 2, processor));
+
+        verify(checkpointRepository, never()).saveAll(anyList());
+        verifyNoInteractions(processor);
+    }
+
+    @Test
+    void run_ShouldResumeUnfinishedPartitionFromItsCheckpoint() {
+        when(checkpointRepository.findByJobNameAndStatusNotOrderByPartitionIndex(JOB, JobPartitionStatus.COMPLETED))
+                .thenReturn(List.of(checkpoint(7L, 1, 10, 6, 0)));
+        List<Long> seen = Collections.synchronizedList(new ArrayList<>());
+
+        long processed = runner.run(JOB, 1L, 10L, 3, 2, 2, everyId(seen));
+
+        assertEquals(4, processed);
+        assertEquals(List.of(7L, 8L, 9L, 10L), seen);
+        verify(checkpointRepository, never()).saveAll(anyList());
+        verify(checkpointRepository, never()).deleteByJobName(any());
+        verify(checkpointRepository).advance(eq(7L), eq(8L), eq(2L), eq(JobPartitionStatus.RUNNING), isNull(), any());
+        verify(checkpointRepository).advance(eq(7L), eq(10L), eq(0L), eq(JobPartitionStatus.COMPLETED), isNull(), any());
+    }
+
+    @Test
+    void run_ShouldRecordFailureWithLastCommittedBatch() {
+        when(checkpointRepository.findByJobNameAndStatusNotOrderByPartitionIndex(JOB, JobPartitionStatus.COMPLETED))
+                .thenReturn(List.of(checkpoint(7L, 1, 10, 0, 0)));
+        BatchProcessor processor = (afterId, toId, batchSize) -> {
+            if (afterId >= 2) {
+                throw new IllegalStateException("poison row");
+            }
+            return new BatchResult(afterId + batchSize, batchSize);
+        };
+
+        long processed = runner.run(JOB, 1L, 10L, 3, 2, 2, processor);
+
+        assertEquals(0, processed);
+        verify(checkpointRepository).advance(eq(7L), eq(2L), eq(2L), eq(JobPartitionStatus.RUNNING), isNull(), any());
+        verify(checkpointRepository).recordFailure(eq(7L), eq(2L), eq(JobPartitionStatus.FAILED), eq("poison row"), any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void run_ShouldAbandonRunOnceAPartitionFailedTooOften() {
+        JobCheckpoint poisoned = checkpoint(7L, 1, 10, 4, 3);
+        poisoned.setErrorMessage("poison row");
+        when(checkpointRepository.findByJobNameAndStatusNotOrderByPartitionIndex(JOB, JobPartitionStatus.COMPLETED))
+                .thenReturn(List.of(checkpoint(6L, 11, 20, 12, 0), poisoned));
+        BatchProcessor processor = mock(BatchProcessor.class);
+
+        assertEquals(0, runner.run(JOB, 1L, 20L, 3, 2, 2, processor));
+
+        verify(checkpointRepository).deleteByJobName(JOB);
+        verifyNoInteractions(processor);
+    }
+
+    /**
+     * Processes every id of the range, like a table without gaps.
+     */
+    private static BatchProcessor everyId(List<Long> seen) {
+        return (afterId, toId, batchSize) -> {
+            long last = Math.min(toId, afterId + batchSize);
+            for (long id = afterId + 1; id <= last; id++) {
+                seen.add(id);
+            }
+            return last > afterId ? new BatchResult(last, (int) (last - afterId)) : BatchResult.empty();
+        };
+    }
+
+    private static JobCheckpoint checkpoint(Long id, long start, long end, long lastProcessedId, int failedAttempts) {
+        JobCheckpoint checkpoint = new JobCheckpoint();
+        checkpoint.setId(id);
+        checkpoint.setJobName(JOB);
+        checkpoint.setRunId("run");
+        checkpoint.setRangeStart(start);
+        checkpoint.setRangeEnd(end);
+        checkpoint.setLastProcessedId(lastProcessedId);
+        checkpoint.setStatus(failedAttempts > 0 ? JobPartitionStatus.FAILED : JobPartitionStatus.RUNNING);
+        checkpoint.setFailedAttempts(failedAttempts);
+        return checkpoint;
+    }
+}
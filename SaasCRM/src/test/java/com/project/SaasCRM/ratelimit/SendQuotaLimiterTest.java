@@ -0,0 +1,110 @@
+package com.project.SaasCRM.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SendQuotaLimiterTest {
+
+    private static final int NODES = 2;
+
+    @Mock
+    private RedisSendQuota redisQuota;
+
+    private SendQuotaLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisQuota.getMaxPerHour()).thenReturn(100);
+        lenient().when(redisQuota.getMaxPerDay()).thenReturn(1000);
+        limiter = new SendQuotaLimiter(redisQuota, NODES, 100, 5000);
+    }
+
+    @Test
+    void acquire_ShouldGrantWithinBudgetWithoutRedisCall() {
+        when(redisQuota.acquire(anyMap(), anyMap()))
+                .thenReturn(Map.of("a@x.com", new RedisSendQuota.Grant(1, 60)));
+        assertEquals(1, limiter.acquire(Map.of("a@x.com", 1)).get("a@x.com"));
+
+        // Budget is this node's share of the 60 left
+        assertEquals(30, limiter.acquire(Map.of("a@x.com", 30)).get("a@x.com"));
+
+        verify(redisQuota, times(1)).acquire(anyMap(), anyMap());
+    }
+
+    @Test
+    void remaining_ShouldAnswerFromLastSyncWithoutRedisCall() {
+        when(redisQuota.acquire(anyMap(), anyMap()))
+                .thenReturn(Map.of("a@x.com", new RedisSendQuota.Grant(1, 60)));
+        limiter.acquire(Map.of("a@x.com", 1));
+        limiter.acquire(Map.of("a@x.com", 5));
+        limiter.record("a@x.com");
+
+        assertEquals(54, limiter.remaining("a@x.com"));
+        assertEquals(100, limiter.remaining("new@x.com"));
+        verify(redisQuota, times(1)).acquire(anyMap(), anyMap());
+    }
+
+    @Test
+    void acquire_ShouldEnforcePerNodeQuotaWhenRedisFails() {
+        when(redisQuota.acquire(anyMap(), anyMap())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertEquals(100 / NODES, limiter.acquire(Map.of("a@x.com", 80)).get("a@x.com"));
+        assertFalse(limiter.isRedisAvailable());
+        assertEquals(0, limiter.acquire(Map.of("a@x.com", 1)).get("a@x.com"));
+        assertEquals(0, limiter.remaining("a@x.com"));
+
+        // Local-only enforcement does not keep retrying Redis on every send
+        verify(redisQuota, times(1)).acquire(anyMap(), anyMap());
+    }
+
+    @Test
+    void sync_ShouldPushPendingCountsKeptWhileRedisWasDown() {
+        when(redisQuota.acquire(anyMap(), anyMap()))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenThrow(new RedisConnectionFailureException("still down"))
+                .thenReturn(Map.of("a@x.com", new RedisSendQuota.Grant(0, 40)));
+        limiter.acquire(Map.of("a@x.com", 10));
+        limiter.sync();
+        assertFalse(limiter.isRedisAvailable());
+
+        limiter.sync();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Integer>> sent = ArgumentCaptor.forClass(Map.class);
+        verify(redisQuota, times(3)).acquire(anyMap(), sent.capture());
+        assertEquals(10, sent.getValue().get("a@x.com"));
+        assertTrue(limiter.isRedisAvailable());
+        assertEquals(40, limiter.remaining("a@x.com"));
+    }
+
+    @Test
+    void eviction_ShouldKeepEntriesWithPendingCounts() {
+        limiter = new SendQuotaLimiter(redisQuota, NODES, 1, 0);
+        when(redisQuota.acquire(anyMap(), anyMap()))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenReturn(Map.of("a@x.com", new RedisSendQuota.Grant(0, 40)));
+        limiter.acquire(Map.of("a@x.com", 10));
+
+        // Over the bound of one entry, but a@x.com still has sends to push
+        limiter.remaining("b@x.com");
+        limiter.remaining("c@x.com");
+        limiter.sync();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Integer>> sent = ArgumentCaptor.forClass(Map.class);
+        verify(redisQuota, times(2)).acquire(anyMap(), sent.capture());
+        assertEquals(10, sent.getValue().get("a@x.com"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.project.SaasCRM.segment;
+
+import com.project.SaasCRM.domain.CustomerStatus;
+import com.project.SaasCRM.domain.SegmentField;
+import com.project.SaasCRM.domain.SegmentOperator;
+import com.project.SaasCRM.domain.dto.SegmentFilterDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentFilterCompilerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 6, 15, 12, 0);
+
+    @Test
+    void not_ShouldOnlyMatchLiveRowsOfPartialBlock() {
+        // One full 64-row block and a partial one of 6 rows
+        CustomerColumnStore store = store(70, id -> row(id).status(id % 2 == 0 ? CustomerStatus.ACTIVE : CustomerStatus.LEAD));
+        store.remove(3);
+
+        SegmentMatch match = evaluate(store, not(leaf(SegmentField.STATUS, SegmentOperator.IN, "ACTIVE")));
+
+        assertIds(LongStream.rangeClosed(1, 70).filter(id -> id % 2 == 1 && id != 3), match);
+    }
+
+    @Test
+    void not_ShouldOnlyMatchLiveRowsWhenScanningInParallel() {
+        // Enough rows for the parallel scan, ending part way through a block
+        int rows = 2 * 1024 * 64 + 37;
+        CustomerColumnStore store = store(rows, id -> row(id).openDealCount((int) (id % 3)));
+
+        SegmentMatch match = evaluate(store, not(not(not(leaf(SegmentField.OPEN_DEAL_COUNT, SegmentOperator.GTE, "1")))));
+
+        assertEquals(LongStream.rangeClosed(1, rows).filter(id -> id % 3 == 0).count(), match.getCount());
+    }
+
+    @Test
+    void olderThanDays_ShouldMatchNeverContactedCustomers() {
+        CustomerColumnStore store = store(4, id -> row(id).lastContact(switch ((int) id) {
+            case 1 -> null;
+            case 2 -> NOW.minusDays(30);
+            case 3 -> NOW.minusDays(30).minusNanos(1_000_000);
+            default -> NOW.minusDays(2);
+        }));
+
+        assertIds(LongStream.of(1, 3), evaluate(store, leaf(SegmentField.LAST_CONTACT, SegmentOperator.OLDER_THAN_DAYS, "30")));
+        assertIds(LongStream.of(2, 3, 4), evaluate(store, leaf(SegmentField.LAST_CONTACT, SegmentOperator.WITHIN_DAYS, "31")));
+        assertIds(LongStream.of(1), evaluate(store, leaf(SegmentField.LAST_CONTACT, SegmentOperator.IS_EMPTY)));
+    }
+
+    @Test
+    void notIn_ShouldMatchCustomersWithoutStatus() {
+        CustomerColumnStore store = store(3, id -> row(id).status(switch ((int) id) {
+            case 1 -> null;
+            case 2 -> CustomerStatus.CHURNED;
+            default -> CustomerStatus.ACTIVE;
+        }));
+
+        assertIds(LongStream.of(1, 3), evaluate(store, leaf(SegmentField.STATUS, SegmentOperator.NOT_IN, "churned")));
+        assertIds(LongStream.of(2), evaluate(store, leaf(SegmentField.STATUS, SegmentOperator.IN, "CHURNED")));
+        assertIds(LongStream.of(1), evaluate(store, leaf(SegmentField.STATUS, SegmentOperator.IS_EMPTY)));
+    }
+
+    @Test
+    void groups_ShouldCombineChildMasks() {
+        CustomerColumnStore store = store(100, id -> row(id)
+                .openDealValue(id * 10d)
+                .assignedUserIds(id % 5 == 0 ? new long[]{7L, 8L} : null));
+
+        SegmentFilterDTO filter = SegmentFilterDTO.builder()
+                .operator(SegmentOperator.OR)
+                .children(List.of(
+                        SegmentFilterDTO.builder()
+                                .operator(SegmentOperator.AND)
+                                .children(List.of(
+                                        leaf(SegmentField.ASSIGNED_USER, SegmentOperator.IN, "8"),
+                                        leaf(SegmentField.OPEN_DEAL_VALUE, SegmentOperator.LTE, "500")))
+                                .build(),
+                        leaf(SegmentField.OPEN_DEAL_VALUE, SegmentOperator.GTE, "990")))
+                .build();
+
+        assertIds(LongStream.of(5, 10, 15, 20, 25, 30, 35, 40, 45, 50, 99, 100), evaluate(store, filter));
+    }
+
+    @Test
+    void evaluate_ShouldPageMatchesInIdOrder() {
+        CustomerColumnStore store = store(200, id -> row(id).interactionCount((int) id));
+
+        SegmentMatch match = store.evaluate(SegmentFilterCompiler.compile(
+                leaf(SegmentField.INTERACTION_COUNT, SegmentOperator.GTE, "51"), NOW), 60, 5);
+
+        assertEquals(150, match.getCount());
+        assertArrayEquals(new long[]{111, 112, 113, 114, 115}, match.getCustomerIds());
+    }
+
+    @Test
+    void compile_ShouldRejectInvalidFilters() {
+        assertThrows(IllegalArgumentException.class, () -> SegmentFilterCompiler.compile(SegmentFilterDTO.builder()
+                .operator(SegmentOperator.NOT)
+                .children(List.of(leaf(SegmentField.STATUS, SegmentOperator.IS_EMPTY), leaf(SegmentField.STATUS, SegmentOperator.IS_EMPTY)))
+                .build(), NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> SegmentFilterCompiler.compile(leaf(SegmentField.STATUS, SegmentOperator.IN, "UNKNOWN"), NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> SegmentFilterCompiler.compile(leaf(SegmentField.STATUS, SegmentOperator.GTE, "1"), NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> SegmentFilterCompiler.compile(leaf(SegmentField.LAST_CONTACT, SegmentOperator.WITHIN_DAYS, "1", "2"), NOW));
+
+        SegmentFilterDTO deep = leaf(SegmentField.STATUS, SegmentOperator.IS_EMPTY);
+        for (int i = 0; i < 20; i++) {
+            deep = not(deep);
+        }
+        SegmentFilterDTO tooDeep = deep;
+        assertThrows(IllegalArgumentException.class, () -> SegmentFilterCompiler.compile(tooDeep, NOW));
+    }
+
+    private static CustomerColumnStore store(int rows, LongFunction<CustomerSnapshotRow.CustomerSnapshotRowBuilder> rowFor) {
+        CustomerColumnStore store = new CustomerColumnStore(rows);
+        for (long id = 1; id <= rows; id++) {
+            store.upsert(rowFor.apply(id).build());
+        }
+        return store;
+    }
+
+    private static CustomerSnapshotRow.CustomerSnapshotRowBuilder row(long id) {
+        return CustomerSnapshotRow.builder()
+                .id(id)
+                .status(CustomerStatus.ACTIVE)
+                .createdAt(NOW.minusYears(1))
+                .lastContact(NOW.minusDays(1));
+    }
+
+    private static SegmentMatch evaluate(CustomerColumnStore store, SegmentFilterDTO filter) {
+        return store.evaluate(SegmentFilterCompiler.compile(filter, NOW), 0, Integer.MAX_VALUE);
+    }
+
+    private static SegmentFilterDTO leaf(SegmentField field, SegmentOperator operator, String... values) {
+        return SegmentFilterDTO.builder().field(field).operator(operator).values(List.of(values)).build();
+    }
+
+    private static SegmentFilterDTO not(SegmentFilterDTO child) {
+        return SegmentFilterDTO.builder().operator(SegmentOperator.NOT).children(List.of(child)).build();
+    }
+
+    private static void assertIds(LongStream expected, SegmentMatch match) {
+        long[] ids = expected.toArray();
+        assertEquals(ids.length, match.getCount());
+        assertArrayEquals(ids, match.getCustomerIds());
+    }
+}
@@ -0,0 +1,132 @@
+package com.project.SaasCRM.task;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchicalTimerWheelTest {
+
+    private final HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(1, 3, 0);
+
+    @Test
+    void advance_ShouldFireEntriesOfAllLevelsInDeadlineOrder() {
+        wheel.schedule(1, 5000);
+        wheel.schedule(2, 70);
+        wheel.schedule(3, 10);
+        wheel.schedule(4, 300);
+
+        assertEquals(List.of(3L, 2L, 4L, 1L), wheel.advance(10_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_ShouldCascadeEntryDownToItsExactTick() {
+        // Two levels up, so it moves down at tick 4096 and fires eleven ticks later
+        wheel.schedule(1, 4107);
+
+        assertEquals(List.of(), wheel.advance(4095));
+        assertEquals(List.of(), wheel.advance(4096));
+        assertEquals(List.of(), wheel.advance(4106));
+        assertTrue(wheel.contains(1));
+        assertEquals(List.of(1L), wheel.advance(4107));
+        assertFalse(wheel.contains(1));
+    }
+
+    @Test
+    void advance_ShouldFireEachEntryOnceInOrderWhateverTheStepSize() {
+        Random random = new Random(42);
+        Map<Long, Long> idsByDeadline = new TreeMap<>();
+        while (idsByDeadline.size() < 500) {
+            idsByDeadline.putIfAbsent(1 + (long) random.nextInt(200_000), (long) idsByDeadline.size());
+        }
+        idsByDeadline.forEach((deadline, id) -> assertTrue(wheel.schedule(id, deadline)));
+
+        Map<Long, Long> deadlinesById = new TreeMap<>();
+        idsByDeadline.forEach((deadline, id) -> deadlinesById.put(id, deadline));
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 200_000; now += 1 + random.nextInt(3000)) {
+            for (Long id : wheel.advance(now)) {
+                assertTrue(deadlinesById.get(id) <= now, "fired early");
+                fired.add(id);
+            }
+        }
+        fired.addAll(wheel.advance(200_000));
+
+        assertEquals(new ArrayList<>(idsByDeadline.values()), fired);
+    }
+
+    @Test
+    void cancel_ShouldRemoveEntryFromAnyLevel() {
+        wheel.schedule(1, 30);
+        wheel.schedule(2, 1000);
+        wheel.schedule(3, 100_000);
+
+        assertTrue(wheel.cancel(2));
+        assertTrue(wheel.cancel(3));
+        assertFalse(wheel.cancel(3));
+        assertFalse(wheel.cancel(4));
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(1L), wheel.advance(200_000));
+    }
+
+    @Test
+    void cancel_ShouldRemoveEntryAfterItCascaded() {
+        wheel.schedule(1, 100);
+        wheel.advance(64);
+
+        assertTrue(wheel.cancel(1));
+        assertEquals(List.of(), wheel.advance(200));
+    }
+
+    @Test
+    void schedule_ShouldReplaceEarlierSchedule() {
+        wheel.schedule(1, 5000);
+        wheel.schedule(1, 50);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(1L), wheel.advance(60));
+        assertEquals(List.of(), wheel.advance(10_000));
+    }
+
+    @Test
+    void schedule_ShouldFirePastDeadlineOnNextAdvance() {
+        HierarchicalTimerWheel started = new HierarchicalTimerWheel(1, 3, 1000);
+        started.schedule(1, 500);
+
+        assertEquals(List.of(1L), started.advance(1000));
+    }
+
+    @Test
+    void schedule_ShouldRejectDeadlineBeyondHorizon() {
+        long horizon = wheel.horizonMillis();
+        wheel.schedule(1, 10);
+
+        assertTrue(wheel.schedule(2, horizon));
+        assertFalse(wheel.schedule(1, horizon + 1));
+        assertFalse(wheel.contains(1));
+        assertEquals(List.of(2L), wheel.advance(horizon));
+    }
+
+    @Test
+    void advance_ShouldFireWholeTickAtOnce() {
+        HierarchicalTimerWheel coarse = new HierarchicalTimerWheel(10, 3, 0);
+        coarse.schedule(1, 25);
+
+        assertEquals(List.of(), coarse.advance(19));
+        assertEquals(List.of(1L), coarse.advance(20));
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidGeometry() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimerWheel(0, 3, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimerWheel(1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimerWheel(1, 11, 0));
+    }
+}
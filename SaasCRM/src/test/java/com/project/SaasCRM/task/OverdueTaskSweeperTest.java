@@ -0,0 +1,164 @@
+package com.project.SaasCRM.task;
+
+import com.project.SaasCRM.domain.TaskPriority;
+import com.project.SaasCRM.domain.TaskStatus;
+import com.project.SaasCRM.domain.TaskType;
+import com.project.SaasCRM.domain.event.TaskChangedEvent;
+import com.project.SaasCRM.job.PartitionedJobRunner;
+import com.project.SaasCRM.job.PartitionedJobRunner.BatchProcessor;
+import com.project.SaasCRM.job.PartitionedJobRunner.BatchResult;
+import com.project.SaasCRM.repository.TaskRepository;
+import com.project.SaasCRM.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OverdueTaskSweeperTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2026, 1, 5, 9, 0);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PartitionedJobRunner jobRunner;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskExecutor backgroundJobs;
+
+    private OverdueTaskSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new OverdueTaskSweeper(taskRepository, jobRunner, notificationService, eventPublisher,
+                backgroundJobs);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void run_ShouldSweepWholeTaskIdSpace() {
+        when(taskRepository.findIdBounds()).thenReturn(List.<Object[]>of(new Object[]{3L, 90L}));
+
+        sweeper.run();
+
+        verify(jobRunner).run(eq(OverdueTaskSweeper.JOB_NAME), eq(3L), eq(90L), anyInt(), anyInt(), anyInt(), any());
+        assertFalse(sweeper.isRunning());
+    }
+
+    @Test
+    void run_ShouldPassEmptyIdSpaceWhenThereAreNoTasks() {
+        when(taskRepository.findIdBounds()).thenReturn(List.of());
+
+        sweeper.run();
+
+        verify(jobRunner).run(eq(OverdueTaskSweeper.JOB_NAME), isNull(), isNull(), anyInt(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void triggerAsync_ShouldClaimBeforeHandingTheSweepToTheExecutor() {
+        when(taskRepository.findIdBounds()).thenReturn(List.of());
+        ArgumentCaptor<Runnable> sweep = ArgumentCaptor.forClass(Runnable.class);
+
+        assertTrue(sweeper.triggerAsync());
+        // Already claimed while the first sweep is still queued
+        assertFalse(sweeper.triggerAsync());
+        sweeper.run();
+
+        verify(backgroundJobs).execute(sweep.capture());
+        verifyNoInteractions(jobRunner);
+        assertTrue(sweeper.isRunning());
+
+        sweep.getValue().run();
+
+        verify(jobRunner).run(eq(OverdueTaskSweeper.JOB_NAME), isNull(), isNull(), anyInt(), anyInt(), anyInt(), any());
+        assertFalse(sweeper.isRunning());
+    }
+
+    @Test
+    void triggerAsync_ShouldReleaseClaimWhenExecutorIsFull() {
+        doThrow(new RejectedExecutionException("full")).when(backgroundJobs).execute(any());
+
+        assertFalse(sweeper.triggerAsync());
+
+        assertFalse(sweeper.isRunning());
+    }
+
+    @Test
+    void batch_ShouldEscalateClaimedTasksAndNotifyAfterCommit() {
+        when(taskRepository.findEscalationCandidatesBetween(eq(0L), eq(100L), any(), eq(TaskStatisticsCache.OPEN_STATUSES), any()))
+                .thenReturn(List.of(
+                        row(1L, TaskPriority.MEDIUM, 7L),
+                        row(2L, TaskPriority.URGENT, null),
+                        row(3L, TaskPriority.LOW, 8L)));
+        when(taskRepository.escalateIfOverdue(eq(1L), eq(TaskPriority.HIGH), any(), any())).thenReturn(1);
+        when(taskRepository.escalateIfOverdue(eq(2L), eq(TaskPriority.URGENT), any(), any())).thenReturn(1);
+        // Escalated by another node since the batch was read
+        when(taskRepository.escalateIfOverdue(eq(3L), eq(TaskPriority.MEDIUM), any(), any())).thenReturn(0);
+
+        BatchResult result = sweepBatch(0L, 100L, 10);
+
+        assertEquals(new BatchResult(3L, 3), result);
+        ArgumentCaptor<TaskChangedEvent> events = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(1L, 2L), events.getAllValues().stream().map(TaskChangedEvent::getTaskId).toList());
+        assertEquals(TaskPriority.MEDIUM, events.getAllValues().get(0).getBefore().getPriority());
+        assertEquals(TaskPriority.HIGH, events.getAllValues().get(0).getAfter().getPriority());
+        assertEquals(TaskStatus.PENDING, events.getAllValues().get(0).getAfter().getStatus());
+        verifyNoInteractions(notificationService);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(notificationService).sendReminderNotification(eq(7L), eq("TASK"), eq(1L), eq(DUE), anyString());
+        verifyNoMoreInteractions(notificationService);
+    }
+
+    @Test
+    void batch_ShouldReturnEmptyResultWhenNothingIsOverdue() {
+        when(taskRepository.findEscalationCandidatesBetween(anyLong(), anyLong(), any(), any(), any())).thenReturn(List.of());
+
+        assertEquals(BatchResult.empty(), sweepBatch(0L, 100L, 10));
+
+        verify(taskRepository, never()).escalateIfOverdue(any(), any(), any(), any());
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    private BatchResult sweepBatch(long afterId, long toId, int limit) {
+        when(taskRepository.findIdBounds()).thenReturn(List.<Object[]>of(new Object[]{1L, 100L}));
+        sweeper.run();
+        ArgumentCaptor<BatchProcessor> processor = ArgumentCaptor.forClass(BatchProcessor.class);
+        verify(jobRunner).run(any(), any(), any(), anyInt(), anyInt(), anyInt(), processor.capture());
+        return processor.getValue().process(afterId, toId, limit);
+    }
+
+    private static Object[] row(Long id, TaskPriority priority, Long assigneeId) {
+        return new Object[]{id, "Task " + id, TaskStatus.PENDING, priority, TaskType.TASK, assigneeId, DUE, null};
+    }
+}
@@ -0,0 +1,104 @@
+package com.project.SaasCRM.task;
+
+import com.project.SaasCRM.domain.RecurrenceFrequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecurrenceRuleTest {
+
+    private static final LocalDateTime FAR = LocalDateTime.of(2040, 1, 1, 0, 0);
+
+    @Test
+    void monthly_ShouldClampEndOfMonthWithoutDrifting() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.MONTHLY, 1, null,
+                at(2026, 1, 31), null, null);
+
+        assertEquals(List.of(at(2026, 1, 31), at(2026, 2, 28), at(2026, 3, 31), at(2026, 4, 30)),
+                rule.between(null, at(2026, 4, 30)));
+    }
+
+    @Test
+    void monthly_ShouldLandOnLeapDay() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.MONTHLY, 1, null,
+                at(2028, 1, 31), null, null);
+
+        assertEquals(at(2028, 2, 29), rule.nextAfter(at(2028, 1, 31)));
+        assertEquals(at(2028, 3, 31), rule.nextAfter(at(2028, 2, 29)));
+    }
+
+    @Test
+    void monthly_ShouldClampEveryIntervalFromTheStart() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.MONTHLY, 3, null,
+                at(2025, 11, 30), null, null);
+
+        assertEquals(List.of(at(2025, 11, 30), at(2026, 2, 28), at(2026, 5, 30), at(2026, 8, 30)),
+                rule.between(null, at(2026, 9, 1)));
+    }
+
+    @Test
+    void maxOccurrences_ShouldCountFromTheStartWhateverTheWindow() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.DAILY, 1, null,
+                at(2026, 3, 1), null, 3);
+
+        assertEquals(List.of(at(2026, 3, 1), at(2026, 3, 2), at(2026, 3, 3)), rule.between(null, FAR));
+        assertEquals(List.of(at(2026, 3, 3)), rule.between(at(2026, 3, 2), FAR));
+        assertEquals(at(2026, 3, 3), rule.nextAfter(at(2026, 3, 2)));
+        assertNull(rule.nextAfter(at(2026, 3, 3)));
+        assertEquals(List.of(), rule.between(at(2026, 3, 10), FAR));
+    }
+
+    @Test
+    void maxOccurrences_ShouldCountWeeklyOccurrencesOnOrAfterTheStart() {
+        // Starts on a Wednesday, so that week's Monday does not count
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.WEEKLY, 2,
+                EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY),
+                at(2026, 3, 4), null, 4);
+
+        assertEquals(List.of(at(2026, 3, 4), at(2026, 3, 6), at(2026, 3, 16), at(2026, 3, 18)),
+                rule.between(null, FAR));
+        assertNull(rule.nextAfter(at(2026, 3, 18)));
+    }
+
+    @Test
+    void untilAt_ShouldEndSeriesInclusively() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.WEEKLY, 1, null,
+                at(2026, 3, 2), at(2026, 3, 16), null);
+
+        assertEquals(List.of(at(2026, 3, 2), at(2026, 3, 9), at(2026, 3, 16)), rule.between(null, FAR));
+        assertNull(rule.nextAfter(at(2026, 3, 16)));
+    }
+
+    @Test
+    void untilAt_ShouldWinOverLargerOccurrenceCap() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.DAILY, 2, null,
+                at(2026, 3, 1), at(2026, 3, 6), 10);
+
+        assertEquals(List.of(at(2026, 3, 1), at(2026, 3, 3), at(2026, 3, 5)), rule.between(null, FAR));
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidRules() {
+        LocalDateTime start = at(2026, 3, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecurrenceRule(null, 1, null, start, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecurrenceRule(RecurrenceFrequency.DAILY, 0, null, start, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecurrenceRule(RecurrenceFrequency.DAILY, 1, null, start, start.minusDays(1), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecurrenceRule(RecurrenceFrequency.DAILY, 1, null, start, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecurrenceRule(RecurrenceFrequency.MONTHLY, 1, Set.of(DayOfWeek.MONDAY), start, null, null));
+    }
+
+    private static LocalDateTime at(int year, int month, int day) {
+        return LocalDateTime.of(year, month, day, 9, 30);
+    }
+}